@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.serialization.Codec;
+import hu.bme.mit.theta.analysis.serialization.SnapshotInput;
+import hu.bme.mit.theta.analysis.serialization.SnapshotOutput;
+
+/**
+ * Writes and reads ARGs to and from snapshots. States are written with a
+ * codec, while actions are identified by their index among the enabled actions
+ * of the source state, therefore the LTS must enumerate the actions in the
+ * same order when the ARG is read back. The number of enabled actions is also
+ * stored, so that some mismatching LTSs are detected when reading.
+ */
+public final class ArgSerializer {
+
+	private ArgSerializer() {
+	}
+
+	public static <S extends State, A extends Action> void write(final ARG<S, A> arg,
+			final LTS<? super S, ? extends A> lts, final Codec<S> stateCodec, final SnapshotOutput out)
+			throws IOException {
+		checkNotNull(arg);
+		checkNotNull(lts);
+		checkNotNull(stateCodec);
+		checkNotNull(out);
+
+		final List<ArgNode<S, A>> nodes = arg.getNodes().sorted(Comparator.comparingInt(ArgNode::getId))
+				.collect(toList());
+		final Map<ArgNode<S, A>, Integer> indexes = new HashMap<>();
+
+		out.writeBoolean(arg.isInitialized());
+		out.writeInt(nodes.size());
+		for (final ArgNode<S, A> node : nodes) {
+			indexes.put(node, indexes.size());
+			if (node.getInEdge().isPresent()) {
+				final ArgEdge<S, A> inEdge = node.getInEdge().get();
+				final ArgNode<S, A> parent = inEdge.getSource();
+				final List<? extends A> actions = new ArrayList<>(lts.getEnabledActionsFor(parent.getState()));
+				final int actionIndex = actions.indexOf(inEdge.getAction());
+				if (actionIndex < 0) {
+					throw new IOException("Action " + inEdge.getAction() + " is not enabled by the LTS.");
+				}
+				out.writeInt(indexes.get(parent));
+				out.writeInt(actionIndex);
+				out.writeInt(actions.size());
+			} else {
+				out.writeInt(-1);
+			}
+			out.write(node.getState(), stateCodec);
+			out.writeBoolean(node.isTarget());
+			out.writeBoolean(node.isExpanded());
+		}
+
+		for (final ArgNode<S, A> node : nodes) {
+			if (node.getCoveringNode().isPresent()) {
+				out.writeInt(indexes.get(node.getCoveringNode().get()));
+			} else {
+				out.writeInt(-1);
+			}
+		}
+	}
+
+	/**
+	 * Reads the nodes of a snapshot into an empty ARG (e.g., one created by an
+	 * abstractor).
+	 */
+	public static <S extends State, A extends Action> void read(final ARG<S, A> arg,
+			final LTS<? super S, ? extends A> lts, final Codec<S> stateCodec, final SnapshotInput in)
+			throws IOException {
+		checkNotNull(arg);
+		checkNotNull(lts);
+		checkNotNull(stateCodec);
+		checkNotNull(in);
+		checkArgument(!arg.getInitNodes().findAny().isPresent(), "ARG is not empty");
+
+		final boolean initialized = in.readBoolean();
+		final int size = in.readInt();
+		checkFormat(size >= 0, "Negative number of nodes");
+		final List<ArgNode<S, A>> nodes = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			final int parentIndex = in.readInt();
+			final ArgNode<S, A> node;
+			if (parentIndex < 0) {
+				final S state = in.read(stateCodec);
+				final boolean target = in.readBoolean();
+				node = arg.createInitNode(state, target);
+			} else {
+				checkFormat(parentIndex < i, "Invalid parent index " + parentIndex);
+				final ArgNode<S, A> parent = nodes.get(parentIndex);
+				final int actionIndex = in.readInt();
+				final int nActions = in.readInt();
+				final List<? extends A> actions = new ArrayList<>(lts.getEnabledActionsFor(parent.getState()));
+				checkFormat(nActions == actions.size(), "Enabled actions do not match the LTS");
+				checkFormat(actionIndex >= 0 && actionIndex < actions.size(), "Invalid action index " + actionIndex);
+				final S state = in.read(stateCodec);
+				final boolean target = in.readBoolean();
+				node = arg.createSuccNode(parent, actions.get(actionIndex), state, target);
+			}
+			node.expanded = in.readBoolean();
+			nodes.add(node);
+		}
+
+		for (final ArgNode<S, A> node : nodes) {
+			final int coveringIndex = in.readInt();
+			if (coveringIndex >= 0) {
+				checkFormat(coveringIndex < size, "Invalid covering node index " + coveringIndex);
+				node.setCoveringNode(nodes.get(coveringIndex));
+			}
+		}
+
+		arg.initialized = initialized;
+	}
+
+	private static void checkFormat(final boolean condition, final String message) throws IOException {
+		if (!condition) {
+			throw new IOException("Invalid ARG snapshot: " + message);
+		}
+	}
+
+}
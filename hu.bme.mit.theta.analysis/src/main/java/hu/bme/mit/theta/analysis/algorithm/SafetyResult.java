@@ -58,14 +58,27 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 		return new Unsafe<>(cex, arg, Optional.of(stats));
 	}
 
+	/**
+	 * The result of a check that was stopped (e.g., by a budget) before it
+	 * could decide safety.
+	 */
+	public static <S extends State, A extends Action> Unknown<S, A> unknown(final ARG<S, A> arg,
+			final Statistics stats) {
+		return new Unknown<>(arg, Optional.of(stats));
+	}
+
 	public abstract boolean isSafe();
 
 	public abstract boolean isUnsafe();
 
+	public abstract boolean isUnknown();
+
 	public abstract Safe<S, A> asSafe();
 
 	public abstract Unsafe<S, A> asUnsafe();
 
+	public abstract Unknown<S, A> asUnknown();
+
 	////
 
 	public static final class Safe<S extends State, A extends Action> extends SafetyResult<S, A> {
@@ -88,12 +101,23 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 			return this;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Unsafe<S, A> asUnsafe() {
 			throw new ClassCastException(
 					"Cannot cast " + Safe.class.getSimpleName() + " to " + Unsafe.class.getSimpleName());
 		}
 
+		@Override
+		public Unknown<S, A> asUnknown() {
+			throw new ClassCastException(
+					"Cannot cast " + Safe.class.getSimpleName() + " to " + Unknown.class.getSimpleName());
+		}
+
 		@Override
 		public String toString() {
 			return Utils.lispStringBuilder(SafetyResult.class.getSimpleName()).add(Safe.class.getSimpleName())
@@ -129,11 +153,22 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 					"Cannot cast " + Unsafe.class.getSimpleName() + " to " + Safe.class.getSimpleName());
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Unsafe<S, A> asUnsafe() {
 			return this;
 		}
 
+		@Override
+		public Unknown<S, A> asUnknown() {
+			throw new ClassCastException(
+					"Cannot cast " + Unsafe.class.getSimpleName() + " to " + Unknown.class.getSimpleName());
+		}
+
 		@Override
 		public String toString() {
 			return Utils.lispStringBuilder(SafetyResult.class.getSimpleName()).add(Unsafe.class.getSimpleName())
@@ -141,4 +176,48 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 		}
 	}
 
+	public static final class Unknown<S extends State, A extends Action> extends SafetyResult<S, A> {
+		private Unknown(final ARG<S, A> arg, final Optional<Statistics> stats) {
+			super(arg, stats);
+		}
+
+		@Override
+		public boolean isSafe() {
+			return false;
+		}
+
+		@Override
+		public boolean isUnsafe() {
+			return false;
+		}
+
+		@Override
+		public Safe<S, A> asSafe() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Safe.class.getSimpleName());
+		}
+
+		@Override
+		public boolean isUnknown() {
+			return true;
+		}
+
+		@Override
+		public Unsafe<S, A> asUnsafe() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Unsafe.class.getSimpleName());
+		}
+
+		@Override
+		public Unknown<S, A> asUnknown() {
+			return this;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(SafetyResult.class.getSimpleName()).add(Unknown.class.getSimpleName())
+					.toString();
+		}
+	}
+
 }
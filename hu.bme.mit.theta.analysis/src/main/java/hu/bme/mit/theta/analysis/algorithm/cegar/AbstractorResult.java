@@ -19,34 +19,56 @@ import hu.bme.mit.theta.common.Utils;
 
 /**
  * Represents the result of the Abstractor component, that can be either safe or
- * unsafe.
+ * unsafe, or incomplete if the abstraction was stopped early.
  */
 public final class AbstractorResult {
 
-	private final boolean safe;
+	private enum Status {
+		SAFE, UNSAFE, INCOMPLETE
+	}
+
+	private final Status status;
 
 	public AbstractorResult(final boolean safe) {
-		this.safe = safe;
+		this(safe ? Status.SAFE : Status.UNSAFE);
+	}
+
+	private AbstractorResult(final Status status) {
+		this.status = status;
 	}
 
 	public static AbstractorResult safe() {
-		return new AbstractorResult(true);
+		return new AbstractorResult(Status.SAFE);
 	}
 
 	public static AbstractorResult unsafe() {
-		return new AbstractorResult(false);
+		return new AbstractorResult(Status.UNSAFE);
+	}
+
+	/**
+	 * The abstraction was stopped (e.g., by a budget) before the ARG was
+	 * complete, but the ARG has no unsafe nodes yet.
+	 */
+	public static AbstractorResult incomplete() {
+		return new AbstractorResult(Status.INCOMPLETE);
 	}
 
 	public boolean isSafe() {
-		return safe;
+		return status == Status.SAFE;
 	}
 
 	public boolean isUnsafe() {
-		return !isSafe();
+		return status == Status.UNSAFE;
+	}
+
+	public boolean isIncomplete() {
+		return status == Status.INCOMPLETE;
 	}
 
 	@Override
 	public String toString() {
-		return Utils.lispStringBuilder(getClass().getSimpleName()).add(isSafe() ? "Safe" : "Unsafe").toString();
+		final String name = status.name();
+		return Utils.lispStringBuilder(getClass().getSimpleName())
+				.add(name.charAt(0) + name.substring(1).toLowerCase()).toString();
 	}
 }
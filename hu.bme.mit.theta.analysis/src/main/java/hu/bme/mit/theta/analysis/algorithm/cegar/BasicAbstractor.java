@@ -91,7 +91,8 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		reachedSet.addAll(arg.getNodes());
 		waitlist.addAll(arg.getIncompleteNodes());
 
-		while (!waitlist.isEmpty() && !stopCriterion.canStop(arg)) {
+		boolean stopped = stopCriterion.canStop(arg);
+		while (!waitlist.isEmpty() && !stopped) {
 			final ArgNode<S, A> node = waitlist.remove();
 
 			close(node, reachedSet.get(node));
@@ -99,6 +100,7 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 				final Collection<ArgNode<S, A>> newNodes = argBuilder.expand(node, prec);
 				reachedSet.addAll(newNodes);
 				waitlist.addAll(newNodes);
+				stopped = stopCriterion.canStop(arg, newNodes);
 			}
 		}
 
@@ -109,6 +111,9 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		waitlist.clear(); // Optimization
 
 		if (arg.isSafe()) {
+			if (stopped && !arg.isComplete()) {
+				return AbstractorResult.incomplete();
+			}
 			checkState(arg.isComplete(), "Returning incomplete ARG as safe");
 			return AbstractorResult.safe();
 		} else {
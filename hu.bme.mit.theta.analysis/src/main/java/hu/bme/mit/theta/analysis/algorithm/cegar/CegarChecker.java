@@ -17,6 +17,7 @@ package hu.bme.mit.theta.analysis.algorithm.cegar;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
@@ -27,6 +28,7 @@ import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.cegar.CegarCheckpointer.Checkpoint;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
@@ -43,21 +45,35 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 	private final Abstractor<S, A, P> abstractor;
 	private final Refiner<S, A, P> refiner;
 	private final Logger logger;
+	private final Optional<CegarCheckpointer<S, A, P>> checkpointer;
 
-	private CegarChecker(final Abstractor<S, A, P> abstractor, final Refiner<S, A, P> refiner, final Logger logger) {
+	private CegarChecker(final Abstractor<S, A, P> abstractor, final Refiner<S, A, P> refiner, final Logger logger,
+			final Optional<CegarCheckpointer<S, A, P>> checkpointer) {
 		this.abstractor = checkNotNull(abstractor);
 		this.refiner = checkNotNull(refiner);
 		this.logger = checkNotNull(logger);
+		this.checkpointer = checkNotNull(checkpointer);
 	}
 
 	public static <S extends State, A extends Action, P extends Prec> CegarChecker<S, A, P> create(
 			final Abstractor<S, A, P> abstractor, final Refiner<S, A, P> refiner) {
-		return new CegarChecker<>(abstractor, refiner, NullLogger.getInstance());
+		return new CegarChecker<>(abstractor, refiner, NullLogger.getInstance(), Optional.empty());
 	}
 
 	public static <S extends State, A extends Action, P extends Prec> CegarChecker<S, A, P> create(
 			final Abstractor<S, A, P> abstractor, final Refiner<S, A, P> refiner, final Logger logger) {
-		return new CegarChecker<>(abstractor, refiner, logger);
+		return new CegarChecker<>(abstractor, refiner, logger, Optional.empty());
+	}
+
+	/**
+	 * Creates a checker that saves its progress with the checkpointer and
+	 * resumes from the last checkpoint (if any) instead of the initial
+	 * precision.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> CegarChecker<S, A, P> create(
+			final Abstractor<S, A, P> abstractor, final Refiner<S, A, P> refiner, final Logger logger,
+			final CegarCheckpointer<S, A, P> checkpointer) {
+		return new CegarChecker<>(abstractor, refiner, logger, Optional.of(checkpointer));
 	}
 
 	@Override
@@ -71,6 +87,18 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 		final ARG<S, A> arg = abstractor.createArg();
 		P prec = initPrec;
 		int iteration = 0;
+
+		if (checkpointer.isPresent()) {
+			final Optional<Checkpoint<P>> checkpoint = checkpointer.get().restore(arg, initPrec);
+			if (checkpoint.isPresent()) {
+				prec = checkpoint.get().getPrec();
+				iteration = checkpoint.get().getIteration();
+				if (iteration > 0) {
+					logger.write(Level.MAINSTEP, "Resuming from iteration %d%n", iteration);
+				}
+			}
+		}
+
 		do {
 			++iteration;
 
@@ -90,20 +118,26 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 
 				if (refinerResult.isSpurious()) {
 					prec = refinerResult.asSpurious().getRefinedPrec();
+					if (checkpointer.isPresent()) {
+						checkpointer.get().save(iteration, arg, prec);
+					}
 				}
 			}
-
-		} while (!abstractorResult.isSafe() && !refinerResult.isUnsafe());
+		} while (!abstractorResult.isSafe() && !abstractorResult.isIncomplete()
+				&& (refinerResult == null || !refinerResult.isUnsafe()));
 
 		stopwatch.stop();
 		SafetyResult<S, A> cegarResult = null;
 		final CegarStatistics stats = new CegarStatistics(stopwatch.elapsed(TimeUnit.MILLISECONDS), abstractorTime,
 				refinerTime, iteration);
 
-		assert abstractorResult.isSafe() || (refinerResult != null && refinerResult.isUnsafe());
+		assert abstractorResult.isSafe() || abstractorResult.isIncomplete()
+				|| (refinerResult != null && refinerResult.isUnsafe());
 
 		if (abstractorResult.isSafe()) {
 			cegarResult = SafetyResult.safe(arg, stats);
+		} else if (abstractorResult.isIncomplete()) {
+			cegarResult = SafetyResult.unknown(arg, stats);
 		} else if (refinerResult.isUnsafe()) {
 			cegarResult = SafetyResult.unsafe(refinerResult.asUnsafe().getCex(), arg, stats);
 		}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Optional;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+
+/**
+ * Interface for saving the progress of the CegarChecker after refinements and
+ * for restoring it when the checker is started again.
+ */
+public interface CegarCheckpointer<S extends State, A extends Action, P extends Prec> {
+
+	/**
+	 * Called after each spurious refinement with the pruned ARG and the
+	 * refined precision.
+	 */
+	void save(int iteration, ARG<S, A> arg, P prec);
+
+	/**
+	 * Restores the last saved checkpoint (if any) into an empty ARG and
+	 * returns the corresponding iteration and precision. The ARG may also be
+	 * left empty if only the precision is restored, in which case the
+	 * returned precision should be at least as fine as the initial one.
+	 */
+	Optional<Checkpoint<P>> restore(ARG<S, A> arg, P initPrec);
+
+	final class Checkpoint<P extends Prec> {
+		private final int iteration;
+		private final P prec;
+
+		private Checkpoint(final int iteration, final P prec) {
+			checkArgument(iteration >= 0, "Negative iteration");
+			this.iteration = iteration;
+			this.prec = checkNotNull(prec);
+		}
+
+		public static <P extends Prec> Checkpoint<P> of(final int iteration, final P prec) {
+			return new Checkpoint<>(iteration, prec);
+		}
+
+		public int getIteration() {
+			return iteration;
+		}
+
+		public P getPrec() {
+			return prec;
+		}
+	}
+
+}
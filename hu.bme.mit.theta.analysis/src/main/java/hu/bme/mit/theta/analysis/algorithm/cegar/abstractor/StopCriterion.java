@@ -15,10 +15,34 @@
  */
 package hu.bme.mit.theta.analysis.algorithm.cegar.abstractor;
 
+import java.util.Collection;
+
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 
+/**
+ * Criterion for stopping the abstraction before the ARG is complete. The
+ * abstractor checks the whole ARG only once when it starts, and then notifies
+ * the criterion of the nodes created by each expansion, so that
+ * implementations can keep track of the ARG incrementally instead of
+ * traversing it after each step. If a criterion stops the abstraction before
+ * the ARG is complete and has a counterexample (e.g., a budget is exhausted),
+ * the CEGAR loop ends with an unknown result.
+ */
 public interface StopCriterion<S extends State, A extends Action> {
+
+	/**
+	 * Checks if the abstraction can stop based on the whole ARG. This is
+	 * called when the abstraction starts, so stateful criteria should
+	 * (re)initialize their state here.
+	 */
 	boolean canStop(ARG<S, A> arg);
+
+	/**
+	 * Checks if the abstraction can stop after new nodes were added to the
+	 * ARG. This should not traverse the ARG.
+	 */
+	boolean canStop(ARG<S, A> arg, Collection<ArgNode<S, A>> newNodes);
 }
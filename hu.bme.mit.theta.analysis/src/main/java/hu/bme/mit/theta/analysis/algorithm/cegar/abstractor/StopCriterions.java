@@ -17,9 +17,16 @@ package hu.bme.mit.theta.analysis.algorithm.cegar.abstractor;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.common.Utils;
 
 public final class StopCriterions {
@@ -39,12 +46,61 @@ public final class StopCriterions {
 		return new AtLeastNCexs<>(n);
 	}
 
+	/**
+	 * Stop if the abstraction has been running for the given time.
+	 */
+	public static <S extends State, A extends Action> StopCriterion<S, A> timeBudget(final long time,
+			final TimeUnit unit) {
+		return new TimeBudget<>(unit.toNanos(time));
+	}
+
+	/**
+	 * Stop if the abstraction has created the given number of nodes.
+	 */
+	public static <S extends State, A extends Action> StopCriterion<S, A> nodeBudget(final int nodes) {
+		return new NodeBudget<>(nodes);
+	}
+
+	/**
+	 * Stop if the used heap memory exceeds the given number of bytes.
+	 */
+	public static <S extends State, A extends Action> StopCriterion<S, A> memoryBudget(final long bytes) {
+		return new MemoryBudget<>(bytes);
+	}
+
+	/**
+	 * Stop if any of the given criteria can stop. All criteria are notified of
+	 * the new nodes.
+	 */
+	public static <S extends State, A extends Action> StopCriterion<S, A> anyOf(
+			final List<? extends StopCriterion<S, A>> criteria) {
+		return new AnyOf<>(ImmutableList.copyOf(criteria));
+	}
+
+	////
+
+	private static <S extends State, A extends Action> int countUnsafe(final Collection<ArgNode<S, A>> nodes) {
+		int count = 0;
+		for (final ArgNode<S, A> node : nodes) {
+			// Only target nodes are checked for exclusion, which walks the ancestors
+			if (node.isTarget() && !node.isExcluded()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 	private static final class FirstCex<S extends State, A extends Action> implements StopCriterion<S, A> {
 		@Override
 		public boolean canStop(final ARG<S, A> arg) {
 			return arg.getUnsafeNodes().findAny().isPresent();
 		}
 
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			return countUnsafe(newNodes) > 0;
+		}
+
 		@Override
 		public String toString() {
 			return Utils.lispStringBuilder(StopCriterion.class.getSimpleName()).add(getClass().getSimpleName())
@@ -58,6 +114,11 @@ public final class StopCriterions {
 			return false;
 		}
 
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			return false;
+		}
+
 		@Override
 		public String toString() {
 			return Utils.lispStringBuilder(StopCriterion.class.getSimpleName()).add(getClass().getSimpleName())
@@ -67,17 +128,29 @@ public final class StopCriterions {
 
 	private static final class AtLeastNCexs<S extends State, A extends Action> implements StopCriterion<S, A> {
 		private final int n;
+		private int count;
 
 		private AtLeastNCexs(final int n) {
 			checkArgument(n > 0, "n must be positive.");
 			this.n = n;
+			this.count = 0;
 		}
 
 		@Override
 		public boolean canStop(final ARG<S, A> arg) {
-			// TODO: this could be optimized: we don't need to count it,
-			// we just need to know if there are >= n elements
-			return arg.getUnsafeNodes().count() >= n;
+			count = (int) arg.getUnsafeNodes().limit(n).count();
+			return count >= n;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			count += countUnsafe(newNodes);
+			if (count >= n) {
+				// Unsafe nodes might have been covered since they were created,
+				// so the count is only an upper bound that is confirmed on the ARG
+				return canStop(arg);
+			}
+			return false;
 		}
 
 		@Override
@@ -86,4 +159,120 @@ public final class StopCriterions {
 					.add("N = " + n).toString();
 		}
 	}
+
+	private static final class TimeBudget<S extends State, A extends Action> implements StopCriterion<S, A> {
+		private final long nanos;
+		private long start;
+
+		private TimeBudget(final long nanos) {
+			checkArgument(nanos > 0, "Time budget must be positive.");
+			this.nanos = nanos;
+			this.start = 0;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg) {
+			start = System.nanoTime();
+			return false;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			return System.nanoTime() - start >= nanos;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(StopCriterion.class.getSimpleName()).add(getClass().getSimpleName())
+					.add(TimeUnit.NANOSECONDS.toMillis(nanos) + " ms").toString();
+		}
+	}
+
+	private static final class NodeBudget<S extends State, A extends Action> implements StopCriterion<S, A> {
+		private final int nodes;
+		private int count;
+
+		private NodeBudget(final int nodes) {
+			checkArgument(nodes > 0, "Node budget must be positive.");
+			this.nodes = nodes;
+			this.count = 0;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg) {
+			count = 0;
+			return false;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			count += newNodes.size();
+			return count >= nodes;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(StopCriterion.class.getSimpleName()).add(getClass().getSimpleName())
+					.add(nodes + " nodes").toString();
+		}
+	}
+
+	private static final class MemoryBudget<S extends State, A extends Action> implements StopCriterion<S, A> {
+		private final long bytes;
+
+		private MemoryBudget(final long bytes) {
+			checkArgument(bytes > 0, "Memory budget must be positive.");
+			this.bytes = bytes;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg) {
+			return false;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			final Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory() >= bytes;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(StopCriterion.class.getSimpleName()).add(getClass().getSimpleName())
+					.add(bytes + " bytes").toString();
+		}
+	}
+
+	private static final class AnyOf<S extends State, A extends Action> implements StopCriterion<S, A> {
+		private final List<StopCriterion<S, A>> criteria;
+
+		private AnyOf(final List<StopCriterion<S, A>> criteria) {
+			checkArgument(!criteria.isEmpty(), "At least one criterion is required.");
+			this.criteria = criteria;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg) {
+			boolean canStop = false;
+			for (final StopCriterion<S, A> criterion : criteria) {
+				canStop |= criterion.canStop(arg);
+			}
+			return canStop;
+		}
+
+		@Override
+		public boolean canStop(final ARG<S, A> arg, final Collection<ArgNode<S, A>> newNodes) {
+			boolean canStop = false;
+			for (final StopCriterion<S, A> criterion : criteria) {
+				canStop |= criterion.canStop(arg, newNodes);
+			}
+			return canStop;
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(StopCriterion.class.getSimpleName()).add(getClass().getSimpleName())
+					.addAll(criteria).toString();
+		}
+	}
 }
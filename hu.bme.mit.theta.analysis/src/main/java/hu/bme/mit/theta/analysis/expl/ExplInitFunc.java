@@ -45,7 +45,7 @@ public final class ExplInitFunc implements InitFunc<ExplState, ExplPrec> {
 	public Collection<? extends ExplState> getInitStates(final ExplPrec prec) {
 		checkNotNull(prec);
 		final Collection<ExplState> initStates = ExprStates.createStatesForExpr(solver, initExpr, 0, prec::createState,
-				VarIndexing.all(0));
+				VarIndexing.all(0), prec.getVars());
 		return initStates.isEmpty() ? Collections.singleton(ExplState.bottom()) : initStates;
 	}
 
@@ -39,6 +39,17 @@ public abstract class ExplState extends Valuation implements ExprState {
 	}
 
 	public static ExplState of(final Valuation val) {
+		if (val.getDecls().isEmpty()) {
+			return top();
+		}
+		return new NonBottom(ImmutableValuation.copyOf(val));
+	}
+
+	/**
+	 * Creates a state backed by the given valuation without copying it. The
+	 * caller must guarantee that the valuation is never modified afterwards.
+	 */
+	public static ExplState wrap(final Valuation val) {
 		if (val.getDecls().isEmpty()) {
 			return top();
 		}
@@ -66,7 +77,7 @@ public abstract class ExplState extends Valuation implements ExprState {
 		private final Valuation val;
 
 		private NonBottom(final Valuation val) {
-			this.val = ImmutableValuation.copyOf(checkNotNull(val));
+			this.val = checkNotNull(val);
 		}
 
 		@Override
@@ -80,7 +80,7 @@ public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction,
 				// would be more than max
 				final int maxToQuery = maxSuccToEnumerate == 0 ? 0 : maxSuccToEnumerate + 1;
 				final Collection<ExplState> succStates = ExprStates.createStatesForExpr(solver, expr, 0,
-						prec::createState, nextIdx, maxToQuery);
+						prec::createState, nextIdx, prec.getVars(), maxToQuery);
 
 				if (succStates.isEmpty()) {
 					return singleton(ExplState.bottom());
@@ -45,7 +45,8 @@ public final class ExplTransFunc implements TransFunc<ExplState, ExprAction, Exp
 		checkNotNull(action);
 		checkNotNull(prec);
 		final Collection<ExplState> succStates = ExprStates.createStatesForExpr(solver,
-				BoolExprs.And(state.toExpr(), action.toExpr()), 0, prec::createState, action.nextIndexing());
+				BoolExprs.And(state.toExpr(), action.toExpr()), 0, prec::createState, action.nextIndexing(),
+				prec.getVars());
 		return succStates.isEmpty() ? Collections.singleton(ExplState.bottom()) : succStates;
 	}
 
@@ -15,11 +15,17 @@
  */
 package hu.bme.mit.theta.analysis.expl;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.MutableValuation;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.type.Expr;
@@ -50,6 +56,12 @@ final class StmtApplier {
 		} else if (stmt instanceof SkipStmt) {
 			final SkipStmt skipStmt = (SkipStmt) stmt;
 			return applySkip(skipStmt);
+		} else if (stmt instanceof SequenceStmt) {
+			final SequenceStmt sequenceStmt = (SequenceStmt) stmt;
+			return applySequence(sequenceStmt, val, approximate);
+		} else if (stmt instanceof NonDetStmt) {
+			final NonDetStmt nonDetStmt = (NonDetStmt) stmt;
+			return applyNonDet(nonDetStmt, val, approximate);
 		} else {
 			throw new UnsupportedOperationException("Unhandled statement: " + stmt);
 		}
@@ -101,4 +113,61 @@ final class StmtApplier {
 		return ApplyResult.SUCCESS;
 	}
 
+	// The valuation is only modified on success, so that a failing statement
+	// can be handed over to the solver as a whole
+	private static ApplyResult applySequence(final SequenceStmt stmt, final MutableValuation val,
+			final boolean approximate) {
+		final MutableValuation copy = MutableValuation.copyOf(val);
+		for (final Stmt subStmt : stmt.getStmts()) {
+			final ApplyResult res = apply(subStmt, copy, approximate);
+			if (res != ApplyResult.SUCCESS) {
+				return res;
+			}
+		}
+		overwrite(val, copy);
+		return ApplyResult.SUCCESS;
+	}
+
+	private static ApplyResult applyNonDet(final NonDetStmt stmt, final MutableValuation val,
+			final boolean approximate) {
+		final List<MutableValuation> succs = new ArrayList<>();
+		for (final Stmt branch : stmt.getStmts()) {
+			final MutableValuation copy = MutableValuation.copyOf(val);
+			final ApplyResult res = apply(branch, copy, approximate);
+			if (res == ApplyResult.FAILURE) {
+				return ApplyResult.FAILURE;
+			} else if (res == ApplyResult.SUCCESS) {
+				succs.add(copy);
+			}
+		}
+
+		if (succs.isEmpty()) {
+			return ApplyResult.BOTTOM;
+		} else if (succs.stream().allMatch(succ -> succ.equals(succs.get(0)))) {
+			overwrite(val, succs.get(0));
+			return ApplyResult.SUCCESS;
+		} else if (approximate) {
+			// Keep only the values that are the same in every branch
+			final MutableValuation common = MutableValuation.copyOf(succs.get(0));
+			for (final Decl<?> decl : succs.get(0).getDecls()) {
+				if (!succs.stream().allMatch(succ -> succ.eval(decl).equals(common.eval(decl)))) {
+					common.remove(decl);
+				}
+			}
+			overwrite(val, common);
+			return ApplyResult.SUCCESS;
+		} else {
+			return ApplyResult.FAILURE;
+		}
+	}
+
+	private static void overwrite(final MutableValuation val, final MutableValuation newVal) {
+		for (final Decl<?> decl : new ArrayList<>(val.getDecls())) {
+			val.remove(decl);
+		}
+		for (final Decl<?> decl : newVal.getDecls()) {
+			val.put(decl, newVal.eval(decl).get());
+		}
+	}
+
 }
@@ -19,20 +19,47 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 import static hu.bme.mit.theta.core.utils.PathUtils.unfold;
 
+import java.util.Optional;
+
 import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.common.LruCache;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.FalseExpr;
+import hu.bme.mit.theta.core.type.booltype.TrueExpr;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
+/**
+ * Partial order of expression states. The order is decided in layers: first
+ * syntactically (false or subset of conjuncts), then using a bounded cache of
+ * previous results (keyed by the expressions of the states), and finally
+ * using the solver.
+ */
 public final class ExprOrd implements PartialOrd<ExprState> {
 
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+
 	private final Solver solver;
+	private final LruCache<Tuple2<Expr<BoolType>, Expr<BoolType>>, Boolean> cache;
+
+	private long syntacticHits = 0;
+	private long cacheHits = 0;
+	private long solverCalls = 0;
 
-	private ExprOrd(final Solver solver) {
+	private ExprOrd(final Solver solver, final int cacheSize) {
 		this.solver = checkNotNull(solver);
+		this.cache = LruCache.create(cacheSize);
 	}
 
 	public static ExprOrd create(final Solver solver) {
-		return new ExprOrd(solver);
+		return new ExprOrd(solver, DEFAULT_CACHE_SIZE);
+	}
+
+	public static ExprOrd create(final Solver solver, final int cacheSize) {
+		return new ExprOrd(solver, cacheSize);
 	}
 
 	@Override
@@ -40,11 +67,42 @@ public final class ExprOrd implements PartialOrd<ExprState> {
 		checkNotNull(state1);
 		checkNotNull(state2);
 
+		final Expr<BoolType> expr1 = state1.toExpr();
+		final Expr<BoolType> expr2 = state2.toExpr();
+		if (expr1 instanceof FalseExpr || expr2 instanceof TrueExpr
+				|| ExprUtils.getConjuncts(expr1).containsAll(ExprUtils.getConjuncts(expr2))) {
+			syntacticHits++;
+			return true;
+		}
+
+		final Tuple2<Expr<BoolType>, Expr<BoolType>> key = Tuple2.of(expr1, expr2);
+		final Optional<Boolean> cached = cache.get(key);
+		if (cached.isPresent()) {
+			cacheHits++;
+			return cached.get();
+		}
+
+		solverCalls++;
+		final boolean result;
 		try (WithPushPop wpp = new WithPushPop(solver)) {
-			solver.add(unfold(state1.toExpr(), 0));
-			solver.add(Not(unfold(state2.toExpr(), 0)));
-			return solver.check().isUnsat();
+			solver.add(unfold(expr1, 0));
+			solver.add(Not(unfold(expr2, 0)));
+			result = solver.check().isUnsat();
 		}
+		cache.put(key, result);
+		return result;
+	}
+
+	public long getSyntacticHits() {
+		return syntacticHits;
+	}
+
+	public long getCacheHits() {
+		return cacheHits;
+	}
+
+	public long getSolverCalls() {
+		return solverCalls;
 	}
 
 }
@@ -16,13 +16,15 @@
 package hu.bme.mit.theta.analysis.expr;
 
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
-import static hu.bme.mit.theta.core.utils.PathUtils.extractValuation;
 import static hu.bme.mit.theta.core.utils.PathUtils.unfold;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverStatus;
@@ -47,8 +49,7 @@ public final class ExprStateUtils {
 			if (status.isUnsat()) {
 				return Optional.empty();
 			} else if (status.isSat()) {
-				final Valuation model = solver.getModel();
-				final Valuation valuation = extractValuation(model, indexing);
+				final Valuation valuation = solver.getModel(indexing, getVars(state, action, succStates));
 				return Optional.of(valuation);
 			} else {
 				throw new AssertionError();
@@ -70,12 +71,19 @@ public final class ExprStateUtils {
 			if (status.isUnsat()) {
 				return Optional.empty();
 			} else if (status.isSat()) {
-				final Valuation model = solver.getModel();
-				final Valuation valuation = extractValuation(model, 0);
+				final Valuation valuation = solver.getModel(VarIndexing.all(0), getVars(state, action, predStates));
 				return Optional.of(valuation);
 			} else {
 				throw new AssertionError();
 			}
 		}
 	}
+
+	private static Set<VarDecl<?>> getVars(final ExprState state, final ExprAction action,
+			final Collection<? extends ExprState> states) {
+		final Set<VarDecl<?>> vars = ExprUtils.getVars(state.toExpr());
+		ExprUtils.collectVars(action.toExpr(), vars);
+		states.forEach(s -> ExprUtils.collectVars(s.toExpr(), vars));
+		return vars;
+	}
 }
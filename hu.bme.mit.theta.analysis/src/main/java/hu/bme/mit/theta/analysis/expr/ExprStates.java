@@ -21,10 +21,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.function.Function;
 
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
-import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
@@ -69,16 +70,55 @@ public final class ExprStates {
 			final Expr<BoolType> expr, final int exprIndex,
 			final Function<? super Valuation, ? extends S> valuationToState, final VarIndexing stateIndexing,
 			final int limit) {
+		return createStatesForExpr(solver, expr, exprIndex, valuationToState, stateIndexing, ExprUtils.getVars(expr),
+				limit);
+	}
+
+	/**
+	 * Generate all states that satisfy a given expression, extracting only the
+	 * given variables from the models.
+	 *
+	 * @param solver Solver
+	 * @param expr Expression to be satisfied
+	 * @param exprIndex Index for unfolding the expression
+	 * @param valuationToState Mapping from a valuation to a state
+	 * @param stateIndexing Index for extracting the state
+	 * @param varDecls Variables to be extracted for the state
+	 * @return States satisfying the expression
+	 */
+	public static <S extends ExprState> Collection<S> createStatesForExpr(final Solver solver,
+			final Expr<BoolType> expr, final int exprIndex,
+			final Function<? super Valuation, ? extends S> valuationToState, final VarIndexing stateIndexing,
+			final Collection<? extends VarDecl<?>> varDecls) {
+		return createStatesForExpr(solver, expr, exprIndex, valuationToState, stateIndexing, varDecls, 0);
+	}
+
+	/**
+	 * Generate all or a limited number of states that satisfy a given
+	 * expression, extracting only the given variables from the models.
+	 *
+	 * @param solver Solver
+	 * @param expr Expression to be satisfied
+	 * @param exprIndex Index for unfolding the expression
+	 * @param valuationToState Mapping from a valuation to a state
+	 * @param stateIndexing Index for extracting the state
+	 * @param varDecls Variables to be extracted for the state
+	 * @param limit Limit the number of states to generate (0 is unlimited)
+	 * @return States satisfying the expression
+	 */
+	public static <S extends ExprState> Collection<S> createStatesForExpr(final Solver solver,
+			final Expr<BoolType> expr, final int exprIndex,
+			final Function<? super Valuation, ? extends S> valuationToState, final VarIndexing stateIndexing,
+			final Collection<? extends VarDecl<?>> varDecls, final int limit) {
 		try (WithPushPop wpp = new WithPushPop(solver)) {
-			solver.add(PathUtils.unfold(expr, exprIndex));
+			solver.add(expr, VarIndexing.all(exprIndex));
 
 			final Collection<S> result = new ArrayList<>();
 			while (solver.check().isSat() && (limit == 0 || result.size() < limit)) {
-				final Valuation model = solver.getModel();
-				final Valuation valuation = PathUtils.extractValuation(model, stateIndexing);
+				final Valuation valuation = solver.getModel(stateIndexing, varDecls);
 				final S state = valuationToState.apply(valuation);
 				result.add(state);
-				solver.add(Not(PathUtils.unfold(state.toExpr(), stateIndexing)));
+				solver.add(Not(state.toExpr()), stateIndexing);
 			}
 			return result;
 		}
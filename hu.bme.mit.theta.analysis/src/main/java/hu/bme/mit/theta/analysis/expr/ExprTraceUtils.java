@@ -21,11 +21,15 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import static java.util.Collections.singleton;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.solver.Solver;
 
 public final class ExprTraceUtils {
@@ -58,4 +62,17 @@ public final class ExprTraceUtils {
 		return true;
 	}
 
+	/**
+	 * Get the variables appearing in the states and actions of a trace.
+	 *
+	 * @param trace Trace
+	 * @return Set of variables appearing in the trace
+	 */
+	public static Set<VarDecl<?>> getVars(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+		final Set<VarDecl<?>> vars = new HashSet<>();
+		trace.getStates().forEach(state -> ExprUtils.collectVars(state.toExpr(), vars));
+		trace.getActions().forEach(action -> ExprUtils.collectVars(action.toExpr(), vars));
+		return vars;
+	}
+
 }
@@ -19,15 +19,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Interpolant;
@@ -73,8 +77,8 @@ public final class ExprTraceBwBinItpChecker implements ExprTraceChecker<ItpRefut
 		final ItpPattern pattern = solver.createBinPattern(A, B);
 
 		int nPush = 1;
-		solver.add(A, PathUtils.unfold(target, indexings.get(0)));
-		solver.add(A, PathUtils.unfold(traceRev.getState(0).toExpr(), indexings.get(0)));
+		solver.add(A, target, indexings.get(0));
+		solver.add(A, traceRev.getState(0).toExpr(), indexings.get(0));
 		assert solver.check().isSat() : "Initial state of the trace is not feasible";
 		int satPostfix = 0;
 
@@ -82,8 +86,8 @@ public final class ExprTraceBwBinItpChecker implements ExprTraceChecker<ItpRefut
 			solver.push();
 			++nPush;
 			indexings.add(indexings.get(i - 1).sub(traceRev.getAction(i - 1).nextIndexing()));
-			solver.add(A, PathUtils.unfold(traceRev.getState(i).toExpr(), indexings.get(i)));
-			solver.add(A, PathUtils.unfold(traceRev.getAction(i - 1).toExpr(), indexings.get(i)));
+			solver.add(A, traceRev.getState(i).toExpr(), indexings.get(i));
+			solver.add(A, traceRev.getAction(i - 1).toExpr(), indexings.get(i));
 
 			if (solver.check().isSat()) {
 				satPostfix = i;
@@ -97,11 +101,11 @@ public final class ExprTraceBwBinItpChecker implements ExprTraceChecker<ItpRefut
 		final boolean concretizable;
 
 		if (satPostfix == stateCount - 1) {
-			solver.add(B, PathUtils.unfold(init, indexings.get(stateCount - 1)));
+			solver.add(B, init, indexings.get(stateCount - 1));
 			concretizable = solver.check().isSat();
 		} else {
-			solver.add(B, PathUtils.unfold(traceRev.getState(satPostfix + 1).toExpr(), indexings.get(satPostfix + 1)));
-			solver.add(B, PathUtils.unfold(traceRev.getAction(satPostfix).toExpr(), indexings.get(satPostfix + 1)));
+			solver.add(B, traceRev.getState(satPostfix + 1).toExpr(), indexings.get(satPostfix + 1));
+			solver.add(B, traceRev.getAction(satPostfix).toExpr(), indexings.get(satPostfix + 1));
 			solver.check();
 			assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
 			concretizable = false;
@@ -109,10 +113,11 @@ public final class ExprTraceBwBinItpChecker implements ExprTraceChecker<ItpRefut
 
 		ExprTraceStatus<ItpRefutation> status = null;
 		if (concretizable) {
-			final Valuation model = solver.getModel();
+			final Set<VarDecl<?>> vars = ExprTraceUtils.getVars(trace);
+			ExprUtils.collectVars(ImmutableList.of(init, target), vars);
 			final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
 			for (final VarIndexing indexing : indexings) {
-				builder.add(PathUtils.extractValuation(model, indexing));
+				builder.add(solver.getModel(indexing, vars));
 			}
 			status = ExprTraceStatus.feasible(Trace.of(builder.build().reverse(), trace.getActions()));
 		} else {
@@ -17,36 +17,157 @@ package hu.bme.mit.theta.analysis.expr.refinement;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 
+/**
+ * Checks a trace with multiple checkers and merges their results. The
+ * checkers can either be run one after another or concurrently. In the latter
+ * case each checker must use its own solver. If the merger can determine the
+ * result from a single status (e.g., feasible), the result is returned
+ * without waiting for the other checkers. Parallel checkers run on a bounded
+ * executor shared by all of them, whose idle threads terminate, or on an
+ * executor given (and shut down) by the caller.
+ */
 public final class ExprTraceCombinedChecker<R extends Refutation> implements ExprTraceChecker<R> {
 
-	private final Collection<ExprTraceChecker<R>> checkers;
+	private static final ExecutorService SHARED_EXECUTOR = createSharedExecutor();
+
+	private final List<ExprTraceChecker<R>> checkers;
 	private final ExprTraceStatusMerger<R> merger;
+	private final Optional<ExecutorService> executor;
+	private final List<Future<?>> pending;
 
 	private ExprTraceCombinedChecker(final Collection<ExprTraceChecker<R>> checkers,
-			final ExprTraceStatusMerger<R> merger) {
+			final ExprTraceStatusMerger<R> merger, final Optional<ExecutorService> executor) {
 		this.checkers = ImmutableList.copyOf(checkNotNull(checkers));
 		this.merger = checkNotNull(merger);
+		this.executor = checkNotNull(executor);
+		this.pending = new ArrayList<>();
+	}
+
+	private static ExecutorService createSharedExecutor() {
+		final int nThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads, nThreads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNameFormat("trace-checker-%d").setDaemon(true).build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	public static <R extends Refutation> ExprTraceCombinedChecker<R> create(final ExprTraceChecker<R> checker1,
 			final ExprTraceChecker<R> checker2, final ExprTraceStatusMerger<R> merger) {
-		return new ExprTraceCombinedChecker<>(ImmutableList.of(checker1, checker2), merger);
+		return new ExprTraceCombinedChecker<>(ImmutableList.of(checker1, checker2), merger, Optional.empty());
+	}
+
+	/**
+	 * Creates a combined checker that runs the checkers concurrently on
+	 * separate threads. The checkers must not share solvers.
+	 */
+	public static <R extends Refutation> ExprTraceCombinedChecker<R> createParallel(
+			final Collection<ExprTraceChecker<R>> checkers, final ExprTraceStatusMerger<R> merger) {
+		return createParallel(checkers, merger, SHARED_EXECUTOR);
+	}
+
+	/**
+	 * Creates a combined checker that runs the checkers concurrently on the
+	 * given executor. The checkers must not share solvers. The executor is not
+	 * shut down by the checker.
+	 */
+	public static <R extends Refutation> ExprTraceCombinedChecker<R> createParallel(
+			final Collection<ExprTraceChecker<R>> checkers, final ExprTraceStatusMerger<R> merger,
+			final ExecutorService executor) {
+		return new ExprTraceCombinedChecker<>(checkers, merger, Optional.of(executor));
 	}
 
 	@Override
 	public ExprTraceStatus<R> check(final Trace<? extends ExprState, ? extends ExprAction> trace) {
-		final List<ExprTraceStatus<R>> statuses = checkers.stream().map(c -> c.check(trace))
-				.collect(Collectors.toList());
+		if (executor.isPresent()) {
+			return checkParallel(trace);
+		} else {
+			return checkSequential(trace);
+		}
+	}
+
+	private ExprTraceStatus<R> checkSequential(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+		final List<ExprTraceStatus<R>> statuses = new ArrayList<>(checkers.size());
+		for (final ExprTraceChecker<R> checker : checkers) {
+			final ExprTraceStatus<R> status = checker.check(trace);
+			final Optional<ExprTraceStatus<R>> result = merger.shortCircuit(status);
+			if (result.isPresent()) {
+				return result.get();
+			}
+			statuses.add(status);
+		}
+		return merger.merge(statuses);
+	}
+
+	private ExprTraceStatus<R> checkParallel(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+		// Checkers still running from the previous check use their solvers
+		awaitPending();
+
+		final CompletionService<ExprTraceStatus<R>> completionService = new ExecutorCompletionService<>(
+				executor.get());
+		final List<Future<ExprTraceStatus<R>>> futures = new ArrayList<>(checkers.size());
+		for (final ExprTraceChecker<R> checker : checkers) {
+			futures.add(completionService.submit(() -> checker.check(trace)));
+		}
+
+		final List<ExprTraceStatus<R>> statuses = new ArrayList<>(Collections.nCopies(checkers.size(), null));
+		try {
+			for (int i = 0; i < checkers.size(); i++) {
+				final Future<ExprTraceStatus<R>> future = completionService.take();
+				final ExprTraceStatus<R> status = future.get();
+				final Optional<ExprTraceStatus<R>> result = merger.shortCircuit(status);
+				if (result.isPresent()) {
+					futures.stream().filter(f -> !f.isDone()).forEach(pending::add);
+					return result.get();
+				}
+				statuses.set(futures.indexOf(future), status);
+			}
+		} catch (final InterruptedException e) {
+			futures.stream().filter(f -> !f.isDone()).forEach(pending::add);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while checking trace.", e);
+		} catch (final ExecutionException e) {
+			futures.stream().filter(f -> !f.isDone()).forEach(pending::add);
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new IllegalStateException(e.getCause());
+		}
+		// Merge in the order of the checkers to keep the result deterministic
 		return merger.merge(statuses);
 	}
+
+	private void awaitPending() {
+		for (final Future<?> future : pending) {
+			try {
+				future.get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while checking trace.", e);
+			} catch (final ExecutionException e) {
+				// The result is not needed anymore
+			}
+		}
+		pending.clear();
+	}
 }
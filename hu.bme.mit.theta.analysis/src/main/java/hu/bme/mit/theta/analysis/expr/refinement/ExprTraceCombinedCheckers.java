@@ -15,9 +15,12 @@
  */
 package hu.bme.mit.theta.analysis.expr.refinement;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverFactory;
 
 public final class ExprTraceCombinedCheckers {
 
@@ -39,4 +42,24 @@ public final class ExprTraceCombinedCheckers {
 		final ExprTraceStatusMerger<ItpRefutation> merger = ExprTraceStatusMergers.maxPruneIndex();
 		return ExprTraceCombinedChecker.create(bwChecker, fwChecker, merger);
 	}
+
+	public static ExprTraceChecker<ItpRefutation> createParallelBwFwMinPrune(final Expr<BoolType> init,
+			final Expr<BoolType> target, final SolverFactory solverFactory) {
+		final ExprTraceBwBinItpChecker bwChecker = ExprTraceBwBinItpChecker.create(init, target,
+				solverFactory.createItpSolver());
+		final ExprTraceFwBinItpChecker fwChecker = ExprTraceFwBinItpChecker.create(init, target,
+				solverFactory.createItpSolver());
+		final ExprTraceStatusMerger<ItpRefutation> merger = ExprTraceStatusMergers.minPruneIndex();
+		return ExprTraceCombinedChecker.createParallel(ImmutableList.of(bwChecker, fwChecker), merger);
+	}
+
+	public static ExprTraceChecker<ItpRefutation> createParallelBwFwMaxPrune(final Expr<BoolType> init,
+			final Expr<BoolType> target, final SolverFactory solverFactory) {
+		final ExprTraceBwBinItpChecker bwChecker = ExprTraceBwBinItpChecker.create(init, target,
+				solverFactory.createItpSolver());
+		final ExprTraceFwBinItpChecker fwChecker = ExprTraceFwBinItpChecker.create(init, target,
+				solverFactory.createItpSolver());
+		final ExprTraceStatusMerger<ItpRefutation> merger = ExprTraceStatusMergers.maxPruneIndex();
+		return ExprTraceCombinedChecker.createParallel(ImmutableList.of(bwChecker, fwChecker), merger);
+	}
 }
@@ -19,15 +19,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Interpolant;
@@ -71,8 +75,8 @@ public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefut
 		final ItpPattern pattern = solver.createBinPattern(A, B);
 
 		int nPush = 1;
-		solver.add(A, PathUtils.unfold(init, indexings.get(0)));
-		solver.add(A, PathUtils.unfold(trace.getState(0).toExpr(), indexings.get(0)));
+		solver.add(A, init, indexings.get(0));
+		solver.add(A, trace.getState(0).toExpr(), indexings.get(0));
 		assert solver.check().isSat() : "Initial state of the trace is not feasible";
 		int satPrefix = 0;
 
@@ -80,8 +84,8 @@ public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefut
 			solver.push();
 			++nPush;
 			indexings.add(indexings.get(i - 1).add(trace.getAction(i - 1).nextIndexing()));
-			solver.add(A, PathUtils.unfold(trace.getState(i).toExpr(), indexings.get(i)));
-			solver.add(A, PathUtils.unfold(trace.getAction(i - 1).toExpr(), indexings.get(i - 1)));
+			solver.add(A, trace.getState(i).toExpr(), indexings.get(i));
+			solver.add(A, trace.getAction(i - 1).toExpr(), indexings.get(i - 1));
 
 			if (solver.check().isSat()) {
 				satPrefix = i;
@@ -95,11 +99,11 @@ public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefut
 		final boolean concretizable;
 
 		if (satPrefix == stateCount - 1) {
-			solver.add(B, PathUtils.unfold(target, indexings.get(stateCount - 1)));
+			solver.add(B, target, indexings.get(stateCount - 1));
 			concretizable = solver.check().isSat();
 		} else {
-			solver.add(B, PathUtils.unfold(trace.getState(satPrefix + 1).toExpr(), indexings.get(satPrefix + 1)));
-			solver.add(B, PathUtils.unfold(trace.getAction(satPrefix).toExpr(), indexings.get(satPrefix)));
+			solver.add(B, trace.getState(satPrefix + 1).toExpr(), indexings.get(satPrefix + 1));
+			solver.add(B, trace.getAction(satPrefix).toExpr(), indexings.get(satPrefix));
 			solver.check();
 			assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
 			concretizable = false;
@@ -107,10 +111,11 @@ public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefut
 
 		ExprTraceStatus<ItpRefutation> status = null;
 		if (concretizable) {
-			final Valuation model = solver.getModel();
+			final Set<VarDecl<?>> vars = ExprTraceUtils.getVars(trace);
+			ExprUtils.collectVars(ImmutableList.of(init, target), vars);
 			final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
 			for (final VarIndexing indexing : indexings) {
-				builder.add(PathUtils.extractValuation(model, indexing));
+				builder.add(solver.getModel(indexing, vars));
 			}
 			status = ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
 		} else {
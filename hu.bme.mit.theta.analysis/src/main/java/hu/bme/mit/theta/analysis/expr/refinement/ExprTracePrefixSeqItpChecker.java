@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+
+/**
+ * An ExprTraceChecker that generates a sequence interpolant like
+ * {@link ExprTraceSeqItpChecker}, but keeps the solver frames of the previously
+ * checked trace. Each state-action pair of the trace is asserted in its own
+ * frame, so a subsequent trace that shares a prefix with the previous one (e.g.
+ * a sibling path in a depth-first search) only asserts its new suffix. The
+ * solver must not be used by anyone else, since the frames are left on the
+ * solver stack between calls.
+ */
+public final class ExprTracePrefixSeqItpChecker implements ExprTraceChecker<ItpRefutation> {
+
+	private final ItpSolver solver;
+	private final Expr<BoolType> init;
+	private final Expr<BoolType> target;
+
+	private final List<Frame> frames;
+
+	private int reusedFrames;
+	private int assertedFrames;
+
+	private ExprTracePrefixSeqItpChecker(final Expr<BoolType> init, final Expr<BoolType> target,
+			final ItpSolver solver) {
+		this.solver = checkNotNull(solver);
+		this.init = checkNotNull(init);
+		this.target = checkNotNull(target);
+		frames = new ArrayList<>();
+		reusedFrames = 0;
+		assertedFrames = 0;
+	}
+
+	public static ExprTracePrefixSeqItpChecker create(final Expr<BoolType> init, final Expr<BoolType> target,
+			final ItpSolver solver) {
+		return new ExprTracePrefixSeqItpChecker(init, target, solver);
+	}
+
+	@Override
+	public ExprTraceStatus<ItpRefutation> check(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+		checkNotNull(trace);
+		final int stateCount = trace.getStates().size();
+
+		final int prefix = commonPrefixLength(trace);
+		popFrames(frames.size() - prefix);
+		reusedFrames += prefix;
+
+		for (int i = prefix; i < stateCount; ++i) {
+			pushFrame(trace, i);
+		}
+
+		solver.push();
+		final ItpMarker targetMarker = solver.createMarker();
+		try {
+			final List<ItpMarker> markers = new ArrayList<>(stateCount + 1);
+			for (final Frame frame : frames) {
+				markers.add(frame.marker);
+			}
+			markers.add(targetMarker);
+			final ItpPattern pattern = solver.createSeqPattern(markers);
+
+			solver.add(targetMarker, target, frames.get(stateCount - 1).indexing);
+			final boolean concretizable = solver.check().isSat();
+
+			if (concretizable) {
+				final Set<VarDecl<?>> vars = ExprTraceUtils.getVars(trace);
+				ExprUtils.collectVars(ImmutableList.of(init, target), vars);
+				final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+				for (final Frame frame : frames) {
+					builder.add(solver.getModel(frame.indexing, vars));
+				}
+				return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
+			} else {
+				final List<Expr<BoolType>> interpolants = new ArrayList<>();
+				final Interpolant interpolant = solver.getInterpolant(pattern);
+				for (int i = 0; i < stateCount; ++i) {
+					interpolants.add(PathUtils.foldin(interpolant.eval(markers.get(i)), frames.get(i).indexing));
+				}
+				return ExprTraceStatus.infeasible(ItpRefutation.sequence(interpolants));
+			}
+		} finally {
+			solver.pop();
+		}
+	}
+
+	/**
+	 * Pops all frames, leaving the solver in the state it was in before the
+	 * first check.
+	 */
+	public void clear() {
+		popFrames(frames.size());
+	}
+
+	public int getReusedFrames() {
+		return reusedFrames;
+	}
+
+	public int getAssertedFrames() {
+		return assertedFrames;
+	}
+
+	////
+
+	private int commonPrefixLength(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+		final int max = Math.min(frames.size(), trace.getStates().size());
+		for (int i = 0; i < max; ++i) {
+			final Frame frame = frames.get(i);
+			if (!frame.stateExpr.equals(trace.getState(i).toExpr())) {
+				return i;
+			}
+			if (i > 0 && !frame.action.equals(trace.getAction(i - 1))) {
+				return i;
+			}
+		}
+		return max;
+	}
+
+	private void pushFrame(final Trace<? extends ExprState, ? extends ExprAction> trace, final int i) {
+		final Expr<BoolType> stateExpr = trace.getState(i).toExpr();
+		solver.push();
+		final ItpMarker marker = solver.createMarker();
+
+		final Frame frame;
+		if (i == 0) {
+			final VarIndexing indexing = VarIndexing.all(0);
+			solver.add(marker, init, indexing);
+			solver.add(marker, stateExpr, indexing);
+			frame = new Frame(stateExpr, null, marker, indexing);
+		} else {
+			final ExprAction action = trace.getAction(i - 1);
+			final VarIndexing prevIndexing = frames.get(i - 1).indexing;
+			final VarIndexing indexing = prevIndexing.add(action.nextIndexing());
+			solver.add(marker, stateExpr, indexing);
+			solver.add(marker, action.toExpr(), prevIndexing);
+			frame = new Frame(stateExpr, action, marker, indexing);
+		}
+
+		frames.add(frame);
+		assertedFrames++;
+	}
+
+	private void popFrames(final int n) {
+		if (n > 0) {
+			solver.pop(n);
+			frames.subList(frames.size() - n, frames.size()).clear();
+		}
+	}
+
+	private static final class Frame {
+		private final Expr<BoolType> stateExpr;
+		private final ExprAction action;
+		private final ItpMarker marker;
+		private final VarIndexing indexing;
+
+		private Frame(final Expr<BoolType> stateExpr, final ExprAction action, final ItpMarker marker,
+				final VarIndexing indexing) {
+			this.stateExpr = stateExpr;
+			this.action = action;
+			this.marker = marker;
+			this.indexing = indexing;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName();
+	}
+}
@@ -19,15 +19,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Interpolant;
@@ -72,24 +76,25 @@ public final class ExprTraceSeqItpChecker implements ExprTraceChecker<ItpRefutat
 			final List<VarIndexing> indexings = new ArrayList<>(stateCount);
 			indexings.add(VarIndexing.all(0));
 
-			solver.add(markers.get(0), PathUtils.unfold(init, indexings.get(0)));
-			solver.add(markers.get(0), PathUtils.unfold(trace.getState(0).toExpr(), indexings.get(0)));
+			solver.add(markers.get(0), init, indexings.get(0));
+			solver.add(markers.get(0), trace.getState(0).toExpr(), indexings.get(0));
 			assert solver.check().isSat() : "Initial state of the trace is not feasible";
 
 			for (int i = 1; i < stateCount; ++i) {
 				indexings.add(indexings.get(i - 1).add(trace.getAction(i - 1).nextIndexing()));
-				solver.add(markers.get(i), PathUtils.unfold(trace.getState(i).toExpr(), indexings.get(i)));
-				solver.add(markers.get(i), PathUtils.unfold(trace.getAction(i - 1).toExpr(), indexings.get(i - 1)));
+				solver.add(markers.get(i), trace.getState(i).toExpr(), indexings.get(i));
+				solver.add(markers.get(i), trace.getAction(i - 1).toExpr(), indexings.get(i - 1));
 			}
 
-			solver.add(markers.get(trace.getStates().size()), PathUtils.unfold(target, indexings.get(stateCount - 1)));
+			solver.add(markers.get(trace.getStates().size()), target, indexings.get(stateCount - 1));
 			final boolean concretizable = solver.check().isSat();
 
 			if (concretizable) {
-				final Valuation model = solver.getModel();
+				final Set<VarDecl<?>> vars = ExprTraceUtils.getVars(trace);
+				ExprUtils.collectVars(ImmutableList.of(init, target), vars);
 				final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
 				for (final VarIndexing indexing : indexings) {
-					builder.add(PathUtils.extractValuation(model, indexing));
+					builder.add(solver.getModel(indexing, vars));
 				}
 				return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
 			} else {
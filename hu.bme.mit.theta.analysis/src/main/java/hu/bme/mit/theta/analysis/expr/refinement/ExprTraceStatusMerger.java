@@ -16,6 +16,7 @@
 package hu.bme.mit.theta.analysis.expr.refinement;
 
 import java.util.Collection;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 
@@ -25,4 +26,13 @@ public interface ExprTraceStatusMerger<R extends Refutation> {
 	}
 
 	ExprTraceStatus<R> merge(Collection<ExprTraceStatus<R>> statuses);
+
+	/**
+	 * Returns the merged status if it can already be determined from a single
+	 * status (e.g., the trace is feasible), so that the other checkers do not
+	 * have to be waited for.
+	 */
+	default Optional<ExprTraceStatus<R>> shortCircuit(final ExprTraceStatus<R> status) {
+		return Optional.empty();
+	}
 }
@@ -18,6 +18,7 @@ package hu.bme.mit.theta.analysis.expr.refinement;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public final class ExprTraceStatusMergers {
 
@@ -33,6 +34,11 @@ public final class ExprTraceStatusMergers {
 	}
 
 	private static class MinPruneIndex<R extends Refutation> implements ExprTraceStatusMerger<R> {
+		@Override
+		public Optional<ExprTraceStatus<R>> shortCircuit(final ExprTraceStatus<R> status) {
+			return status.isFeasible() ? Optional.of(status) : Optional.empty();
+		}
+
 		@Override
 		public ExprTraceStatus<R> merge(final Collection<ExprTraceStatus<R>> statuses) {
 			checkArgument(!statuses.isEmpty(), "No statuses to merge.");
@@ -50,6 +56,11 @@ public final class ExprTraceStatusMergers {
 	}
 
 	private static class MaxPruneIndex<R extends Refutation> implements ExprTraceStatusMerger<R> {
+		@Override
+		public Optional<ExprTraceStatus<R>> shortCircuit(final ExprTraceStatus<R> status) {
+			return status.isFeasible() ? Optional.of(status) : Optional.empty();
+		}
+
 		@Override
 		public ExprTraceStatus<R> merge(final Collection<ExprTraceStatus<R>> statuses) {
 			checkArgument(!statuses.isEmpty(), "No statuses to merge.");
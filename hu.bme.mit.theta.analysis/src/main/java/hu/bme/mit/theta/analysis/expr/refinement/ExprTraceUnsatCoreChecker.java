@@ -20,12 +20,15 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
@@ -89,10 +92,11 @@ public final class ExprTraceUnsatCoreChecker implements ExprTraceChecker<VarsRef
 			}
 
 			if (concretizable) {
-				final Valuation model = solver.getModel();
+				final Set<VarDecl<?>> vars = ExprTraceUtils.getVars(trace);
+				ExprUtils.collectVars(ImmutableList.of(init, target), vars);
 				final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
 				for (final VarIndexing indexing : indexings) {
-					builder.add(PathUtils.extractValuation(model, indexing));
+					builder.add(solver.getModel(indexing, vars));
 				}
 				return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
 			} else {
@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.common.LruCache;
+import hu.bme.mit.theta.common.Tuple3;
+
+/**
+ * Transfer function decorator that caches the successors of a (state, action,
+ * precision) triple, so that posts that were already computed (e.g., in an
+ * earlier CEGAR iteration with the same precision) are not recomputed. States,
+ * actions and precisions are compared with equals. The least recently used
+ * entries are evicted when the cache is full.
+ */
+public final class CachingTransFunc<S extends State, A extends Action, P extends Prec>
+		implements TransFunc<S, A, P> {
+
+	private final TransFunc<S, ? super A, ? super P> transFunc;
+	private final LruCache<Tuple3<S, A, P>, Collection<S>> cache;
+
+	private long hits;
+	private long misses;
+
+	private CachingTransFunc(final TransFunc<S, ? super A, ? super P> transFunc, final int capacity) {
+		this.transFunc = checkNotNull(transFunc);
+		this.cache = LruCache.create(capacity);
+		hits = 0;
+		misses = 0;
+	}
+
+	public static <S extends State, A extends Action, P extends Prec> CachingTransFunc<S, A, P> create(
+			final TransFunc<S, ? super A, ? super P> transFunc, final int capacity) {
+		return new CachingTransFunc<>(transFunc, capacity);
+	}
+
+	@Override
+	public Collection<? extends S> getSuccStates(final S state, final A action, final P prec) {
+		final Tuple3<S, A, P> key = Tuple3.of(checkNotNull(state), checkNotNull(action), checkNotNull(prec));
+
+		synchronized (this) {
+			final Optional<Collection<S>> cached = cache.get(key);
+			if (cached.isPresent()) {
+				hits++;
+				return cached.get();
+			}
+			misses++;
+		}
+
+		final Collection<S> succStates = ImmutableList.copyOf(transFunc.getSuccStates(state, action, prec));
+		synchronized (this) {
+			cache.put(key, succStates);
+		}
+		return succStates;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+}
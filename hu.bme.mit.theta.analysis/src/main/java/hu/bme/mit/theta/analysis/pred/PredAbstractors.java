@@ -25,13 +25,13 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
+import hu.bme.mit.theta.common.bdd.Bdd;
+import hu.bme.mit.theta.common.bdd.BddManager;
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decls;
 import hu.bme.mit.theta.core.model.Valuation;
@@ -39,7 +39,6 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolExprs;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
-import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
@@ -74,7 +73,7 @@ public class PredAbstractors {
 	 * @return
 	 */
 	public static PredAbstractor booleanSplitAbstractor(final Solver solver) {
-		return new BooleanAbstractor(solver, true);
+		return new BooleanAbstractor(solver, true, false);
 	}
 
 	/**
@@ -85,7 +84,20 @@ public class PredAbstractors {
 	 * @return
 	 */
 	public static PredAbstractor booleanAbstractor(final Solver solver) {
-		return new BooleanAbstractor(solver, false);
+		return new BooleanAbstractor(solver, false, false);
+	}
+
+	/**
+	 * Get the strategy that uses Boolean abstraction and keeps the formula as
+	 * a whole, represented by a BDD over the predicates. The BDD is built
+	 * incrementally from the models and it is only converted to an expression
+	 * when needed.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor bddAbstractor(final Solver solver) {
+		return new BooleanAbstractor(solver, false, true);
 	}
 
 	/**
@@ -105,13 +117,15 @@ public class PredAbstractors {
 		private final String litPrefix;
 		private static int instanceCounter = 0;
 		private final boolean split;
+		private final boolean bdd;
 
-		public BooleanAbstractor(final Solver solver, final boolean split) {
+		public BooleanAbstractor(final Solver solver, final boolean split, final boolean bdd) {
 			this.solver = checkNotNull(solver);
 			this.actLits = new ArrayList<>();
 			this.litPrefix = "__" + getClass().getSimpleName() + "_" + instanceCounter + "_";
 			instanceCounter++;
 			this.split = split;
+			this.bdd = bdd;
 		}
 
 		@Override
@@ -123,40 +137,56 @@ public class PredAbstractors {
 			checkNotNull(precIndexing);
 
 			final List<Expr<BoolType>> preds = new ArrayList<>(prec.getPreds());
+			final PredIndex index = prec.getIndex();
+			final int[] predIndices = preds.stream().mapToInt(index::indexOf).toArray();
 			generateActivationLiterals(preds.size());
 
 			assert actLits.size() >= preds.size();
 
 			final List<PredState> states = new LinkedList<>();
+			final BddManager bddManager = bdd ? index.getBddManager() : null;
+			Bdd image = bdd ? bddManager.getFalse() : null;
 			try (WithPushPop wp = new WithPushPop(solver)) {
-				solver.add(PathUtils.unfold(expr, exprIndexing));
+				solver.add(expr, exprIndexing);
 				for (int i = 0; i < preds.size(); ++i) {
-					solver.add(Iff(actLits.get(i).getRef(), PathUtils.unfold(preds.get(i), precIndexing)));
+					solver.add(Iff(actLits.get(i).getRef(), preds.get(i)), precIndexing);
 				}
 				while (solver.check().isSat()) {
 					final Valuation model = solver.getModel();
-					final Set<Expr<BoolType>> newStatePreds = new HashSet<>();
+					final long[] posBits = index.createBits();
+					final long[] negBits = index.createBits();
 					final List<Expr<BoolType>> feedback = new LinkedList<>();
 					feedback.add(True());
+					Bdd cube = bdd ? bddManager.getTrue() : null;
 					for (int i = 0; i < preds.size(); ++i) {
 						final ConstDecl<BoolType> lit = actLits.get(i);
-						final Expr<BoolType> pred = preds.get(i);
 						final Optional<LitExpr<BoolType>> eval = model.eval(lit);
 						if (eval.isPresent()) {
 							if (eval.get().equals(True())) {
-								newStatePreds.add(pred);
+								PredIndex.set(posBits, predIndices[i]);
 								feedback.add(lit.getRef());
+								if (bdd) {
+									cube = cube.and(bddManager.getVar(predIndices[i]));
+								}
 							} else {
-								newStatePreds.add(prec.negate(pred));
+								PredIndex.set(negBits, predIndices[i]);
 								feedback.add(Not(lit.getRef()));
+								if (bdd) {
+									cube = cube.and(bddManager.getVar(predIndices[i]).not());
+								}
 							}
 						}
 					}
-					states.add(PredState.of(newStatePreds));
+					states.add(PredState.cube(index, posBits, negBits));
+					if (bdd) {
+						image = image.or(cube);
+					}
 					solver.add(Not(And(feedback)));
 				}
 			}
-			if (!split && states.size() > 1) {
+			if (bdd && states.size() > 1) {
+				return Collections.singleton(bddToState(index, image));
+			} else if (!split && states.size() > 1) {
 				final Expr<BoolType> pred = Or(states.stream().map(PredState::toExpr).collect(Collectors.toList()));
 				return Collections.singleton(PredState.of(pred));
 			} else {
@@ -164,6 +194,25 @@ public class PredAbstractors {
 			}
 		}
 
+		// Cubes are stored as bit vectors, other functions as BDDs
+		private static PredState bddToState(final PredIndex index, final Bdd image) {
+			final long[] posBits = index.createBits();
+			final long[] negBits = index.createBits();
+			Bdd node = image;
+			while (!node.isTerminal()) {
+				if (node.getLow().isFalse()) {
+					PredIndex.set(posBits, node.getVar());
+					node = node.getHigh();
+				} else if (node.getHigh().isFalse()) {
+					PredIndex.set(negBits, node.getVar());
+					node = node.getLow();
+				} else {
+					return PredState.bdd(index, image);
+				}
+			}
+			return PredState.cube(index, posBits, negBits);
+		}
+
 		private void generateActivationLiterals(final int n) {
 			while (actLits.size() < n) {
 				actLits.add(Decls.Const(litPrefix + actLits.size(), BoolExprs.Bool()));
@@ -182,10 +231,12 @@ public class PredAbstractors {
 		@Override
 		public Collection<PredState> createStatesForExpr(final Expr<BoolType> expr, final VarIndexing exprIndexing,
 				final PredPrec prec, final VarIndexing precIndexing) {
-			final List<Expr<BoolType>> newStatePreds = new ArrayList<>();
+			final PredIndex index = prec.getIndex();
+			final long[] posBits = index.createBits();
+			final long[] negBits = index.createBits();
 
 			try (WithPushPop wp = new WithPushPop(solver)) {
-				solver.add(PathUtils.unfold(expr, exprIndexing));
+				solver.add(expr, exprIndexing);
 				solver.check();
 				if (solver.getStatus().isUnsat()) {
 					return Collections.emptySet();
@@ -195,26 +246,26 @@ public class PredAbstractors {
 					final boolean ponEntailed;
 					final boolean negEntailed;
 					try (WithPushPop wp1 = new WithPushPop(solver)) {
-						solver.add(PathUtils.unfold(prec.negate(pred), precIndexing));
+						solver.add(prec.negate(pred), precIndexing);
 						ponEntailed = solver.check().isUnsat();
 					}
 					try (WithPushPop wp2 = new WithPushPop(solver)) {
-						solver.add(PathUtils.unfold(pred, precIndexing));
+						solver.add(pred, precIndexing);
 						negEntailed = solver.check().isUnsat();
 					}
 
 					assert !(ponEntailed && negEntailed) : "Ponated and negated predicates are both entailed.";
 
 					if (ponEntailed) {
-						newStatePreds.add(pred);
+						PredIndex.set(posBits, index.indexOf(pred));
 					}
 					if (negEntailed) {
-						newStatePreds.add(prec.negate(pred));
+						PredIndex.set(negBits, index.indexOf(pred));
 					}
 				}
 			}
 
-			return Collections.singleton(PredState.of(newStatePreds));
+			return Collections.singleton(PredState.cube(index, posBits, negBits));
 		}
 
 	}
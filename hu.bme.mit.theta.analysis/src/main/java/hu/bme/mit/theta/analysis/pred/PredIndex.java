@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.pred;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hu.bme.mit.theta.common.bdd.BddManager;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Append-only table assigning indices to predicates. A precision and all the
+ * precisions obtained from it by joining share the same index, so the
+ * predicate states created with them can be stored and compared as bit
+ * vectors or BDDs (see {@link PredState}). Indices are never reassigned and
+ * they are also used as BDD variables.
+ */
+final class PredIndex {
+
+	private final List<Expr<BoolType>> preds;
+	private final List<Expr<BoolType>> negs;
+	private final Map<Expr<BoolType>, Integer> indices;
+	private BddManager bddManager = null;
+
+	PredIndex() {
+		preds = new ArrayList<>();
+		negs = new ArrayList<>();
+		indices = new HashMap<>();
+	}
+
+	synchronized int add(final Expr<BoolType> pred, final Expr<BoolType> neg) {
+		checkNotNull(pred);
+		checkNotNull(neg);
+		final Integer index = indices.get(pred);
+		if (index != null) {
+			return index;
+		}
+		preds.add(pred);
+		negs.add(neg);
+		indices.put(pred, preds.size() - 1);
+		return preds.size() - 1;
+	}
+
+	synchronized int indexOf(final Expr<BoolType> pred) {
+		final Integer index = indices.get(pred);
+		return index == null ? -1 : index;
+	}
+
+	synchronized int size() {
+		return preds.size();
+	}
+
+	synchronized Expr<BoolType> getPred(final int index) {
+		return preds.get(index);
+	}
+
+	synchronized Expr<BoolType> getNeg(final int index) {
+		return negs.get(index);
+	}
+
+	synchronized BddManager getBddManager() {
+		if (bddManager == null) {
+			bddManager = BddManager.create();
+		}
+		return bddManager;
+	}
+
+	/**
+	 * Creates an empty bit vector that can hold all the current indices.
+	 */
+	long[] createBits() {
+		return new long[(size() + 63) / 64];
+	}
+
+	static void set(final long[] bits, final int index) {
+		bits[index >>> 6] |= 1L << index;
+	}
+
+}
@@ -18,30 +18,91 @@ package hu.bme.mit.theta.analysis.pred;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 
+import java.util.Optional;
+
 import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.common.LruCache;
+import hu.bme.mit.theta.common.Tuple2;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
+/**
+ * Partial order of predicate states. The order is decided in layers: first
+ * syntactically (bit vector comparison of cubes, BDD implication, bottom
+ * or subset of predicates), then using a bounded cache
+ * of previous results, and finally using the solver.
+ */
 public final class PredOrd implements PartialOrd<PredState> {
 
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+
 	private final Solver solver;
+	private final LruCache<Tuple2<PredState, PredState>, Boolean> cache;
+
+	private long syntacticHits = 0;
+	private long cacheHits = 0;
+	private long solverCalls = 0;
 
 	public static PredOrd create(final Solver solver) {
-		return new PredOrd(solver);
+		return new PredOrd(solver, DEFAULT_CACHE_SIZE);
+	}
+
+	public static PredOrd create(final Solver solver, final int cacheSize) {
+		return new PredOrd(solver, cacheSize);
 	}
 
-	private PredOrd(final Solver solver) {
+	private PredOrd(final Solver solver, final int cacheSize) {
 		this.solver = checkNotNull(solver);
+		this.cache = LruCache.create(cacheSize);
 	}
 
 	@Override
 	public boolean isLeq(final PredState state1, final PredState state2) {
+		final Optional<Boolean> cubeLeq = state1.isCubeLeq(state2);
+		if (cubeLeq.isPresent()) {
+			syntacticHits++;
+			return cubeLeq.get();
+		}
+
+		if (state1.isBddLeq(state2).isPresent()) {
+			syntacticHits++;
+			return true;
+		}
+
+		if (state1.isBottom() || state1.getPreds().containsAll(state2.getPreds())) {
+			syntacticHits++;
+			return true;
+		}
+
+		final Tuple2<PredState, PredState> key = Tuple2.of(state1, state2);
+		final Optional<Boolean> cached = cache.get(key);
+		if (cached.isPresent()) {
+			cacheHits++;
+			return cached.get();
+		}
+
+		solverCalls++;
+		final boolean result;
 		try (WithPushPop wpp = new WithPushPop(solver)) {
 			solver.add(PathUtils.unfold(state1.toExpr(), 0));
 			solver.add(PathUtils.unfold(Not(state2.toExpr()), 0));
-			return solver.check().isUnsat();
+			result = solver.check().isUnsat();
 		}
+		cache.put(key, result);
+		return result;
+	}
+
+	public long getSyntacticHits() {
+		return syntacticHits;
+	}
+
+	public long getCacheHits() {
+		return cacheHits;
+	}
+
+	public long getSolverCalls() {
+		return solverCalls;
 	}
 
 }
@@ -36,15 +36,19 @@ import hu.bme.mit.theta.core.utils.ExprUtils;
 
 /**
  * Represents an immutable, simple predicate precision that is a set of
- * predicates.
+ * predicates. Predicates are also assigned indices in an index that is shared
+ * with the precisions obtained by joining, which allows storing the states as
+ * bit vectors.
  */
 public final class PredPrec implements Prec {
 
 	private final Map<Expr<BoolType>, Expr<BoolType>> predToNegMap;
+	private final PredIndex index;
 
-	private PredPrec(final Iterable<Expr<BoolType>> preds) {
+	private PredPrec(final Iterable<Expr<BoolType>> preds, final PredIndex index) {
 		checkNotNull(preds);
 		this.predToNegMap = new HashMap<>();
+		this.index = checkNotNull(index);
 
 		for (final Expr<BoolType> pred : preds) {
 			if (pred instanceof BoolLitExpr) {
@@ -52,23 +56,25 @@ public final class PredPrec implements Prec {
 			}
 			final Expr<BoolType> ponatedPred = ExprUtils.ponate(pred);
 			if (!this.predToNegMap.containsKey(ponatedPred)) {
-				this.predToNegMap.put(ponatedPred, Not(ponatedPred));
+				final Expr<BoolType> negatedPred = Not(ponatedPred);
+				this.predToNegMap.put(ponatedPred, negatedPred);
+				index.add(ponatedPred, negatedPred);
 			}
 		}
 	}
 
 	public static PredPrec of(final Iterable<Expr<BoolType>> preds) {
-		return new PredPrec(preds);
+		return new PredPrec(preds, new PredIndex());
 	}
 
 	// Convenience factory methods
 
 	public static PredPrec of() {
-		return new PredPrec(Collections.emptySet());
+		return new PredPrec(Collections.emptySet(), new PredIndex());
 	}
 
 	public static PredPrec of(final Expr<BoolType> pred) {
-		return new PredPrec(Collections.singleton(pred));
+		return new PredPrec(Collections.singleton(pred), new PredIndex());
 	}
 
 	////
@@ -83,6 +89,10 @@ public final class PredPrec implements Prec {
 		return negated;
 	}
 
+	PredIndex getIndex() {
+		return index;
+	}
+
 	public PredPrec join(final PredPrec other) {
 		checkNotNull(other);
 		final Collection<Expr<BoolType>> joinedPreds = ImmutableSet.<Expr<BoolType>>builder()
@@ -90,11 +100,13 @@ public final class PredPrec implements Prec {
 		// If no new predicate was added, return same instance (immutable)
 		if (joinedPreds.size() == this.predToNegMap.size()) {
 			return this;
-		} else if (joinedPreds.size() == other.predToNegMap.size()) {
+		} else if (joinedPreds.size() == other.predToNegMap.size() && other.index == this.index) {
 			return other;
 		}
 
-		return of(joinedPreds);
+		// The joined precision extends the index of this precision so that
+		// states remain comparable as bit vectors
+		return new PredPrec(joinedPreds, index);
 	}
 
 	@Override
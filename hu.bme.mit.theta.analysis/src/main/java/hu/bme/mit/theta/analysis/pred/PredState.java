@@ -19,23 +19,44 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.common.Utils.singleElementOf;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
 
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.common.bdd.Bdd;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 
+/**
+ * Represents an immutable predicate state, i.e., a conjunction of predicates.
+ * States created by the predicate abstractors are cubes over the predicates of
+ * the precision, which are stored compactly as a pair of bit vectors
+ * (ponated and negated literals) over the index of the precision. States
+ * created by the BDD abstractor that are not cubes are stored as a BDD over
+ * the same index. Other states are stored as a set of predicates. Equality and
+ * hashing are consistent between the representations.
+ */
 public final class PredState implements ExprState {
 
 	private static final int HASH_SEED = 7621;
 
+	// Set representation (null for cubes)
 	private final Set<Expr<BoolType>> preds;
 
+	// Cube and BDD representation (null for sets)
+	private final PredIndex index;
+	private final long[] posBits;
+	private final long[] negBits;
+	private final Bdd bdd;
+
 	private volatile Expr<BoolType> expr = null;
 
 	private volatile int hashCode;
@@ -43,12 +64,49 @@ public final class PredState implements ExprState {
 	private PredState(final Iterable<? extends Expr<BoolType>> preds) {
 		checkNotNull(preds);
 		this.preds = ImmutableSet.copyOf(preds);
+		this.index = null;
+		this.posBits = null;
+		this.negBits = null;
+		this.bdd = null;
+	}
+
+	private PredState(final PredIndex index, final long[] posBits, final long[] negBits) {
+		this.preds = null;
+		this.index = checkNotNull(index);
+		this.posBits = checkNotNull(posBits);
+		this.negBits = checkNotNull(negBits);
+		this.bdd = null;
+	}
+
+	private PredState(final PredIndex index, final Bdd bdd) {
+		this.preds = null;
+		this.index = checkNotNull(index);
+		this.posBits = null;
+		this.negBits = null;
+		this.bdd = checkNotNull(bdd);
 	}
 
 	public static PredState of(final Iterable<? extends Expr<BoolType>> preds) {
 		return new PredState(preds);
 	}
 
+	/**
+	 * Creates a cube over the predicates of an index. The cube must be
+	 * satisfiable, which holds for cubes created from models and from
+	 * entailed literals of a satisfiable expression.
+	 */
+	static PredState cube(final PredIndex index, final long[] posBits, final long[] negBits) {
+		return new PredState(index, posBits, negBits);
+	}
+
+	/**
+	 * Creates a state from a BDD over the predicates of an index. The BDD
+	 * should not be a cube (use cubes instead) or a terminal.
+	 */
+	static PredState bdd(final PredIndex index, final Bdd bdd) {
+		return new PredState(index, bdd);
+	}
+
 	public static PredState bottom() {
 		return of(False());
 	}
@@ -84,18 +142,38 @@ public final class PredState implements ExprState {
 	////
 
 	public Set<Expr<BoolType>> getPreds() {
-		return preds;
+		if (preds != null) {
+			return preds;
+		} else if (bdd != null) {
+			return ImmutableSet.of(toExpr());
+		}
+		final ImmutableSet.Builder<Expr<BoolType>> builder = ImmutableSet.builder();
+		for (int w = 0; w < posBits.length; w++) {
+			for (long word = posBits[w]; word != 0; word &= word - 1) {
+				builder.add(index.getPred(w * 64 + Long.numberOfTrailingZeros(word)));
+			}
+		}
+		for (int w = 0; w < negBits.length; w++) {
+			for (long word = negBits[w]; word != 0; word &= word - 1) {
+				builder.add(index.getNeg(w * 64 + Long.numberOfTrailingZeros(word)));
+			}
+		}
+		return builder.build();
 	}
 
 	@Override
 	public boolean isBottom() {
-		return preds.size() == 1 && singleElementOf(preds).equals(False());
+		return preds != null && preds.size() == 1 && singleElementOf(preds).equals(False());
 	}
 
 	@Override
 	public Expr<BoolType> toExpr() {
 		Expr<BoolType> result = expr;
-		if (result == null) {
+		if (result == null && bdd != null) {
+			result = bddToExpr(bdd, new HashMap<>());
+			expr = result;
+		} else if (result == null) {
+			final Set<Expr<BoolType>> preds = getPreds();
 			if (preds.isEmpty()) {
 				result = True();
 			} else if (preds.size() == 1) {
@@ -108,12 +186,137 @@ public final class PredState implements ExprState {
 		return result;
 	}
 
+	private Expr<BoolType> bddToExpr(final Bdd node, final Map<Bdd, Expr<BoolType>> cache) {
+		if (node.isTrue()) {
+			return True();
+		} else if (node.isFalse()) {
+			return False();
+		}
+		final Expr<BoolType> cached = cache.get(node);
+		if (cached != null) {
+			return cached;
+		}
+
+		final Expr<BoolType> pos = index.getPred(node.getVar());
+		final Expr<BoolType> neg = index.getNeg(node.getVar());
+		final Bdd high = node.getHigh();
+		final Bdd low = node.getLow();
+		final Expr<BoolType> result;
+		if (low.isFalse()) {
+			result = high.isTrue() ? pos : And(pos, bddToExpr(high, cache));
+		} else if (high.isFalse()) {
+			result = low.isTrue() ? neg : And(neg, bddToExpr(low, cache));
+		} else if (high.isTrue()) {
+			result = Or(pos, bddToExpr(low, cache));
+		} else if (low.isTrue()) {
+			result = Or(neg, bddToExpr(high, cache));
+		} else {
+			result = Or(And(pos, bddToExpr(high, cache)), And(neg, bddToExpr(low, cache)));
+		}
+		cache.put(node, result);
+		return result;
+	}
+
+	/**
+	 * Decides whether this state is less or equal than an other one if both
+	 * are cubes over the same index: the other cube must be a subset of this
+	 * one, and since cubes are satisfiable, a conflicting literal means that
+	 * this state is not less or equal. Returns an empty result otherwise.
+	 */
+	Optional<Boolean> isCubeLeq(final PredState that) {
+		if (this.posBits == null || that.posBits == null || this.index != that.index) {
+			return Optional.empty();
+		}
+		boolean subset = true;
+		final int words = Math.max(Math.max(this.posBits.length, this.negBits.length),
+				Math.max(that.posBits.length, that.negBits.length));
+		for (int i = 0; i < words; i++) {
+			final long pos1 = word(this.posBits, i);
+			final long neg1 = word(this.negBits, i);
+			final long pos2 = word(that.posBits, i);
+			final long neg2 = word(that.negBits, i);
+			if ((pos1 & neg2) != 0 || (neg1 & pos2) != 0) {
+				return Optional.of(false);
+			}
+			if ((pos2 & ~pos1) != 0 || (neg2 & ~neg1) != 0) {
+				subset = false;
+			}
+		}
+		return subset ? Optional.of(true) : Optional.empty();
+	}
+
+	/**
+	 * Decides whether this state is less or equal than an other one if both
+	 * are represented as cubes or BDDs over the same index (and at least one
+	 * of them is a BDD) by checking implication. Returns an empty result if
+	 * the implication does not hold, since it may still hold in the theory.
+	 */
+	Optional<Boolean> isBddLeq(final PredState that) {
+		if (this.index == null || this.index != that.index || (this.bdd == null && that.bdd == null)) {
+			return Optional.empty();
+		}
+		return this.toBdd().implies(that.toBdd()) ? Optional.of(true) : Optional.empty();
+	}
+
+	private Bdd toBdd() {
+		if (bdd != null) {
+			return bdd;
+		}
+		Bdd result = index.getBddManager().getTrue();
+		for (int w = 0; w < posBits.length; w++) {
+			for (long word = posBits[w]; word != 0; word &= word - 1) {
+				result = result.and(index.getBddManager().getVar(w * 64 + Long.numberOfTrailingZeros(word)));
+			}
+		}
+		for (int w = 0; w < negBits.length; w++) {
+			for (long word = negBits[w]; word != 0; word &= word - 1) {
+				result = result.and(index.getBddManager().getVar(w * 64 + Long.numberOfTrailingZeros(word)).not());
+			}
+		}
+		return result;
+	}
+
+	private static long word(final long[] bits, final int i) {
+		return i < bits.length ? bits[i] : 0;
+	}
+
+	private static boolean bitsEqual(final long[] bits1, final long[] bits2) {
+		final int words = Math.max(bits1.length, bits2.length);
+		for (int i = 0; i < words; i++) {
+			if (word(bits1, i) != word(bits2, i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Equals to the hash code of the set of predicates (sum of the elements)
+	private int predsHashCode() {
+		if (preds != null) {
+			return preds.hashCode();
+		} else if (bdd != null) {
+			return toExpr().hashCode();
+		}
+		int result = 0;
+		for (int w = 0; w < posBits.length; w++) {
+			for (long word = posBits[w]; word != 0; word &= word - 1) {
+				result += index.getPred(w * 64 + Long.numberOfTrailingZeros(word)).hashCode();
+			}
+		}
+		for (int w = 0; w < negBits.length; w++) {
+			for (long word = negBits[w]; word != 0; word &= word - 1) {
+				result += index.getNeg(w * 64 + Long.numberOfTrailingZeros(word)).hashCode();
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		int result = hashCode;
 		if (result == 0) {
 			result = HASH_SEED;
-			result = 31 * result + preds.hashCode();
+			result = 31 * result + predsHashCode();
 			hashCode = result;
 		}
 		return result;
@@ -125,7 +328,15 @@ public final class PredState implements ExprState {
 			return true;
 		} else if (obj instanceof PredState) {
 			final PredState that = (PredState) obj;
-			return this.preds.equals(that.preds);
+			if (this.posBits != null && that.posBits != null && this.index == that.index) {
+				return bitsEqual(this.posBits, that.posBits) && bitsEqual(this.negBits, that.negBits);
+			} else if (this.bdd != null && that.bdd != null && this.index == that.index) {
+				return this.bdd.equals(that.bdd);
+			} else if (this.hashCode() != that.hashCode()) {
+				return false;
+			} else {
+				return this.getPreds().equals(that.getPreds());
+			}
 		} else {
 			return false;
 		}
@@ -133,7 +344,7 @@ public final class PredState implements ExprState {
 
 	@Override
 	public String toString() {
-		return Utils.lispStringBuilder(getClass().getSimpleName()).aligned().addAll(preds).toString();
+		return Utils.lispStringBuilder(getClass().getSimpleName()).aligned().addAll(getPreds()).toString();
 	}
 
 }
@@ -0,0 +1,165 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.pred.PredPrec;
+import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Codecs for the states and precisions of the explicit and predicate domains.
+ */
+public final class Codecs {
+
+	private Codecs() {
+	}
+
+	public static Codec<ExplState> explState() {
+		return ExplStateCodec.INSTANCE;
+	}
+
+	public static Codec<PredState> predState() {
+		return PredStateCodec.INSTANCE;
+	}
+
+	public static Codec<ExplPrec> explPrec() {
+		return ExplPrecCodec.INSTANCE;
+	}
+
+	public static Codec<PredPrec> predPrec() {
+		return PredPrecCodec.INSTANCE;
+	}
+
+	////
+
+	private static final class ExplStateCodec implements Codec<ExplState> {
+		private static final ExplStateCodec INSTANCE = new ExplStateCodec();
+
+		@Override
+		public void write(final ExplState state, final SnapshotOutput out) throws IOException {
+			out.writeBoolean(state.isBottom());
+			if (!state.isBottom()) {
+				final List<Decl<?>> decls = new ArrayList<>(state.getDecls());
+				out.writeInt(decls.size());
+				for (final Decl<?> decl : decls) {
+					SnapshotInput.checkFormat(decl instanceof VarDecl, "Expected variable, found " + decl);
+					out.writeVar((VarDecl<?>) decl);
+					out.writeExpr(state.eval(decl).get());
+				}
+			}
+		}
+
+		@Override
+		public ExplState read(final SnapshotInput in) throws IOException {
+			final boolean bottom = in.readBoolean();
+			if (bottom) {
+				return ExplState.bottom();
+			}
+			final int size = in.readInt();
+			final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+			for (int i = 0; i < size; i++) {
+				final VarDecl<?> varDecl = in.readVar();
+				final Expr<?> value = in.readExpr();
+				SnapshotInput.checkFormat(value instanceof LitExpr, "Expected literal, found " + value);
+				builder.put(varDecl, (LitExpr<?>) value);
+			}
+			return ExplState.of(builder.build());
+		}
+	}
+
+	private static final class PredStateCodec implements Codec<PredState> {
+		private static final PredStateCodec INSTANCE = new PredStateCodec();
+
+		@Override
+		public void write(final PredState state, final SnapshotOutput out) throws IOException {
+			writeExprs(state.getPreds(), out);
+		}
+
+		@Override
+		public PredState read(final SnapshotInput in) throws IOException {
+			return PredState.of(readExprs(in));
+		}
+	}
+
+	private static final class ExplPrecCodec implements Codec<ExplPrec> {
+		private static final ExplPrecCodec INSTANCE = new ExplPrecCodec();
+
+		@Override
+		public void write(final ExplPrec prec, final SnapshotOutput out) throws IOException {
+			out.writeInt(prec.getVars().size());
+			for (final VarDecl<?> varDecl : prec.getVars()) {
+				out.writeVar(varDecl);
+			}
+		}
+
+		@Override
+		public ExplPrec read(final SnapshotInput in) throws IOException {
+			final int size = in.readInt();
+			final List<VarDecl<?>> vars = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				vars.add(in.readVar());
+			}
+			return ExplPrec.of(vars);
+		}
+	}
+
+	private static final class PredPrecCodec implements Codec<PredPrec> {
+		private static final PredPrecCodec INSTANCE = new PredPrecCodec();
+
+		@Override
+		public void write(final PredPrec prec, final SnapshotOutput out) throws IOException {
+			writeExprs(prec.getPreds(), out);
+		}
+
+		@Override
+		public PredPrec read(final SnapshotInput in) throws IOException {
+			return PredPrec.of(readExprs(in));
+		}
+	}
+
+	private static void writeExprs(final Iterable<? extends Expr<BoolType>> exprs, final SnapshotOutput out)
+			throws IOException {
+		final List<Expr<BoolType>> list = new ArrayList<>();
+		exprs.forEach(list::add);
+		out.writeInt(list.size());
+		for (final Expr<BoolType> expr : list) {
+			out.writeExpr(expr);
+		}
+	}
+
+	private static List<Expr<BoolType>> readExprs(final SnapshotInput in) throws IOException {
+		final int size = in.readInt();
+		final List<Expr<BoolType>> exprs = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			exprs.add(in.readExpr(Bool()));
+		}
+		return exprs;
+	}
+
+}
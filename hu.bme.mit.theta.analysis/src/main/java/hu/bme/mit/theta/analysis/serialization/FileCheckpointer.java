@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgSerializer;
+import hu.bme.mit.theta.analysis.algorithm.cegar.CegarCheckpointer;
+import hu.bme.mit.theta.core.decl.Decl;
+
+/**
+ * A checkpointer that saves the iteration, the precision and the ARG into a
+ * binary file after every n-th refinement. The file is first written to a
+ * temporary file and then moved, so that an interrupted save does not destroy
+ * the previous checkpoint. The file also stores a fingerprint of the model
+ * and the configuration, and a checkpoint with a different fingerprint is not
+ * restored.
+ */
+public final class FileCheckpointer<S extends State, A extends Action, P extends Prec>
+		implements CegarCheckpointer<S, A, P> {
+
+	private static final String MAGIC = "theta-cegar-checkpoint";
+	private static final int VERSION = 3;
+
+	private final File file;
+	private final int period;
+	private final boolean resume;
+	private final String fingerprint;
+	private final LTS<? super S, ? extends A> lts;
+	private final Codec<S> stateCodec;
+	private final Codec<P> precCodec;
+	private final Collection<Decl<?>> decls;
+
+	private FileCheckpointer(final File file, final int period, final boolean resume, final String fingerprint,
+			final LTS<? super S, ? extends A> lts, final Codec<S> stateCodec, final Codec<P> precCodec,
+			final Collection<? extends Decl<?>> decls) {
+		checkArgument(period > 0, "Period must be positive.");
+		this.file = checkNotNull(file);
+		this.period = period;
+		this.resume = resume;
+		this.fingerprint = checkNotNull(fingerprint);
+		this.lts = checkNotNull(lts);
+		this.stateCodec = checkNotNull(stateCodec);
+		this.precCodec = checkNotNull(precCodec);
+		this.decls = ImmutableList.copyOf(decls);
+	}
+
+	/**
+	 * Creates a new checkpointer.
+	 *
+	 * @param file File to save to (and restore from)
+	 * @param period Save after every period-th refinement
+	 * @param resume Restore from the file if it exists
+	 * @param fingerprint Identifies the model and the configuration
+	 * @param lts LTS used for identifying actions in the ARG
+	 * @param stateCodec Codec for states
+	 * @param precCodec Codec for precisions
+	 * @param decls Declarations (variables of the model) for parsing
+	 *            expressions
+	 */
+	public static <S extends State, A extends Action, P extends Prec> FileCheckpointer<S, A, P> create(
+			final File file, final int period, final boolean resume, final String fingerprint,
+			final LTS<? super S, ? extends A> lts, final Codec<S> stateCodec, final Codec<P> precCodec,
+			final Collection<? extends Decl<?>> decls) {
+		return new FileCheckpointer<>(file, period, resume, fingerprint, lts, stateCodec, precCodec, decls);
+	}
+
+	@Override
+	public void save(final int iteration, final ARG<S, A> arg, final P prec) {
+		if (iteration % period != 0) {
+			return;
+		}
+		final File tmpFile = new File(file.getPath() + ".tmp");
+		try {
+			try (SnapshotOutput out = new SnapshotOutput(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				out.writeString(MAGIC);
+				out.writeInt(VERSION);
+				out.writeString(fingerprint);
+				out.writeInt(iteration);
+				out.write(prec, precCodec);
+				ArgSerializer.write(arg, lts, stateCodec, out);
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not save checkpoint to " + file, e);
+		}
+	}
+
+	// The saved run is continued as it was, so the initial precision is not used
+	@Override
+	public Optional<Checkpoint<P>> restore(final ARG<S, A> arg, final P initPrec) {
+		if (!resume || !file.exists()) {
+			return Optional.empty();
+		}
+		try (SnapshotInput in = new SnapshotInput(new BufferedInputStream(new FileInputStream(file)), decls)) {
+			SnapshotInput.checkFormat(MAGIC.equals(in.readString()), "Not a checkpoint file");
+			SnapshotInput.checkFormat(in.readInt() == VERSION, "Unsupported version");
+			checkState(fingerprint.equals(in.readString()),
+					"Checkpoint %s was saved for a different model or configuration", file);
+			final int iteration = in.readInt();
+			final P prec = in.read(precCodec);
+			ArgSerializer.read(arg, lts, stateCodec, in);
+			return Optional.of(Checkpoint.of(iteration, prec));
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not restore checkpoint from " + file, e);
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.cegar.CegarCheckpointer;
+import hu.bme.mit.theta.common.logging.Logger;
+import hu.bme.mit.theta.common.logging.Logger.Level;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.dsl.CoreDslManager;
+import hu.bme.mit.theta.core.type.Expr;
+
+/**
+ * Persists the precision between runs in a text file (using the core DSL) so
+ * that a later run on the same or a slightly modified model can start from the
+ * precision found previously. The precision is saved after each refinement,
+ * thus the file contains the final precision when the checker terminates. The
+ * file also stores a hash of the model: if the model changed, entries that
+ * cannot be parsed any more (e.g., referring to removed variables or
+ * locations) are dropped and the rest is reused. The reused precision is
+ * joined with the initial precision of the run. The ARG is not restored.
+ */
+public final class PrecCache<S extends State, A extends Action, P extends Prec> implements CegarCheckpointer<S, A, P> {
+
+	private static final String HEADER = "theta-prec-cache 1";
+	private static final String HASH = "hash ";
+	private static final String SECTION = "section ";
+
+	private final File file;
+	private final String modelHash;
+	private final PrecFormat<P> format;
+	private final Collection<? extends Decl<?>> decls;
+	private final Logger logger;
+
+	private PrecCache(final File file, final String modelHash, final PrecFormat<P> format,
+			final Collection<? extends Decl<?>> decls, final Logger logger) {
+		this.file = checkNotNull(file);
+		this.modelHash = checkNotNull(modelHash);
+		this.format = checkNotNull(format);
+		this.decls = checkNotNull(decls);
+		this.logger = checkNotNull(logger);
+	}
+
+	/**
+	 * Creates a new precision cache.
+	 *
+	 * @param file Cache file
+	 * @param modelHash Hash of the model the precision belongs to
+	 * @param format Format of the precision
+	 * @param decls Declarations (variables of the model) for parsing
+	 *            expressions
+	 * @param logger Logger for reporting the reused and dropped entries
+	 */
+	public static <S extends State, A extends Action, P extends Prec> PrecCache<S, A, P> create(final File file,
+			final String modelHash, final PrecFormat<P> format, final Collection<? extends Decl<?>> decls,
+			final Logger logger) {
+		return new PrecCache<>(file, modelHash, format, decls, logger);
+	}
+
+	@Override
+	public void save(final int iteration, final ARG<S, A> arg, final P prec) {
+		final CoreDslManager manager = new CoreDslManager();
+		final List<String> lines = new ArrayList<>();
+		lines.add(HEADER);
+		lines.add(HASH + modelHash);
+		for (final Entry<String, List<Expr<?>>> section : format.toSections(prec).entrySet()) {
+			lines.add(SECTION + section.getKey());
+			for (final Expr<?> expr : section.getValue()) {
+				lines.add(manager.writeExpr(expr));
+			}
+		}
+
+		final File tmpFile = new File(file.getPath() + ".tmp");
+		try {
+			Files.write(tmpFile.toPath(), lines, StandardCharsets.UTF_8);
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not save precision to " + file, e);
+		}
+	}
+
+	@Override
+	public Optional<Checkpoint<P>> restore(final ARG<S, A> arg, final P initPrec) {
+		checkNotNull(initPrec);
+		if (!file.exists()) {
+			return Optional.empty();
+		}
+
+		final List<String> lines;
+		try {
+			lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not load precision from " + file, e);
+		}
+		if (lines.size() < 2 || !lines.get(0).equals(HEADER) || !lines.get(1).startsWith(HASH)) {
+			logger.write(Level.MAINSTEP, "Ignoring precision cache %s: invalid format%n", file);
+			return Optional.empty();
+		}
+		final boolean sameModel = lines.get(1).substring(HASH.length()).equals(modelHash);
+
+		final CoreDslManager manager = new CoreDslManager();
+		decls.forEach(manager::declare);
+		final Map<String, List<Expr<?>>> sections = new LinkedHashMap<>();
+		List<Expr<?>> current = null;
+		int dropped = 0;
+		for (final String line : lines.subList(2, lines.size())) {
+			if (line.startsWith(SECTION)) {
+				current = sections.computeIfAbsent(line.substring(SECTION.length()), k -> new ArrayList<>());
+			} else if (current != null && !line.isEmpty()) {
+				try {
+					current.add(manager.parseExpr(line));
+				} catch (final RuntimeException e) {
+					dropped++;
+				}
+			}
+		}
+
+		// A cache hit can only make the initial precision finer
+		for (final Entry<String, List<Expr<?>>> section : format.toSections(initPrec).entrySet()) {
+			final List<Expr<?>> exprs = sections.computeIfAbsent(section.getKey(), k -> new ArrayList<>());
+			section.getValue().stream().filter(e -> !exprs.contains(e)).forEach(exprs::add);
+		}
+
+		final P prec = format.fromSections(sections);
+		if (sameModel) {
+			logger.write(Level.MAINSTEP, "Reusing precision of the same model from %s%n", file);
+		} else {
+			logger.write(Level.MAINSTEP, "Reusing precision of a modified model from %s, dropped %d entries%n",
+					file, dropped);
+		}
+		return Optional.of(Checkpoint.of(0, prec));
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import java.util.List;
+import java.util.Map;
+
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.core.type.Expr;
+
+/**
+ * Textual representation of a precision as named sections of expressions,
+ * used by the precision cache. Converting back must tolerate missing sections
+ * and expressions, because entries that could not be parsed (e.g., referring
+ * to removed variables) are dropped.
+ */
+public interface PrecFormat<P extends Prec> {
+
+	Map<String, List<Expr<?>>> toSections(P prec);
+
+	P fromSections(Map<String, List<Expr<?>>> sections);
+
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.pred.PredPrec;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Formats for the precisions of the explicit and predicate domains. Both use a
+ * single section: variable references and predicates respectively.
+ */
+public final class PrecFormats {
+
+	public static final String GLOBAL_SECTION = "global";
+
+	private PrecFormats() {
+	}
+
+	public static PrecFormat<ExplPrec> expl() {
+		return ExplPrecFormat.INSTANCE;
+	}
+
+	public static PrecFormat<PredPrec> pred() {
+		return PredPrecFormat.INSTANCE;
+	}
+
+	////
+
+	private static final class ExplPrecFormat implements PrecFormat<ExplPrec> {
+		private static final ExplPrecFormat INSTANCE = new ExplPrecFormat();
+
+		@Override
+		public Map<String, List<Expr<?>>> toSections(final ExplPrec prec) {
+			final List<Expr<?>> refs = new ArrayList<>();
+			for (final VarDecl<?> var : prec.getVars()) {
+				refs.add(var.getRef());
+			}
+			return ImmutableMap.of(GLOBAL_SECTION, refs);
+		}
+
+		@Override
+		public ExplPrec fromSections(final Map<String, List<Expr<?>>> sections) {
+			final List<VarDecl<?>> vars = new ArrayList<>();
+			for (final Collection<Expr<?>> exprs : sections.values()) {
+				for (final Expr<?> expr : exprs) {
+					if (expr instanceof RefExpr) {
+						final Decl<?> decl = ((RefExpr<?>) expr).getDecl();
+						if (decl instanceof VarDecl) {
+							vars.add((VarDecl<?>) decl);
+						}
+					}
+				}
+			}
+			return ExplPrec.of(vars);
+		}
+	}
+
+	private static final class PredPrecFormat implements PrecFormat<PredPrec> {
+		private static final PredPrecFormat INSTANCE = new PredPrecFormat();
+
+		@Override
+		public Map<String, List<Expr<?>>> toSections(final PredPrec prec) {
+			return ImmutableMap.of(GLOBAL_SECTION, ImmutableList.copyOf(prec.getPreds()));
+		}
+
+		@Override
+		public PredPrec fromSections(final Map<String, List<Expr<?>>> sections) {
+			final List<Expr<BoolType>> preds = new ArrayList<>();
+			for (final Collection<Expr<?>> exprs : sections.values()) {
+				for (final Expr<?> expr : exprs) {
+					if (expr.getType().equals(Bool())) {
+						@SuppressWarnings("unchecked")
+						final Expr<BoolType> pred = (Expr<BoolType>) expr;
+						preds.add(pred);
+					}
+				}
+			}
+			return PredPrec.of(preds);
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.dsl.CoreDslManager;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+
+/**
+ * Binary input for snapshots written by {@link SnapshotOutput}. Expressions
+ * are parsed in the scope of the declarations given at construction, which are
+ * typically the variables of the model.
+ */
+public final class SnapshotInput implements Closeable {
+
+	private final DataInputStream in;
+	private final CoreDslManager dslManager;
+	private final List<Expr<?>> exprTable;
+
+	public SnapshotInput(final InputStream in, final Iterable<? extends Decl<?>> decls) {
+		this.in = new DataInputStream(checkNotNull(in));
+		dslManager = new CoreDslManager();
+		decls.forEach(dslManager::declare);
+		exprTable = new ArrayList<>();
+	}
+
+	public int readInt() throws IOException {
+		int zigzag = 0;
+		int shift = 0;
+		int b;
+		do {
+			checkFormat(shift < 32, "Malformed integer");
+			b = in.readUnsignedByte();
+			zigzag |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	public boolean readBoolean() throws IOException {
+		return in.readBoolean();
+	}
+
+	public String readString() throws IOException {
+		final int length = readInt();
+		checkFormat(length >= 0, "Negative string length");
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public Expr<?> readExpr() throws IOException {
+		final int index = readInt();
+		if (index == exprTable.size()) {
+			final String string = readString();
+			final Expr<?> expr;
+			try {
+				expr = dslManager.parseExpr(string);
+			} catch (final RuntimeException e) {
+				throw new IOException("Cannot parse expression: " + string, e);
+			}
+			exprTable.add(expr);
+			return expr;
+		} else {
+			checkFormat(index >= 0 && index < exprTable.size(), "Invalid expression index " + index);
+			return exprTable.get(index);
+		}
+	}
+
+	public <T extends Type> Expr<T> readExpr(final T type) throws IOException {
+		final Expr<?> expr = readExpr();
+		checkFormat(expr.getType().equals(type), "Expected type " + type + " for " + expr);
+		return TypeUtils.cast(expr, type);
+	}
+
+	public VarDecl<?> readVar() throws IOException {
+		final Expr<?> expr = readExpr();
+		checkFormat(expr instanceof RefExpr && ((RefExpr<?>) expr).getDecl() instanceof VarDecl,
+				"Expected variable, found " + expr);
+		return (VarDecl<?>) ((RefExpr<?>) expr).getDecl();
+	}
+
+	public <T> T read(final Codec<T> codec) throws IOException {
+		return codec.read(this);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	public static void checkFormat(final boolean condition, final String message) throws IOException {
+		if (!condition) {
+			throw new IOException("Invalid snapshot: " + message);
+		}
+	}
+
+}
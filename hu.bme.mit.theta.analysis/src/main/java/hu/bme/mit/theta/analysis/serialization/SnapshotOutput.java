@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.dsl.CoreDslManager;
+import hu.bme.mit.theta.core.type.Expr;
+
+/**
+ * Binary output for snapshots. Integers are written in a variable-length
+ * encoding and expressions go through a shared expression table: the first
+ * occurrence of an expression is written in the core DSL, later occurrences
+ * only refer to its index in the table.
+ *
+ * @see SnapshotInput
+ */
+public final class SnapshotOutput implements Closeable {
+
+	private final DataOutputStream out;
+	private final CoreDslManager dslManager;
+	private final Map<Expr<?>, Integer> exprTable;
+
+	public SnapshotOutput(final OutputStream out) {
+		this.out = new DataOutputStream(checkNotNull(out));
+		dslManager = new CoreDslManager();
+		exprTable = new HashMap<>();
+	}
+
+	public void writeInt(final int value) throws IOException {
+		// Zigzag encoding, so that small negative numbers are also short
+		int zigzag = (value << 1) ^ (value >> 31);
+		while ((zigzag & ~0x7F) != 0) {
+			out.writeByte((zigzag & 0x7F) | 0x80);
+			zigzag >>>= 7;
+		}
+		out.writeByte(zigzag);
+	}
+
+	public void writeBoolean(final boolean value) throws IOException {
+		out.writeBoolean(value);
+	}
+
+	public void writeString(final String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	public void writeExpr(final Expr<?> expr) throws IOException {
+		checkNotNull(expr);
+		final Integer index = exprTable.get(expr);
+		if (index != null) {
+			writeInt(index);
+		} else {
+			final int newIndex = exprTable.size();
+			exprTable.put(expr, newIndex);
+			writeInt(newIndex);
+			writeString(dslManager.writeExpr(expr));
+		}
+	}
+
+	public void writeVar(final VarDecl<?> varDecl) throws IOException {
+		writeExpr(varDecl.getRef());
+	}
+
+	public <T> void write(final T value, final Codec<T> codec) throws IOException {
+		codec.write(value, this);
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+}
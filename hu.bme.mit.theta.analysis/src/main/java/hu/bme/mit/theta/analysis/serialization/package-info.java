@@ -0,0 +1,12 @@
+/**
+ * This package contains utilities for writing and reading snapshots of the
+ * analysis (states, precisions and ARGs) in a compact binary format, e.g., for
+ * checkpointing and resuming the CEGAR loop.
+ *
+ * @see hu.bme.mit.theta.analysis.serialization.SnapshotOutput
+ * @see hu.bme.mit.theta.analysis.serialization.Codecs
+ * @see hu.bme.mit.theta.analysis.algorithm.ArgSerializer
+ * @see hu.bme.mit.theta.analysis.serialization.FileCheckpointer
+ */
+
+package hu.bme.mit.theta.analysis.serialization;
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import hu.bme.mit.theta.common.LispStringBuilder;
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Bucket waitlist for non-negative integer priorities. The priority of an item
+ * is computed once when it is added, and the item is put into the bucket of
+ * its priority. Items with the least priority are removed first, items with
+ * the same priority in FIFO order. Adding is constant time, removing is
+ * amortized constant time if priorities do not decrease too much during the
+ * search (e.g., distance or depth based priorities).
+ */
+public final class BucketWaitlist<T> implements Waitlist<T> {
+
+	private final ToIntFunction<? super T> priority;
+	private final List<Queue<T>> buckets;
+	// Every bucket below this index is empty
+	private int minBucket;
+	private int size;
+
+	private BucketWaitlist(final ToIntFunction<? super T> priority) {
+		this.priority = checkNotNull(priority);
+		buckets = new ArrayList<>();
+		minBucket = 0;
+		size = 0;
+	}
+
+	public static <T> BucketWaitlist<T> create(final ToIntFunction<? super T> priority) {
+		return new BucketWaitlist<>(priority);
+	}
+
+	@Override
+	public void add(final T item) {
+		final int p = priority.applyAsInt(item);
+		checkArgument(p >= 0, "Priority must be non-negative.");
+		while (buckets.size() <= p) {
+			buckets.add(new ArrayDeque<>());
+		}
+		buckets.get(p).add(item);
+		if (p < minBucket) {
+			minBucket = p;
+		}
+		size++;
+	}
+
+	@Override
+	public void addAll(final Collection<? extends T> items) {
+		checkNotNull(items);
+		items.forEach(this::add);
+	}
+
+	@Override
+	public void addAll(final Stream<? extends T> items) {
+		checkNotNull(items);
+		items.forEach(this::add);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public T remove() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		while (buckets.get(minBucket).isEmpty()) {
+			minBucket++;
+		}
+		size--;
+		return buckets.get(minBucket).remove();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		buckets.clear();
+		minBucket = 0;
+		size = 0;
+	}
+
+	@Override
+	public String toString() {
+		final LispStringBuilder builder = Utils.lispStringBuilder(getClass().getSimpleName()).add(priority);
+		buckets.forEach(builder::addAll);
+		return builder.toString();
+	}
+}
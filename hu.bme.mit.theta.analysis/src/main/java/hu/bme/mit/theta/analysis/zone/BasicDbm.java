@@ -147,12 +147,11 @@ final class BasicDbm {
 			matrix.set(x, y, b);
 
 			for (int i = 0; i <= nClocks; i++) {
+				final int bix = add(matrix.get(i, x), b);
 				for (int j = 0; j <= nClocks; j++) {
-					if (add(matrix.get(i, x), matrix.get(x, j)) < matrix.get(i, j)) {
-						matrix.set(i, j, add(matrix.get(i, x), matrix.get(x, j)));
-					}
-					if (add(matrix.get(i, y), matrix.get(y, j)) < matrix.get(i, j)) {
-						matrix.set(i, j, add(matrix.get(i, y), matrix.get(y, j)));
+					final int bij = add(bix, matrix.get(y, j));
+					if (bij < matrix.get(i, j)) {
+						matrix.set(i, j, bij);
 					}
 				}
 			}
@@ -265,6 +264,185 @@ final class BasicDbm {
 		close();
 	}
 
+	// aLU simulation check over a common signature; a negative bound stands for a missing bound
+	public boolean isLeq(final BasicDbm that, final int[] l, final int[] u) {
+		checkNotNull(that);
+		checkNotNull(l);
+		checkNotNull(u);
+		checkArgument(that.nClocks == nClocks);
+		checkArgument(l.length == nClocks + 1);
+		checkArgument(u.length == nClocks + 1);
+
+		if (!this.isConsistent()) {
+			return true;
+		}
+
+		if (!that.isConsistent()) {
+			return false;
+		}
+
+		for (int x = 0; x <= nClocks; x++) {
+			final int z0x = this.matrix.get(0, x);
+			final int leqMinusUx = u[x] < 0 ? Inf() : Leq(-u[x]);
+
+			// Z0x >= (-Ux, <=)
+			if (z0x < leqMinusUx) {
+				continue;
+			}
+
+			for (int y = 0; y <= nClocks; y++) {
+				final int zyx = this.matrix.get(y, x);
+				final int zpyx = that.matrix.get(y, x);
+
+				if (zpyx >= zyx) {
+					continue;
+				}
+
+				final int ltMinusLy = l[y] < 0 ? Inf() : Lt(-l[y]);
+
+				if (add(zpyx, ltMinusLy) >= z0x) {
+					continue;
+				}
+
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Extra-LU+ extrapolation; a negative bound stands for a clock that is never compared
+	public void norm(final int[] l, final int[] u) {
+		checkNotNull(l);
+		checkNotNull(u);
+		checkArgument(l.length == nClocks + 1);
+		checkArgument(u.length == nClocks + 1);
+
+		if (!isConsistent()) {
+			return;
+		}
+
+		final int[] z0 = new int[nClocks + 1];
+		for (int i = 0; i <= nClocks; i++) {
+			z0[i] = matrix.get(0, i);
+		}
+
+		for (int i = 0; i <= nClocks; i++) {
+			for (int j = 0; j <= nClocks; j++) {
+				if (i == j || matrix.get(i, j) == Inf()) {
+					continue;
+				}
+
+				if (i != 0 && (l[i] < 0 || matrix.get(i, j) > Leq(l[i]) || z0[i] < Leq(-l[i]))) {
+					matrix.set(i, j, Inf());
+				} else if (j != 0 && (u[j] < 0 || z0[j] < Leq(-u[j]))) {
+					if (i != 0) {
+						matrix.set(i, j, Inf());
+					} else if (u[j] < 0) {
+						// clocks are nonnegative in every reachable valuation
+						matrix.set(i, j, Leq(0));
+					} else {
+						matrix.set(i, j, Lt(-u[j]));
+					}
+				}
+			}
+		}
+		close();
+	}
+
+	// Minimal constraint graph (Larsen et al.) as pairs of matrix index and bound
+	int[] getMinConstrs() {
+		final int size = nClocks + 1;
+
+		if (!isConsistent()) {
+			return new int[] { 0, Leq(-1) };
+		}
+
+		// Clocks on a zero cycle are represented by the smallest clock of their class
+		final int[] rep = new int[size];
+		for (int i = 0; i < size; i++) {
+			rep[i] = i;
+		}
+		for (int i = 0; i < size; i++) {
+			if (rep[i] == i) {
+				for (int j = i + 1; j < size; j++) {
+					if (rep[j] == j && add(matrix.get(i, j), matrix.get(j, i)) == Leq(0)) {
+						rep[j] = i;
+					}
+				}
+			}
+		}
+
+		final int[] constrs = new int[2 * size * size];
+		int n = 0;
+
+		// A cycle through the members of each class
+		for (int i = 0; i < size; i++) {
+			if (rep[i] == i) {
+				int last = i;
+				for (int j = i + 1; j < size; j++) {
+					if (rep[j] == i) {
+						constrs[n++] = last * size + j;
+						constrs[n++] = matrix.get(last, j);
+						last = j;
+					}
+				}
+				if (last != i) {
+					constrs[n++] = last * size + i;
+					constrs[n++] = matrix.get(last, i);
+				}
+			}
+		}
+
+		// Non-redundant edges between the representatives
+		for (int i = 0; i < size; i++) {
+			if (rep[i] != i) {
+				continue;
+			}
+			for (int j = 0; j < size; j++) {
+				if (i == j || rep[j] != j || matrix.get(i, j) == Inf()) {
+					continue;
+				}
+				if (!isRedundant(rep, i, j)) {
+					constrs[n++] = i * size + j;
+					constrs[n++] = matrix.get(i, j);
+				}
+			}
+		}
+
+		return Arrays.copyOf(constrs, n);
+	}
+
+	private boolean isRedundant(final int[] rep, final int i, final int j) {
+		final int bound = matrix.get(i, j);
+		for (int k = 0; k <= nClocks; k++) {
+			if (k != i && k != j && rep[k] == k && add(matrix.get(i, k), matrix.get(k, j)) <= bound) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static BasicDbm fromMinConstrs(final int size, final int[] constrs) {
+		checkNotNull(constrs);
+		final BasicDbm result = new BasicDbm(size, BasicDbm::defaultBound);
+		for (int n = 0; n < constrs.length; n += 2) {
+			result.matrix.set(constrs[n] / size, constrs[n] % size, constrs[n + 1]);
+		}
+		result.close();
+		return result;
+	}
+
+	boolean satisfies(final int[] constrs) {
+		checkNotNull(constrs);
+		final int size = nClocks + 1;
+		for (int n = 0; n < constrs.length; n += 2) {
+			if (matrix.get(constrs[n] / size, constrs[n] % size) > constrs[n + 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	void close() {
 		for (int k = 0; k <= nClocks; k++) {
 			for (int i = 0; i <= nClocks; i++) {
@@ -68,6 +68,17 @@ public final class BoundFunc {
 		return new BoundFunc(varToLower, varToUpper);
 	}
 
+	public BoundFunc rename(final Map<? extends VarDecl<RatType>, ? extends VarDecl<RatType>> renaming) {
+		checkNotNull(renaming);
+		final Map<VarDecl<RatType>, Integer> varToLower = new HashMap<>();
+		final Map<VarDecl<RatType>, Integer> varToUpper = new HashMap<>();
+
+		this.varToLower.forEach((c, b) -> varToLower.put(renaming.containsKey(c) ? renaming.get(c) : c, b));
+		this.varToUpper.forEach((c, b) -> varToUpper.put(renaming.containsKey(c) ? renaming.get(c) : c, b));
+
+		return new BoundFunc(varToLower, varToUpper);
+	}
+
 	public static BoundFunc top() {
 		return TOP;
 	}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+final class CompressedDbm {
+
+	private final DbmSignature signature;
+	private final int[] constrs;
+
+	private CompressedDbm(final DbmSignature signature, final int[] constrs) {
+		this.signature = checkNotNull(signature);
+		this.constrs = checkNotNull(constrs);
+	}
+
+	static CompressedDbm create(final DbmSignature signature, final int[] constrs) {
+		return new CompressedDbm(signature, constrs);
+	}
+
+	DbmSignature getSignature() {
+		return signature;
+	}
+
+	int[] getConstrs() {
+		return constrs;
+	}
+
+	boolean isConsistent() {
+		return constrs.length != 2 || constrs[0] != 0;
+	}
+
+}
@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -146,11 +147,40 @@ final class DBM {
 		return new DBM(DbmSignature.over(vars), BOTTOM_DBM_VALUES);
 	}
 
+	static DBM decompress(final CompressedDbm compressedDbm) {
+		checkNotNull(compressedDbm);
+		final DbmSignature signature = compressedDbm.getSignature();
+		final BasicDbm dbm = BasicDbm.fromMinConstrs(signature.size(), compressedDbm.getConstrs());
+		return new DBM(signature, dbm);
+	}
+
 	public static DBM project(final DBM dbm, final Iterable<? extends VarDecl<RatType>> vars) {
 		checkNotNull(vars);
 		return new DBM(DbmSignature.over(vars), dbm::getOrDefault);
 	}
 
+	public static DBM rename(final DBM dbm,
+			final Map<? extends VarDecl<RatType>, ? extends VarDecl<RatType>> renaming) {
+		checkNotNull(dbm);
+		checkNotNull(renaming);
+		checkArgument(!renaming.containsKey(ZeroVar.getInstance()), "Zero clock can not be renamed");
+
+		final Collection<VarDecl<RatType>> vars = new ArrayList<>();
+		final Map<VarDecl<RatType>, VarDecl<RatType>> inverse = new HashMap<>();
+		for (final VarDecl<RatType> varDecl : dbm.signature) {
+			final VarDecl<RatType> newVarDecl = renaming.containsKey(varDecl) ? renaming.get(varDecl) : varDecl;
+			checkArgument(inverse.put(newVarDecl, varDecl) == null, "Renaming is not injective");
+			vars.add(newVarDecl);
+		}
+
+		// Keep the variable order if the clocks are only permuted, so that the result stays comparable
+		final DbmSignature signature = inverse.keySet().equals(dbm.signature.toSet()) ? dbm.signature
+				: DbmSignature.over(vars);
+		final BiFunction<VarDecl<RatType>, VarDecl<RatType>, Integer> values = (x, y) -> dbm.get(inverse.get(x),
+				inverse.get(y));
+		return new DBM(signature, values);
+	}
+
 	////
 
 	public static DBM intersection(final DBM dbm1, final DBM dbm2) {
@@ -405,6 +435,18 @@ final class DBM {
 		return true;
 	}
 
+	boolean isLeq(final CompressedDbm that) {
+		if (!this.isConsistent()) {
+			return true;
+		}
+
+		if (this.signature.toList().equals(that.getSignature().toList())) {
+			return dbm.satisfies(that.getConstrs());
+		} else {
+			return isLeq(decompress(that));
+		}
+	}
+
 	public boolean isLeq(final DBM that, final Collection<? extends VarDecl<RatType>> activeVars) {
 		final Set<VarDecl<RatType>> vars = Sets.union(this.signature.toSet(), that.signature.toSet());
 
@@ -428,6 +470,10 @@ final class DBM {
 	}
 
 	public boolean isLeq(final DBM that, final BoundFunc bound) {
+		if (this.signature.toList().equals(that.signature.toList())) {
+			return dbm.isLeq(that.dbm, lowerBounds(bound), upperBounds(bound));
+		}
+
 		final Set<VarDecl<RatType>> vars = Sets.union(this.signature.toSet(), that.signature.toSet());
 
 		if (!this.isConsistent()) {
@@ -477,6 +523,10 @@ final class DBM {
 		return boundFunction.getLower(y).map(Ly -> Lt(-Ly)).orElse(Inf());
 	}
 
+	CompressedDbm compress() {
+		return CompressedDbm.create(signature, dbm.getMinConstrs());
+	}
+
 	public Collection<ClockConstr> getConstrs() {
 		final Collection<ClockConstr> result = new HashSet<>();
 
@@ -566,6 +616,27 @@ final class DBM {
 		dbm.norm(k);
 	}
 
+	public void norm(final BoundFunc boundFunc) {
+		checkNotNull(boundFunc);
+		dbm.norm(lowerBounds(boundFunc), upperBounds(boundFunc));
+	}
+
+	private int[] lowerBounds(final BoundFunc boundFunc) {
+		final int[] l = new int[signature.size()];
+		for (int i = 0; i < signature.size(); i++) {
+			l[i] = boundFunc.getLower(signature.getVar(i)).orElse(-1);
+		}
+		return l;
+	}
+
+	private int[] upperBounds(final BoundFunc boundFunc) {
+		final int[] u = new int[signature.size()];
+		for (int i = 0; i < signature.size(); i++) {
+			u[i] = boundFunc.getUpper(signature.getVar(i)).orElse(-1);
+		}
+		return u;
+	}
+
 	private void close() {
 		dbm.close();
 	}
@@ -49,14 +49,23 @@ public final class ZoneState implements ExprState {
 	private volatile int hashCode = 0;
 	private volatile Expr<BoolType> expr = null;
 
+	// Exactly one of the two representations is present
 	private final DBM dbm;
+	private final CompressedDbm compressedDbm;
 
 	private ZoneState(final DBM dbm) {
 		this.dbm = dbm;
+		this.compressedDbm = null;
+	}
+
+	private ZoneState(final CompressedDbm compressedDbm) {
+		this.dbm = null;
+		this.compressedDbm = compressedDbm;
 	}
 
 	private ZoneState(final Builder ops) {
 		this.dbm = ops.dbm;
+		this.compressedDbm = null;
 	}
 
 	////
@@ -113,34 +122,46 @@ public final class ZoneState implements ExprState {
 	public static ZoneState intersection(final ZoneState zone1, final ZoneState zone2) {
 		checkNotNull(zone1);
 		checkNotNull(zone2);
-		return new ZoneState(DBM.intersection(zone1.dbm, zone2.dbm));
+		return new ZoneState(DBM.intersection(zone1.getDbm(), zone2.getDbm()));
 	}
 
 	public static ZoneState enclosure(final ZoneState zone1, final ZoneState zone2) {
 		checkNotNull(zone1);
 		checkNotNull(zone2);
-		return new ZoneState(DBM.enclosure(zone1.dbm, zone2.dbm));
+		return new ZoneState(DBM.enclosure(zone1.getDbm(), zone2.getDbm()));
 	}
 
 	public static ZoneState interpolant(final ZoneState zoneA, final ZoneState zoneB) {
 		checkNotNull(zoneA);
 		checkNotNull(zoneB);
-		return new ZoneState(DBM.interpolant(zoneA.dbm, zoneB.dbm));
+		return new ZoneState(DBM.interpolant(zoneA.getDbm(), zoneB.getDbm()));
 	}
 
 	public static ZoneState weakInterpolant(final ZoneState zoneA, final ZoneState zoneB) {
 		checkNotNull(zoneA);
 		checkNotNull(zoneB);
-		return new ZoneState(DBM.weakInterpolant(zoneA.dbm, zoneB.dbm));
+		return new ZoneState(DBM.weakInterpolant(zoneA.getDbm(), zoneB.getDbm()));
 	}
 
 	////
 
 	public Collection<ZoneState> complement() {
-		final Collection<DBM> dbms = dbm.complement();
+		final Collection<DBM> dbms = getDbm().complement();
 		return dbms.stream().map(ZoneState::new).collect(toList());
 	}
 
+	public ZoneState compress() {
+		if (compressedDbm != null) {
+			return this;
+		} else {
+			return new ZoneState(dbm.compress());
+		}
+	}
+
+	public boolean isCompressed() {
+		return compressedDbm != null;
+	}
+
 	public Builder transform() {
 		return Builder.transform(this);
 	}
@@ -150,31 +171,44 @@ public final class ZoneState implements ExprState {
 		return Builder.project(this, clocks);
 	}
 
+	public Builder rename(final Map<? extends VarDecl<RatType>, ? extends VarDecl<RatType>> renaming) {
+		checkNotNull(renaming);
+		return Builder.rename(this, renaming);
+	}
+
 	////
 
 	public boolean isTop() {
-		return DBM.top(Collections.emptySet()).getRelation(dbm) == DbmRelation.EQUAL;
+		return DBM.top(Collections.emptySet()).getRelation(getDbm()) == DbmRelation.EQUAL;
 	}
 
 	@Override
 	public boolean isBottom() {
-		return !dbm.isConsistent();
+		if (compressedDbm != null) {
+			return !compressedDbm.isConsistent();
+		} else {
+			return !dbm.isConsistent();
+		}
 	}
 
 	public boolean isLeq(final ZoneState that) {
-		return this.dbm.isLeq(that.dbm);
+		if (that.compressedDbm != null) {
+			return this.getDbm().isLeq(that.compressedDbm);
+		} else {
+			return this.getDbm().isLeq(that.dbm);
+		}
 	}
 
 	public boolean isLeq(final ZoneState that, final Collection<? extends VarDecl<RatType>> activeVars) {
-		return this.dbm.isLeq(that.dbm, activeVars);
+		return this.getDbm().isLeq(that.getDbm(), activeVars);
 	}
 
 	public boolean isLeq(final ZoneState that, final BoundFunc boundFunction) {
-		return this.dbm.isLeq(that.dbm, boundFunction);
+		return this.getDbm().isLeq(that.getDbm(), boundFunction);
 	}
 
 	public boolean isConsistentWith(final ZoneState that) {
-		return this.dbm.isConsistentWith(that.dbm);
+		return this.getDbm().isConsistentWith(that.getDbm());
 	}
 
 	////
@@ -183,7 +217,7 @@ public final class ZoneState implements ExprState {
 	public Expr<BoolType> toExpr() {
 		Expr<BoolType> result = expr;
 		if (result == null) {
-			final Collection<Expr<BoolType>> exprs = dbm.getConstrs().stream().map(ClockConstr::toExpr)
+			final Collection<Expr<BoolType>> exprs = getDbm().getConstrs().stream().map(ClockConstr::toExpr)
 					.collect(toList());
 			result = And(exprs);
 			expr = result;
@@ -198,7 +232,7 @@ public final class ZoneState implements ExprState {
 		int result = hashCode;
 		if (result == 0) {
 			result = HASH_SEED;
-			result = 31 * result + dbm.hashCode();
+			result = 31 * result + getDbm().hashCode();
 			hashCode = result;
 		}
 		return result;
@@ -210,7 +244,7 @@ public final class ZoneState implements ExprState {
 			return true;
 		} else if (obj instanceof ZoneState) {
 			final ZoneState that = (ZoneState) obj;
-			return this.dbm.equals(that.dbm);
+			return this.getDbm().equals(that.getDbm());
 		} else {
 			return false;
 		}
@@ -218,10 +252,18 @@ public final class ZoneState implements ExprState {
 
 	@Override
 	public String toString() {
-		final Collection<ClockConstr> constrs = dbm.getConstrs();
+		final Collection<ClockConstr> constrs = getDbm().getConstrs();
 		return Utils.lispStringBuilder(getClass().getSimpleName()).aligned().addAll(constrs).toString();
 	}
 
+	private DBM getDbm() {
+		if (compressedDbm != null) {
+			return DBM.decompress(compressedDbm);
+		} else {
+			return dbm;
+		}
+	}
+
 	////////
 
 	public static class Builder {
@@ -234,11 +276,20 @@ public final class ZoneState implements ExprState {
 		////
 
 		private static Builder transform(final ZoneState state) {
-			return new Builder(DBM.copyOf(state.dbm));
+			if (state.compressedDbm != null) {
+				return new Builder(DBM.decompress(state.compressedDbm));
+			} else {
+				return new Builder(DBM.copyOf(state.dbm));
+			}
 		}
 
 		private static Builder project(final ZoneState state, final Collection<? extends VarDecl<RatType>> clocks) {
-			return new Builder(DBM.project(state.dbm, clocks));
+			return new Builder(DBM.project(state.getDbm(), clocks));
+		}
+
+		private static Builder rename(final ZoneState state,
+				final Map<? extends VarDecl<RatType>, ? extends VarDecl<RatType>> renaming) {
+			return new Builder(DBM.rename(state.getDbm(), renaming));
 		}
 
 		////
@@ -298,6 +349,11 @@ public final class ZoneState implements ExprState {
 			dbm.norm(ceilings);
 			return this;
 		}
+
+		public Builder norm(final BoundFunc boundFunc) {
+			dbm.norm(boundFunc);
+			return this;
+		}
 	}
 
 }
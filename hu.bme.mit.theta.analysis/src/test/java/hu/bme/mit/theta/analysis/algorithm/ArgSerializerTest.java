@@ -0,0 +1,123 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.expl.ExplOrd;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.pred.PredPrec;
+import hu.bme.mit.theta.analysis.serialization.Codecs;
+import hu.bme.mit.theta.analysis.serialization.SnapshotInput;
+import hu.bme.mit.theta.analysis.serialization.SnapshotOutput;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class ArgSerializerTest {
+
+	private static final VarDecl<IntType> X = Var("x", Int());
+	private static final VarDecl<IntType> Y = Var("y", Int());
+
+	private final Action a = new ActionStub("A");
+	private final Action b = new ActionStub("B");
+	private final LTS<ExplState, Action> lts = s -> ImmutableList.of(a, b);
+
+	@Test
+	public void testArg() throws IOException {
+		final ExplState s0 = ExplState.of(ImmutableValuation.builder().put(X, Int(0)).build());
+		final ExplState s1 = ExplState.of(ImmutableValuation.builder().put(X, Int(-1)).put(Y, Int(2)).build());
+		final ExplState s2 = ExplState.top();
+
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		final ArgNode<ExplState, Action> n0 = arg.createInitNode(s0, false);
+		final ArgNode<ExplState, Action> n1 = arg.createSuccNode(n0, a, s1, false);
+		final ArgNode<ExplState, Action> n2 = arg.createSuccNode(n0, b, s2, true);
+		final ArgNode<ExplState, Action> n3 = arg.createSuccNode(n1, b, s0, false);
+		n0.expanded = true;
+		n1.expanded = true;
+		n3.setCoveringNode(n0);
+		arg.initialized = true;
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (SnapshotOutput out = new SnapshotOutput(bytes)) {
+			ArgSerializer.write(arg, lts, Codecs.explState(), out);
+		}
+
+		final ARG<ExplState, Action> restored = ARG.create(ExplOrd.getInstance());
+		try (SnapshotInput in = new SnapshotInput(new ByteArrayInputStream(bytes.toByteArray()),
+				ImmutableList.of(X, Y))) {
+			ArgSerializer.read(restored, lts, Codecs.explState(), in);
+		}
+
+		assertTrue(restored.isInitialized());
+		final List<ArgNode<ExplState, Action>> nodes = ImmutableList.copyOf(restored.getNodes().iterator());
+		assertEquals(4, nodes.size());
+		final ArgNode<ExplState, Action> r0 = restored.getInitNodes().findFirst().get();
+		assertEquals(n0.getState(), r0.getState());
+		assertTrue(r0.isExpanded());
+		assertEquals(2, r0.getOutEdges().count());
+		final ArgNode<ExplState, Action> r2 = r0.getOutEdges().filter(e -> e.getAction() == b).findFirst().get()
+				.getTarget();
+		assertEquals(n2.getState(), r2.getState());
+		assertTrue(r2.isTarget());
+		final ArgNode<ExplState, Action> r1 = r0.getOutEdges().filter(e -> e.getAction() == a).findFirst().get()
+				.getTarget();
+		assertEquals(n1.getState(), r1.getState());
+		final ArgNode<ExplState, Action> r3 = r1.getSuccNodes().findFirst().get();
+		assertEquals(r0, r3.getCoveringNode().get());
+		assertEquals(n3.getState(), r3.getState());
+	}
+
+	@Test
+	public void testSharedExprs() throws IOException {
+		final PredPrec prec = PredPrec.of(ImmutableList.of(Lt(X.getRef(), Y.getRef()), Lt(Y.getRef(), Int(-3))));
+
+		final ByteArrayOutputStream single = new ByteArrayOutputStream();
+		try (SnapshotOutput out = new SnapshotOutput(single)) {
+			out.write(prec, Codecs.predPrec());
+		}
+		final ByteArrayOutputStream twice = new ByteArrayOutputStream();
+		try (SnapshotOutput out = new SnapshotOutput(twice)) {
+			out.write(prec, Codecs.predPrec());
+			out.write(prec, Codecs.predPrec());
+		}
+		// The second occurrence only refers to the expression table
+		assertTrue(twice.size() - single.size() < 5);
+
+		try (SnapshotInput in = new SnapshotInput(new ByteArrayInputStream(twice.toByteArray()),
+				ImmutableList.of(X, Y))) {
+			assertEquals(prec, in.read(Codecs.predPrec()));
+			assertEquals(prec, in.read(Codecs.predPrec()));
+		}
+	}
+}
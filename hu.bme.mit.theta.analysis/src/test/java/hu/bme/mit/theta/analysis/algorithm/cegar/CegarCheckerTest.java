@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+public class CegarCheckerTest {
+
+	private final Action act = new ActionStub("A");
+	private final LTS<State, Action> lts = s -> singleton(act);
+
+	// Every state is new, so the ARG is infinite
+	private final Analysis<State, Action, Prec> analysis = new Analysis<State, Action, Prec>() {
+		@Override
+		public PartialOrd<State> getPartialOrd() {
+			return new PartialOrdStub();
+		}
+
+		@Override
+		public InitFunc<State, Prec> getInitFunc() {
+			return p -> singleton(new StateStub("S"));
+		}
+
+		@Override
+		public TransFunc<State, Action, Prec> getTransFunc() {
+			return (s, a, p) -> singleton(new StateStub("S"));
+		}
+	};
+
+	@Test
+	public void testBudgetEndsCheck() {
+		final ArgBuilder<State, Action, Prec> argBuilder = ArgBuilder.create(lts, analysis, s -> false);
+		final Abstractor<State, Action, Prec> abstractor = BasicAbstractor.builder(argBuilder)
+				.stopCriterion(StopCriterions.nodeBudget(100)).build();
+		final Refiner<State, Action, Prec> refiner = (arg, prec) -> {
+			throw new AssertionError("No counterexample to refine");
+		};
+
+		final SafetyResult<State, Action> result = CegarChecker.create(abstractor, refiner).check(new PrecStub());
+
+		assertFalse(result.isSafe());
+		assertFalse(result.isUnsafe());
+		assertTrue(result.isUnknown());
+		assertSame(result, result.asUnknown());
+		assertEquals(1, ((CegarStatistics) result.getStats().get()).getIterations());
+		assertEquals(101, result.getArg().getNodes().count());
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar.abstractor;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+public class StopCriterionsTest {
+
+	private final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+	private final Action act = new ActionStub("A");
+
+	@Test
+	public void testFirstCex() {
+		final StopCriterion<State, Action> criterion = StopCriterions.firstCex();
+		final ArgNode<State, Action> n1 = arg.createInitNode(new StateStub("S1"), false);
+		assertFalse(criterion.canStop(arg));
+
+		final ArgNode<State, Action> n2 = arg.createSuccNode(n1, act, new StateStub("S2"), false);
+		assertFalse(criterion.canStop(arg, singleton(n2)));
+
+		final ArgNode<State, Action> n3 = arg.createSuccNode(n2, act, new StateStub("S3"), true);
+		assertTrue(criterion.canStop(arg, singleton(n3)));
+		assertTrue(criterion.canStop(arg));
+	}
+
+	@Test
+	public void testAtLeastNCexs() {
+		final StopCriterion<State, Action> criterion = StopCriterions.atLeastNCexs(2);
+		final ArgNode<State, Action> n1 = arg.createInitNode(new StateStub("S1"), false);
+		assertFalse(criterion.canStop(arg));
+
+		final ArgNode<State, Action> n2 = arg.createSuccNode(n1, act, new StateStub("S2"), true);
+		final ArgNode<State, Action> n3 = arg.createSuccNode(n1, act, new StateStub("S3"), false);
+		assertFalse(criterion.canStop(arg, asList(n2, n3)));
+
+		// Covered since it was created, which is only noticed when the count is
+		// confirmed on the ARG
+		n2.setCoveringNode(n3);
+		final ArgNode<State, Action> n4 = arg.createSuccNode(n3, act, new StateStub("S4"), true);
+		assertFalse(criterion.canStop(arg, singleton(n4)));
+
+		final ArgNode<State, Action> n5 = arg.createSuccNode(n3, act, new StateStub("S5"), true);
+		assertTrue(criterion.canStop(arg, singleton(n5)));
+	}
+
+	@Test
+	public void testNodeBudget() {
+		final StopCriterion<State, Action> criterion = StopCriterions
+				.anyOf(ImmutableList.of(StopCriterions.firstCex(), StopCriterions.nodeBudget(2)));
+		final ArgNode<State, Action> n1 = arg.createInitNode(new StateStub("S1"), false);
+		assertFalse(criterion.canStop(arg));
+
+		final ArgNode<State, Action> n2 = arg.createSuccNode(n1, act, new StateStub("S2"), false);
+		assertFalse(criterion.canStop(arg, singleton(n2)));
+		final ArgNode<State, Action> n3 = arg.createSuccNode(n1, act, new StateStub("S3"), false);
+		assertTrue(criterion.canStop(arg, singleton(n3)));
+
+		// The budget is per abstraction
+		assertFalse(criterion.canStop(arg));
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceCombinedChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceStatus;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceStatusMergers;
+import hu.bme.mit.theta.analysis.expr.refinement.ItpRefutation;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+public final class ExprTraceCombinedCheckerTest {
+
+	private final Expr<BoolType> itp = Var("x", Bool()).getRef();
+	private final Trace<ExprState, ExprAction> trace = Trace.of(ImmutableList.of(BasicExprState.of(True())),
+			ImmutableList.of());
+
+	@Test
+	public void testInfeasible() {
+		final ExprTraceChecker<ItpRefutation> checker1 = t -> ExprTraceStatus
+				.infeasible(ItpRefutation.binary(itp, 2, 4));
+		final ExprTraceChecker<ItpRefutation> checker2 = t -> ExprTraceStatus
+				.infeasible(ItpRefutation.binary(itp, 1, 4));
+
+		final ExprTraceChecker<ItpRefutation> sequential = ExprTraceCombinedChecker.create(checker1, checker2,
+				ExprTraceStatusMergers.minPruneIndex());
+		final ExprTraceChecker<ItpRefutation> parallel = ExprTraceCombinedChecker
+				.createParallel(ImmutableList.of(checker1, checker2), ExprTraceStatusMergers.minPruneIndex());
+
+		assertEquals(1, sequential.check(trace).asInfeasible().getRefutation().getPruneIndex());
+		assertEquals(1, parallel.check(trace).asInfeasible().getRefutation().getPruneIndex());
+	}
+
+	@Test
+	public void testFeasibleShortCircuit() throws InterruptedException {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicInteger slowChecks = new AtomicInteger();
+		final ExprTraceStatus<ItpRefutation> feasible = ExprTraceStatus
+				.feasible(Trace.of(ImmutableList.of(ImmutableValuation.empty()), ImmutableList.of()));
+
+		final ExprTraceChecker<ItpRefutation> slow = t -> {
+			try {
+				latch.await();
+			} catch (final InterruptedException e) {
+				throw new AssertionError(e);
+			}
+			slowChecks.incrementAndGet();
+			return feasible;
+		};
+		final ExprTraceChecker<ItpRefutation> fast = t -> feasible;
+
+		final ExprTraceChecker<ItpRefutation> parallel = ExprTraceCombinedChecker
+				.createParallel(ImmutableList.of(slow, fast), ExprTraceStatusMergers.minPruneIndex());
+
+		// Returns without waiting for the slow checker
+		assertSame(feasible, parallel.check(trace));
+		assertEquals(0, slowChecks.get());
+
+		latch.countDown();
+		assertTrue(parallel.check(trace).isFeasible());
+		// The slow checker of the first check was waited for
+		assertTrue(slowChecks.get() >= 1);
+	}
+
+	@Test
+	public void testGivenExecutor() {
+		final ExprTraceChecker<ItpRefutation> checker1 = t -> ExprTraceStatus
+				.infeasible(ItpRefutation.binary(itp, 2, 4));
+		final ExprTraceChecker<ItpRefutation> checker2 = t -> ExprTraceStatus
+				.infeasible(ItpRefutation.binary(itp, 1, 4));
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final ExprTraceChecker<ItpRefutation> parallel = ExprTraceCombinedChecker.createParallel(
+					ImmutableList.of(checker1, checker2), ExprTraceStatusMergers.minPruneIndex(), executor);
+			assertEquals(1, parallel.check(trace).asInfeasible().getRefutation().getPruneIndex());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+public class CachingTransFuncTest {
+
+	private int calls = 0;
+
+	private final CachingTransFunc<StateStub, ActionStub, PrecStub> transFunc = CachingTransFunc.create((s, a, p) -> {
+		calls++;
+		return singleton(new StateStub(s + "'"));
+	}, 2);
+
+	@Test
+	public void testHit() {
+		final StateStub s = new StateStub("s");
+		final ActionStub a = new ActionStub("a");
+		final PrecStub p = new PrecStub();
+
+		final StateStub succ = transFunc.getSuccStates(s, a, p).iterator().next();
+		assertEquals(succ, transFunc.getSuccStates(s, a, p).iterator().next());
+		assertEquals(1, calls);
+		assertEquals(1, transFunc.getHits());
+		assertEquals(1, transFunc.getMisses());
+
+		transFunc.getSuccStates(s, a, new PrecStub());
+		assertEquals(2, calls);
+	}
+
+	@Test
+	public void testEviction() {
+		final StateStub s1 = new StateStub("s1");
+		final StateStub s2 = new StateStub("s2");
+		final StateStub s3 = new StateStub("s3");
+		final ActionStub a = new ActionStub("a");
+		final PrecStub p = new PrecStub();
+
+		transFunc.getSuccStates(s1, a, p);
+		transFunc.getSuccStates(s2, a, p);
+		transFunc.getSuccStates(s3, a, p);
+		assertEquals(2, transFunc.size());
+		assertEquals(3, calls);
+
+		transFunc.getSuccStates(s3, a, p);
+		assertEquals(3, calls);
+		transFunc.getSuccStates(s1, a, p);
+		assertEquals(4, calls);
+	}
+
+}
@@ -19,6 +19,10 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -26,6 +30,8 @@ import org.junit.Test;
 import hu.bme.mit.theta.core.decl.Decls;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 
 public class PredOrdTest {
@@ -74,4 +80,24 @@ public class PredOrdTest {
 		Assert.assertFalse(ord.isLeq(st, s3));
 		Assert.assertTrue(ord.isLeq(st, st));
 	}
+
+	@Test
+	public void testLayers() {
+		final Solver solver = mock(Solver.class);
+		when(solver.check()).thenReturn(SolverStatus.UNSAT);
+		final PredOrd layeredOrd = PredOrd.create(solver);
+		final PredState s12 = PredState.of(Gt(VX.getRef(), Int(1)), Gt(VX.getRef(), Int(0)));
+
+		Assert.assertTrue(layeredOrd.isLeq(sb, s1));
+		Assert.assertTrue(layeredOrd.isLeq(s12, s1));
+		Assert.assertTrue(layeredOrd.isLeq(s1, st));
+		Assert.assertEquals(3, layeredOrd.getSyntacticHits());
+		verify(solver, times(0)).check();
+
+		Assert.assertTrue(layeredOrd.isLeq(s1, s2));
+		Assert.assertTrue(layeredOrd.isLeq(s1, s2));
+		Assert.assertEquals(1, layeredOrd.getSolverCalls());
+		Assert.assertEquals(1, layeredOrd.getCacheHits());
+		verify(solver, times(1)).check();
+	}
 }
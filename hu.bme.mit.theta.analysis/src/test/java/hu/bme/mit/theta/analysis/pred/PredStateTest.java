@@ -0,0 +1,120 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.pred;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.bdd.Bdd;
+import hu.bme.mit.theta.common.bdd.BddManager;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class PredStateTest {
+	private final VarDecl<IntType> VX = Decls.Var("x", Int());
+	private final Expr<BoolType> p1 = Gt(VX.getRef(), Int(1));
+	private final Expr<BoolType> p2 = Lt(VX.getRef(), Int(5));
+
+	private final PredPrec prec = PredPrec.of(ImmutableList.of(p1, p2));
+	private final PredIndex index = prec.getIndex();
+
+	private PredState cube(final boolean pos1, final boolean neg1, final boolean pos2, final boolean neg2) {
+		final long[] posBits = index.createBits();
+		final long[] negBits = index.createBits();
+		if (pos1) {
+			PredIndex.set(posBits, index.indexOf(p1));
+		}
+		if (neg1) {
+			PredIndex.set(negBits, index.indexOf(p1));
+		}
+		if (pos2) {
+			PredIndex.set(posBits, index.indexOf(p2));
+		}
+		if (neg2) {
+			PredIndex.set(negBits, index.indexOf(p2));
+		}
+		return PredState.cube(index, posBits, negBits);
+	}
+
+	@Test
+	public void testEquals() {
+		final PredState c = cube(true, false, false, true);
+		final PredState s = PredState.of(p1, Not(p2));
+		assertEquals(s, c);
+		assertEquals(c, s);
+		assertEquals(s.hashCode(), c.hashCode());
+		assertEquals(c, cube(true, false, false, true));
+		assertNotEquals(c, cube(true, false, false, false));
+		assertEquals(s.getPreds(), c.getPreds());
+		assertFalse(c.isBottom());
+	}
+
+	@Test
+	public void testCubeLeq() {
+		final PredState c12 = cube(true, false, false, true);
+		final PredState c1 = cube(true, false, false, false);
+		final PredState cn1 = cube(false, true, false, false);
+		final PredState c2 = cube(false, false, true, false);
+
+		assertEquals(Optional.of(true), c12.isCubeLeq(c1));
+		assertEquals(Optional.of(true), c1.isCubeLeq(cube(false, false, false, false)));
+		assertEquals(Optional.of(false), c1.isCubeLeq(cn1));
+		assertEquals(Optional.empty(), c1.isCubeLeq(c2));
+		assertEquals(Optional.empty(), c1.isCubeLeq(PredState.of(p1)));
+	}
+
+	@Test
+	public void testJoinSharesIndex() {
+		final Expr<BoolType> p3 = Gt(VX.getRef(), Int(3));
+		final PredPrec joined = prec.join(PredPrec.of(ImmutableList.of(p1, p2, p3)));
+		assertSame(index, joined.getIndex());
+		assertEquals(2, index.indexOf(p3));
+		assertEquals(cube(true, false, false, false), PredState.of(p1));
+	}
+
+	@Test
+	public void testBdd() {
+		final BddManager manager = index.getBddManager();
+		final Bdd b1 = manager.getVar(index.indexOf(p1));
+		final Bdd b2 = manager.getVar(index.indexOf(p2));
+		final PredState xor = PredState.bdd(index, b1.and(b2.not()).or(b1.not().and(b2)));
+		final PredState or = PredState.bdd(index, b1.or(b2));
+
+		assertEquals(xor, PredState.bdd(index, b2.and(b1.not()).or(b2.not().and(b1))));
+		assertEquals(xor.hashCode(), PredState.of(xor.toExpr()).hashCode());
+		assertEquals(xor, PredState.of(xor.toExpr()));
+		assertTrue(xor.isBddLeq(or).get());
+		assertEquals(Optional.empty(), or.isBddLeq(xor));
+		assertTrue(cube(true, false, false, true).isBddLeq(xor).get());
+		assertEquals(Optional.empty(), cube(true, false, true, false).isBddLeq(xor));
+	}
+}
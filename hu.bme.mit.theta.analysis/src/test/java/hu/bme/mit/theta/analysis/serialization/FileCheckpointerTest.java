@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.expl.ExplOrd;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.pred.PredPrec;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class FileCheckpointerTest {
+
+	private static final VarDecl<IntType> X = Var("x", Int());
+
+	private final Action a = new ActionStub("A");
+	private final LTS<ExplState, Action> lts = s -> ImmutableList.of(a);
+	private final PredPrec prec = PredPrec.of(Lt(X.getRef(), Int(2)));
+
+	private File file;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("theta-checkpoint", ".bin");
+		file.delete();
+	}
+
+	@After
+	public void after() {
+		file.delete();
+	}
+
+	@Test
+	public void testSameFingerprint() {
+		create("h1 PRED_CART").save(1, createArg(), prec);
+
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		assertEquals(prec, create("h1 PRED_CART").restore(arg, PredPrec.of()).get().getPrec());
+		assertEquals(1, arg.getNodes().count());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDifferentFingerprint() {
+		create("h1 PRED_CART").save(1, createArg(), prec);
+		create("h1 PRED_BOOL").restore(ARG.create(ExplOrd.getInstance()), PredPrec.of());
+	}
+
+	private FileCheckpointer<ExplState, Action, PredPrec> create(final String fingerprint) {
+		return FileCheckpointer.create(file, 1, true, fingerprint, lts, Codecs.explState(), Codecs.predPrec(),
+				ImmutableList.of(X));
+	}
+
+	private ARG<ExplState, Action> createArg() {
+		final ARG<ExplState, Action> arg = ARG.create(ExplOrd.getInstance());
+		arg.createInitNode(ExplState.top(), false);
+		return arg;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.serialization;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.cegar.CegarCheckpointer.Checkpoint;
+import hu.bme.mit.theta.analysis.pred.PredPrec;
+import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class PrecCacheTest {
+
+	private static final VarDecl<IntType> X = Var("x", Int());
+	private static final VarDecl<IntType> Y = Var("y", Int());
+
+	private File file;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("theta-prec", ".txt");
+		file.delete();
+	}
+
+	@After
+	public void after() {
+		file.delete();
+	}
+
+	@Test
+	public void testSameModel() {
+		final PredPrec prec = PredPrec.of(ImmutableList.of(Lt(X.getRef(), Y.getRef()), Lt(Y.getRef(), Int(-3))));
+		final PrecCache<State, Action, PredPrec> cache = PrecCache.create(file, "h1", PrecFormats.pred(),
+				ImmutableList.of(X, Y), NullLogger.getInstance());
+
+		assertFalse(cache.restore(null, PredPrec.of()).isPresent());
+		cache.save(1, null, prec);
+		final Checkpoint<PredPrec> checkpoint = cache.restore(null, PredPrec.of()).get();
+		assertEquals(0, checkpoint.getIteration());
+		assertEquals(prec, checkpoint.getPrec());
+	}
+
+	@Test
+	public void testRemovedVar() {
+		PrecCache.<State, Action, PredPrec>create(file, "h1", PrecFormats.pred(), ImmutableList.of(X, Y),
+				NullLogger.getInstance()).save(1, null,
+						PredPrec.of(ImmutableList.of(Lt(X.getRef(), Y.getRef()), Lt(X.getRef(), Int(2)))));
+
+		final VarDecl<IntType> x = Var("x", Int());
+		final PrecCache<State, Action, PredPrec> cache = PrecCache.create(file, "h2", PrecFormats.pred(),
+				ImmutableList.of(x), NullLogger.getInstance());
+		assertEquals(PredPrec.of(Lt(x.getRef(), Int(2))), cache.restore(null, PredPrec.of()).get().getPrec());
+	}
+
+	@Test
+	public void testJoinsInitPrec() {
+		final PredPrec prec = PredPrec.of(Lt(X.getRef(), Y.getRef()));
+		final PredPrec initPrec = PredPrec.of(Lt(Y.getRef(), Int(-3)));
+		final PrecCache<State, Action, PredPrec> cache = PrecCache.create(file, "h1", PrecFormats.pred(),
+				ImmutableList.of(X, Y), NullLogger.getInstance());
+
+		assertFalse(cache.restore(null, initPrec).isPresent());
+		cache.save(1, null, prec);
+		assertEquals(prec.join(initPrec), cache.restore(null, initPrec).get().getPrec());
+	}
+}
@@ -162,6 +162,35 @@ public class WaitlistTest {
 		Assert.assertTrue(waitlist.isEmpty());
 	}
 
+	@Test
+	public void testBucket() {
+		final Waitlist<String> waitlist = BucketWaitlist.create(s -> s.charAt(0) - 'A');
+		assertEquals(0, waitlist.size());
+		Assert.assertTrue(waitlist.isEmpty());
+
+		waitlist.add("C1");
+		waitlist.add("A1");
+		waitlist.add("C2");
+		waitlist.add("B1");
+		assertEquals(4, waitlist.size());
+		Assert.assertFalse(waitlist.isEmpty());
+
+		assertEquals("A1", waitlist.remove());
+		assertEquals("B1", waitlist.remove());
+		assertEquals(2, waitlist.size());
+
+		waitlist.add("A2");
+		assertEquals("A2", waitlist.remove());
+		assertEquals("C1", waitlist.remove());
+		assertEquals("C2", waitlist.remove());
+		Assert.assertTrue(waitlist.isEmpty());
+
+		waitlist.add("D1");
+		waitlist.clear();
+		assertEquals(0, waitlist.size());
+		Assert.assertTrue(waitlist.isEmpty());
+	}
+
 	@Test(expected = NoSuchElementException.class)
 	public void testLifoException() {
 		final Waitlist<String> waitlist = LifoWaitlist.create();
@@ -180,6 +209,12 @@ public class WaitlistTest {
 		waitlist.remove();
 	}
 
+	@Test(expected = NoSuchElementException.class)
+	public void testBucketException() {
+		final Waitlist<String> waitlist = BucketWaitlist.create(String::length);
+		waitlist.remove();
+	}
+
 	@Test
 	public void testRandomSeed() {
 		final long seed = 1234;
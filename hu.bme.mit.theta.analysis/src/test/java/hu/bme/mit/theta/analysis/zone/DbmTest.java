@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Geq;
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Gt;
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Leq;
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Lt;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+public class DbmTest {
+
+	private final VarDecl<RatType> x = Var("x", Rat());
+	private final VarDecl<RatType> y = Var("y", Rat());
+	private final VarDecl<RatType> z = Var("z", Rat());
+	private final ImmutableList<VarDecl<RatType>> clocks = ImmutableList.of(x, y);
+
+	@Test
+	public void testNormAboveBounds() {
+		final DBM dbm = DBM.zero(clocks);
+		dbm.up();
+		dbm.and(Geq(x, 10));
+
+		final BoundFunc boundFunc = BoundFunc.builder().add(Geq(x, 5)).add(Leq(x, 5)).build();
+		dbm.norm(boundFunc);
+
+		final DBM expected = DBM.top(clocks);
+		expected.and(Gt(x, 5));
+		expected.and(Geq(y, 0));
+
+		assertTrue(dbm.isLeq(expected));
+		assertTrue(expected.isLeq(dbm));
+	}
+
+	@Test
+	public void testNormBelowBounds() {
+		final DBM dbm = DBM.zero(clocks);
+		dbm.up();
+		dbm.and(Leq(x, 3));
+
+		final DBM original = DBM.copyOf(dbm);
+
+		final BoundFunc boundFunc = BoundFunc.builder().add(Geq(x, 5)).add(Leq(x, 5)).add(Geq(y, 5))
+				.add(Leq(y, 5)).build();
+		dbm.norm(boundFunc);
+
+		assertTrue(dbm.isLeq(original));
+		assertTrue(original.isLeq(dbm));
+	}
+
+	@Test
+	public void testIsLeqWithBounds() {
+		final DBM dbm1 = DBM.zero(clocks);
+		dbm1.up();
+		dbm1.and(Geq(x, 10));
+
+		final DBM dbm2 = DBM.zero(clocks);
+		dbm2.up();
+		dbm2.and(Geq(x, 7));
+		dbm2.and(Leq(x, 8));
+
+		final BoundFunc smallBounds = BoundFunc.builder().add(Geq(x, 5)).add(Leq(x, 5)).build();
+		final BoundFunc largeBounds = BoundFunc.builder().add(Geq(x, 20)).add(Leq(x, 20)).build();
+
+		assertFalse(dbm1.isLeq(dbm2));
+		assertTrue(dbm1.isLeq(dbm2, smallBounds));
+		assertFalse(dbm1.isLeq(dbm2, largeBounds));
+	}
+
+	@Test
+	public void testAndKeepsCanonical() {
+		final ImmutableList<VarDecl<RatType>> vars = ImmutableList.of(x, y, z);
+		final DBM dbm = DBM.zero(vars);
+		dbm.up();
+		dbm.reset(x, 0);
+		dbm.and(Leq(x, z, -5));
+
+		// y = z and z >= x + 5 imply y >= 5
+		final DBM expected = DBM.top(vars);
+		expected.and(Geq(y, 5));
+
+		assertTrue(dbm.isLeq(expected));
+	}
+
+	@Test
+	public void testRename() {
+		final DBM dbm = DBM.top(clocks);
+		dbm.and(Leq(x, 3));
+		dbm.and(Geq(y, 5));
+
+		final DBM renamed = DBM.rename(dbm, ImmutableMap.of(x, y, y, x));
+
+		final DBM expected = DBM.top(clocks);
+		expected.and(Leq(y, 3));
+		expected.and(Geq(x, 5));
+
+		assertTrue(renamed.isLeq(expected));
+		assertTrue(expected.isLeq(renamed));
+		assertFalse(renamed.isLeq(dbm));
+	}
+
+	@Test
+	public void testCompress() {
+		final Random random = new Random(0);
+		for (int n = 0; n < 200; n++) {
+			final DBM dbm1 = randomDbm(random);
+			final DBM dbm2 = randomDbm(random);
+
+			final DBM decompressed = DBM.decompress(dbm1.compress());
+			assertEquals(dbm1.isConsistent(), decompressed.isConsistent());
+			assertEquals(dbm1.isConsistent(), dbm1.compress().isConsistent());
+
+			if (dbm1.isConsistent() && dbm2.isConsistent()) {
+				assertTrue(dbm1.isLeq(decompressed));
+				assertTrue(decompressed.isLeq(dbm1));
+				assertEquals(dbm2.isLeq(dbm1), dbm2.isLeq(dbm1.compress()));
+				assertTrue(dbm1.isLeq(dbm1.compress()));
+
+				final DBM dbm3 = DBM.copyOf(dbm1);
+				dbm3.up();
+				assertTrue(dbm1.isLeq(dbm3.compress()));
+				assertEquals(dbm3.isLeq(dbm1), dbm3.isLeq(dbm1.compress()));
+			}
+		}
+	}
+
+	private DBM randomDbm(final Random random) {
+		final ImmutableList<VarDecl<RatType>> vars = ImmutableList.of(x, y, z);
+		final DBM dbm = DBM.zero(vars);
+		for (int i = 0; i < 6; i++) {
+			final VarDecl<RatType> c1 = vars.get(random.nextInt(vars.size()));
+			final VarDecl<RatType> c2 = vars.get(random.nextInt(vars.size()));
+			final int bound = random.nextInt(10);
+			switch (random.nextInt(6)) {
+			case 0:
+				dbm.up();
+				break;
+			case 1:
+				dbm.reset(c1, 0);
+				break;
+			case 2:
+				dbm.and(Leq(c1, bound));
+				break;
+			case 3:
+				dbm.and(Gt(c1, bound));
+				break;
+			case 4:
+				if (c1 != c2) {
+					dbm.and(Lt(c1, c2, bound - 5));
+				}
+				break;
+			default:
+				dbm.free(c1);
+				dbm.nonnegative();
+				break;
+			}
+		}
+		return dbm;
+	}
+
+}
@@ -36,10 +36,14 @@ public final class CfaAction extends StmtAction {
 	private final Loc target;
 
 	private CfaAction(final Loc source, final Loc target, final List<Edge> edges) {
+		this(source, target, edges, edges.stream().map(Edge::getStmt).collect(Collectors.toList()));
+	}
+
+	private CfaAction(final Loc source, final Loc target, final List<Edge> edges, final List<Stmt> stmts) {
 		this.source = checkNotNull(source);
 		this.target = checkNotNull(target);
 		this.edges = Collections.unmodifiableList(checkNotNull(edges));
-		this.stmts = Collections.unmodifiableList(edges.stream().map(Edge::getStmt).collect(Collectors.toList()));
+		this.stmts = Collections.unmodifiableList(checkNotNull(stmts));
 	}
 
 	public static CfaAction create(final Edge edge) {
@@ -56,6 +60,17 @@ public final class CfaAction extends StmtAction {
 		return new CfaAction(source, target, edges);
 	}
 
+	/**
+	 * Creates an action summarizing a block of edges between two locations
+	 * that is not necessarily a single path. The semantics of the block is
+	 * given by the statements, the edges are only kept for reference.
+	 */
+	public static CfaAction create(final Loc source, final Loc target, final List<Edge> edges,
+			final List<Stmt> stmts) {
+		checkArgument(!edges.isEmpty(), "Empty list of edges");
+		return new CfaAction(source, target, edges, stmts);
+	}
+
 	public Loc getSource() {
 		return source;
 	}
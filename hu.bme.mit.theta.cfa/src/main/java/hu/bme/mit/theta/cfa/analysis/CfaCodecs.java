@@ -0,0 +1,152 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.serialization.Codec;
+import hu.bme.mit.theta.analysis.serialization.SnapshotInput;
+import hu.bme.mit.theta.analysis.serialization.SnapshotOutput;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+import hu.bme.mit.theta.cfa.analysis.prec.GlobalCfaPrec;
+import hu.bme.mit.theta.cfa.analysis.prec.LocalCfaPrec;
+
+/**
+ * Codecs for CFA states and precisions. Locations are identified by their
+ * index in the CFA, so snapshots can only be restored for the same CFA.
+ */
+public final class CfaCodecs {
+
+	private static final int GLOBAL_TAG = 0;
+	private static final int LOCAL_TAG = 1;
+
+	private CfaCodecs() {
+	}
+
+	public static <S extends ExprState> Codec<CfaState<S>> cfaState(final CFA cfa, final Codec<S> stateCodec) {
+		return new CfaStateCodec<>(cfa, stateCodec);
+	}
+
+	public static <P extends Prec> Codec<CfaPrec<P>> cfaPrec(final CFA cfa, final Codec<P> precCodec) {
+		return new CfaPrecCodec<>(cfa, precCodec);
+	}
+
+	////
+
+	private static final class Locs {
+		private final List<Loc> locs;
+		private final Map<Loc, Integer> indexes;
+
+		private Locs(final CFA cfa) {
+			locs = ImmutableList.copyOf(cfa.getLocs());
+			indexes = new HashMap<>();
+			for (final Loc loc : locs) {
+				indexes.put(loc, indexes.size());
+			}
+		}
+
+		private void write(final Loc loc, final SnapshotOutput out) throws IOException {
+			final Integer index = indexes.get(loc);
+			SnapshotInput.checkFormat(index != null, "Unknown location " + loc.getName());
+			out.writeInt(index);
+		}
+
+		private Loc read(final SnapshotInput in) throws IOException {
+			final int index = in.readInt();
+			SnapshotInput.checkFormat(0 <= index && index < locs.size(), "Unknown location index " + index);
+			return locs.get(index);
+		}
+	}
+
+	private static final class CfaStateCodec<S extends ExprState> implements Codec<CfaState<S>> {
+		private final Locs locs;
+		private final Codec<S> stateCodec;
+
+		private CfaStateCodec(final CFA cfa, final Codec<S> stateCodec) {
+			this.locs = new Locs(cfa);
+			this.stateCodec = checkNotNull(stateCodec);
+		}
+
+		@Override
+		public void write(final CfaState<S> state, final SnapshotOutput out) throws IOException {
+			locs.write(state.getLoc(), out);
+			out.write(state.getState(), stateCodec);
+		}
+
+		@Override
+		public CfaState<S> read(final SnapshotInput in) throws IOException {
+			final Loc loc = locs.read(in);
+			final S state = in.read(stateCodec);
+			return CfaState.of(loc, state);
+		}
+	}
+
+	private static final class CfaPrecCodec<P extends Prec> implements Codec<CfaPrec<P>> {
+		private final Locs locs;
+		private final Codec<P> precCodec;
+
+		private CfaPrecCodec(final CFA cfa, final Codec<P> precCodec) {
+			this.locs = new Locs(cfa);
+			this.precCodec = checkNotNull(precCodec);
+		}
+
+		@Override
+		public void write(final CfaPrec<P> prec, final SnapshotOutput out) throws IOException {
+			if (prec instanceof GlobalCfaPrec) {
+				out.writeInt(GLOBAL_TAG);
+				out.write(((GlobalCfaPrec<P>) prec).getPrec(), precCodec);
+			} else if (prec instanceof LocalCfaPrec) {
+				out.writeInt(LOCAL_TAG);
+				out.writeInt(locs.locs.size());
+				for (final Loc loc : locs.locs) {
+					locs.write(loc, out);
+					out.write(prec.getPrec(loc), precCodec);
+				}
+			} else {
+				throw new IOException("Unsupported precision type: " + prec.getClass().getSimpleName());
+			}
+		}
+
+		@Override
+		public CfaPrec<P> read(final SnapshotInput in) throws IOException {
+			final int tag = in.readInt();
+			if (tag == GLOBAL_TAG) {
+				return GlobalCfaPrec.create(in.read(precCodec));
+			} else if (tag == LOCAL_TAG) {
+				final int size = in.readInt();
+				final Map<Loc, P> mapping = new HashMap<>();
+				for (int i = 0; i < size; i++) {
+					final Loc loc = locs.read(in);
+					mapping.put(loc, in.read(precCodec));
+				}
+				return LocalCfaPrec.create(mapping);
+			} else {
+				throw new IOException("Invalid snapshot: unknown precision tag " + tag);
+			}
+		}
+	}
+
+}
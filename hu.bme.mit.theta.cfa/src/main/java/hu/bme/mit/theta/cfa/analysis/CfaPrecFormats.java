@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.serialization.PrecFormat;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+import hu.bme.mit.theta.cfa.analysis.prec.GlobalCfaPrec;
+import hu.bme.mit.theta.cfa.analysis.prec.LocalCfaPrec;
+import hu.bme.mit.theta.core.type.Expr;
+
+/**
+ * Formats of CFA precisions for the precision cache. Local precisions are
+ * stored in one section per location (identified by its name), sections of
+ * locations that no longer exist are dropped.
+ */
+public final class CfaPrecFormats {
+
+	private CfaPrecFormats() {
+	}
+
+	public static <P extends Prec> PrecFormat<CfaPrec<P>> global(final PrecFormat<P> precFormat) {
+		return new GlobalFormat<>(precFormat);
+	}
+
+	public static <P extends Prec> PrecFormat<CfaPrec<P>> local(final CFA cfa, final PrecFormat<P> precFormat) {
+		return new LocalFormat<>(cfa, precFormat);
+	}
+
+	////
+
+	private static final class GlobalFormat<P extends Prec> implements PrecFormat<CfaPrec<P>> {
+		private final PrecFormat<P> precFormat;
+
+		private GlobalFormat(final PrecFormat<P> precFormat) {
+			this.precFormat = checkNotNull(precFormat);
+		}
+
+		@Override
+		public Map<String, List<Expr<?>>> toSections(final CfaPrec<P> prec) {
+			return precFormat.toSections(((GlobalCfaPrec<P>) prec).getPrec());
+		}
+
+		@Override
+		public CfaPrec<P> fromSections(final Map<String, List<Expr<?>>> sections) {
+			return GlobalCfaPrec.create(precFormat.fromSections(sections));
+		}
+	}
+
+	private static final class LocalFormat<P extends Prec> implements PrecFormat<CfaPrec<P>> {
+		private final List<Loc> locs;
+		private final PrecFormat<P> precFormat;
+
+		private LocalFormat(final CFA cfa, final PrecFormat<P> precFormat) {
+			this.locs = ImmutableList.copyOf(cfa.getLocs());
+			this.precFormat = checkNotNull(precFormat);
+		}
+
+		@Override
+		public Map<String, List<Expr<?>>> toSections(final CfaPrec<P> prec) {
+			final Map<String, List<Expr<?>>> sections = new LinkedHashMap<>();
+			for (final Loc loc : locs) {
+				final List<Expr<?>> exprs = ImmutableList.copyOf(
+						precFormat.toSections(prec.getPrec(loc)).values().stream().flatMap(List::stream).iterator());
+				if (!exprs.isEmpty()) {
+					sections.put(loc.getName(), exprs);
+				}
+			}
+			return sections;
+		}
+
+		@Override
+		public CfaPrec<P> fromSections(final Map<String, List<Expr<?>>> sections) {
+			final Map<Loc, P> mapping = new HashMap<>();
+			for (final Loc loc : locs) {
+				final List<Expr<?>> exprs = sections.get(loc.getName());
+				if (exprs != null) {
+					mapping.put(loc, precFormat.fromSections(Collections.singletonMap(loc.getName(), exprs)));
+				}
+			}
+			return LocalCfaPrec.create(mapping, precFormat.fromSections(Collections.emptyMap()));
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.waitlist.BucketWaitlist;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+
+/**
+ * Integer priority for ArgNodes that is based on the distance from the error
+ * location, optionally added to the depth of the node (similarly to A*). The
+ * distances are computed once for the CFA, so the priority of a node is a
+ * single map lookup. Locations from where the error location is unreachable
+ * get a priority greater than any finite distance.
+ *
+ * @see BucketWaitlist
+ */
+public final class DistToErrPriority implements ToIntFunction<ArgNode<? extends State, ? extends Action>> {
+
+	private final Map<Loc, Integer> distancesToError;
+	private final int unreachable;
+	private final boolean addDepth;
+
+	private DistToErrPriority(final CFA cfa, final boolean addDepth) {
+		checkNotNull(cfa);
+		this.distancesToError = DistToErrComparator.getDistancesToError(cfa);
+		this.unreachable = cfa.getLocs().size();
+		this.addDepth = addDepth;
+	}
+
+	/**
+	 * Create a priority that is the distance from the error location.
+	 */
+	public static DistToErrPriority create(final CFA cfa) {
+		return new DistToErrPriority(cfa, false);
+	}
+
+	/**
+	 * Create a priority that is the depth of the node plus the distance from
+	 * the error location.
+	 */
+	public static DistToErrPriority createWithDepth(final CFA cfa) {
+		return new DistToErrPriority(cfa, true);
+	}
+
+	@Override
+	public int applyAsInt(final ArgNode<? extends State, ? extends Action> node) {
+		checkArgument(node.getState() instanceof CfaState, "CfaState expected.");
+		final CfaState<?> state = (CfaState<?>) node.getState();
+		final int distance = distancesToError.getOrDefault(state.getLoc(), unreachable);
+		return addDepth ? node.getDepth() + distance : distance;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + (addDepth ? "WithDepth" : "");
+	}
+}
@@ -18,8 +18,11 @@ package hu.bme.mit.theta.cfa.analysis.impact;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import com.google.common.base.Stopwatch;
+
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
@@ -30,8 +33,8 @@ import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.ArgTrace;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
-import hu.bme.mit.theta.analysis.reachedset.ReachedSet;
 import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.LifoWaitlist;
 import hu.bme.mit.theta.analysis.waitlist.Waitlist;
 import hu.bme.mit.theta.cfa.analysis.impact.ImpactRefiner.RefinementResult;
 
@@ -40,18 +43,34 @@ public final class ImpactChecker<S extends State, A extends Action, P extends Pr
 	private final ArgBuilder<S, A, P> argBuilder;
 	private final ImpactRefiner<S, A> refiner;
 	private final Function<? super S, ?> partitioning;
+	private final boolean optimized;
 
 	private ImpactChecker(final ArgBuilder<S, A, P> argBuilder, final ImpactRefiner<S, A> refiner,
-			final Function<? super S, ?> partitioning) {
+			final Function<? super S, ?> partitioning, final boolean optimized) {
 		this.argBuilder = checkNotNull(argBuilder);
 		this.refiner = checkNotNull(refiner);
 		this.partitioning = checkNotNull(partitioning);
+		this.optimized = optimized;
 	}
 
 	public static <S extends State, A extends Action, P extends Prec> ImpactChecker<S, A, P> create(
 			final ArgBuilder<S, A, P> argBuilder, final ImpactRefiner<S, A> refiner,
 			final Function<? super S, ?> partitioning) {
-		return new ImpactChecker<>(argBuilder, refiner, partitioning);
+		return new ImpactChecker<>(argBuilder, refiner, partitioning, false);
+	}
+
+	/**
+	 * Creates an optimized checker, which explores the ARG in depth-first
+	 * order, remembers failed coverage attempts until the label of the node is
+	 * strengthened, and only uncovers nodes whose label actually changed during
+	 * refinement. Depth-first order makes consecutive counterexamples share
+	 * long prefixes, which can be exploited by an incremental refiner (see
+	 * {@link PredImpactRefiner#createIncremental}).
+	 */
+	public static <S extends State, A extends Action, P extends Prec> ImpactChecker<S, A, P> createOptimized(
+			final ArgBuilder<S, A, P> argBuilder, final ImpactRefiner<S, A> refiner,
+			final Function<? super S, ?> partitioning) {
+		return new ImpactChecker<>(argBuilder, refiner, partitioning, true);
 	}
 
 	////
@@ -67,28 +86,43 @@ public final class ImpactChecker<S extends State, A extends Action, P extends Pr
 		private final P prec;
 
 		private final ARG<S, A> arg;
-		private final ReachedSet<S, A> reachedSet;
+		private final ImpactReachedSet<S, A, ?> reachedSet;
+
+		private final Stopwatch refinementStopwatch;
+		private int refinements;
+		private int strengthenedLabels;
 
 		private CheckMethod(final P prec) {
 			this.prec = checkNotNull(prec);
 			arg = argBuilder.createArg();
-			reachedSet = ImpactReachedSet.create(partitioning);
+			reachedSet = optimized ? ImpactReachedSet.createCaching(partitioning)
+					: ImpactReachedSet.create(partitioning);
+			refinementStopwatch = Stopwatch.createUnstarted();
+			refinements = 0;
+			strengthenedLabels = 0;
 		}
 
 		private SafetyResult<S, A> run() {
+			final Stopwatch stopwatch = Stopwatch.createStarted();
 			final Optional<ArgNode<S, A>> unsafeNode = unwind();
+			stopwatch.stop();
+
+			final ImpactStatistics stats = new ImpactStatistics(stopwatch.elapsed(TimeUnit.MILLISECONDS),
+					refinementStopwatch.elapsed(TimeUnit.MILLISECONDS), refinements, strengthenedLabels,
+					reachedSet.getCoverageAttempts(), reachedSet.getCoverageChecks(), reachedSet.getCacheHits(),
+					reachedSet.getCoverings());
 
 			if (unsafeNode.isPresent()) {
-				return SafetyResult.unsafe(ArgTrace.to(unsafeNode.get()).toTrace(), arg);
+				return SafetyResult.unsafe(ArgTrace.to(unsafeNode.get()).toTrace(), arg, stats);
 			} else {
-				return SafetyResult.safe(arg);
+				return SafetyResult.safe(arg, stats);
 			}
 		}
 
 		////
 
 		private Optional<ArgNode<S, A>> searchForUnsafeNode(final ArgNode<S, A> node) {
-			final Waitlist<ArgNode<S, A>> waitlist = FifoWaitlist.create();
+			final Waitlist<ArgNode<S, A>> waitlist = optimized ? LifoWaitlist.create() : FifoWaitlist.create();
 			waitlist.add(node);
 
 			while (!waitlist.isEmpty()) {
@@ -140,6 +174,9 @@ public final class ImpactChecker<S extends State, A extends Action, P extends Pr
 		////
 
 		private void close(final ArgNode<S, A> node) {
+			if (optimized && node.isCovered()) {
+				return;
+			}
 			reachedSet.tryToCover(node);
 		}
 
@@ -155,14 +192,23 @@ public final class ImpactChecker<S extends State, A extends Action, P extends Pr
 			final ArgTrace<S, A> argTrace = ArgTrace.to(v);
 
 			final Trace<S, A> trace = argTrace.toTrace();
+			refinementStopwatch.start();
 			final RefinementResult<S, A> refinementResult = refiner.refine(trace);
+			refinementStopwatch.stop();
+			refinements++;
 
 			if (refinementResult.isSuccesful()) {
 				final Trace<S, A> refinedTrace = refinementResult.asSuccesful().getTrace();
 				for (int i = 0; i < argTrace.nodes().size(); i++) {
 					final ArgNode<S, A> vi = argTrace.node(i);
+					final S refinedState = refinedTrace.getState(i);
+					if (optimized && vi.getState().equals(refinedState)) {
+						continue;
+					}
 					vi.clearCoveredNodes();
-					vi.setState(refinedTrace.getState(i));
+					vi.setState(refinedState);
+					reachedSet.invalidate(vi);
+					strengthenedLabels++;
 				}
 			}
 		}
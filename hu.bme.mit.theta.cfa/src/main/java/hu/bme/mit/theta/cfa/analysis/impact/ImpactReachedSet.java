@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Action;
@@ -36,14 +38,36 @@ public final class ImpactReachedSet<S extends State, A extends Action, K> implem
 
 	private final Map<K, List<ArgNode<S, A>>> partitions;
 
-	private ImpactReachedSet(final Function<? super S, ? extends K> partitioning) {
+	private final boolean cacheFailures;
+	private final Map<ArgNode<S, A>, Set<ArgNode<S, A>>> failedCoverings;
+
+	private int coverageAttempts;
+	private int coverageChecks;
+	private int cacheHits;
+	private int coverings;
+
+	private ImpactReachedSet(final Function<? super S, ? extends K> partitioning, final boolean cacheFailures) {
 		this.partitioning = checkNotNull(partitioning);
+		this.cacheFailures = cacheFailures;
 		partitions = new HashMap<>();
+		failedCoverings = new HashMap<>();
 	}
 
 	public static <S extends State, A extends Action, K> ImpactReachedSet<S, A, K> create(
 			final Function<? super S, ? extends K> partitioning) {
-		return new ImpactReachedSet<>(partitioning);
+		return new ImpactReachedSet<>(partitioning, false);
+	}
+
+	/**
+	 * Creates a reached set that remembers failed coverage attempts. Labels are
+	 * only strengthened during refinement, so a node that could not be covered
+	 * by an other node can still not be covered by it until its own label is
+	 * strengthened, which has to be signalled by calling
+	 * {@link #invalidate(ArgNode)}.
+	 */
+	public static <S extends State, A extends Action, K> ImpactReachedSet<S, A, K> createCaching(
+			final Function<? super S, ? extends K> partitioning) {
+		return new ImpactReachedSet<>(partitioning, true);
 	}
 
 	@Override
@@ -58,13 +82,15 @@ public final class ImpactReachedSet<S extends State, A extends Action, K> implem
 	@Override
 	public void tryToCover(final ArgNode<S, A> node) {
 		checkNotNull(node);
+		coverageAttempts++;
 		final S state = node.getState();
 		final K key = partitioning.apply(state);
 		final Collection<ArgNode<S, A>> partition = partitions.getOrDefault(key, Collections.emptyList());
 		for (final ArgNode<S, A> nodeToCoverWith : partition) {
 			if (nodeToCoverWith.getId() < node.getId()) {
-				if (nodeToCoverWith.mayCover(node)) {
+				if (cacheFailures ? mayCoverCached(nodeToCoverWith, node) : mayCover(nodeToCoverWith, node)) {
 					node.cover(nodeToCoverWith);
+					coverings++;
 					return;
 				}
 			} else {
@@ -73,4 +99,57 @@ public final class ImpactReachedSet<S extends State, A extends Action, K> implem
 		}
 	}
 
+	/**
+	 * Drops the failed coverage attempts of a node. Must be called when the
+	 * label of the node is strengthened.
+	 */
+	public void invalidate(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		failedCoverings.remove(node);
+	}
+
+	public int getCoverageAttempts() {
+		return coverageAttempts;
+	}
+
+	public int getCoverageChecks() {
+		return coverageChecks;
+	}
+
+	public int getCacheHits() {
+		return cacheHits;
+	}
+
+	public int getCoverings() {
+		return coverings;
+	}
+
+	////
+
+	private boolean mayCover(final ArgNode<S, A> nodeToCoverWith, final ArgNode<S, A> node) {
+		coverageChecks++;
+		return nodeToCoverWith.mayCover(node);
+	}
+
+	private boolean mayCoverCached(final ArgNode<S, A> nodeToCoverWith, final ArgNode<S, A> node) {
+		final Set<ArgNode<S, A>> failed = failedCoverings.get(node);
+		if (failed != null && failed.contains(nodeToCoverWith)) {
+			cacheHits++;
+			return false;
+		}
+
+		// Only failures of the label check are cached, the structural
+		// condition depends on the coverings in the ARG, which may change
+		if (nodeToCoverWith.ancestors().anyMatch(n -> n.equals(node) || n.isSubsumed())) {
+			return false;
+		}
+
+		if (mayCover(nodeToCoverWith, node)) {
+			return true;
+		} else {
+			failedCoverings.computeIfAbsent(node, n -> new HashSet<>()).add(nodeToCoverWith);
+			return false;
+		}
+	}
+
 }
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis.impact;
+
+import hu.bme.mit.theta.analysis.algorithm.Statistics;
+
+/**
+ * Represents statistics collected by the ImpactChecker algorithm.
+ */
+public final class ImpactStatistics extends Statistics {
+	private final long algorithmTimeMs;
+	private final long refinementTimeMs;
+	private final int refinements;
+	private final int strengthenedLabels;
+	private final int coverageAttempts;
+	private final int coverageChecks;
+	private final int coverageCacheHits;
+	private final int coverings;
+
+	public ImpactStatistics(final long algorithmTimeMs, final long refinementTimeMs, final int refinements,
+			final int strengthenedLabels, final int coverageAttempts, final int coverageChecks,
+			final int coverageCacheHits, final int coverings) {
+		this.algorithmTimeMs = algorithmTimeMs;
+		this.refinementTimeMs = refinementTimeMs;
+		this.refinements = refinements;
+		this.strengthenedLabels = strengthenedLabels;
+		this.coverageAttempts = coverageAttempts;
+		this.coverageChecks = coverageChecks;
+		this.coverageCacheHits = coverageCacheHits;
+		this.coverings = coverings;
+
+		addStat("AlgorithmTimeMs", this::getAlgorithmTimeMs);
+		addStat("RefinementTimeMs", this::getRefinementTimeMs);
+		addStat("Refinements", this::getRefinements);
+		addStat("StrengthenedLabels", this::getStrengthenedLabels);
+		addStat("CoverageAttempts", this::getCoverageAttempts);
+		addStat("CoverageChecks", this::getCoverageChecks);
+		addStat("CoverageCacheHits", this::getCoverageCacheHits);
+		addStat("Coverings", this::getCoverings);
+	}
+
+	public long getAlgorithmTimeMs() {
+		return algorithmTimeMs;
+	}
+
+	public long getRefinementTimeMs() {
+		return refinementTimeMs;
+	}
+
+	public int getRefinements() {
+		return refinements;
+	}
+
+	public int getStrengthenedLabels() {
+		return strengthenedLabels;
+	}
+
+	public int getCoverageAttempts() {
+		return coverageAttempts;
+	}
+
+	public int getCoverageChecks() {
+		return coverageChecks;
+	}
+
+	public int getCoverageCacheHits() {
+		return coverageCacheHits;
+	}
+
+	public int getCoverings() {
+		return coverings;
+	}
+
+}
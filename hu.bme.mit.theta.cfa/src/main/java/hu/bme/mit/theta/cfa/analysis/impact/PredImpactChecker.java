@@ -40,16 +40,19 @@ import hu.bme.mit.theta.cfa.analysis.CfaPrec;
 import hu.bme.mit.theta.cfa.analysis.CfaState;
 import hu.bme.mit.theta.cfa.analysis.prec.GlobalCfaPrec;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverFactory;
 
 public final class PredImpactChecker implements SafetyChecker<CfaState<PredState>, CfaAction, UnitPrec> {
 
 	private final ImpactChecker<CfaState<PredState>, CfaAction, UnitPrec> checker;
 
 	private PredImpactChecker(final LTS<? super CfaState<PredState>, ? extends CfaAction> lts, final Loc initLoc,
-			final Predicate<? super Loc> targetLocs, final ItpSolver solver) {
+			final Predicate<? super Loc> targetLocs, final ItpSolver solver,
+			final ImpactRefiner<CfaState<PredState>, CfaAction> refiner, final boolean optimized) {
 		checkNotNull(lts);
 		checkNotNull(initLoc);
 		checkNotNull(solver);
+		checkNotNull(refiner);
 
 		final Analysis<PredState, ExprAction, PredPrec> predAnalysis = PredAnalysis.create(solver,
 				PredAbstractors.booleanSplitAbstractor(solver), True());
@@ -67,14 +70,31 @@ public final class PredImpactChecker implements SafetyChecker<CfaState<PredState
 		final ArgBuilder<CfaState<PredState>, CfaAction, UnitPrec> argBuilder = ArgBuilder.create(lts, analysis,
 				target);
 
-		final ImpactRefiner<CfaState<PredState>, CfaAction> refiner = PredImpactRefiner.create(solver);
-
-		checker = ImpactChecker.create(argBuilder, refiner, CfaState::getLoc);
+		if (optimized) {
+			checker = ImpactChecker.createOptimized(argBuilder, refiner, CfaState::getLoc);
+		} else {
+			checker = ImpactChecker.create(argBuilder, refiner, CfaState::getLoc);
+		}
 	}
 
 	public static PredImpactChecker create(final LTS<? super CfaState<PredState>, ? extends CfaAction> lts,
 			final Loc initLoc, final Predicate<? super Loc> targetLocs, final ItpSolver solver) {
-		return new PredImpactChecker(lts, initLoc, targetLocs, solver);
+		return new PredImpactChecker(lts, initLoc, targetLocs, solver, PredImpactRefiner.create(solver), false);
+	}
+
+	/**
+	 * Creates a checker in the optimized Impact mode (see
+	 * {@link ImpactChecker#createOptimized}). The refiner gets its own
+	 * incremental solver from the factory, separate from the one used for
+	 * abstraction.
+	 */
+	public static PredImpactChecker createOptimized(final LTS<? super CfaState<PredState>, ? extends CfaAction> lts,
+			final Loc initLoc, final Predicate<? super Loc> targetLocs, final SolverFactory solverFactory) {
+		checkNotNull(solverFactory);
+		final ItpSolver solver = solverFactory.createItpSolver();
+		final ImpactRefiner<CfaState<PredState>, CfaAction> refiner = PredImpactRefiner
+				.createIncremental(solverFactory.createItpSolver());
+		return new PredImpactChecker(lts, initLoc, targetLocs, solver, refiner, true);
 	}
 
 	@Override
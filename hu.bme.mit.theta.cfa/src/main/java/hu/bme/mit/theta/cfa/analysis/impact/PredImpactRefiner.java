@@ -25,6 +25,8 @@ import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTracePrefixSeqItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceSeqItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceStatus;
 import hu.bme.mit.theta.analysis.expr.refinement.ItpRefutation;
@@ -37,15 +39,29 @@ import hu.bme.mit.theta.solver.ItpSolver;
 
 public final class PredImpactRefiner implements ImpactRefiner<CfaState<PredState>, CfaAction> {
 
-	private final ExprTraceSeqItpChecker traceChecker;
+	private final ExprTraceChecker<ItpRefutation> traceChecker;
+	private final boolean keepUnchanged;
 
-	private PredImpactRefiner(final ItpSolver solver) {
-		checkNotNull(solver);
-		traceChecker = ExprTraceSeqItpChecker.create(True(), True(), solver);
+	private PredImpactRefiner(final ExprTraceChecker<ItpRefutation> traceChecker, final boolean keepUnchanged) {
+		this.traceChecker = checkNotNull(traceChecker);
+		this.keepUnchanged = keepUnchanged;
 	}
 
 	public static PredImpactRefiner create(final ItpSolver solver) {
-		return new PredImpactRefiner(solver);
+		checkNotNull(solver);
+		return new PredImpactRefiner(ExprTraceSeqItpChecker.create(True(), True(), solver), false);
+	}
+
+	/**
+	 * Creates a refiner that keeps the path formula of the previous
+	 * counterexample asserted and only asserts the new suffix of the next one.
+	 * The solver is used exclusively by the refiner, so it must not be shared
+	 * with the abstraction. States whose label would not change by the
+	 * interpolant are kept as they are.
+	 */
+	public static PredImpactRefiner createIncremental(final ItpSolver solver) {
+		checkNotNull(solver);
+		return new PredImpactRefiner(ExprTracePrefixSeqItpChecker.create(True(), True(), solver), true);
 	}
 
 	@Override
@@ -69,12 +85,16 @@ public final class PredImpactRefiner implements ImpactRefiner<CfaState<PredState
 				final CfaState<PredState> state = cex.getState(i);
 				final Expr<BoolType> expr = exprs.get(i);
 
-				newPreds.addAll(state.getState().getPreds());
-				newPreds.add(expr);
+				if (keepUnchanged && (expr.equals(True()) || state.getState().getPreds().contains(expr))) {
+					refinedStates.add(state);
+				} else {
+					newPreds.addAll(state.getState().getPreds());
+					newPreds.add(expr);
 
-				final CfaState<PredState> refinedState = state.withState(PredState.of(newPreds));
+					final CfaState<PredState> refinedState = state.withState(PredState.of(newPreds));
 
-				refinedStates.add(refinedState);
+					refinedStates.add(refinedState);
+				}
 			}
 
 			final Trace<CfaState<PredState>, CfaAction> trace = Trace.of(refinedStates, actions);
@@ -0,0 +1,226 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis.lts;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Edge;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+import hu.bme.mit.theta.cfa.analysis.CfaAction;
+import hu.bme.mit.theta.cfa.analysis.CfaState;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+
+/**
+ * Adjustable block encoding (ABE) implementation for CFA LTS. The blocks are
+ * computed once for a CFA by repeatedly eliminating locations with a single
+ * incoming and outgoing block (sequential composition) and merging parallel
+ * blocks between the same locations into a nondeterministic choice. This way
+ * loop-free regions (e.g., diamonds of branches) are summarized into a single
+ * action. The size of a block (number of CFA edges) can be bounded by a
+ * threshold, where 1 yields SBE and 0 means no bound.
+ */
+public final class CfaAbeLts implements CfaLts {
+
+	private final Map<Loc, Collection<CfaAction>> actions;
+
+	private CfaAbeLts(final CFA cfa, final int maxBlockSize) {
+		checkNotNull(cfa);
+		checkArgument(maxBlockSize >= 0, "Max. block size must be non-negative.");
+		actions = new BlockBuilder(cfa, maxBlockSize == 0 ? Integer.MAX_VALUE : maxBlockSize).build();
+	}
+
+	public static CfaAbeLts create(final CFA cfa, final int maxBlockSize) {
+		return new CfaAbeLts(cfa, maxBlockSize);
+	}
+
+	/**
+	 * Creates an LTS with unbounded blocks, i.e., large block encoding with
+	 * branching.
+	 */
+	public static CfaAbeLts create(final CFA cfa) {
+		return new CfaAbeLts(cfa, 0);
+	}
+
+	@Override
+	public Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
+		return actions.getOrDefault(state.getLoc(), Collections.emptyList());
+	}
+
+	////
+
+	private static final class Block {
+		private final Loc source;
+		private final Loc target;
+		private final List<Edge> edges;
+		private final List<Stmt> stmts;
+
+		private Block(final Loc source, final Loc target, final List<Edge> edges, final List<Stmt> stmts) {
+			this.source = source;
+			this.target = target;
+			this.edges = edges;
+			this.stmts = stmts;
+		}
+
+		private static Block of(final Edge edge) {
+			return new Block(edge.getSource(), edge.getTarget(), ImmutableList.of(edge),
+					ImmutableList.of(edge.getStmt()));
+		}
+
+		private static Block sequence(final Block first, final Block second) {
+			final List<Edge> edges = ImmutableList.<Edge>builder().addAll(first.edges).addAll(second.edges).build();
+			final List<Stmt> stmts = ImmutableList.<Stmt>builder().addAll(first.stmts).addAll(second.stmts).build();
+			return new Block(first.source, second.target, edges, stmts);
+		}
+
+		private static Block choice(final Block first, final Block second) {
+			final List<Edge> edges = ImmutableList.<Edge>builder().addAll(first.edges).addAll(second.edges).build();
+			final List<Stmt> branches = new ArrayList<>();
+			branches.addAll(first.branches());
+			branches.addAll(second.branches());
+			return new Block(first.source, first.target, edges, ImmutableList.of(Stmts.NonDet(branches)));
+		}
+
+		private List<Stmt> branches() {
+			if (stmts.size() == 1 && stmts.get(0) instanceof NonDetStmt) {
+				return ((NonDetStmt) stmts.get(0)).getStmts();
+			} else if (stmts.size() == 1) {
+				return stmts;
+			} else {
+				return ImmutableList.of(SequenceStmt.of(stmts));
+			}
+		}
+
+		private int size() {
+			return edges.size();
+		}
+	}
+
+	private static final class BlockBuilder {
+		private final CFA cfa;
+		private final int maxBlockSize;
+
+		private final Map<Loc, List<Block>> inBlocks;
+		private final Map<Loc, List<Block>> outBlocks;
+
+		private BlockBuilder(final CFA cfa, final int maxBlockSize) {
+			this.cfa = cfa;
+			this.maxBlockSize = maxBlockSize;
+			inBlocks = new HashMap<>();
+			outBlocks = new HashMap<>();
+		}
+
+		private Map<Loc, Collection<CfaAction>> build() {
+			for (final Loc loc : cfa.getLocs()) {
+				inBlocks.put(loc, new ArrayList<>());
+				outBlocks.put(loc, new ArrayList<>());
+			}
+			for (final Edge edge : cfa.getEdges()) {
+				addBlock(Block.of(edge));
+			}
+
+			final List<Loc> locs = new ArrayList<>(cfa.getLocs());
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (final Loc loc : locs) {
+					changed |= mergeParallel(loc);
+					changed |= mergeSequential(loc);
+				}
+			}
+
+			final Map<Loc, Collection<CfaAction>> result = new HashMap<>();
+			for (final Loc loc : locs) {
+				final List<Block> blocks = outBlocks.get(loc);
+				if (!blocks.isEmpty()) {
+					result.put(loc, blocks.stream().map(b -> CfaAction.create(b.source, b.target, b.edges, b.stmts))
+							.collect(Collectors.toList()));
+				}
+			}
+			return result;
+		}
+
+		private boolean mergeParallel(final Loc loc) {
+			boolean changed = false;
+			final List<Block> outs = outBlocks.get(loc);
+			for (int i = 0; i < outs.size(); ++i) {
+				for (int j = i + 1; j < outs.size(); ++j) {
+					final Block first = outs.get(i);
+					final Block second = outs.get(j);
+					if (first.target.equals(second.target) && first.size() + second.size() <= maxBlockSize) {
+						removeBlock(first);
+						removeBlock(second);
+						addBlock(Block.choice(first, second));
+						changed = true;
+						// Restart, since the list has been modified
+						i = -1;
+						break;
+					}
+				}
+			}
+			return changed;
+		}
+
+		private boolean mergeSequential(final Loc loc) {
+			if (isImportant(loc)) {
+				return false;
+			}
+			final List<Block> ins = inBlocks.get(loc);
+			final List<Block> outs = outBlocks.get(loc);
+			if (ins.size() != 1 || outs.size() != 1) {
+				return false;
+			}
+			final Block in = ins.get(0);
+			final Block out = outs.get(0);
+			if (in == out || in.size() + out.size() > maxBlockSize) {
+				return false;
+			}
+			removeBlock(in);
+			removeBlock(out);
+			addBlock(Block.sequence(in, out));
+			return true;
+		}
+
+		private boolean isImportant(final Loc loc) {
+			return loc.equals(cfa.getInitLoc()) || loc.equals(cfa.getFinalLoc()) || loc.equals(cfa.getErrorLoc());
+		}
+
+		private void addBlock(final Block block) {
+			outBlocks.get(block.source).add(block);
+			inBlocks.get(block.target).add(block);
+		}
+
+		private void removeBlock(final Block block) {
+			outBlocks.get(block.source).remove(block);
+			inBlocks.get(block.target).remove(block);
+		}
+	}
+
+}
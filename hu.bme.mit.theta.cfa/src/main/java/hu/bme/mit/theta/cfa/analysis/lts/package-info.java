@@ -1,6 +1,7 @@
 /**
  * This package contains different implementations for CFA LTS.
  *
+ * @see hu.bme.mit.theta.cfa.analysis.lts.CfaAbeLts
  * @see hu.bme.mit.theta.cfa.analysis.lts.CfaLbeLts
  * @see hu.bme.mit.theta.cfa.analysis.lts.CfaSbeLts
  * @see hu.bme.mit.theta.cfa.analysis.lts.CfaCachedLts
@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.cfa.tool;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,6 +27,8 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
@@ -50,6 +53,9 @@ import hu.bme.mit.theta.common.logging.Logger.Level;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.common.table.BasicTableWriter;
 import hu.bme.mit.theta.common.table.TableWriter;
+import hu.bme.mit.theta.solver.recording.RecordingSolverFactory;
+import hu.bme.mit.theta.solver.recording.SolverRecorder;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 
 /**
  * A command line interface for running a CEGAR configuration on a CFA.
@@ -83,9 +89,33 @@ public class CfaCli {
 	@Parameter(names = "--maxenum", description = "Maximal number of explicitly enumerated successors (0: unlimited)")
 	Integer maxEnum = 0;
 
+	@Parameter(names = "--maxblocksize", description = "Maximal number of edges in a block for ABE encoding (0: unlimited)")
+	Integer maxBlockSize = 0;
+
 	@Parameter(names = "--initprec", description = "Initial precision")
 	InitPrec initPrec = InitPrec.EMPTY;
 
+	@Parameter(names = "--checkpoint", description = "Path of the checkpoint file (saving is disabled if not given)")
+	String checkpoint = null;
+
+	@Parameter(names = "--checkpointperiod", description = "Save a checkpoint after every n-th refinement")
+	Integer checkpointPeriod = 1;
+
+	@Parameter(names = "--resume", description = "Resume from the checkpoint file if it exists")
+	Boolean resume = false;
+
+	@Parameter(names = "--preccache", description = "Path of a file for reusing the precision across runs")
+	String precCache = null;
+
+	@Parameter(names = "--solvercache", description = "Capacity of the cache for abstraction solver queries (0: disabled)")
+	int solverCache = 0;
+
+	@Parameter(names = "--transfunccache", description = "Capacity of the cache for abstract successors (0: disabled)")
+	int transFuncCache = 0;
+
+	@Parameter(names = "--solvertrace", description = "Path of a file for recording the solver queries")
+	String solverTrace = null;
+
 	@Parameter(names = "--loglevel", description = "Detailedness of logging")
 	Logger.Level logLevel = Level.SUBSTEP;
 
@@ -99,6 +129,7 @@ public class CfaCli {
 	boolean headerOnly = false;
 
 	private Logger logger;
+	private SolverRecorder solverRecorder = null;
 
 	public CfaCli(final String[] args) {
 		this.args = args;
@@ -138,6 +169,8 @@ public class CfaCli {
 			}
 		} catch (final Throwable ex) {
 			printError(ex);
+		} finally {
+			closeSolverRecorder();
 		}
 		if (benchmarkMode) {
 			writer.newRow();
@@ -160,15 +193,45 @@ public class CfaCli {
 		}
 	}
 
-	private Config<?, ?, ?> buildConfiguration(final CFA cfa) {
-		return new CfaConfigBuilder(domain, refinement).precGranularity(precGranularity).search(search)
-				.predSplit(predSplit).encoding(encoding).maxEnum(maxEnum).initPrec(initPrec).logger(logger).build(cfa);
+	private Config<?, ?, ?> buildConfiguration(final CFA cfa) throws IOException {
+		final CfaConfigBuilder builder = new CfaConfigBuilder(domain, refinement).precGranularity(precGranularity)
+				.search(search).predSplit(predSplit).encoding(encoding).maxEnum(maxEnum).maxBlockSize(maxBlockSize)
+				.initPrec(initPrec).solverCache(solverCache).transFuncCache(transFuncCache).logger(logger);
+		if (checkpoint != null) {
+			builder.checkpoint(new File(checkpoint), checkpointPeriod, modelHash()).resume(resume);
+		}
+		if (precCache != null) {
+			builder.precCache(new File(precCache), modelHash());
+		}
+		if (solverTrace != null) {
+			solverRecorder = SolverRecorder.create(new File(solverTrace));
+			builder.solverFactory(RecordingSolverFactory.create(Z3SolverFactory.getInstace(), solverRecorder));
+		}
+		return builder.build(cfa);
+	}
+
+	private String modelHash() throws IOException {
+		return Files.asByteSource(new File(model)).hash(Hashing.sha256()).toString();
+	}
+
+	private void closeSolverRecorder() {
+		if (solverRecorder != null) {
+			try {
+				solverRecorder.close();
+			} catch (final IOException ex) {
+				logger.write(Level.RESULT, "Could not write solver trace: %s%n", ex.getMessage());
+			}
+		}
 	}
 
 	private void printResult(final SafetyResult<?, ?> status, final CFA cfa, final long totalTimeMs) {
 		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
 		if (benchmarkMode) {
-			writer.cell(status.isSafe());
+			if (status.isUnknown()) {
+				writer.cell("unknown");
+			} else {
+				writer.cell(status.isSafe());
+			}
 			writer.cell(totalTimeMs);
 			writer.cell(stats.getAlgorithmTimeMs());
 			writer.cell(stats.getAbstractorTimeMs());
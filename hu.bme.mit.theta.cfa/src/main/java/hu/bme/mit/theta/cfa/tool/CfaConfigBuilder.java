@@ -15,15 +15,18 @@
  */
 package hu.bme.mit.theta.cfa.tool;
 
+import static com.google.common.base.Preconditions.checkState;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 
+import java.io.File;
+
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators;
-import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators.ArgNodeComparator;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
@@ -37,6 +40,7 @@ import hu.bme.mit.theta.analysis.expl.VarsRefToExplPrec;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceBwBinItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceCombinedCheckers;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceFwBinItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceSeqItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceUnsatCoreChecker;
@@ -45,6 +49,7 @@ import hu.bme.mit.theta.analysis.expr.refinement.PrecRefiner;
 import hu.bme.mit.theta.analysis.expr.refinement.Refutation;
 import hu.bme.mit.theta.analysis.expr.refinement.RefutationToPrec;
 import hu.bme.mit.theta.analysis.expr.refinement.SingleExprTraceRefiner;
+import hu.bme.mit.theta.analysis.impl.CachingAnalysis;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters.ExprSplitter;
 import hu.bme.mit.theta.analysis.pred.ItpRefToPredPrec;
@@ -53,16 +58,26 @@ import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
 import hu.bme.mit.theta.analysis.pred.PredAnalysis;
 import hu.bme.mit.theta.analysis.pred.PredPrec;
 import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.analysis.serialization.Codecs;
+import hu.bme.mit.theta.analysis.serialization.FileCheckpointer;
+import hu.bme.mit.theta.analysis.serialization.PrecCache;
+import hu.bme.mit.theta.analysis.serialization.PrecFormat;
+import hu.bme.mit.theta.analysis.serialization.PrecFormats;
+import hu.bme.mit.theta.analysis.waitlist.BucketWaitlist;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
 import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
 import hu.bme.mit.theta.cfa.analysis.CfaAnalysis;
+import hu.bme.mit.theta.cfa.analysis.CfaCodecs;
 import hu.bme.mit.theta.cfa.analysis.CfaPrec;
+import hu.bme.mit.theta.cfa.analysis.CfaPrecFormats;
 import hu.bme.mit.theta.cfa.analysis.CfaState;
-import hu.bme.mit.theta.cfa.analysis.DistToErrComparator;
+import hu.bme.mit.theta.cfa.analysis.DistToErrPriority;
 import hu.bme.mit.theta.cfa.analysis.initprec.CfaAllVarsInitPrec;
 import hu.bme.mit.theta.cfa.analysis.initprec.CfaEmptyInitPrec;
 import hu.bme.mit.theta.cfa.analysis.initprec.CfaInitPrec;
+import hu.bme.mit.theta.cfa.analysis.lts.CfaAbeLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaCachedLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaLbeLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaLts;
@@ -74,41 +89,52 @@ import hu.bme.mit.theta.cfa.analysis.prec.LocalCfaPrecRefiner;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.utils.CachingSolverFactory;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 
 public class CfaConfigBuilder {
 	public enum Domain {
-		EXPL, PRED_BOOL, PRED_CART, PRED_SPLIT
+		EXPL, PRED_BOOL, PRED_CART, PRED_SPLIT, PRED_BDD
 	};
 
 	public enum Refinement {
-		FW_BIN_ITP, BW_BIN_ITP, SEQ_ITP, UNSAT_CORE
+		FW_BIN_ITP, BW_BIN_ITP, PAR_BIN_ITP, SEQ_ITP, UNSAT_CORE
 	};
 
 	public enum Search {
 		BFS {
 			@Override
-			public ArgNodeComparator getComp(final CFA cfa) {
-				return ArgNodeComparators.combine(ArgNodeComparators.targetFirst(), ArgNodeComparators.bfs());
+			public <S extends State, A extends Action> Waitlist<ArgNode<S, A>> createWaitlist(final CFA cfa) {
+				return PriorityWaitlist
+						.create(ArgNodeComparators.combine(ArgNodeComparators.targetFirst(), ArgNodeComparators.bfs()));
 			}
 		},
 
 		DFS {
 			@Override
-			public ArgNodeComparator getComp(final CFA cfa) {
-				return ArgNodeComparators.combine(ArgNodeComparators.targetFirst(), ArgNodeComparators.dfs());
+			public <S extends State, A extends Action> Waitlist<ArgNode<S, A>> createWaitlist(final CFA cfa) {
+				return PriorityWaitlist
+						.create(ArgNodeComparators.combine(ArgNodeComparators.targetFirst(), ArgNodeComparators.dfs()));
 			}
 		},
 
 		ERR {
 			@Override
-			public ArgNodeComparator getComp(final CFA cfa) {
-				return new DistToErrComparator(cfa);
+			public <S extends State, A extends Action> Waitlist<ArgNode<S, A>> createWaitlist(final CFA cfa) {
+				return BucketWaitlist.create(DistToErrPriority.create(cfa));
+			}
+		},
+
+		ASTAR {
+			@Override
+			public <S extends State, A extends Action> Waitlist<ArgNode<S, A>> createWaitlist(final CFA cfa) {
+				return BucketWaitlist.create(DistToErrPriority.createWithDepth(cfa));
 			}
 		};
 
-		public abstract ArgNodeComparator getComp(CFA cfa);
+		public abstract <S extends State, A extends Action> Waitlist<ArgNode<S, A>> createWaitlist(CFA cfa);
 
 	};
 
@@ -138,6 +164,11 @@ public class CfaConfigBuilder {
 					final RefutationToPrec<P, R> refToPrec) {
 				return GlobalCfaPrecRefiner.create(refToPrec);
 			}
+
+			@Override
+			public <P extends Prec> PrecFormat<CfaPrec<P>> createFormat(final CFA cfa, final PrecFormat<P> precFormat) {
+				return CfaPrecFormats.global(precFormat);
+			}
 		},
 
 		LOCAL {
@@ -151,30 +182,44 @@ public class CfaConfigBuilder {
 					final RefutationToPrec<P, R> refToPrec) {
 				return LocalCfaPrecRefiner.create(refToPrec);
 			}
+
+			@Override
+			public <P extends Prec> PrecFormat<CfaPrec<P>> createFormat(final CFA cfa, final PrecFormat<P> precFormat) {
+				return CfaPrecFormats.local(cfa, precFormat);
+			}
 		};
 
 		public abstract <P extends Prec> CfaPrec<P> createPrec(P innerPrec);
 
 		public abstract <S extends ExprState, A extends Action, P extends Prec, R extends Refutation> PrecRefiner<CfaState<S>, A, CfaPrec<P>, R> createRefiner(
 				RefutationToPrec<P, R> refToPrec);
+
+		public abstract <P extends Prec> PrecFormat<CfaPrec<P>> createFormat(CFA cfa, PrecFormat<P> precFormat);
 	};
 
 	public enum Encoding {
 		SBE {
 			@Override
-			public CfaLts getLts() {
+			public CfaLts getLts(final CFA cfa, final int maxBlockSize) {
 				return new CfaCachedLts(CfaSbeLts.getInstance());
 			}
 		},
 
 		LBE {
 			@Override
-			public CfaLts getLts() {
+			public CfaLts getLts(final CFA cfa, final int maxBlockSize) {
 				return new CfaCachedLts(CfaLbeLts.getInstance());
 			}
+		},
+
+		ABE {
+			@Override
+			public CfaLts getLts(final CFA cfa, final int maxBlockSize) {
+				return CfaAbeLts.create(cfa, maxBlockSize);
+			}
 		};
 
-		public abstract CfaLts getLts();
+		public abstract CfaLts getLts(CFA cfa, int maxBlockSize);
 	};
 
 	public enum InitPrec {
@@ -196,7 +241,15 @@ public class CfaConfigBuilder {
 	private PrecGranularity precGranularity = PrecGranularity.GLOBAL;
 	private Encoding encoding = Encoding.LBE;
 	private int maxEnum = 0;
+	private int maxBlockSize = 0;
 	private InitPrec initPrec = InitPrec.EMPTY;
+	private File checkpointFile = null;
+	private int checkpointPeriod = 1;
+	private boolean resume = false;
+	private File precCacheFile = null;
+	private String modelHash = null;
+	private int solverCacheCapacity = 0;
+	private int transFuncCacheCapacity = 0;
 
 	public CfaConfigBuilder(final Domain domain, final Refinement refinement) {
 		this.domain = domain;
@@ -238,23 +291,62 @@ public class CfaConfigBuilder {
 		return this;
 	}
 
+	public CfaConfigBuilder maxBlockSize(final int maxBlockSize) {
+		this.maxBlockSize = maxBlockSize;
+		return this;
+	}
+
 	public CfaConfigBuilder initPrec(final InitPrec initPrec) {
 		this.initPrec = initPrec;
 		return this;
 	}
 
+	public CfaConfigBuilder checkpoint(final File checkpointFile, final int checkpointPeriod,
+			final String modelHash) {
+		this.checkpointFile = checkpointFile;
+		this.checkpointPeriod = checkpointPeriod;
+		this.modelHash = modelHash;
+		return this;
+	}
+
+	public CfaConfigBuilder resume(final boolean resume) {
+		this.resume = resume;
+		return this;
+	}
+
+	public CfaConfigBuilder precCache(final File precCacheFile, final String modelHash) {
+		this.precCacheFile = precCacheFile;
+		this.modelHash = modelHash;
+		return this;
+	}
+
+	public CfaConfigBuilder solverCache(final int solverCacheCapacity) {
+		this.solverCacheCapacity = solverCacheCapacity;
+		return this;
+	}
+
+	public CfaConfigBuilder transFuncCache(final int transFuncCacheCapacity) {
+		this.transFuncCacheCapacity = transFuncCacheCapacity;
+		return this;
+	}
+
 	public Config<? extends State, ? extends Action, ? extends Prec> build(final CFA cfa) {
+		checkState(checkpointFile == null || precCacheFile == null,
+				"Checkpointing and precision cache cannot be combined.");
 		final ItpSolver solver = solverFactory.createItpSolver();
-		final CfaLts lts = encoding.getLts();
+		final Solver abstrSolver = solverCacheCapacity > 0
+				? CachingSolverFactory.create(solverFactory, solverCacheCapacity).createSolver()
+				: solver;
+		final CfaLts lts = encoding.getLts(cfa, maxBlockSize);
 
 		if (domain == Domain.EXPL) {
-			final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis
-					.create(cfa.getInitLoc(), ExplStmtAnalysis.create(solver, True(), maxEnum));
+			final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis.create(
+					cfa.getInitLoc(), withTransFuncCache(ExplStmtAnalysis.create(abstrSolver, True(), maxEnum)));
 			final ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> argBuilder = ArgBuilder.create(lts,
 					analysis, s -> s.getLoc().equals(cfa.getErrorLoc()), true);
 			final Abstractor<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> abstractor = BasicAbstractor
 					.builder(argBuilder).projection(CfaState::getLoc)
-					.waitlist(PriorityWaitlist.create(search.getComp(cfa))).logger(logger).build();
+					.waitlist(search.createWaitlist(cfa)).logger(logger).build();
 
 			Refiner<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> refiner = null;
 
@@ -267,6 +359,11 @@ public class CfaConfigBuilder {
 				refiner = SingleExprTraceRefiner.create(ExprTraceBwBinItpChecker.create(True(), True(), solver),
 						precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
 				break;
+			case PAR_BIN_ITP:
+				refiner = SingleExprTraceRefiner.create(
+						ExprTraceCombinedCheckers.createParallelBwFwMinPrune(True(), True(), solverFactory),
+						precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
+				break;
 			case SEQ_ITP:
 				refiner = SingleExprTraceRefiner.create(ExprTraceSeqItpChecker.create(True(), True(), solver),
 						precGranularity.createRefiner(new ItpRefToExplPrec()), logger);
@@ -280,35 +377,49 @@ public class CfaConfigBuilder {
 						domain + " domain does not support " + refinement + " refinement.");
 			}
 
-			final SafetyChecker<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> checker = CegarChecker
-					.create(abstractor, refiner, logger);
+			final SafetyChecker<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> checker;
+			if (checkpointFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger,
+						FileCheckpointer.create(checkpointFile, checkpointPeriod, resume, checkpointFingerprint(), lts,
+								CfaCodecs.cfaState(cfa, Codecs.explState()), CfaCodecs.cfaPrec(cfa, Codecs.explPrec()),
+								cfa.getVars()));
+			} else if (precCacheFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger, PrecCache.create(precCacheFile, modelHash,
+						precGranularity.createFormat(cfa, PrecFormats.expl()), cfa.getVars(), logger));
+			} else {
+				checker = CegarChecker.create(abstractor, refiner, logger);
+			}
 
 			final CfaPrec<ExplPrec> prec = precGranularity.createPrec(initPrec.builder.createExpl(cfa));
 
 			return Config.create(checker, prec);
 
-		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT) {
+		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT
+				|| domain == Domain.PRED_BDD) {
 			PredAbstractor predAbstractor = null;
 			switch (domain) {
 			case PRED_BOOL:
-				predAbstractor = PredAbstractors.booleanAbstractor(solver);
+				predAbstractor = PredAbstractors.booleanAbstractor(abstrSolver);
 				break;
 			case PRED_SPLIT:
-				predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
+				predAbstractor = PredAbstractors.booleanSplitAbstractor(abstrSolver);
+				break;
+			case PRED_BDD:
+				predAbstractor = PredAbstractors.bddAbstractor(abstrSolver);
 				break;
 			case PRED_CART:
-				predAbstractor = PredAbstractors.cartesianAbstractor(solver);
+				predAbstractor = PredAbstractors.cartesianAbstractor(abstrSolver);
 				break;
 			default:
 				throw new UnsupportedOperationException(domain + " domain is not supported.");
 			}
-			final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis
-					.create(cfa.getInitLoc(), PredAnalysis.create(solver, predAbstractor, True()));
+			final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis.create(
+					cfa.getInitLoc(), withTransFuncCache(PredAnalysis.create(abstrSolver, predAbstractor, True())));
 			final ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> argBuilder = ArgBuilder.create(lts,
 					analysis, s -> s.getLoc().equals(cfa.getErrorLoc()), true);
 			final Abstractor<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> abstractor = BasicAbstractor
 					.builder(argBuilder).projection(CfaState::getLoc)
-					.waitlist(PriorityWaitlist.create(search.getComp(cfa))).logger(logger).build();
+					.waitlist(search.createWaitlist(cfa)).logger(logger).build();
 
 			ExprTraceChecker<ItpRefutation> exprTraceChecker = null;
 			switch (refinement) {
@@ -318,6 +429,9 @@ public class CfaConfigBuilder {
 			case BW_BIN_ITP:
 				exprTraceChecker = ExprTraceBwBinItpChecker.create(True(), True(), solver);
 				break;
+			case PAR_BIN_ITP:
+				exprTraceChecker = ExprTraceCombinedCheckers.createParallelBwFwMinPrune(True(), True(), solverFactory);
+				break;
 			case SEQ_ITP:
 				exprTraceChecker = ExprTraceSeqItpChecker.create(True(), True(), solver);
 				break;
@@ -329,8 +443,18 @@ public class CfaConfigBuilder {
 			final Refiner<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> refiner = SingleExprTraceRefiner
 					.create(exprTraceChecker, precGranularity.createRefiner(refToPrec), logger);
 
-			final SafetyChecker<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> checker = CegarChecker
-					.create(abstractor, refiner, logger);
+			final SafetyChecker<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> checker;
+			if (checkpointFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger,
+						FileCheckpointer.create(checkpointFile, checkpointPeriod, resume, checkpointFingerprint(), lts,
+								CfaCodecs.cfaState(cfa, Codecs.predState()), CfaCodecs.cfaPrec(cfa, Codecs.predPrec()),
+								cfa.getVars()));
+			} else if (precCacheFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger, PrecCache.create(precCacheFile, modelHash,
+						precGranularity.createFormat(cfa, PrecFormats.pred()), cfa.getVars(), logger));
+			} else {
+				checker = CegarChecker.create(abstractor, refiner, logger);
+			}
 
 			final CfaPrec<PredPrec> prec = precGranularity.createPrec(initPrec.builder.createPred(cfa));
 
@@ -340,4 +464,20 @@ public class CfaConfigBuilder {
 			throw new UnsupportedOperationException(domain + " domain is not supported.");
 		}
 	}
+
+	// The CFA transfer function passes the precision of the target location,
+	// so cached posts stay valid while the precision of that location does not
+	// change
+	private <S extends State, A extends Action, P extends Prec> Analysis<S, A, P> withTransFuncCache(
+			final Analysis<S, A, P> analysis) {
+		return transFuncCacheCapacity > 0 ? CachingAnalysis.create(analysis, transFuncCacheCapacity) : analysis;
+	}
+
+	// Every option that changes the LTS or the shape of the states, because
+	// ARG edges are restored by their index among the enabled actions
+	private String checkpointFingerprint() {
+		return modelHash + " " + domain + " " + refinement + " " + encoding + " " + maxBlockSize + " "
+				+ precGranularity + " " + predSplit + " " + maxEnum;
+	}
+
 }
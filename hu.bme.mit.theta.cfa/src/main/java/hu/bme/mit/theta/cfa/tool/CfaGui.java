@@ -222,12 +222,13 @@ public class CfaGui extends BaseGui {
 					throw new IllegalStateException("No result is present.");
 				}
 				String content = "";
-				if (safetyResult.isSafe()) {
+				// Unknown results have no counterexample, their partial ARG is shown
+				if (safetyResult.isSafe() || safetyResult.isUnknown()) {
 					Graph graph = null;
 					if (cbStructureOnly.isSelected()) {
-						graph = ArgVisualizer.getStructureOnly().visualize(safetyResult.asSafe().getArg());
+						graph = ArgVisualizer.getStructureOnly().visualize(safetyResult.getArg());
 					} else {
-						graph = ArgVisualizer.getDefault().visualize(safetyResult.asSafe().getArg());
+						graph = ArgVisualizer.getDefault().visualize(safetyResult.getArg());
 					}
 					final File tmpFile = File.createTempFile("theta", ".tmp");
 					GraphvizWriter.getInstance().writeFile(graph, tmpFile.getAbsolutePath(), Format.SVG);
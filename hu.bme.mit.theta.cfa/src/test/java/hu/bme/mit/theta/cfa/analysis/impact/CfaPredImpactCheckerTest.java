@@ -65,4 +65,26 @@ public final class CfaPredImpactCheckerTest {
 
 		System.out.println(GraphvizWriter.getInstance().writeString(ArgVisualizer.getDefault().visualize(arg)));
 	}
+
+	@Test
+	public void testOptimized() throws FileNotFoundException, IOException {
+		// Arrange
+		final CFA cfa = CfaDslManager.createCfa(new FileInputStream("src/test/resources/counter5_true.cfa"));
+
+		final PredImpactChecker checker = PredImpactChecker.createOptimized(CfaLbeLts.getInstance(),
+				cfa.getInitLoc(), l -> l.equals(cfa.getErrorLoc()), Z3SolverFactory.getInstace());
+
+		// Act
+		final SafetyResult<? extends ExprState, ? extends ExprAction> status = checker.check(UnitPrec.getInstance());
+
+		// Assert
+		assertTrue(status.isSafe());
+		assertTrue(status.getStats().isPresent());
+
+		final ARG<? extends ExprState, ? extends ExprAction> arg = status.getArg();
+		arg.minimize();
+
+		final ArgChecker argChecker = ArgChecker.create(Z3SolverFactory.getInstace().createSolver());
+		assertTrue(argChecker.isWellLabeled(arg));
+	}
 }
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis.lts;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.unit.UnitState;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.CFA.Loc;
+import hu.bme.mit.theta.cfa.analysis.CfaAction;
+import hu.bme.mit.theta.cfa.analysis.CfaState;
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class CfaAbeLtsTest {
+
+	private CFA cfa;
+
+	@Before
+	public void before() {
+		// L0 -> L1 -> (two branches) -> L2 -> L3 (error), L2 -> L0 (loop), L0 -> LF
+		final VarDecl<IntType> x = Var("x", Int());
+		final CFA.Builder builder = CFA.builder();
+		final Loc l0 = builder.createLoc("L0");
+		final Loc l1 = builder.createLoc("L1");
+		final Loc l2 = builder.createLoc("L2");
+		final Loc l3 = builder.createLoc("L3");
+		final Loc lf = builder.createLoc("LF");
+		builder.createEdge(l0, l1, Stmts.Havoc(x));
+		builder.createEdge(l1, l2, Stmts.Assume(Lt(x.getRef(), Int(0))));
+		builder.createEdge(l1, l2, Stmts.Assume(Geq(x.getRef(), Int(0))));
+		builder.createEdge(l2, l3, Stmts.Assume(Geq(x.getRef(), Int(5))));
+		builder.createEdge(l2, l0, Stmts.Assume(Lt(x.getRef(), Int(5))));
+		builder.createEdge(l0, lf, Stmts.Skip());
+		builder.setInitLoc(l0);
+		builder.setErrorLoc(l3);
+		builder.setFinalLoc(lf);
+		cfa = builder.build();
+	}
+
+	@Test
+	public void testUnbounded() {
+		final CfaAbeLts lts = CfaAbeLts.create(cfa);
+		final Collection<CfaAction> actions = lts.getEnabledActionsFor(state(cfa.getInitLoc()));
+
+		// L1 is eliminated, the havoc and the diamond are summarized
+		assertEquals(2, actions.size());
+		final CfaAction block = actions.stream().filter(a -> !a.getTarget().equals(cfa.getFinalLoc())).findAny()
+				.get();
+		assertEquals(3, block.getEdges().size());
+		assertEquals(2, block.getStmts().size());
+		assertTrue(block.getStmts().get(1) instanceof NonDetStmt);
+
+		// L2 branches to different locations, so it is kept
+		assertEquals(2, lts.getEnabledActionsFor(state(block.getTarget())).size());
+	}
+
+	@Test
+	public void testBounded() {
+		final CfaAbeLts lts = CfaAbeLts.create(cfa, 1);
+		final Loc l0 = cfa.getInitLoc();
+		final Collection<CfaAction> actions = lts.getEnabledActionsFor(state(l0));
+
+		// Each block is a single edge, as in SBE
+		assertEquals(l0.getOutEdges().size(), actions.size());
+		final CfaAction havoc = actions.stream().filter(a -> !a.getTarget().equals(cfa.getFinalLoc())).findAny()
+				.get();
+		final Loc l1 = Utils.singleElementOf(havoc.getEdges()).getTarget();
+		assertEquals(2, lts.getEnabledActionsFor(state(l1)).size());
+	}
+
+	private static CfaState<UnitState> state(final Loc loc) {
+		return CfaState.of(loc, UnitState.getInstance());
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A map with bounded capacity that evicts the least recently used entry when
+ * full. Not thread-safe.
+ */
+public final class LruCache<K, V> {
+
+	private final int capacity;
+	private final Map<K, V> map;
+
+	private LruCache(final int capacity) {
+		checkArgument(capacity > 0, "Capacity must be positive.");
+		this.capacity = capacity;
+		this.map = new LinkedHashMap<K, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+				return size() > LruCache.this.capacity;
+			}
+		};
+	}
+
+	public static <K, V> LruCache<K, V> create(final int capacity) {
+		return new LruCache<>(capacity);
+	}
+
+	public Optional<V> get(final K key) {
+		return Optional.ofNullable(map.get(checkNotNull(key)));
+	}
+
+	public void put(final K key, final V value) {
+		map.put(checkNotNull(key), checkNotNull(value));
+	}
+
+	public int size() {
+		return map.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void clear() {
+		map.clear();
+	}
+
+}
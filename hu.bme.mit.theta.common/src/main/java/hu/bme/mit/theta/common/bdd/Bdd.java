@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.bdd;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Immutable handle of a boolean function represented by a node of a
+ * {@link BddManager}. Since nodes are canonical, two handles of the same
+ * manager are equal iff they represent the same function.
+ */
+public final class Bdd {
+
+	private final BddManager manager;
+	private final int node;
+
+	Bdd(final BddManager manager, final int node) {
+		this.manager = checkNotNull(manager);
+		this.node = node;
+	}
+
+	public BddManager getManager() {
+		return manager;
+	}
+
+	public boolean isTrue() {
+		return node == BddManager.TRUE;
+	}
+
+	public boolean isFalse() {
+		return node == BddManager.FALSE;
+	}
+
+	public boolean isTerminal() {
+		return isTrue() || isFalse();
+	}
+
+	/**
+	 * Returns the variable of the root node.
+	 */
+	public int getVar() {
+		checkState(!isTerminal(), "Terminal node has no variable");
+		return manager.var(node);
+	}
+
+	/**
+	 * Returns the cofactor where the root variable is false.
+	 */
+	public Bdd getLow() {
+		checkState(!isTerminal(), "Terminal node has no children");
+		return new Bdd(manager, manager.low(node));
+	}
+
+	/**
+	 * Returns the cofactor where the root variable is true.
+	 */
+	public Bdd getHigh() {
+		checkState(!isTerminal(), "Terminal node has no children");
+		return new Bdd(manager, manager.high(node));
+	}
+
+	public Bdd and(final Bdd that) {
+		checkManager(that);
+		return new Bdd(manager, manager.and(this.node, that.node));
+	}
+
+	public Bdd or(final Bdd that) {
+		checkManager(that);
+		return new Bdd(manager, manager.or(this.node, that.node));
+	}
+
+	public Bdd not() {
+		return new Bdd(manager, manager.not(node));
+	}
+
+	/**
+	 * Checks whether this function implies the other one.
+	 */
+	public boolean implies(final Bdd that) {
+		checkManager(that);
+		return manager.and(this.node, manager.not(that.node)) == BddManager.FALSE;
+	}
+
+	private void checkManager(final Bdd that) {
+		checkArgument(this.manager == that.manager, "BDDs belong to different managers");
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * System.identityHashCode(manager) + node;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof Bdd) {
+			final Bdd that = (Bdd) obj;
+			return this.manager == that.manager && this.node == that.node;
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		if (isTrue()) {
+			return "true";
+		} else if (isFalse()) {
+			return "false";
+		} else {
+			return "(ite " + getVar() + " " + getHigh() + " " + getLow() + ")";
+		}
+	}
+
+}
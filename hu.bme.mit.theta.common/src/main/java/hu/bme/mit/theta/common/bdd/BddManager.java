@@ -0,0 +1,241 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.bdd;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Manager of reduced ordered binary decision diagrams. Variables are
+ * identified by non-negative integers and are ordered by their value (smaller
+ * variables are closer to the root). Nodes are hash-consed, thus equivalent
+ * functions are represented by the same node. Nodes are never freed, so a
+ * manager should be discarded when it is no longer needed. Not thread-safe.
+ */
+public final class BddManager {
+
+	static final int FALSE = 0;
+	static final int TRUE = 1;
+
+	private static final int TERMINAL_VAR = Integer.MAX_VALUE;
+	private static final int CACHE_SIZE = 1 << 16;
+
+	private static final int OP_AND = 0;
+	private static final int OP_OR = 1;
+	private static final int OP_NOT = 2;
+
+	// Nodes
+	private int[] vars;
+	private int[] lows;
+	private int[] highs;
+	private int size;
+
+	// Unique table (open addressing, contains node indices, 0 means empty)
+	private int[] unique;
+
+	// Computed table (direct mapped)
+	private final int[] cacheOp;
+	private final int[] cacheLeft;
+	private final int[] cacheRight;
+	private final int[] cacheResult;
+
+	private final Bdd trueBdd;
+	private final Bdd falseBdd;
+
+	private BddManager() {
+		vars = new int[1024];
+		lows = new int[1024];
+		highs = new int[1024];
+		unique = new int[2048];
+		cacheOp = new int[CACHE_SIZE];
+		cacheLeft = new int[CACHE_SIZE];
+		cacheRight = new int[CACHE_SIZE];
+		cacheResult = new int[CACHE_SIZE];
+		Arrays.fill(cacheOp, -1);
+
+		vars[FALSE] = TERMINAL_VAR;
+		vars[TRUE] = TERMINAL_VAR;
+		size = 2;
+
+		falseBdd = new Bdd(this, FALSE);
+		trueBdd = new Bdd(this, TRUE);
+	}
+
+	public static BddManager create() {
+		return new BddManager();
+	}
+
+	public Bdd getTrue() {
+		return trueBdd;
+	}
+
+	public Bdd getFalse() {
+		return falseBdd;
+	}
+
+	/**
+	 * Returns the function that is true iff the given variable is true.
+	 */
+	public Bdd getVar(final int var) {
+		checkArgument(var >= 0 && var != TERMINAL_VAR, "Invalid variable");
+		return new Bdd(this, mk(var, FALSE, TRUE));
+	}
+
+	/**
+	 * Returns the number of nodes (including the terminals).
+	 */
+	public int getNodeCount() {
+		return size;
+	}
+
+	////
+
+	int var(final int node) {
+		return vars[node];
+	}
+
+	int low(final int node) {
+		return lows[node];
+	}
+
+	int high(final int node) {
+		return highs[node];
+	}
+
+	int and(final int a, final int b) {
+		if (a == FALSE || b == FALSE) {
+			return FALSE;
+		} else if (a == TRUE) {
+			return b;
+		} else if (b == TRUE || a == b) {
+			return a;
+		}
+		return apply(OP_AND, Math.min(a, b), Math.max(a, b));
+	}
+
+	int or(final int a, final int b) {
+		if (a == TRUE || b == TRUE) {
+			return TRUE;
+		} else if (a == FALSE) {
+			return b;
+		} else if (b == FALSE || a == b) {
+			return a;
+		}
+		return apply(OP_OR, Math.min(a, b), Math.max(a, b));
+	}
+
+	int not(final int a) {
+		if (a == FALSE) {
+			return TRUE;
+		} else if (a == TRUE) {
+			return FALSE;
+		}
+		final int slot = cacheSlot(OP_NOT, a, 0);
+		if (cacheOp[slot] == OP_NOT && cacheLeft[slot] == a) {
+			return cacheResult[slot];
+		}
+		final int result = mk(vars[a], not(lows[a]), not(highs[a]));
+		cacheStore(slot, OP_NOT, a, 0, result);
+		return result;
+	}
+
+	private int apply(final int op, final int a, final int b) {
+		final int slot = cacheSlot(op, a, b);
+		if (cacheOp[slot] == op && cacheLeft[slot] == a && cacheRight[slot] == b) {
+			return cacheResult[slot];
+		}
+
+		final int var = Math.min(vars[a], vars[b]);
+		final int aLow = vars[a] == var ? lows[a] : a;
+		final int aHigh = vars[a] == var ? highs[a] : a;
+		final int bLow = vars[b] == var ? lows[b] : b;
+		final int bHigh = vars[b] == var ? highs[b] : b;
+
+		final int result;
+		if (op == OP_AND) {
+			result = mk(var, and(aLow, bLow), and(aHigh, bHigh));
+		} else {
+			result = mk(var, or(aLow, bLow), or(aHigh, bHigh));
+		}
+		cacheStore(slot, op, a, b, result);
+		return result;
+	}
+
+	private int mk(final int var, final int low, final int high) {
+		if (low == high) {
+			return low;
+		}
+
+		final int mask = unique.length - 1;
+		int pos = hash(var, low, high) & mask;
+		while (unique[pos] != 0) {
+			final int node = unique[pos];
+			if (vars[node] == var && lows[node] == low && highs[node] == high) {
+				return node;
+			}
+			pos = (pos + 1) & mask;
+		}
+
+		if (size == vars.length) {
+			vars = Arrays.copyOf(vars, size * 2);
+			lows = Arrays.copyOf(lows, size * 2);
+			highs = Arrays.copyOf(highs, size * 2);
+		}
+		final int node = size++;
+		vars[node] = var;
+		lows[node] = low;
+		highs[node] = high;
+
+		if (2 * size > unique.length) {
+			rehash();
+		} else {
+			unique[pos] = node;
+		}
+		return node;
+	}
+
+	private void rehash() {
+		unique = new int[unique.length * 2];
+		final int mask = unique.length - 1;
+		for (int node = 2; node < size; node++) {
+			int pos = hash(vars[node], lows[node], highs[node]) & mask;
+			while (unique[pos] != 0) {
+				pos = (pos + 1) & mask;
+			}
+			unique[pos] = node;
+		}
+	}
+
+	private static int hash(final int var, final int low, final int high) {
+		int result = var;
+		result = 31 * result + low;
+		result = 31 * result + high;
+		return result ^ (result >>> 16);
+	}
+
+	private int cacheSlot(final int op, final int a, final int b) {
+		return hash(op, a, b) & (CACHE_SIZE - 1);
+	}
+
+	private void cacheStore(final int slot, final int op, final int a, final int b, final int result) {
+		cacheOp[slot] = op;
+		cacheLeft[slot] = a;
+		cacheRight[slot] = b;
+		cacheResult[slot] = result;
+	}
+
+}
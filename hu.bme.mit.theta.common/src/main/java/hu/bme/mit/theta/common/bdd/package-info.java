@@ -0,0 +1,8 @@
+/**
+ * This package contains a simple binary decision diagram (BDD) package.
+ *
+ * @see hu.bme.mit.theta.common.bdd.BddManager
+ * @see hu.bme.mit.theta.common.bdd.Bdd
+ */
+
+package hu.bme.mit.theta.common.bdd;
@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.bdd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BddTest {
+	private final BddManager manager = BddManager.create();
+	private final Bdd a = manager.getVar(0);
+	private final Bdd b = manager.getVar(1);
+	private final Bdd c = manager.getVar(2);
+
+	@Test
+	public void testTerminals() {
+		assertTrue(manager.getTrue().isTrue());
+		assertTrue(manager.getFalse().isFalse());
+		assertEquals(manager.getFalse(), a.and(a.not()));
+		assertEquals(manager.getTrue(), a.or(a.not()));
+		assertEquals(manager.getFalse(), manager.getTrue().not());
+	}
+
+	@Test
+	public void testCanonicity() {
+		assertEquals(a, a.and(b).or(a.and(b.not())));
+		assertEquals(a.and(b), b.and(a));
+		assertEquals(a.or(b).not(), a.not().and(b.not()));
+		assertEquals(a.and(b.or(c)), a.and(b).or(a.and(c)));
+		assertNotEquals(a.and(b), a.or(b));
+	}
+
+	@Test
+	public void testStructure() {
+		final Bdd f = a.and(b).or(c);
+		assertEquals(0, f.getVar());
+		assertEquals(c, f.getLow());
+		assertEquals(b.or(c), f.getHigh());
+		assertEquals(1, f.getHigh().getVar());
+	}
+
+	@Test
+	public void testImplies() {
+		assertTrue(a.and(b).implies(a));
+		assertTrue(a.implies(a.or(c)));
+		assertFalse(a.implies(a.and(b)));
+		assertTrue(manager.getFalse().implies(a));
+		assertTrue(a.implies(manager.getTrue()));
+	}
+
+	@Test
+	public void testManyVars() {
+		Bdd parity = manager.getFalse();
+		for (int i = 0; i < 200; i++) {
+			final Bdd x = manager.getVar(i);
+			parity = parity.and(x.not()).or(parity.not().and(x));
+		}
+		Bdd parityReversed = manager.getFalse();
+		for (int i = 199; i >= 0; i--) {
+			final Bdd x = manager.getVar(i);
+			parityReversed = parityReversed.and(x.not()).or(parityReversed.not().and(x));
+		}
+		assertEquals(parity, parityReversed);
+	}
+}
@@ -24,6 +24,8 @@ import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
@@ -88,6 +90,16 @@ public final class ClockOps {
 			throw new UnsupportedOperationException();
 		}
 
+		@Override
+		public ClockOp visit(final SequenceStmt stmt, final Void param) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ClockOp visit(final NonDetStmt stmt, final Void param) {
+			throw new UnsupportedOperationException();
+		}
+
 		@Override
 		public <DeclType extends Type> ClockOp visit(final HavocStmt<DeclType> stmt, final Void param) {
 			final VarDecl<RatType> varDecl = TypeUtils.cast(stmt.getVarDecl(), Rat());
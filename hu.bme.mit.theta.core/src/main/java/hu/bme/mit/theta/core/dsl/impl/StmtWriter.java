@@ -15,9 +15,13 @@
  */
 package hu.bme.mit.theta.core.dsl.impl;
 
+import java.util.stream.Collectors;
+
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
 import hu.bme.mit.theta.core.type.Expr;
@@ -49,4 +53,15 @@ public class StmtWriter implements StmtVisitor<Void, String> {
 		return "havoc " + stmt.getVarDecl().getName();
 	}
 
+	@Override
+	public String visit(final SequenceStmt stmt, final Void param) {
+		return stmt.getStmts().stream().map(s -> s.accept(this, null)).collect(Collectors.joining("; ", "{", "}"));
+	}
+
+	@Override
+	public String visit(final NonDetStmt stmt, final Void param) {
+		return stmt.getStmts().stream().map(s -> s.accept(this, null))
+				.collect(Collectors.joining(" or ", "choice {", "}"));
+	}
+
 }
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.stmt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * A statement that nondeterministically executes one of its branches. Each
+ * branch is a single statement, use {@link SequenceStmt} for longer branches.
+ */
+public final class NonDetStmt implements Stmt {
+
+	private static final int HASH_SEED = 2083;
+	private static final String STMT_LABEL = "nondet";
+
+	private final List<Stmt> stmts;
+
+	private volatile int hashCode = 0;
+
+	private NonDetStmt(final List<? extends Stmt> stmts) {
+		checkNotNull(stmts);
+		checkArgument(!stmts.isEmpty(), "Empty choice");
+		this.stmts = ImmutableList.copyOf(stmts);
+	}
+
+	public static NonDetStmt of(final List<? extends Stmt> stmts) {
+		return new NonDetStmt(stmts);
+	}
+
+	public List<Stmt> getStmts() {
+		return stmts;
+	}
+
+	@Override
+	public <P, R> R accept(final StmtVisitor<? super P, ? extends R> visitor, final P param) {
+		return visitor.visit(this, param);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = hashCode;
+		if (result == 0) {
+			result = HASH_SEED;
+			result = 31 * result + stmts.hashCode();
+			hashCode = result;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof NonDetStmt) {
+			final NonDetStmt that = (NonDetStmt) obj;
+			return this.getStmts().equals(that.getStmts());
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(STMT_LABEL).addAll(stmts).toString();
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.stmt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * A statement that executes a list of statements in order.
+ */
+public final class SequenceStmt implements Stmt {
+
+	private static final int HASH_SEED = 1597;
+	private static final String STMT_LABEL = "seq";
+
+	private final List<Stmt> stmts;
+
+	private volatile int hashCode = 0;
+
+	private SequenceStmt(final List<? extends Stmt> stmts) {
+		checkNotNull(stmts);
+		checkArgument(!stmts.isEmpty(), "Empty sequence");
+		this.stmts = ImmutableList.copyOf(stmts);
+	}
+
+	public static SequenceStmt of(final List<? extends Stmt> stmts) {
+		return new SequenceStmt(stmts);
+	}
+
+	public List<Stmt> getStmts() {
+		return stmts;
+	}
+
+	@Override
+	public <P, R> R accept(final StmtVisitor<? super P, ? extends R> visitor, final P param) {
+		return visitor.visit(this, param);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = hashCode;
+		if (result == 0) {
+			result = HASH_SEED;
+			result = 31 * result + stmts.hashCode();
+			hashCode = result;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof SequenceStmt) {
+			final SequenceStmt that = (SequenceStmt) obj;
+			return this.getStmts().equals(that.getStmts());
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(STMT_LABEL).addAll(stmts).toString();
+	}
+}
@@ -27,4 +27,8 @@ public interface StmtVisitor<P, R> {
 
 	<DeclType extends Type> R visit(HavocStmt<DeclType> stmt, P param);
 
+	R visit(SequenceStmt stmt, P param);
+
+	R visit(NonDetStmt stmt, P param);
+
 }
@@ -15,6 +15,8 @@
  */
 package hu.bme.mit.theta.core.stmt;
 
+import java.util.List;
+
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.Type;
@@ -41,4 +43,12 @@ public final class Stmts {
 		return HavocStmt.of(varDecl);
 	}
 
+	public static SequenceStmt Sequence(final List<? extends Stmt> stmts) {
+		return SequenceStmt.of(stmts);
+	}
+
+	public static NonDetStmt NonDet(final List<? extends Stmt> stmts) {
+		return NonDetStmt.of(stmts);
+	}
+
 }
@@ -17,10 +17,13 @@ package hu.bme.mit.theta.core.utils;
 
 import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Or;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 
@@ -28,6 +31,8 @@ import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
@@ -98,6 +103,42 @@ final class StmtToExprTransformer {
 			return StmtUnfoldResult.of(ImmutableList.of(expr), newIndexing);
 		}
 
+		@Override
+		public StmtUnfoldResult visit(final SequenceStmt stmt, final VarIndexing indexing) {
+			return toExpr(stmt.getStmts(), indexing);
+		}
+
+		@Override
+		public StmtUnfoldResult visit(final NonDetStmt stmt, final VarIndexing indexing) {
+			final List<StmtUnfoldResult> branchResults = new ArrayList<>();
+			VarIndexing joinedIndexing = indexing;
+			for (final Stmt branch : stmt.getStmts()) {
+				final StmtUnfoldResult branchResult = toExpr(branch, indexing);
+				branchResults.add(branchResult);
+				joinedIndexing = joinedIndexing.join(branchResult.indexing);
+			}
+
+			// Branches that modify fewer variables are padded with equalities
+			// so that each branch ends in the joined indexing
+			final Set<VarDecl<?>> vars = StmtUtils.getVars(stmt.getStmts());
+			final Collection<Expr<BoolType>> branchExprs = new ArrayList<>();
+			for (final StmtUnfoldResult branchResult : branchResults) {
+				final Collection<Expr<BoolType>> exprs = new ArrayList<>(branchResult.exprs);
+				for (final VarDecl<?> varDecl : vars) {
+					final int branchIndex = branchResult.indexing.get(varDecl);
+					final int joinedIndex = joinedIndexing.get(varDecl);
+					if (branchIndex < joinedIndex) {
+						final Expr<?> lhs = ExprUtils.applyPrimes(varDecl.getRef(), joinedIndexing);
+						final Expr<?> rhs = ExprUtils.applyPrimes(varDecl.getRef(), branchResult.indexing);
+						exprs.add(Eq(lhs, rhs));
+					}
+				}
+				branchExprs.add(And(exprs));
+			}
+
+			return StmtUnfoldResult.of(ImmutableList.of(Or(branchExprs)), joinedIndexing);
+		}
+
 	}
 
 }
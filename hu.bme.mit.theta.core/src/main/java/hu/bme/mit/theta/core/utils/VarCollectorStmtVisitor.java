@@ -21,6 +21,8 @@ import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
 import hu.bme.mit.theta.core.type.Type;
@@ -62,4 +64,16 @@ final class VarCollectorStmtVisitor implements StmtVisitor<Collection<VarDecl<?>
 		return null;
 	}
 
+	@Override
+	public Void visit(final SequenceStmt stmt, final Collection<VarDecl<?>> vars) {
+		stmt.getStmts().forEach(s -> s.accept(this, vars));
+		return null;
+	}
+
+	@Override
+	public Void visit(final NonDetStmt stmt, final Collection<VarDecl<?>> vars) {
+		stmt.getStmts().forEach(s -> s.accept(this, vars));
+		return null;
+	}
+
 }
@@ -20,6 +20,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.decl.Decls.Const;
 import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Imply;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Or;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.Lists;
 
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.decl.VarDecl;
@@ -28,6 +34,8 @@ import hu.bme.mit.theta.core.model.Substitution;
 import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.HavocStmt;
+import hu.bme.mit.theta.core.stmt.NonDetStmt;
+import hu.bme.mit.theta.core.stmt.SequenceStmt;
 import hu.bme.mit.theta.core.stmt.SkipStmt;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.stmt.StmtVisitor;
@@ -107,6 +115,15 @@ public final class WpState {
 				.toString();
 	}
 
+	private static WpState sequence(final SequenceStmt stmt, final WpState state,
+			final StmtVisitor<WpState, WpState> visitor) {
+		WpState result = state;
+		for (final Stmt subStmt : Lists.reverse(stmt.getStmts())) {
+			result = subStmt.accept(visitor, result);
+		}
+		return result;
+	}
+
 	private static final class WpVisitor implements StmtVisitor<WpState, WpState> {
 
 		private WpVisitor() {
@@ -151,6 +168,23 @@ public final class WpState {
 			final int constCount = state.constCount;
 			return new WpState(expr, constCount);
 		}
+
+		@Override
+		public WpState visit(final SequenceStmt stmt, final WpState state) {
+			return sequence(stmt, state, this);
+		}
+
+		@Override
+		public WpState visit(final NonDetStmt stmt, final WpState state) {
+			final List<Expr<BoolType>> branchExprs = new ArrayList<>();
+			int constCount = state.constCount;
+			for (final Stmt branch : stmt.getStmts()) {
+				final WpState branchState = branch.accept(this, new WpState(state.getExpr(), constCount));
+				branchExprs.add(branchState.getExpr());
+				constCount = branchState.constCount;
+			}
+			return new WpState(And(branchExprs), constCount);
+		}
 	}
 
 	private static final class WepVisitor implements StmtVisitor<WpState, WpState> {
@@ -187,5 +221,22 @@ public final class WpState {
 			final int constCount = state.constCount;
 			return new WpState(expr, constCount);
 		}
+
+		@Override
+		public WpState visit(final SequenceStmt stmt, final WpState state) {
+			return sequence(stmt, state, this);
+		}
+
+		@Override
+		public WpState visit(final NonDetStmt stmt, final WpState state) {
+			final List<Expr<BoolType>> branchExprs = new ArrayList<>();
+			int constCount = state.constCount;
+			for (final Stmt branch : stmt.getStmts()) {
+				final WpState branchState = branch.accept(this, new WpState(state.getExpr(), constCount));
+				branchExprs.add(branchState.getExpr());
+				constCount = branchState.constCount;
+			}
+			return new WpState(Or(branchExprs), constCount);
+		}
 	}
 }
@@ -18,6 +18,7 @@ package hu.bme.mit.theta.core.utils;
 import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
@@ -61,7 +62,14 @@ public class StmtToExprTransformerTest {
 
 				{ Stmts.Havoc(VX), ImmutableList.of(True()) },
 
-				{ Stmts.Assign(VX, Int(2)), ImmutableList.of(Eq(Prime(VX.getRef()), Int(2))) }
+				{ Stmts.Assign(VX, Int(2)), ImmutableList.of(Eq(Prime(VX.getRef()), Int(2))) },
+
+				{ Stmts.Sequence(ImmutableList.of(Stmts.Assign(VX, Int(2)), Stmts.Assign(VX, Int(3)))),
+						ImmutableList.of(Eq(Prime(VX.getRef()), Int(2)), Eq(Prime(Prime(VX.getRef())), Int(3))) },
+
+				{ Stmts.NonDet(ImmutableList.of(Stmts.Assign(VX, Int(2)), Stmts.Assume(Eq(VX.getRef(), Int(0))))),
+						ImmutableList.of(Or(Eq(Prime(VX.getRef()), Int(2)),
+								And(Eq(VX.getRef(), Int(0)), Eq(Prime(VX.getRef()), VX.getRef())))) }
 
 		});
 	}
@@ -0,0 +1,746 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.sat;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A conflict-driven clause learning (CDCL) SAT solver with two watched
+ * literals, VSIDS branching, phase saving, Luby restarts and learnt clause
+ * deletion. Literals are encoded as integers: the positive literal of variable
+ * v is 2v and the negative one is 2v+1. Solving under assumptions is supported
+ * along with the extraction of the failed assumptions, which is the basis of
+ * incrementality and unsat cores in {@link SatSolver}. An optional
+ * {@link Theory} is consulted on every full assignment (lazy SMT).
+ */
+final class CdclSolver {
+
+	/**
+	 * Interface for a theory that checks full propositional assignments.
+	 */
+	interface Theory {
+		/**
+		 * Check the current full assignment of the solver. Return null if the
+		 * assignment is consistent with the theory, otherwise a clause whose
+		 * literals are all false in the current assignment.
+		 */
+		int[] check(CdclSolver solver);
+	}
+
+	static final int UNDEF_LIT = -1;
+
+	private static final byte TRUE = 1;
+	private static final byte FALSE = -1;
+	private static final byte UNDEF = 0;
+
+	private static final double VAR_DECAY = 0.95;
+	private static final double CLAUSE_DECAY = 0.999;
+	private static final int RESTART_BASE = 100;
+	private static final int MIN_LEARNTS = 1000;
+
+	private final Theory theory;
+
+	private int nVars;
+	private byte[] assigns;
+	private int[] levels;
+	private Clause[] reasons;
+	private double[] activity;
+	private boolean[] polarity;
+	private boolean[] seen;
+	private final List<List<Clause>> watches;
+	private final VarHeap order;
+
+	private int[] trail;
+	private int trailSize;
+	private int[] trailLim;
+	private int trailLimSize;
+	private int qhead;
+
+	private final List<Clause> learnts;
+	private int nClauses;
+	private double varInc;
+	private double clauseInc;
+	private boolean ok;
+
+	private int[] assumptions;
+	private byte[] model;
+	private final List<Integer> conflict;
+	private int btLevel;
+
+	private long conflicts;
+	private long decisions;
+	private long propagations;
+
+	CdclSolver(final Theory theory) {
+		this.theory = theory;
+		nVars = 0;
+		assigns = new byte[16];
+		levels = new int[16];
+		reasons = new Clause[16];
+		activity = new double[16];
+		polarity = new boolean[16];
+		seen = new boolean[16];
+		watches = new ArrayList<>();
+		order = new VarHeap();
+		trail = new int[16];
+		trailLim = new int[16];
+		learnts = new ArrayList<>();
+		varInc = 1;
+		clauseInc = 1;
+		ok = true;
+		assumptions = new int[0];
+		conflict = new ArrayList<>();
+	}
+
+	CdclSolver() {
+		this(null);
+	}
+
+	////
+
+	static int mkLit(final int var, final boolean negated) {
+		return var + var + (negated ? 1 : 0);
+	}
+
+	static int neg(final int lit) {
+		return lit ^ 1;
+	}
+
+	static int var(final int lit) {
+		return lit >> 1;
+	}
+
+	static boolean sign(final int lit) {
+		return (lit & 1) == 1;
+	}
+
+	////
+
+	int newVar() {
+		final int var = nVars;
+		nVars++;
+		if (nVars > assigns.length) {
+			final int capacity = assigns.length * 2;
+			assigns = Arrays.copyOf(assigns, capacity);
+			levels = Arrays.copyOf(levels, capacity);
+			reasons = Arrays.copyOf(reasons, capacity);
+			activity = Arrays.copyOf(activity, capacity);
+			polarity = Arrays.copyOf(polarity, capacity);
+			seen = Arrays.copyOf(seen, capacity);
+			trail = Arrays.copyOf(trail, capacity);
+			trailLim = Arrays.copyOf(trailLim, capacity);
+		}
+		polarity[var] = true;
+		watches.add(new ArrayList<>());
+		watches.add(new ArrayList<>());
+		order.insert(var);
+		return var;
+	}
+
+	int getNumVars() {
+		return nVars;
+	}
+
+	boolean isOk() {
+		return ok;
+	}
+
+	boolean addClause(final int... lits) {
+		checkState(decisionLevel() == 0, "Clauses can only be added at decision level 0.");
+		if (!ok) {
+			return false;
+		}
+
+		final int[] sorted = lits.clone();
+		Arrays.sort(sorted);
+		int size = 0;
+		int prev = UNDEF_LIT;
+		for (final int lit : sorted) {
+			checkArgument(var(lit) < nVars, "Unknown variable.");
+			final byte val = value(lit);
+			if (val == TRUE || lit == neg(prev)) {
+				return true;
+			} else if (val != FALSE && lit != prev) {
+				sorted[size++] = lit;
+				prev = lit;
+			}
+		}
+
+		if (size == 0) {
+			ok = false;
+		} else if (size == 1) {
+			uncheckedEnqueue(sorted[0], null);
+			ok = (propagate() == null);
+		} else {
+			final Clause clause = new Clause(Arrays.copyOf(sorted, size), false);
+			attach(clause);
+			nClauses++;
+		}
+		return ok;
+	}
+
+	boolean solve(final int... assumptions) {
+		model = null;
+		conflict.clear();
+		if (!ok) {
+			return false;
+		}
+
+		this.assumptions = assumptions.clone();
+		byte status = UNDEF;
+		int restarts = 0;
+		while (status == UNDEF) {
+			final int nofConflicts = (int) (luby(2, restarts) * RESTART_BASE);
+			status = search(nofConflicts);
+			restarts++;
+		}
+
+		if (status == TRUE) {
+			model = Arrays.copyOf(assigns, nVars);
+		}
+		cancelUntil(0);
+		return status == TRUE;
+	}
+
+	/**
+	 * Value of a literal in the model of the last successful call to
+	 * {@link #solve(int...)}.
+	 */
+	boolean modelValue(final int lit) {
+		checkState(model != null, "No model available.");
+		if (var(lit) >= model.length) {
+			return sign(lit);
+		}
+		final byte val = model[var(lit)];
+		return sign(lit) ? val == FALSE : val == TRUE;
+	}
+
+	/**
+	 * Assumptions responsible for the unsatisfiability of the last call to
+	 * {@link #solve(int...)}.
+	 */
+	Collection<Integer> getConflict() {
+		return Collections.unmodifiableList(conflict);
+	}
+
+	/**
+	 * Value of a literal in the current (partial) assignment. Intended to be
+	 * used by a {@link Theory}.
+	 */
+	boolean isTrue(final int lit) {
+		return value(lit) == TRUE;
+	}
+
+	long getConflicts() {
+		return conflicts;
+	}
+
+	long getDecisions() {
+		return decisions;
+	}
+
+	long getPropagations() {
+		return propagations;
+	}
+
+	////
+
+	private byte search(final int nofConflicts) {
+		int conflictCount = 0;
+		Clause confl = null;
+		while (true) {
+			if (confl == null) {
+				confl = propagate();
+			}
+
+			if (confl != null) {
+				conflicts++;
+				conflictCount++;
+				if (decisionLevel() == 0) {
+					ok = false;
+					return FALSE;
+				}
+
+				final int[] learnt = analyze(confl);
+				cancelUntil(btLevel);
+				if (learnt.length == 1) {
+					uncheckedEnqueue(learnt[0], null);
+				} else {
+					final Clause clause = new Clause(learnt, true);
+					learnts.add(clause);
+					attach(clause);
+					bumpClauseActivity(clause);
+					uncheckedEnqueue(learnt[0], clause);
+				}
+				varInc /= VAR_DECAY;
+				clauseInc /= CLAUSE_DECAY;
+				confl = null;
+
+			} else {
+				if (conflictCount >= nofConflicts) {
+					cancelUntil(0);
+					return UNDEF;
+				}
+
+				if (learnts.size() - trailSize >= Math.max(MIN_LEARNTS, nClauses / 3)) {
+					reduceLearnts();
+				}
+
+				int next = UNDEF_LIT;
+				while (decisionLevel() < assumptions.length) {
+					final int p = assumptions[decisionLevel()];
+					final byte val = value(p);
+					if (val == TRUE) {
+						newDecisionLevel();
+					} else if (val == FALSE) {
+						analyzeFinal(p);
+						return FALSE;
+					} else {
+						next = p;
+						break;
+					}
+				}
+
+				if (next == UNDEF_LIT) {
+					next = pickBranchLit();
+					if (next == UNDEF_LIT) {
+						final int[] lemma = theory == null ? null : theory.check(this);
+						if (lemma == null) {
+							return TRUE;
+						}
+						confl = addLemma(lemma);
+						if (confl == null) {
+							ok = false;
+							return FALSE;
+						}
+						continue;
+					}
+					decisions++;
+				}
+
+				newDecisionLevel();
+				uncheckedEnqueue(next, null);
+			}
+		}
+	}
+
+	private Clause addLemma(final int[] lemma) {
+		if (lemma.length == 0) {
+			return null;
+		}
+		final int[] lits = lemma.clone();
+		for (int i = 0; i < 2 && i < lits.length; i++) {
+			int max = i;
+			for (int j = i + 1; j < lits.length; j++) {
+				if (levels[var(lits[j])] > levels[var(lits[max])]) {
+					max = j;
+				}
+			}
+			final int tmp = lits[i];
+			lits[i] = lits[max];
+			lits[max] = tmp;
+		}
+		assert value(lits[0]) == FALSE;
+
+		final int maxLevel = levels[var(lits[0])];
+		if (maxLevel == 0) {
+			return null;
+		}
+		cancelUntil(maxLevel);
+
+		final Clause clause = new Clause(lits, true);
+		if (lits.length > 1) {
+			learnts.add(clause);
+			attach(clause);
+		}
+		return clause;
+	}
+
+	private Clause propagate() {
+		Clause confl = null;
+		while (qhead < trailSize) {
+			final int p = trail[qhead++];
+			final int falseLit = neg(p);
+			final List<Clause> ws = watches.get(falseLit);
+			propagations++;
+
+			int i = 0;
+			int j = 0;
+			final int n = ws.size();
+			while (i < n) {
+				final Clause clause = ws.get(i++);
+				final int[] lits = clause.lits;
+				if (lits[0] == falseLit) {
+					lits[0] = lits[1];
+					lits[1] = falseLit;
+				}
+
+				final int first = lits[0];
+				if (value(first) == TRUE) {
+					ws.set(j++, clause);
+					continue;
+				}
+
+				boolean found = false;
+				for (int k = 2; k < lits.length; k++) {
+					if (value(lits[k]) != FALSE) {
+						lits[1] = lits[k];
+						lits[k] = falseLit;
+						watches.get(lits[1]).add(clause);
+						found = true;
+						break;
+					}
+				}
+				if (found) {
+					continue;
+				}
+
+				ws.set(j++, clause);
+				if (value(first) == FALSE) {
+					confl = clause;
+					qhead = trailSize;
+					while (i < n) {
+						ws.set(j++, ws.get(i++));
+					}
+				} else {
+					uncheckedEnqueue(first, clause);
+				}
+			}
+			ws.subList(j, n).clear();
+		}
+		return confl;
+	}
+
+	private int[] analyze(final Clause conflClause) {
+		final List<Integer> out = new ArrayList<>();
+		out.add(UNDEF_LIT);
+
+		Clause confl = conflClause;
+		int pathC = 0;
+		int p = UNDEF_LIT;
+		int index = trailSize - 1;
+
+		do {
+			if (confl.learnt) {
+				bumpClauseActivity(confl);
+			}
+			final int[] lits = confl.lits;
+			for (int j = (p == UNDEF_LIT) ? 0 : 1; j < lits.length; j++) {
+				final int q = lits[j];
+				final int v = var(q);
+				if (!seen[v] && levels[v] > 0) {
+					bumpVarActivity(v);
+					seen[v] = true;
+					if (levels[v] >= decisionLevel()) {
+						pathC++;
+					} else {
+						out.add(q);
+					}
+				}
+			}
+
+			while (!seen[var(trail[index])]) {
+				index--;
+			}
+			p = trail[index];
+			index--;
+			confl = reasons[var(p)];
+			seen[var(p)] = false;
+			pathC--;
+		} while (pathC > 0);
+
+		out.set(0, neg(p));
+
+		final int[] learnt = new int[out.size()];
+		for (int i = 0; i < learnt.length; i++) {
+			learnt[i] = out.get(i);
+			seen[var(learnt[i])] = false;
+		}
+
+		if (learnt.length == 1) {
+			btLevel = 0;
+		} else {
+			int max = 1;
+			for (int i = 2; i < learnt.length; i++) {
+				if (levels[var(learnt[i])] > levels[var(learnt[max])]) {
+					max = i;
+				}
+			}
+			final int tmp = learnt[1];
+			learnt[1] = learnt[max];
+			learnt[max] = tmp;
+			btLevel = levels[var(learnt[1])];
+		}
+		return learnt;
+	}
+
+	private void analyzeFinal(final int failedAssumption) {
+		conflict.clear();
+		conflict.add(failedAssumption);
+		if (decisionLevel() == 0) {
+			return;
+		}
+
+		seen[var(failedAssumption)] = true;
+		for (int i = trailSize - 1; i >= trailLim[0]; i--) {
+			final int v = var(trail[i]);
+			if (seen[v]) {
+				if (reasons[v] == null) {
+					assert levels[v] > 0;
+					conflict.add(trail[i]);
+				} else {
+					final int[] lits = reasons[v].lits;
+					for (int j = 1; j < lits.length; j++) {
+						if (levels[var(lits[j])] > 0) {
+							seen[var(lits[j])] = true;
+						}
+					}
+				}
+				seen[v] = false;
+			}
+		}
+		seen[var(failedAssumption)] = false;
+	}
+
+	private void reduceLearnts() {
+		final List<Clause> sorted = new ArrayList<>(learnts);
+		sorted.sort((c1, c2) -> Double.compare(c1.activity, c2.activity));
+		final double limit = clauseInc / sorted.size();
+		final int half = sorted.size() / 2;
+		for (int i = 0; i < sorted.size(); i++) {
+			final Clause clause = sorted.get(i);
+			if (clause.lits.length > 2 && !isLocked(clause) && (i < half || clause.activity < limit)) {
+				clause.deleted = true;
+			}
+		}
+		learnts.removeIf(c -> c.deleted);
+		for (final List<Clause> ws : watches) {
+			ws.removeIf(c -> c.deleted);
+		}
+	}
+
+	private boolean isLocked(final Clause clause) {
+		final int v = var(clause.lits[0]);
+		return reasons[v] == clause && value(clause.lits[0]) == TRUE;
+	}
+
+	private int pickBranchLit() {
+		while (!order.isEmpty()) {
+			final int v = order.removeMax();
+			if (assigns[v] == UNDEF) {
+				return mkLit(v, polarity[v]);
+			}
+		}
+		return UNDEF_LIT;
+	}
+
+	private void attach(final Clause clause) {
+		watches.get(clause.lits[0]).add(clause);
+		watches.get(clause.lits[1]).add(clause);
+	}
+
+	private byte value(final int lit) {
+		final byte val = assigns[var(lit)];
+		return sign(lit) ? (byte) -val : val;
+	}
+
+	private int decisionLevel() {
+		return trailLimSize;
+	}
+
+	private void newDecisionLevel() {
+		if (trailLimSize == trailLim.length) {
+			trailLim = Arrays.copyOf(trailLim, trailLimSize * 2);
+		}
+		trailLim[trailLimSize++] = trailSize;
+	}
+
+	private void uncheckedEnqueue(final int lit, final Clause reason) {
+		final int v = var(lit);
+		assert assigns[v] == UNDEF;
+		assigns[v] = sign(lit) ? FALSE : TRUE;
+		levels[v] = decisionLevel();
+		reasons[v] = reason;
+		trail[trailSize++] = lit;
+	}
+
+	private void cancelUntil(final int level) {
+		if (decisionLevel() > level) {
+			for (int i = trailSize - 1; i >= trailLim[level]; i--) {
+				final int v = var(trail[i]);
+				assigns[v] = UNDEF;
+				reasons[v] = null;
+				polarity[v] = sign(trail[i]);
+				if (!order.contains(v)) {
+					order.insert(v);
+				}
+			}
+			trailSize = trailLim[level];
+			qhead = trailSize;
+			trailLimSize = level;
+		}
+	}
+
+	private void bumpVarActivity(final int v) {
+		activity[v] += varInc;
+		if (activity[v] > 1e100) {
+			for (int i = 0; i < nVars; i++) {
+				activity[i] *= 1e-100;
+			}
+			varInc *= 1e-100;
+		}
+		if (order.contains(v)) {
+			order.increased(v);
+		}
+	}
+
+	private void bumpClauseActivity(final Clause clause) {
+		clause.activity += clauseInc;
+		if (clause.activity > 1e20) {
+			for (final Clause learnt : learnts) {
+				learnt.activity *= 1e-20;
+			}
+			clauseInc *= 1e-20;
+		}
+	}
+
+	private static double luby(final double y, final int x) {
+		int size = 1;
+		int seq = 0;
+		while (size < x + 1) {
+			seq++;
+			size = 2 * size + 1;
+		}
+		int rem = x;
+		while (size - 1 != rem) {
+			size = (size - 1) >> 1;
+			seq--;
+			rem = rem % size;
+		}
+		return Math.pow(y, seq);
+	}
+
+	////
+
+	private static final class Clause {
+		private final int[] lits;
+		private final boolean learnt;
+		private double activity;
+		private boolean deleted;
+
+		private Clause(final int[] lits, final boolean learnt) {
+			this.lits = lits;
+			this.learnt = learnt;
+			this.activity = 0;
+			this.deleted = false;
+		}
+	}
+
+	private final class VarHeap {
+		private int[] heap;
+		private int[] indices;
+		private int size;
+
+		private VarHeap() {
+			heap = new int[16];
+			indices = new int[16];
+			Arrays.fill(indices, -1);
+			size = 0;
+		}
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private boolean contains(final int v) {
+			return v < indices.length && indices[v] >= 0;
+		}
+
+		private void insert(final int v) {
+			if (v >= indices.length) {
+				final int oldLength = indices.length;
+				indices = Arrays.copyOf(indices, Math.max(v + 1, oldLength * 2));
+				Arrays.fill(indices, oldLength, indices.length, -1);
+			}
+			if (size == heap.length) {
+				heap = Arrays.copyOf(heap, size * 2);
+			}
+			heap[size] = v;
+			indices[v] = size;
+			size++;
+			percolateUp(indices[v]);
+		}
+
+		private void increased(final int v) {
+			percolateUp(indices[v]);
+		}
+
+		private int removeMax() {
+			final int v = heap[0];
+			size--;
+			heap[0] = heap[size];
+			indices[heap[0]] = 0;
+			indices[v] = -1;
+			if (size > 1) {
+				percolateDown(0);
+			}
+			return v;
+		}
+
+		private void percolateUp(final int pos) {
+			final int v = heap[pos];
+			int i = pos;
+			while (i > 0) {
+				final int parent = (i - 1) >> 1;
+				if (activity[heap[parent]] >= activity[v]) {
+					break;
+				}
+				heap[i] = heap[parent];
+				indices[heap[i]] = i;
+				i = parent;
+			}
+			heap[i] = v;
+			indices[v] = i;
+		}
+
+		private void percolateDown(final int pos) {
+			final int v = heap[pos];
+			int i = pos;
+			while (2 * i + 1 < size) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+					child++;
+				}
+				if (activity[heap[child]] <= activity[v]) {
+					break;
+				}
+				heap[i] = heap[child];
+				indices[heap[i]] = i;
+				i = child;
+			}
+			heap[i] = v;
+			indices[v] = i;
+		}
+	}
+
+}
@@ -0,0 +1,310 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.sat;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
+
+/**
+ * Difference logic theory over integer and rational constants. Atoms are
+ * normalized to the form x - y <= k (or x - y < k for rationals), where x and y
+ * are constants or the special zero node of their type. A full assignment is
+ * consistent iff the constraint graph of the active atoms has no negative
+ * cycle, which is decided by the Bellman-Ford algorithm. Conflicts are
+ * explained by the literals on the negative cycle.
+ */
+final class DiffLogicTheory implements CdclSolver.Theory {
+
+	private static final int INT_ZERO = 0;
+	private static final int RAT_ZERO = 1;
+
+	private final List<ConstDecl<?>> nodes;
+	private final List<Boolean> nodeIsInt;
+	private final Map<ConstDecl<?>, Integer> nodeIndexes;
+	private final Map<Bound, Integer> boundToLit;
+	private final List<Atom> atoms;
+
+	private Weight[] model;
+
+	DiffLogicTheory() {
+		nodes = new ArrayList<>();
+		nodeIsInt = new ArrayList<>();
+		nodeIndexes = new HashMap<>();
+		boundToLit = new HashMap<>();
+		atoms = new ArrayList<>();
+
+		nodes.add(null);
+		nodeIsInt.add(true);
+		nodes.add(null);
+		nodeIsInt.add(false);
+	}
+
+	////
+
+	/**
+	 * Get the literal representing the atom x - y <= k (or x - y < k if strict)
+	 * where x and y are constants, or null for the zero value.
+	 */
+	int getLit(final CdclSolver solver, final ConstDecl<?> x, final ConstDecl<?> y, final RatLitExpr k,
+			final boolean strict, final boolean isInt) {
+		final int xNode = nodeOf(x, isInt);
+		final int yNode = nodeOf(y, isInt);
+
+		final Bound bound;
+		if (isInt) {
+			checkArgument(k.getDenom() == 1, "Non-integer bound for integer atom.");
+			bound = new Bound(xNode, yNode, strict ? k.sub(Rat(1, 1)) : k, false);
+		} else {
+			bound = new Bound(xNode, yNode, k, strict);
+		}
+
+		final Integer lit = boundToLit.get(bound);
+		if (lit != null) {
+			return lit;
+		}
+		final Bound negated = bound.negate(isInt);
+		final Integer negLit = boundToLit.get(negated);
+		if (negLit != null) {
+			return CdclSolver.neg(negLit);
+		}
+
+		final int newLit = CdclSolver.mkLit(solver.newVar(), false);
+		boundToLit.put(bound, newLit);
+		atoms.add(new Atom(newLit, bound, negated));
+		return newLit;
+	}
+
+	private int nodeOf(final ConstDecl<?> decl, final boolean isInt) {
+		if (decl == null) {
+			return isInt ? INT_ZERO : RAT_ZERO;
+		}
+		checkArgument((decl.getType() instanceof IntType) == isInt, "Type mismatch.");
+		Integer node = nodeIndexes.get(decl);
+		if (node == null) {
+			node = nodes.size();
+			nodes.add(decl);
+			nodeIsInt.add(isInt);
+			nodeIndexes.put(decl, node);
+		}
+		return node;
+	}
+
+	@Override
+	public int[] check(final CdclSolver solver) {
+		final List<Edge> edges = new ArrayList<>(atoms.size());
+		for (final Atom atom : atoms) {
+			if (solver.isTrue(atom.lit)) {
+				edges.add(new Edge(atom.bound, atom.lit));
+			} else {
+				edges.add(new Edge(atom.negated, CdclSolver.neg(atom.lit)));
+			}
+		}
+
+		final int n = nodes.size();
+		final Weight[] dist = new Weight[n];
+		final Edge[] pred = new Edge[n];
+		for (int i = 0; i < n; i++) {
+			dist[i] = Weight.ZERO;
+		}
+
+		int relaxed = -1;
+		for (int i = 0; i < n; i++) {
+			relaxed = -1;
+			for (final Edge edge : edges) {
+				final Weight candidate = dist[edge.from].add(edge.weight);
+				if (candidate.compareTo(dist[edge.to]) < 0) {
+					dist[edge.to] = candidate;
+					pred[edge.to] = edge;
+					relaxed = edge.to;
+				}
+			}
+			if (relaxed == -1) {
+				break;
+			}
+		}
+
+		if (relaxed == -1) {
+			model = dist;
+			return null;
+		}
+
+		int node = relaxed;
+		for (int i = 0; i < n; i++) {
+			node = pred[node].from;
+		}
+
+		final List<Integer> lemma = new ArrayList<>();
+		final int start = node;
+		do {
+			final Edge edge = pred[node];
+			lemma.add(CdclSolver.neg(edge.lit));
+			node = edge.from;
+		} while (node != start);
+
+		return lemma.stream().mapToInt(i -> i).toArray();
+	}
+
+	/**
+	 * Values of the constants in the last consistent full assignment.
+	 */
+	Map<ConstDecl<?>, LitExpr<?>> getModel() {
+		checkState(model != null, "No model available.");
+		final Map<ConstDecl<?>, LitExpr<?>> result = new LinkedHashMap<>();
+		final RatLitExpr epsilon = chooseEpsilon();
+
+		for (int i = 2; i < model.length; i++) {
+			final boolean isInt = nodeIsInt.get(i);
+			final Weight zero = model[isInt ? INT_ZERO : RAT_ZERO];
+			final RatLitExpr value = model[i].value.sub(zero.value)
+					.sub(Rat(model[i].eps - zero.eps, 1).mul(epsilon));
+			if (isInt) {
+				assert value.getDenom() == 1;
+				result.put(nodes.get(i), Int(value.getNum()));
+			} else {
+				result.put(nodes.get(i), value);
+			}
+		}
+		return result;
+	}
+
+	private RatLitExpr chooseEpsilon() {
+		RatLitExpr epsilon = Rat(1, 1);
+		for (final Atom atom : atoms) {
+			for (final Bound bound : new Bound[] { atom.bound, atom.negated }) {
+				if (bound.x >= model.length || bound.y >= model.length) {
+					continue;
+				}
+				final Weight x = model[bound.x];
+				final Weight y = model[bound.y];
+				final RatLitExpr slack = bound.k.sub(x.value.sub(y.value));
+				final int coef = x.eps - y.eps - (bound.strict ? 1 : 0);
+				if (slack.sign() > 0 && coef < 0) {
+					final RatLitExpr limit = slack.div(Rat(-coef, 1));
+					if (limit.compareTo(epsilon) < 0) {
+						epsilon = limit;
+					}
+				}
+			}
+		}
+		return epsilon.div(Rat(2, 1));
+	}
+
+	////
+
+	private static final class Weight implements Comparable<Weight> {
+		private static final Weight ZERO = new Weight(Rat(0, 1), 0);
+
+		// Represents value - eps * epsilon for an infinitesimal epsilon
+		private final RatLitExpr value;
+		private final int eps;
+
+		private Weight(final RatLitExpr value, final int eps) {
+			this.value = value;
+			this.eps = eps;
+		}
+
+		private Weight add(final Weight that) {
+			return new Weight(this.value.add(that.value), this.eps + that.eps);
+		}
+
+		@Override
+		public int compareTo(final Weight that) {
+			final int cmp = this.value.compareTo(that.value);
+			return cmp != 0 ? cmp : Integer.compare(that.eps, this.eps);
+		}
+	}
+
+	private static final class Bound {
+		private final int x;
+		private final int y;
+		private final RatLitExpr k;
+		private final boolean strict;
+
+		private Bound(final int x, final int y, final RatLitExpr k, final boolean strict) {
+			this.x = x;
+			this.y = y;
+			this.k = k;
+			this.strict = strict;
+		}
+
+		private Bound negate(final boolean isInt) {
+			if (isInt) {
+				return new Bound(y, x, k.neg().sub(Rat(1, 1)), false);
+			} else {
+				return new Bound(y, x, k.neg(), !strict);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(x, y, k, strict);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Bound) {
+				final Bound that = (Bound) obj;
+				return this.x == that.x && this.y == that.y && this.k.equals(that.k) && this.strict == that.strict;
+			} else {
+				return false;
+			}
+		}
+	}
+
+	private static final class Atom {
+		private final int lit;
+		private final Bound bound;
+		private final Bound negated;
+
+		private Atom(final int lit, final Bound bound, final Bound negated) {
+			this.lit = lit;
+			this.bound = bound;
+			this.negated = negated;
+		}
+	}
+
+	private static final class Edge {
+		// Bound x - y <= k is represented by an edge from y to x with weight k
+		private final int from;
+		private final int to;
+		private final Weight weight;
+		private final int lit;
+
+		private Edge(final Bound bound, final int lit) {
+			this.from = bound.y;
+			this.to = bound.x;
+			this.weight = new Weight(bound.k, bound.strict ? 1 : 0);
+			this.lit = lit;
+		}
+	}
+
+}
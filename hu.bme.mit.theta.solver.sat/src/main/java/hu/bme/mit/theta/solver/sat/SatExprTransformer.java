@@ -0,0 +1,399 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.sat;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import hu.bme.mit.theta.common.DispatchTable;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.type.BinaryExpr;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.abstracttype.AddExpr;
+import hu.bme.mit.theta.core.type.abstracttype.EqExpr;
+import hu.bme.mit.theta.core.type.abstracttype.GeqExpr;
+import hu.bme.mit.theta.core.type.abstracttype.GtExpr;
+import hu.bme.mit.theta.core.type.abstracttype.LeqExpr;
+import hu.bme.mit.theta.core.type.abstracttype.LtExpr;
+import hu.bme.mit.theta.core.type.abstracttype.MulExpr;
+import hu.bme.mit.theta.core.type.abstracttype.NegExpr;
+import hu.bme.mit.theta.core.type.abstracttype.NeqExpr;
+import hu.bme.mit.theta.core.type.abstracttype.SubExpr;
+import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.FalseExpr;
+import hu.bme.mit.theta.core.type.booltype.IffExpr;
+import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.booltype.OrExpr;
+import hu.bme.mit.theta.core.type.booltype.TrueExpr;
+import hu.bme.mit.theta.core.type.booltype.XorExpr;
+import hu.bme.mit.theta.core.type.inttype.IntEqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatEqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatGeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatGtExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLtExpr;
+import hu.bme.mit.theta.core.type.rattype.RatNeqExpr;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+
+/**
+ * Transforms Boolean expressions into literals of a {@link CdclSolver} using
+ * the Tseitin encoding. Arithmetic atoms are delegated to a
+ * {@link DiffLogicTheory}. Definitional clauses are permanent, so the encoding
+ * of an expression is cached and reused after push/pop.
+ */
+final class SatExprTransformer {
+
+	private final CdclSolver solver;
+	private final DiffLogicTheory theory;
+
+	private final int trueLit;
+	private final Map<Expr<BoolType>, Integer> exprToLit;
+	private final Map<ConstDecl<BoolType>, Integer> constToLit;
+	private final DispatchTable<Integer> table;
+
+	SatExprTransformer(final CdclSolver solver, final DiffLogicTheory theory) {
+		this.solver = solver;
+		this.theory = theory;
+
+		trueLit = CdclSolver.mkLit(solver.newVar(), false);
+		solver.addClause(trueLit);
+
+		exprToLit = new HashMap<>();
+		constToLit = new LinkedHashMap<>();
+
+		table = DispatchTable.<Integer>builder()
+
+				// General
+
+				.addCase(RefExpr.class, this::transformRef)
+
+				.addCase(IteExpr.class, this::transformIte)
+
+				// Boolean
+
+				.addCase(FalseExpr.class, e -> CdclSolver.neg(trueLit))
+
+				.addCase(TrueExpr.class, e -> trueLit)
+
+				.addCase(NotExpr.class, e -> CdclSolver.neg(toLit(e.getOp())))
+
+				.addCase(ImplyExpr.class, this::transformImply)
+
+				.addCase(IffExpr.class, e -> transformIff(toLit(e.getLeftOp()), toLit(e.getRightOp())))
+
+				.addCase(XorExpr.class,
+						e -> CdclSolver.neg(transformIff(toLit(e.getLeftOp()), toLit(e.getRightOp()))))
+
+				.addCase(AndExpr.class, this::transformAnd)
+
+				.addCase(OrExpr.class, this::transformOr)
+
+				// Arithmetic
+
+				.addCase(RatEqExpr.class, this::transformAtom)
+
+				.addCase(RatNeqExpr.class, this::transformAtom)
+
+				.addCase(RatGeqExpr.class, this::transformAtom)
+
+				.addCase(RatGtExpr.class, this::transformAtom)
+
+				.addCase(RatLeqExpr.class, this::transformAtom)
+
+				.addCase(RatLtExpr.class, this::transformAtom)
+
+				.addCase(IntEqExpr.class, this::transformAtom)
+
+				.addCase(IntNeqExpr.class, this::transformAtom)
+
+				.addCase(IntGeqExpr.class, this::transformAtom)
+
+				.addCase(IntGtExpr.class, this::transformAtom)
+
+				.addCase(IntLeqExpr.class, this::transformAtom)
+
+				.addCase(IntLtExpr.class, this::transformAtom)
+
+				.addDefault(o -> {
+					throw new UnsupportedOperationException("Unsupported expression: " + o);
+				})
+
+				.build();
+	}
+
+	int toLit(final Expr<BoolType> expr) {
+		Integer lit = exprToLit.get(expr);
+		if (lit == null) {
+			lit = table.dispatch(expr);
+			exprToLit.put(expr, lit);
+		}
+		return lit;
+	}
+
+	Collection<ConstDecl<BoolType>> getBoolConsts() {
+		return Collections.unmodifiableSet(constToLit.keySet());
+	}
+
+	int getLit(final ConstDecl<BoolType> decl) {
+		return constToLit.get(decl);
+	}
+
+	////
+
+	/*
+	 * General
+	 */
+
+	private int transformRef(final RefExpr<?> expr) {
+		final Decl<?> decl = expr.getDecl();
+		if (decl instanceof ConstDecl && decl.getType() instanceof BoolType) {
+			@SuppressWarnings("unchecked")
+			final ConstDecl<BoolType> constDecl = (ConstDecl<BoolType>) decl;
+			Integer lit = constToLit.get(constDecl);
+			if (lit == null) {
+				lit = CdclSolver.mkLit(solver.newVar(), false);
+				constToLit.put(constDecl, lit);
+			}
+			return lit;
+		} else {
+			throw new UnsupportedOperationException("Cannot transform reference for declaration: " + decl);
+		}
+	}
+
+	private int transformIte(final IteExpr<?> expr) {
+		final int cond = toLit(expr.getCond());
+		final int then = toLit(TypeUtils.cast(expr.getThen(), Bool()));
+		final int elze = toLit(TypeUtils.cast(expr.getElse(), Bool()));
+		final int out = CdclSolver.mkLit(solver.newVar(), false);
+		final int nOut = CdclSolver.neg(out);
+		solver.addClause(nOut, CdclSolver.neg(cond), then);
+		solver.addClause(nOut, cond, elze);
+		solver.addClause(out, CdclSolver.neg(cond), CdclSolver.neg(then));
+		solver.addClause(out, cond, CdclSolver.neg(elze));
+		return out;
+	}
+
+	/*
+	 * Booleans
+	 */
+
+	private int transformImply(final ImplyExpr expr) {
+		final int leftOp = toLit(expr.getLeftOp());
+		final int rightOp = toLit(expr.getRightOp());
+		return CdclSolver.neg(transformAnd(new int[] { leftOp, CdclSolver.neg(rightOp) }));
+	}
+
+	private int transformIff(final int leftOp, final int rightOp) {
+		final int out = CdclSolver.mkLit(solver.newVar(), false);
+		final int nOut = CdclSolver.neg(out);
+		solver.addClause(nOut, CdclSolver.neg(leftOp), rightOp);
+		solver.addClause(nOut, leftOp, CdclSolver.neg(rightOp));
+		solver.addClause(out, leftOp, rightOp);
+		solver.addClause(out, CdclSolver.neg(leftOp), CdclSolver.neg(rightOp));
+		return out;
+	}
+
+	private int transformAnd(final AndExpr expr) {
+		final int[] ops = expr.getOps().stream().mapToInt(this::toLit).toArray();
+		return transformAnd(ops);
+	}
+
+	private int transformOr(final OrExpr expr) {
+		final int[] nOps = expr.getOps().stream().mapToInt(op -> CdclSolver.neg(toLit(op))).toArray();
+		return CdclSolver.neg(transformAnd(nOps));
+	}
+
+	private int transformAnd(final int[] ops) {
+		if (ops.length == 0) {
+			return trueLit;
+		} else if (ops.length == 1) {
+			return ops[0];
+		}
+
+		final int out = CdclSolver.mkLit(solver.newVar(), false);
+		final int[] clause = new int[ops.length + 1];
+		clause[0] = out;
+		for (int i = 0; i < ops.length; i++) {
+			solver.addClause(CdclSolver.neg(out), ops[i]);
+			clause[i + 1] = CdclSolver.neg(ops[i]);
+		}
+		solver.addClause(clause);
+		return out;
+	}
+
+	/*
+	 * Arithmetic
+	 */
+
+	private int transformAtom(final BinaryExpr<?, BoolType> expr) {
+		if (containsIte(expr)) {
+			return toLit(ExprUtils.eliminateIte(expr));
+		}
+
+		final Expr<?> leftOp = expr.getLeftOp();
+		final Expr<?> rightOp = expr.getRightOp();
+		final boolean isInt = leftOp.getType() instanceof IntType;
+
+		if (expr instanceof LeqExpr) {
+			return transformLeq(leftOp, rightOp, false, isInt);
+		} else if (expr instanceof LtExpr) {
+			return transformLeq(leftOp, rightOp, true, isInt);
+		} else if (expr instanceof GeqExpr) {
+			return transformLeq(rightOp, leftOp, false, isInt);
+		} else if (expr instanceof GtExpr) {
+			return transformLeq(rightOp, leftOp, true, isInt);
+		} else if (expr instanceof EqExpr) {
+			return transformEq(leftOp, rightOp, isInt);
+		} else if (expr instanceof NeqExpr) {
+			return CdclSolver.neg(transformEq(leftOp, rightOp, isInt));
+		} else {
+			throw new UnsupportedOperationException("Unsupported expression: " + expr);
+		}
+	}
+
+	private int transformEq(final Expr<?> leftOp, final Expr<?> rightOp, final boolean isInt) {
+		final int leq = transformLeq(leftOp, rightOp, false, isInt);
+		final int geq = transformLeq(rightOp, leftOp, false, isInt);
+		return transformAnd(new int[] { leq, geq });
+	}
+
+	// leftOp <= rightOp (or leftOp < rightOp if strict)
+	private int transformLeq(final Expr<?> leftOp, final Expr<?> rightOp, final boolean strict, final boolean isInt) {
+		final LinearTerm term = LinearTerm.of(leftOp).sub(LinearTerm.of(rightOp));
+		// term <= 0, i.e., sum(coef * x) <= -constant
+		final RatLitExpr k = term.constant.neg();
+		final List<ConstDecl<?>> pos = new ArrayList<>(2);
+		final List<ConstDecl<?>> neg = new ArrayList<>(2);
+		for (final Map.Entry<ConstDecl<?>, Integer> entry : term.coefs.entrySet()) {
+			if (entry.getValue() == 1) {
+				pos.add(entry.getKey());
+			} else if (entry.getValue() == -1) {
+				neg.add(entry.getKey());
+			} else if (entry.getValue() != 0) {
+				throw new UnsupportedOperationException("Not a difference logic atom: " + leftOp + " " + rightOp);
+			}
+		}
+
+		if (pos.size() > 1 || neg.size() > 1) {
+			throw new UnsupportedOperationException("Not a difference logic atom: " + leftOp + " " + rightOp);
+		}
+
+		if (pos.isEmpty() && neg.isEmpty()) {
+			final int cmp = Rat(0, 1).compareTo(k);
+			final boolean holds = strict ? cmp < 0 : cmp <= 0;
+			return holds ? trueLit : CdclSolver.neg(trueLit);
+		}
+
+		final ConstDecl<?> x = pos.isEmpty() ? null : pos.get(0);
+		final ConstDecl<?> y = neg.isEmpty() ? null : neg.get(0);
+		return theory.getLit(solver, x, y, k, strict, isInt);
+	}
+
+	private static boolean containsIte(final Expr<?> expr) {
+		return expr instanceof IteExpr || expr.getOps().stream().anyMatch(SatExprTransformer::containsIte);
+	}
+
+	private static final class LinearTerm {
+		private final Map<ConstDecl<?>, Integer> coefs;
+		private final RatLitExpr constant;
+
+		private LinearTerm(final Map<ConstDecl<?>, Integer> coefs, final RatLitExpr constant) {
+			this.coefs = coefs;
+			this.constant = constant;
+		}
+
+		private static LinearTerm of(final Expr<?> expr) {
+			if (expr instanceof IntLitExpr) {
+				return new LinearTerm(Collections.emptyMap(), ((IntLitExpr) expr).toRat());
+			} else if (expr instanceof RatLitExpr) {
+				return new LinearTerm(Collections.emptyMap(), (RatLitExpr) expr);
+			} else if (expr instanceof RefExpr && ((RefExpr<?>) expr).getDecl() instanceof ConstDecl) {
+				final ConstDecl<?> decl = (ConstDecl<?>) ((RefExpr<?>) expr).getDecl();
+				return new LinearTerm(Collections.singletonMap(decl, 1), Rat(0, 1));
+			} else if (expr instanceof AddExpr) {
+				LinearTerm result = new LinearTerm(Collections.emptyMap(), Rat(0, 1));
+				for (final Expr<?> op : expr.getOps()) {
+					result = result.add(of(op));
+				}
+				return result;
+			} else if (expr instanceof SubExpr) {
+				final SubExpr<?> subExpr = (SubExpr<?>) expr;
+				return of(subExpr.getLeftOp()).sub(of(subExpr.getRightOp()));
+			} else if (expr instanceof NegExpr) {
+				return of(((NegExpr<?>) expr).getOp()).scale(-1);
+			} else if (expr instanceof MulExpr) {
+				LinearTerm result = new LinearTerm(Collections.emptyMap(), Rat(1, 1));
+				for (final Expr<?> op : expr.getOps()) {
+					result = result.mul(of(op), expr);
+				}
+				return result;
+			} else {
+				throw new UnsupportedOperationException("Not a difference logic term: " + expr);
+			}
+		}
+
+		private LinearTerm add(final LinearTerm that) {
+			final Map<ConstDecl<?>, Integer> newCoefs = new HashMap<>(this.coefs);
+			that.coefs.forEach((d, c) -> newCoefs.merge(d, c, Integer::sum));
+			return new LinearTerm(newCoefs, this.constant.add(that.constant));
+		}
+
+		private LinearTerm sub(final LinearTerm that) {
+			return add(that.scale(-1));
+		}
+
+		private LinearTerm scale(final int factor) {
+			final Map<ConstDecl<?>, Integer> newCoefs = new HashMap<>();
+			coefs.forEach((d, c) -> newCoefs.put(d, c * factor));
+			return new LinearTerm(newCoefs, constant.mul(Rat(factor, 1)));
+		}
+
+		private LinearTerm mul(final LinearTerm that, final Expr<?> expr) {
+			if (this.coefs.isEmpty() && that.coefs.isEmpty()) {
+				return new LinearTerm(Collections.emptyMap(), this.constant.mul(that.constant));
+			} else if (that.coefs.isEmpty() && that.constant.getDenom() == 1) {
+				return this.scale(that.constant.getNum());
+			} else if (this.coefs.isEmpty() && this.constant.getDenom() == 1) {
+				return that.scale(this.constant.getNum());
+			} else {
+				throw new UnsupportedOperationException("Not a difference logic term: " + expr);
+			}
+		}
+	}
+
+}
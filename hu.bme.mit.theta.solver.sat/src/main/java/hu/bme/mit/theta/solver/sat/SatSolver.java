@@ -0,0 +1,213 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.sat;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Pure Java solver for propositional logic and difference logic over integers
+ * and rationals. Each push level is guarded by a selector variable that is
+ * assumed during checks and disabled permanently when the level is popped.
+ * Tracked assertions are guarded by label variables, whose failed assumptions
+ * give the unsat core.
+ */
+final class SatSolver implements Solver {
+
+	private CdclSolver cdcl;
+	private DiffLogicTheory theory;
+	private SatExprTransformer transformer;
+
+	private Stack<Expr<BoolType>> assertions;
+	private List<Integer> selectors;
+	private Stack<Integer> labels;
+	private Map<Integer, Expr<BoolType>> labelToAssertion;
+
+	private Valuation model;
+	private Collection<Expr<BoolType>> unsatCore;
+	private SolverStatus status;
+
+	SatSolver() {
+		init();
+	}
+
+	private void init() {
+		assertions = new StackImpl<>();
+		selectors = new ArrayList<>();
+		labels = new StackImpl<>();
+		labelToAssertion = new HashMap<>();
+		theory = new DiffLogicTheory();
+		cdcl = new CdclSolver(theory);
+		transformer = new SatExprTransformer(cdcl, theory);
+	}
+
+	////
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		final int lit = transformer.toLit(assertion);
+		assertions.add(assertion);
+		addGuarded(lit);
+		clearState();
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		final int lit = transformer.toLit(assertion);
+		final int label = CdclSolver.mkLit(cdcl.newVar(), false);
+		assertions.add(assertion);
+		labels.add(label);
+		labelToAssertion.put(label, assertion);
+		cdcl.addClause(CdclSolver.neg(label), lit);
+		clearState();
+	}
+
+	private void addGuarded(final int lit) {
+		if (selectors.isEmpty()) {
+			cdcl.addClause(lit);
+		} else {
+			final int selector = selectors.get(selectors.size() - 1);
+			cdcl.addClause(CdclSolver.neg(selector), lit);
+		}
+	}
+
+	@Override
+	public SolverStatus check() {
+		final int[] assumptions = new int[selectors.size() + labels.toCollection().size()];
+		int i = 0;
+		for (final int selector : selectors) {
+			assumptions[i++] = selector;
+		}
+		for (final int label : labels) {
+			assumptions[i++] = label;
+		}
+
+		final boolean sat = cdcl.solve(assumptions);
+		status = sat ? SolverStatus.SAT : SolverStatus.UNSAT;
+		return status;
+	}
+
+	@Override
+	public void push() {
+		assertions.push();
+		labels.push();
+		selectors.add(CdclSolver.mkLit(cdcl.newVar(), false));
+		clearState();
+	}
+
+	@Override
+	public void pop(final int n) {
+		checkArgument(n > 0);
+		checkArgument(selectors.size() >= n);
+		assertions.pop(n);
+		labels.pop(n);
+		for (int i = 0; i < n; i++) {
+			final int selector = selectors.remove(selectors.size() - 1);
+			cdcl.addClause(CdclSolver.neg(selector));
+		}
+		clearState();
+	}
+
+	@Override
+	public void reset() {
+		init();
+		clearState();
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		checkState(status != null, "Solver status is unknown.");
+		return status;
+	}
+
+	@Override
+	public Valuation getModel() {
+		checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
+
+		if (model == null) {
+			model = extractModel();
+		}
+
+		assert model != null;
+		return model;
+	}
+
+	private Valuation extractModel() {
+		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		for (final ConstDecl<BoolType> decl : transformer.getBoolConsts()) {
+			builder.put(decl, Bool(cdcl.modelValue(transformer.getLit(decl))));
+		}
+		theory.getModel().forEach(builder::put);
+		return builder.build();
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		checkState(status == SolverStatus.UNSAT, "Cannot get unsat core if status is not UNSAT");
+
+		if (unsatCore == null) {
+			unsatCore = extractUnsatCore();
+		}
+
+		assert unsatCore != null;
+		return Collections.unmodifiableCollection(unsatCore);
+	}
+
+	private Collection<Expr<BoolType>> extractUnsatCore() {
+		final Collection<Expr<BoolType>> unsatCore = new LinkedList<>();
+		for (final int lit : cdcl.getConflict()) {
+			final Expr<BoolType> assertion = labelToAssertion.get(lit);
+			if (assertion != null) {
+				unsatCore.add(assertion);
+			}
+		}
+		return unsatCore;
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return assertions.toCollection();
+	}
+
+	private void clearState() {
+		status = null;
+		model = null;
+		unsatCore = null;
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.sat;
+
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+
+/**
+ * Factory for the pure Java solver supporting propositional logic and
+ * difference logic. Solver instances are independent of each other and
+ * require no native libraries, so they can be used from multiple threads
+ * (one solver per thread). Interpolation is not supported.
+ */
+public final class SatSolverFactory implements SolverFactory {
+
+	private SatSolverFactory() {
+	}
+
+	private static class LazyHolder {
+		static final SatSolverFactory INSTANCE = new SatSolverFactory();
+	}
+
+	public static SatSolverFactory getInstance() {
+		return LazyHolder.INSTANCE;
+	}
+
+	@Override
+	public Solver createSolver() {
+		return new SatSolver();
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		throw new UnsupportedOperationException("Interpolation is not supported by " + getClass().getSimpleName());
+	}
+
+}
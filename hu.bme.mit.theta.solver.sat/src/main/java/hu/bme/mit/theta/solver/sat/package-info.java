@@ -0,0 +1,9 @@
+/**
+ * This package contains a pure Java solver for propositional logic and
+ * difference logic (CDCL with a lazy difference logic theory). Normally, only
+ * {@link SatSolverFactory} should be used from this project to create solver
+ * instances. Then, the common interfaces should be preferred (e.g.,
+ * {@link hu.bme.mit.theta.solver.Solver}).
+ */
+
+package hu.bme.mit.theta.solver.sat;
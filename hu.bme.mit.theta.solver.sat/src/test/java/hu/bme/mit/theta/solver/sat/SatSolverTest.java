@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.sat;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Iff;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Xor;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Sub;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatExprs;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+public final class SatSolverTest {
+
+	@Test
+	public void testBool() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+
+		final ConstDecl<BoolType> ca = Const("a", Bool());
+		final ConstDecl<BoolType> cb = Const("b", Bool());
+
+		solver.add(Or(ca.getRef(), cb.getRef()));
+		solver.add(Xor(ca.getRef(), cb.getRef()));
+		solver.add(Not(ca.getRef()));
+
+		assertTrue(solver.check().isSat());
+		final Valuation model = solver.getModel();
+		assertEquals(Bool(false), model.eval(ca).get());
+		assertEquals(Bool(true), model.eval(cb).get());
+
+		solver.add(Iff(ca.getRef(), cb.getRef()));
+		assertTrue(solver.check().isUnsat());
+	}
+
+	@Test
+	public void testPushPop() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+
+		final ConstDecl<BoolType> ca = Const("a", Bool());
+		final ConstDecl<BoolType> cb = Const("b", Bool());
+
+		solver.add(Or(ca.getRef(), cb.getRef()));
+		solver.push();
+		solver.add(Not(ca.getRef()));
+		solver.push();
+		solver.add(Not(cb.getRef()));
+		assertTrue(solver.check().isUnsat());
+		solver.pop();
+		assertTrue(solver.check().isSat());
+		assertEquals(Bool(true), solver.getModel().eval(cb).get());
+		solver.pop();
+		solver.add(Not(cb.getRef()));
+		assertTrue(solver.check().isSat());
+		assertEquals(Bool(true), solver.getModel().eval(ca).get());
+		assertEquals(2, solver.getAssertions().size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPushClearsStatus() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+
+		final ConstDecl<BoolType> ca = Const("a", Bool());
+
+		solver.add(ca.getRef());
+		assertTrue(solver.check().isSat());
+		solver.push();
+		solver.getStatus();
+	}
+
+	@Test
+	public void testUnsatCore() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+
+		final ConstDecl<BoolType> ca = Const("a", Bool());
+		final ConstDecl<BoolType> cb = Const("b", Bool());
+		final ConstDecl<BoolType> cc = Const("c", Bool());
+
+		final Expr<BoolType> expr1 = ca.getRef();
+		final Expr<BoolType> expr2 = Or(Not(ca.getRef()), cb.getRef());
+		final Expr<BoolType> expr3 = cc.getRef();
+		final Expr<BoolType> expr4 = Not(cb.getRef());
+
+		solver.track(expr1);
+		solver.track(expr2);
+		solver.track(expr3);
+		solver.track(expr4);
+
+		assertTrue(solver.check().isUnsat());
+		final Collection<Expr<BoolType>> core = solver.getUnsatCore();
+		assertTrue(core.contains(expr1));
+		assertTrue(core.contains(expr2));
+		assertTrue(core.contains(expr4));
+		assertFalse(core.contains(expr3));
+	}
+
+	@Test
+	public void testPigeonHole() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+		final int holes = 6;
+		final int pigeons = holes + 1;
+
+		final List<List<Expr<BoolType>>> in = new ArrayList<>();
+		for (int p = 0; p < pigeons; p++) {
+			final List<Expr<BoolType>> row = new ArrayList<>();
+			for (int h = 0; h < holes; h++) {
+				row.add(Const("p" + p + "h" + h, Bool()).getRef());
+			}
+			in.add(row);
+			solver.add(Or(row));
+		}
+		for (int h = 0; h < holes; h++) {
+			for (int p1 = 0; p1 < pigeons; p1++) {
+				for (int p2 = p1 + 1; p2 < pigeons; p2++) {
+					solver.add(Or(Not(in.get(p1).get(h)), Not(in.get(p2).get(h))));
+				}
+			}
+		}
+
+		assertTrue(solver.check().isUnsat());
+	}
+
+	@Test
+	public void testIntDiffLogic() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final ConstDecl<IntType> cy = Const("y", Int());
+		final ConstDecl<IntType> cz = Const("z", Int());
+
+		solver.add(Leq(Sub(cx.getRef(), cy.getRef()), Int(3)));
+		solver.add(Lt(Add(cy.getRef(), Int(2)), cz.getRef()));
+		solver.add(Or(Eq(cx.getRef(), Int(10)), Eq(cz.getRef(), Int(-5))));
+
+		assertEquals(SolverStatus.SAT, solver.check());
+		final Valuation model = solver.getModel();
+		for (final Expr<BoolType> assertion : solver.getAssertions()) {
+			assertEquals(Bool(true), assertion.eval(model));
+		}
+
+		solver.push();
+		solver.add(Leq(cz.getRef(), Int(5)));
+		solver.add(Leq(Int(10), Sub(cx.getRef(), Int(0))));
+		assertEquals(SolverStatus.UNSAT, solver.check());
+		solver.pop();
+
+		assertEquals(SolverStatus.SAT, solver.check());
+	}
+
+	@Test
+	public void testRatDiffLogic() {
+		final Solver solver = SatSolverFactory.getInstance().createSolver();
+
+		final ConstDecl<RatType> cx = Const("x", RatExprs.Rat());
+		final ConstDecl<RatType> cy = Const("y", RatExprs.Rat());
+
+		solver.add(RatExprs.Lt(cx.getRef(), cy.getRef()));
+		solver.add(RatExprs.Lt(cy.getRef(), RatExprs.Add(cx.getRef(), Rat(1, 2))));
+		solver.add(RatExprs.Geq(cx.getRef(), Rat(0, 1)));
+
+		assertEquals(SolverStatus.SAT, solver.check());
+		final Valuation model = solver.getModel();
+		for (final Expr<BoolType> assertion : solver.getAssertions()) {
+			final BoolLitExpr value = (BoolLitExpr) assertion.eval(model);
+			assertTrue(value.getValue());
+		}
+
+		solver.add(RatExprs.Lt(RatExprs.Add(cy.getRef(), Rat(1, 2)), cx.getRef()));
+		assertEquals(SolverStatus.UNSAT, solver.check());
+	}
+
+}
@@ -29,10 +29,12 @@ import hu.bme.mit.theta.common.dsl.Env;
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.decl.ParamDecl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.dsl.DeclSymbol;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.anytype.PrimeExpr;
 import hu.bme.mit.theta.core.type.anytype.RefExpr;
 import hu.bme.mit.theta.core.type.arraytype.ArrayEqExpr;
 import hu.bme.mit.theta.core.type.arraytype.ArrayNeqExpr;
@@ -84,14 +86,18 @@ final class Z3ExprTransformer {
 
 	private final Z3TransformationManager transformer;
 	private final Context context;
+	// Variables are only supported when transforming for the unfolder
+	private final boolean templates;
 
 	private final Cache<Expr<?>, com.microsoft.z3.Expr> exprToTerm;
 	private final DispatchTable<com.microsoft.z3.Expr> table;
 	private final Env env;
 
-	public Z3ExprTransformer(final Z3TransformationManager transformer, final Context context) {
+	public Z3ExprTransformer(final Z3TransformationManager transformer, final Context context,
+			final boolean templates) {
 		this.context = context;
 		this.transformer = transformer;
+		this.templates = templates;
 		this.env = new Env();
 
 		exprToTerm = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
@@ -102,6 +108,8 @@ final class Z3ExprTransformer {
 
 				.addCase(RefExpr.class, this::transformRef)
 
+				.addCase(PrimeExpr.class, this::transformPrime)
+
 				.addCase(IteExpr.class, this::transformIte)
 
 				// Boolean
@@ -223,11 +231,21 @@ final class Z3ExprTransformer {
 		} else if (decl instanceof ParamDecl) {
 			final com.microsoft.z3.FuncDecl funcDecl = (com.microsoft.z3.FuncDecl) env.eval(DeclSymbol.of(decl));
 			return context.mkConst(funcDecl);
+		} else if (templates && decl instanceof VarDecl) {
+			return transformer.toTemplate((VarDecl<?>) decl, 0);
 		} else {
 			throw new UnsupportedOperationException("Cannot transform reference for declaration: " + decl);
 		}
 	}
 
+	private com.microsoft.z3.Expr transformPrime(final PrimeExpr<?> expr) {
+		if (templates) {
+			return transformer.transformPrime(expr);
+		} else {
+			throw new UnsupportedOperationException("Cannot transform primed expression: " + expr);
+		}
+	}
+
 	private com.microsoft.z3.Expr transformIte(final IteExpr<?> expr) {
 		final com.microsoft.z3.BoolExpr condTerm = (com.microsoft.z3.BoolExpr) toTerm(expr.getCond());
 		final com.microsoft.z3.Expr thenTerm = toTerm(expr.getThen());
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.microsoft.z3.Context;
+
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.anytype.PrimeExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+
+/**
+ * Unfolds expressions over variables directly on the Z3 side. Each expression
+ * is transformed once, with every variable (with a given number of primes)
+ * replaced by a template constant. Unfolding with an indexing then
+ * substitutes the template constants with the constants of the indexed
+ * variables, which are cached for each indexing.
+ */
+final class Z3ExprUnfolder {
+
+	private static final int CACHE_SIZE = 1000;
+	private static final String TEMPLATE_FORMAT = "%s'%d#%d";
+
+	private final Z3TransformationManager transformer;
+	private final Context context;
+
+	private final Map<Tuple2<VarDecl<?>, Integer>, com.microsoft.z3.Expr> templates;
+	private final Cache<Expr<?>, Template> exprToTemplate;
+	private final Cache<VarIndexing, Map<Tuple2<VarDecl<?>, Integer>, com.microsoft.z3.Expr>> indexingToConsts;
+
+	Z3ExprUnfolder(final Z3TransformationManager transformer, final Context context) {
+		this.transformer = transformer;
+		this.context = context;
+		templates = new HashMap<>();
+		exprToTemplate = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+		// VarIndexing does not override equals, weak keys are compared by identity anyway
+		indexingToConsts = CacheBuilder.newBuilder().weakKeys().maximumSize(CACHE_SIZE).build();
+	}
+
+	public com.microsoft.z3.Expr toTerm(final Expr<?> expr, final VarIndexing indexing) {
+		final Template template = get(exprToTemplate, expr, () -> createTemplate(expr));
+		if (template.vars.isEmpty()) {
+			return template.term;
+		}
+
+		final Map<Tuple2<VarDecl<?>, Integer>, com.microsoft.z3.Expr> consts = get(indexingToConsts, indexing,
+				HashMap::new);
+		final com.microsoft.z3.Expr[] to = new com.microsoft.z3.Expr[template.vars.size()];
+		for (int i = 0; i < to.length; i++) {
+			to[i] = consts.computeIfAbsent(template.vars.get(i), v -> {
+				final VarDecl<?> varDecl = v.get1();
+				return transformer.toTerm(varDecl.getConstDecl(indexing.get(varDecl) + v.get2()).getRef());
+			});
+		}
+		return template.term.substitute(template.from, to);
+	}
+
+	public com.microsoft.z3.Expr toTemplate(final VarDecl<?> varDecl, final int primes) {
+		return templates.computeIfAbsent(Tuple2.of(varDecl, primes),
+				v -> context.mkConst(String.format(TEMPLATE_FORMAT, varDecl.getName(), primes, templates.size()),
+						transformer.toSort(varDecl.getType())));
+	}
+
+	/**
+	 * Transform a primed expression by shifting the templates of the
+	 * transformed operand by one prime.
+	 */
+	public com.microsoft.z3.Expr transformPrime(final PrimeExpr<?> expr) {
+		final com.microsoft.z3.Expr opTerm = transformer.toTemplateTerm(expr.getOp());
+		final Set<Tuple2<VarDecl<?>, Integer>> vars = collectVars(expr.getOp());
+		if (vars.isEmpty()) {
+			return opTerm;
+		}
+
+		final com.microsoft.z3.Expr[] from = new com.microsoft.z3.Expr[vars.size()];
+		final com.microsoft.z3.Expr[] to = new com.microsoft.z3.Expr[vars.size()];
+		int i = 0;
+		for (final Tuple2<VarDecl<?>, Integer> var : vars) {
+			from[i] = toTemplate(var.get1(), var.get2());
+			to[i] = toTemplate(var.get1(), var.get2() + 1);
+			i++;
+		}
+		return opTerm.substitute(from, to);
+	}
+
+	////
+
+	private Template createTemplate(final Expr<?> expr) {
+		final com.microsoft.z3.Expr term = transformer.toTemplateTerm(expr);
+		final List<Tuple2<VarDecl<?>, Integer>> vars = ImmutableList.copyOf(collectVars(expr));
+		final com.microsoft.z3.Expr[] from = new com.microsoft.z3.Expr[vars.size()];
+		for (int i = 0; i < from.length; i++) {
+			from[i] = toTemplate(vars.get(i).get1(), vars.get(i).get2());
+		}
+		return new Template(term, vars, from);
+	}
+
+	private static Set<Tuple2<VarDecl<?>, Integer>> collectVars(final Expr<?> expr) {
+		final Set<Tuple2<VarDecl<?>, Integer>> vars = new LinkedHashSet<>();
+		collectVars(expr, 0, vars);
+		return vars;
+	}
+
+	private static void collectVars(final Expr<?> expr, final int primes,
+			final Set<Tuple2<VarDecl<?>, Integer>> collectTo) {
+		if (expr instanceof RefExpr) {
+			final RefExpr<?> ref = (RefExpr<?>) expr;
+			if (ref.getDecl() instanceof VarDecl) {
+				collectTo.add(Tuple2.of((VarDecl<?>) ref.getDecl(), primes));
+			}
+		} else if (expr instanceof PrimeExpr) {
+			collectVars(((PrimeExpr<?>) expr).getOp(), primes + 1, collectTo);
+		} else {
+			for (final Expr<?> op : expr.getOps()) {
+				collectVars(op, primes, collectTo);
+			}
+		}
+	}
+
+	private static <K, V> V get(final Cache<K, V> cache, final K key, final Callable<V> loader) {
+		try {
+			return cache.get(key, loader);
+		} catch (final ExecutionException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static final class Template {
+		private final com.microsoft.z3.Expr term;
+		private final List<Tuple2<VarDecl<?>, Integer>> vars;
+		private final com.microsoft.z3.Expr[] from;
+
+		private Template(final com.microsoft.z3.Expr term, final List<Tuple2<VarDecl<?>, Integer>> vars,
+				final com.microsoft.z3.Expr[] from) {
+			this.term = term;
+			this.vars = vars;
+			this.from = from;
+		}
+	}
+
+}
@@ -25,9 +25,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Interpolant;
 import hu.bme.mit.theta.solver.ItpMarker;
 import hu.bme.mit.theta.solver.ItpPattern;
@@ -86,6 +88,19 @@ final class Z3ItpSolver implements ItpSolver {
 		z3Marker.add(term);
 	}
 
+	@Override
+	public void add(final ItpMarker marker, final Expr<BoolType> assertion, final VarIndexing indexing) {
+		checkNotNull(marker);
+		checkNotNull(assertion);
+		checkNotNull(indexing);
+		checkArgument(markers.toCollection().contains(marker));
+		final Z3ItpMarker z3Marker = (Z3ItpMarker) marker;
+		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assertion,
+				indexing);
+		solver.add(assertion, indexing, term);
+		z3Marker.add(term);
+	}
+
 	@Override
 	public Interpolant getInterpolant(final ItpPattern pattern) {
 		checkState(solver.getStatus() == SolverStatus.UNSAT, "Cannot get interpolant if status is not UNSAT.");
@@ -150,6 +165,13 @@ final class Z3ItpSolver implements ItpSolver {
 		solver.add(assertion);
 	}
 
+	@Override
+	public void add(final Expr<BoolType> assertion, final VarIndexing indexing) {
+		checkNotNull(assertion);
+		checkNotNull(indexing);
+		solver.add(assertion, indexing);
+	}
+
 	@Override
 	public void track(final Expr<BoolType> assertion) {
 		checkNotNull(assertion);
@@ -194,6 +216,11 @@ final class Z3ItpSolver implements ItpSolver {
 		return solver.getModel();
 	}
 
+	@Override
+	public Valuation getModel(final VarIndexing indexing, final Collection<? extends VarDecl<?>> varDecls) {
+		return solver.getModel(indexing, varDecls);
+	}
+
 	@Override
 	public Collection<Expr<BoolType>> getUnsatCore() {
 		return solver.getUnsatCore();
@@ -17,6 +17,10 @@ package hu.bme.mit.theta.solver.z3;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -25,17 +29,23 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Optional;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.microsoft.z3.FuncDecl;
 import com.microsoft.z3.Status;
 
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverStatus;
 import hu.bme.mit.theta.solver.Stack;
@@ -51,13 +61,13 @@ final class Z3Solver implements Solver {
 	private final com.microsoft.z3.Context z3Context;
 	private final com.microsoft.z3.Solver z3Solver;
 
-	private final Stack<Expr<BoolType>> assertions;
+	private final Stack<Supplier<Expr<BoolType>>> assertions;
 	private final Map<String, Expr<BoolType>> assumptions;
 
 	private static final String ASSUMPTION_LABEL = "_LABEL_%d";
 	private int labelNum = 0;
 
-	private Valuation model;
+	private Z3Model model;
 	private Collection<Expr<BoolType>> unsatCore;
 	private SolverStatus status;
 
@@ -83,8 +93,24 @@ final class Z3Solver implements Solver {
 		add(assertion, term);
 	}
 
+	@Override
+	public void add(final Expr<BoolType> assertion, final VarIndexing indexing) {
+		checkNotNull(assertion);
+		checkNotNull(indexing);
+		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assertion,
+				indexing);
+		add(assertion, indexing, term);
+	}
+
 	void add(final Expr<BoolType> assertion, final com.microsoft.z3.BoolExpr term) {
-		assertions.add(assertion);
+		assertions.add(Suppliers.ofInstance(assertion));
+		z3Solver.add(term);
+		clearState();
+	}
+
+	void add(final Expr<BoolType> assertion, final VarIndexing indexing, final com.microsoft.z3.BoolExpr term) {
+		// The unfolded expression is only built if the assertions are queried
+		assertions.add(Suppliers.memoize(() -> PathUtils.unfold(assertion, indexing)));
 		z3Solver.add(term);
 		clearState();
 	}
@@ -93,7 +119,7 @@ final class Z3Solver implements Solver {
 	public void track(final Expr<BoolType> assertion) {
 		checkNotNull(assertion);
 
-		assertions.add(assertion);
+		assertions.add(Suppliers.ofInstance(assertion));
 		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assertion);
 		final String label = String.format(ASSUMPTION_LABEL, labelNum++);
 		final com.microsoft.z3.BoolExpr labelTerm = z3Context.mkBoolConst(label);
@@ -159,7 +185,28 @@ final class Z3Solver implements Solver {
 		return model;
 	}
 
-	private Valuation extractModel() {
+	@Override
+	public Valuation getModel(final VarIndexing indexing, final Collection<? extends VarDecl<?>> varDecls) {
+		checkNotNull(indexing);
+		checkNotNull(varDecls);
+		checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
+
+		if (model == null) {
+			model = extractModel();
+		}
+
+		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		for (final VarDecl<?> varDecl : varDecls) {
+			final ConstDecl<?> constDecl = varDecl.getConstDecl(indexing.get(varDecl));
+			final Optional<? extends LitExpr<?>> value = model.eval(constDecl);
+			if (value.isPresent()) {
+				builder.put(varDecl, value.get());
+			}
+		}
+		return builder.build();
+	}
+
+	private Z3Model extractModel() {
 		assert status == SolverStatus.SAT;
 		assert model == null;
 
@@ -206,7 +253,7 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public Collection<Expr<BoolType>> getAssertions() {
-		return assertions.toCollection();
+		return assertions.toCollection().stream().map(Supplier::get).collect(toImmutableList());
 	}
 
 	private void clearState() {
@@ -249,10 +296,15 @@ final class Z3Solver implements Solver {
 
 			LitExpr<?> val = constToExpr.get(constDecl);
 			if (val == null) {
-				final FuncDecl funcDecl = transformationManager.toSymbol(constDecl);
+				// Constants never passed to Z3 cannot have a value, and
+				// transforming them would only create new symbols
+				if (!symbolTable.definesConst(constDecl)) {
+					return Optional.empty();
+				}
+				final FuncDecl funcDecl = symbolTable.getSymbol(constDecl);
 				final com.microsoft.z3.Expr term = z3Model.getConstInterp(funcDecl);
 				if (term != null) {
-					val = (LitExpr<?>) termTransformer.toExpr(term);
+					val = toLitExpr(term);
 					constToExpr.put(constDecl, val);
 				} else {
 					return Optional.empty();
@@ -272,6 +324,18 @@ final class Z3Solver implements Solver {
 
 		////
 
+		private LitExpr<?> toLitExpr(final com.microsoft.z3.Expr term) {
+			if (term.isTrue()) {
+				return True();
+			} else if (term.isFalse()) {
+				return False();
+			} else if (term.isIntNum()) {
+				return Int(((com.microsoft.z3.IntNum) term).getInt());
+			} else {
+				return (LitExpr<?>) termTransformer.toExpr(term);
+			}
+		}
+
 		private Collection<ConstDecl<?>> constDeclsOf(final com.microsoft.z3.Model z3Model) {
 			final ImmutableList.Builder<ConstDecl<?>> builder = ImmutableList.builder();
 			for (final com.microsoft.z3.FuncDecl symbol : z3Model.getDecls()) {
@@ -18,19 +18,26 @@ package hu.bme.mit.theta.solver.z3;
 import com.microsoft.z3.Context;
 
 import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.PrimeExpr;
+import hu.bme.mit.theta.core.utils.VarIndexing;
 
 final class Z3TransformationManager {
 
 	private final Z3TypeTransformer typeTransformer;
 	private final Z3DeclTransformer declTransformer;
 	private final Z3ExprTransformer exprTransformer;
+	private final Z3ExprTransformer templateTransformer;
+	private final Z3ExprUnfolder exprUnfolder;
 
 	public Z3TransformationManager(final Z3SymbolTable symbolTable, final Context context) {
 		this.typeTransformer = new Z3TypeTransformer(this, context);
 		this.declTransformer = new Z3DeclTransformer(this, symbolTable, context);
-		this.exprTransformer = new Z3ExprTransformer(this, context);
+		this.exprTransformer = new Z3ExprTransformer(this, context, false);
+		this.templateTransformer = new Z3ExprTransformer(this, context, true);
+		this.exprUnfolder = new Z3ExprUnfolder(this, context);
 	}
 
 	public com.microsoft.z3.Sort toSort(final Type type) {
@@ -45,4 +52,20 @@ final class Z3TransformationManager {
 		return exprTransformer.toTerm(expr);
 	}
 
+	public com.microsoft.z3.Expr toTerm(final Expr<?> expr, final VarIndexing indexing) {
+		return exprUnfolder.toTerm(expr, indexing);
+	}
+
+	public com.microsoft.z3.Expr toTemplateTerm(final Expr<?> expr) {
+		return templateTransformer.toTerm(expr);
+	}
+
+	public com.microsoft.z3.Expr toTemplate(final VarDecl<?> varDecl, final int primes) {
+		return exprUnfolder.toTemplate(varDecl, primes);
+	}
+
+	public com.microsoft.z3.Expr transformPrime(final PrimeExpr<?> expr) {
+		return exprUnfolder.transformPrime(expr);
+	}
+
 }
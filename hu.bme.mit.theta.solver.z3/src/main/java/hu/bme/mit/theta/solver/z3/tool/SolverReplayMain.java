@@ -0,0 +1,61 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3.tool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import hu.bme.mit.theta.common.table.BasicTableWriter;
+import hu.bme.mit.theta.common.table.TableWriter;
+import hu.bme.mit.theta.solver.recording.SolverReplayer;
+import hu.bme.mit.theta.solver.recording.SolverReplayer.SiteStats;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+/**
+ * A command line tool for replaying a recorded solver session with Z3 and
+ * printing the latencies of the queries for each call site.
+ */
+public class SolverReplayMain {
+
+	private static final double NANOS_PER_MS = 1_000_000.0;
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 1) {
+			System.out.println("Usage: solver-replay <trace file>");
+			return;
+		}
+
+		final List<SiteStats> stats = SolverReplayer.replay(new File(args[0]), Z3SolverFactory.getInstace());
+
+		final TableWriter writer = new BasicTableWriter(System.out, ",", "\"", "\"");
+		writer.cell("Site").cell("Operation").cell("Calls").cell("Mismatches").cell("RecordedMs").cell("ReplayMs")
+				.cell("MeanReplayMs").cell("MaxReplayMs");
+		writer.newRow();
+		for (final SiteStats siteStats : stats) {
+			writer.cell(siteStats.getSite());
+			writer.cell(siteStats.getOperation());
+			writer.cell(siteStats.getCalls());
+			writer.cell(siteStats.getMismatches());
+			writer.cell(siteStats.getRecordedNanos() / NANOS_PER_MS);
+			writer.cell(siteStats.getReplayNanos() / NANOS_PER_MS);
+			writer.cell(siteStats.getMeanReplayNanos() / NANOS_PER_MS);
+			writer.cell(siteStats.getMaxReplayNanos() / NANOS_PER_MS);
+			writer.newRow();
+		}
+	}
+
+}
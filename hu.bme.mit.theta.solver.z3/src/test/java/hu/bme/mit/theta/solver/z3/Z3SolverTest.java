@@ -16,18 +16,31 @@
 package hu.bme.mit.theta.solver.z3;
 
 import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverStatus;
 
@@ -54,4 +67,46 @@ public final class Z3SolverTest {
 		solver.pop();
 	}
 
+	@Test
+	public void testAddIndexed() {
+		final Solver solver = Z3SolverFactory.getInstace().createSolver();
+
+		final VarDecl<IntType> x = Var("x", Int());
+
+		solver.push();
+		solver.add(Eq(x.getRef(), Int(1)), VarIndexing.all(0));
+		solver.add(Eq(Prime(x.getRef()), Add(x.getRef(), Int(1))), VarIndexing.all(0));
+
+		assertTrue(solver.check().isSat());
+		final Valuation val = PathUtils.extractValuation(solver.getModel(), 1);
+		assertEquals(Int(2), val.eval(x).get());
+
+		solver.add(Eq(x.getRef(), Int(3)), VarIndexing.all(1));
+		assertTrue(solver.check().isUnsat());
+		assertEquals(3, solver.getAssertions().size());
+
+		solver.pop();
+	}
+
+	@Test
+	public void testGetModelProjected() {
+		final Solver solver = Z3SolverFactory.getInstace().createSolver();
+
+		final VarDecl<IntType> x = Var("x", Int());
+		final VarDecl<IntType> y = Var("y", Int());
+		final VarDecl<BoolType> b = Var("b", Bool());
+
+		solver.add(And(Eq(x.getRef(), Int(1)), Eq(Prime(x.getRef()), Int(2)), b.getRef()), VarIndexing.all(0));
+
+		assertTrue(solver.check().isSat());
+		final Valuation val0 = solver.getModel(VarIndexing.all(0), ImmutableList.of(x, y, b));
+		assertEquals(Int(1), val0.eval(x).get());
+		assertEquals(True(), val0.eval(b).get());
+		assertFalse(val0.eval(y).isPresent());
+
+		final Valuation val1 = solver.getModel(VarIndexing.all(1), ImmutableList.of(x));
+		assertEquals(Int(2), val1.eval(x).get());
+		assertEquals(1, val1.getDecls().size());
+	}
+
 }
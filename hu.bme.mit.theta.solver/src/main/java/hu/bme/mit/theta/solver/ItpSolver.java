@@ -26,6 +26,8 @@ import com.google.common.collect.Lists;
 
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
 
 public interface ItpSolver extends Solver {
 
@@ -68,6 +70,14 @@ public interface ItpSolver extends Solver {
 		}
 	}
 
+	/**
+	 * Add an expression over variables to a marker, unfolded with an indexing
+	 * (see {@link Solver#add(Expr, VarIndexing)}).
+	 */
+	default void add(final ItpMarker marker, final Expr<BoolType> assertion, final VarIndexing indexing) {
+		add(marker, PathUtils.unfold(assertion, indexing));
+	}
+
 	Interpolant getInterpolant(final ItpPattern pattern);
 
 	Collection<? extends ItpMarker> getMarkers();
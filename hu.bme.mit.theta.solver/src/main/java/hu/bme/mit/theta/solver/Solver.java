@@ -17,9 +17,12 @@ package hu.bme.mit.theta.solver;
 
 import java.util.Collection;
 
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.VarIndexing;
 
 public interface Solver {
 
@@ -31,6 +34,21 @@ public interface Solver {
 		}
 	}
 
+	/**
+	 * Add an expression over variables, unfolded with an indexing. This is
+	 * equivalent to adding {@link PathUtils#unfold(Expr, VarIndexing)}, but
+	 * solvers may implement it without building the unfolded expression.
+	 */
+	default void add(final Expr<BoolType> assertion, final VarIndexing indexing) {
+		add(PathUtils.unfold(assertion, indexing));
+	}
+
+	default void add(final Iterable<? extends Expr<BoolType>> assertions, final VarIndexing indexing) {
+		for (final Expr<BoolType> assertion : assertions) {
+			add(assertion, indexing);
+		}
+	}
+
 	void track(Expr<BoolType> assertion);
 
 	default void track(final Iterable<? extends Expr<BoolType>> assertions) {
@@ -55,6 +73,17 @@ public interface Solver {
 
 	Valuation getModel();
 
+	/**
+	 * Get the values of the given variables in the model, with each variable
+	 * mapped to its constant under an indexing. This is equivalent to
+	 * {@link PathUtils#extractValuation(Valuation, VarIndexing, Collection)},
+	 * but solvers may implement it without converting the whole model.
+	 * Variables without a value in the model are not included.
+	 */
+	default Valuation getModel(final VarIndexing indexing, final Collection<? extends VarDecl<?>> varDecls) {
+		return PathUtils.extractValuation(getModel(), indexing, varDecls);
+	}
+
 	Collection<Expr<BoolType>> getUnsatCore();
 
 	Collection<Expr<BoolType>> getAssertions();
@@ -0,0 +1,149 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.recording;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * A decorator for an {@link ItpSolver} that writes every operation to a
+ * {@link SolverRecorder}. Markers and patterns of the underlying solver are
+ * returned as they are.
+ */
+public final class RecordingItpSolver implements ItpSolver {
+
+	private final ItpSolver solver;
+	private final SolverRecorder recorder;
+	private final int id;
+	private final RecordingSolver recordingSolver;
+	private final Map<ItpMarker, Integer> markers;
+
+	private RecordingItpSolver(final ItpSolver solver, final SolverRecorder recorder) {
+		this.solver = checkNotNull(solver);
+		this.recorder = checkNotNull(recorder);
+		this.id = recorder.newSolver(true);
+		this.recordingSolver = new RecordingSolver(solver, recorder, id);
+		this.markers = new IdentityHashMap<>();
+	}
+
+	public static RecordingItpSolver create(final ItpSolver solver, final SolverRecorder recorder) {
+		return new RecordingItpSolver(solver, recorder);
+	}
+
+	@Override
+	public ItpPattern createPattern(final ItpMarker marker) {
+		return solver.createPattern(marker);
+	}
+
+	@Override
+	public ItpMarker createMarker() {
+		final ItpMarker marker = solver.createMarker();
+		markers.put(marker, recorder.newMarker(id));
+		return marker;
+	}
+
+	@Override
+	public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+		final Integer markerId = markers.get(marker);
+		checkArgument(markerId != null, "Marker does not belong to this solver");
+		recorder.add(id, markerId, assertion);
+		solver.add(marker, assertion);
+	}
+
+	@Override
+	public Interpolant getInterpolant(final ItpPattern pattern) {
+		final long start = System.nanoTime();
+		final Interpolant interpolant = solver.getInterpolant(pattern);
+		recorder.itp(id, SolverRecorder.writePattern(pattern, markers), System.nanoTime() - start);
+		return interpolant;
+	}
+
+	@Override
+	public Collection<? extends ItpMarker> getMarkers() {
+		return solver.getMarkers();
+	}
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		recordingSolver.add(assertion);
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		recordingSolver.track(assertion);
+	}
+
+	@Override
+	public SolverStatus check() {
+		return recordingSolver.check();
+	}
+
+	@Override
+	public void push() {
+		recordingSolver.push();
+	}
+
+	@Override
+	public void pop(final int n) {
+		recordingSolver.pop(n);
+	}
+
+	@Override
+	public void reset() {
+		recordingSolver.reset();
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		return recordingSolver.getStatus();
+	}
+
+	@Override
+	public Valuation getModel() {
+		return recordingSolver.getModel();
+	}
+
+	@Override
+	public Valuation getModel(final VarIndexing indexing, final Collection<? extends VarDecl<?>> varDecls) {
+		return recordingSolver.getModel(indexing, varDecls);
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		return recordingSolver.getUnsatCore();
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return recordingSolver.getAssertions();
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.recording;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * A decorator for a {@link Solver} that writes every operation to a
+ * {@link SolverRecorder}.
+ */
+public final class RecordingSolver implements Solver {
+
+	private final Solver solver;
+	private final SolverRecorder recorder;
+	private final int id;
+
+	RecordingSolver(final Solver solver, final SolverRecorder recorder, final int id) {
+		this.solver = checkNotNull(solver);
+		this.recorder = checkNotNull(recorder);
+		this.id = id;
+	}
+
+	public static RecordingSolver create(final Solver solver, final SolverRecorder recorder) {
+		return new RecordingSolver(solver, recorder, recorder.newSolver(false));
+	}
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		recorder.add(id, assertion);
+		solver.add(assertion);
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		recorder.track(id, assertion);
+		solver.track(assertion);
+	}
+
+	@Override
+	public SolverStatus check() {
+		final long start = System.nanoTime();
+		SolverStatus status = null;
+		try {
+			status = solver.check();
+			return status;
+		} finally {
+			recorder.check(id, status, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void push() {
+		recorder.push(id);
+		solver.push();
+	}
+
+	@Override
+	public void pop(final int n) {
+		recorder.pop(id, n);
+		solver.pop(n);
+	}
+
+	@Override
+	public void reset() {
+		recorder.reset(id);
+		solver.reset();
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		return solver.getStatus();
+	}
+
+	@Override
+	public Valuation getModel() {
+		final long start = System.nanoTime();
+		final Valuation model = solver.getModel();
+		recorder.model(id, System.nanoTime() - start);
+		return model;
+	}
+
+	@Override
+	public Valuation getModel(final VarIndexing indexing, final Collection<? extends VarDecl<?>> varDecls) {
+		final long start = System.nanoTime();
+		final Valuation model = solver.getModel(indexing, varDecls);
+		recorder.model(id, System.nanoTime() - start);
+		return model;
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		final long start = System.nanoTime();
+		final Collection<Expr<BoolType>> unsatCore = solver.getUnsatCore();
+		recorder.core(id, System.nanoTime() - start);
+		return unsatCore;
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return solver.getAssertions();
+	}
+
+}
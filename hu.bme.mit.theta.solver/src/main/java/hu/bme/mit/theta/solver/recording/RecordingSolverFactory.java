@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.recording;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+
+/**
+ * A {@link SolverFactory} that wraps the solvers of an other factory into
+ * recording solvers writing to a common {@link SolverRecorder}.
+ */
+public final class RecordingSolverFactory implements SolverFactory {
+
+	private final SolverFactory solverFactory;
+	private final SolverRecorder recorder;
+
+	private RecordingSolverFactory(final SolverFactory solverFactory, final SolverRecorder recorder) {
+		this.solverFactory = checkNotNull(solverFactory);
+		this.recorder = checkNotNull(recorder);
+	}
+
+	public static RecordingSolverFactory create(final SolverFactory solverFactory, final SolverRecorder recorder) {
+		return new RecordingSolverFactory(solverFactory, recorder);
+	}
+
+	public SolverRecorder getRecorder() {
+		return recorder;
+	}
+
+	@Override
+	public Solver createSolver() {
+		return RecordingSolver.create(solverFactory.createSolver(), recorder);
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		return RecordingItpSolver.create(solverFactory.createItpSolver(), recorder);
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.recording;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.dsl.CoreDslManager;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayType;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.functype.FuncType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * Writes the operations of recording solvers to a text file, one operation per
+ * line. Formulas are written in the core expression language, where constants
+ * are renamed to parseable identifiers and declared on their first use. Every
+ * query is annotated with its duration and call site, i.e., the first caller
+ * that is not a solver or a solver utility. A recorder can be shared by solvers on
+ * different threads.
+ */
+public final class SolverRecorder implements Closeable {
+
+	static final String HEADER = "theta-solver-trace 1";
+	static final String SITE = "site";
+	static final String DECL = "decl";
+	static final String SOLVER = "solver";
+	static final String ITP_SOLVER = "itpsolver";
+	static final String ADD = "add";
+	static final String TRACK = "track";
+	static final String MARKER = "marker";
+	static final String ITP_ADD = "itpadd";
+	static final String PUSH = "push";
+	static final String POP = "pop";
+	static final String RESET = "reset";
+	static final String CHECK = "check";
+	static final String MODEL = "model";
+	static final String CORE = "core";
+	static final String ITP = "itp";
+	static final String UNKNOWN = "UNKNOWN";
+
+	private static final String RECORDING_PACKAGE = SolverRecorder.class.getPackage().getName() + ".";
+	private static final String UTILS_PACKAGE = "hu.bme.mit.theta.solver.utils.";
+	private static final String CONST_PREFIX = "c";
+
+	private final Writer writer;
+	private final CoreDslManager dslManager;
+	private final Map<ConstDecl<?>, ConstDecl<?>> consts;
+	private final Map<String, Integer> sites;
+	private final Map<String, Boolean> solverClasses;
+	private int nextSolver;
+	private int nextMarker;
+
+	private SolverRecorder(final Writer writer) {
+		this.writer = checkNotNull(writer);
+		dslManager = new CoreDslManager();
+		consts = new HashMap<>();
+		sites = new HashMap<>();
+		solverClasses = new HashMap<>();
+		nextSolver = 0;
+		nextMarker = 0;
+		write(HEADER);
+	}
+
+	public static SolverRecorder create(final Writer writer) {
+		return new SolverRecorder(writer);
+	}
+
+	public static SolverRecorder create(final File file) throws IOException {
+		return create(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8));
+	}
+
+	synchronized int newSolver(final boolean itp) {
+		final int id = nextSolver++;
+		write((itp ? ITP_SOLVER : SOLVER) + " " + id);
+		return id;
+	}
+
+	synchronized int newMarker(final int solver) {
+		final int id = nextMarker++;
+		write(MARKER + " " + solver + " " + id);
+		return id;
+	}
+
+	synchronized void add(final int solver, final Expr<BoolType> assertion) {
+		write(ADD + " " + solver + " " + writeExpr(assertion));
+	}
+
+	synchronized void track(final int solver, final Expr<BoolType> assertion) {
+		write(TRACK + " " + solver + " " + writeExpr(assertion));
+	}
+
+	synchronized void add(final int solver, final int marker, final Expr<BoolType> assertion) {
+		write(ITP_ADD + " " + solver + " " + marker + " " + writeExpr(assertion));
+	}
+
+	synchronized void push(final int solver) {
+		write(PUSH + " " + solver);
+	}
+
+	synchronized void pop(final int solver, final int n) {
+		write(POP + " " + solver + " " + n);
+	}
+
+	synchronized void reset(final int solver) {
+		write(RESET + " " + solver);
+	}
+
+	synchronized void check(final int solver, final SolverStatus status, final long nanos) {
+		final String statusString = status == null ? UNKNOWN : status.toString();
+		write(CHECK + " " + solver + " " + site() + " " + nanos + " " + statusString);
+	}
+
+	synchronized void model(final int solver, final long nanos) {
+		write(MODEL + " " + solver + " " + site() + " " + nanos);
+	}
+
+	synchronized void core(final int solver, final long nanos) {
+		write(CORE + " " + solver + " " + site() + " " + nanos);
+	}
+
+	synchronized void itp(final int solver, final String pattern, final long nanos) {
+		write(ITP + " " + solver + " " + site() + " " + nanos + " " + pattern);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+	////
+
+	static String writePattern(final ItpPattern pattern, final Map<ItpMarker, Integer> markers) {
+		final String children = pattern.getChildren().stream().map(c -> " " + writePattern(c, markers))
+				.collect(Collectors.joining());
+		return "(" + markers.get(pattern.getMarker()) + children + ")";
+	}
+
+	private int site() {
+		String site = "unknown";
+		for (final StackTraceElement element : new Throwable().getStackTrace()) {
+			if (!isSolverClass(element.getClassName())) {
+				site = element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+				break;
+			}
+		}
+
+		final Integer id = sites.get(site);
+		if (id != null) {
+			return id;
+		} else {
+			final int newId = sites.size();
+			sites.put(site, newId);
+			write(SITE + " " + newId + " " + site);
+			return newId;
+		}
+	}
+
+	private boolean isSolverClass(final String className) {
+		if (className.startsWith(RECORDING_PACKAGE) || className.startsWith(UTILS_PACKAGE)) {
+			return true;
+		}
+		return solverClasses.computeIfAbsent(className, name -> {
+			try {
+				return Solver.class.isAssignableFrom(Class.forName(name, false, getClass().getClassLoader()));
+			} catch (final ClassNotFoundException e) {
+				return false;
+			}
+		});
+	}
+
+	private String writeExpr(final Expr<?> expr) {
+		return dslManager.writeExpr(rename(expr));
+	}
+
+	private Expr<?> rename(final Expr<?> expr) {
+		if (expr instanceof RefExpr) {
+			final RefExpr<?> ref = (RefExpr<?>) expr;
+			if (ref.getDecl() instanceof ConstDecl) {
+				return rename((ConstDecl<?>) ref.getDecl()).getRef();
+			} else {
+				return expr;
+			}
+		} else {
+			return expr.map(this::rename);
+		}
+	}
+
+	private ConstDecl<?> rename(final ConstDecl<?> decl) {
+		ConstDecl<?> result = consts.get(decl);
+		if (result == null) {
+			result = Decls.Const(CONST_PREFIX + consts.size(), decl.getType());
+			consts.put(decl, result);
+			write(DECL + " " + result.getName() + " " + writeType(decl.getType()));
+		}
+		return result;
+	}
+
+	private static String writeType(final Type type) {
+		if (type instanceof BoolType) {
+			return "bool";
+		} else if (type instanceof IntType) {
+			return "int";
+		} else if (type instanceof RatType) {
+			return "rat";
+		} else if (type instanceof FuncType) {
+			final FuncType<?, ?> funcType = (FuncType<?, ?>) type;
+			return "(" + writeType(funcType.getParamType()) + ") -> " + writeType(funcType.getResultType());
+		} else if (type instanceof ArrayType) {
+			final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+			return "[" + writeType(arrayType.getIndexType()) + "] -> " + writeType(arrayType.getElemType());
+		} else {
+			throw new UnsupportedOperationException("Type not supported: " + type);
+		}
+	}
+
+	private void write(final String line) {
+		try {
+			writer.write(line);
+			writer.write(System.lineSeparator());
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Could not write solver trace", e);
+		}
+	}
+
+}
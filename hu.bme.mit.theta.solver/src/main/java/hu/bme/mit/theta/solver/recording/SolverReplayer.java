@@ -0,0 +1,322 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.recording;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Splitter;
+
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.dsl.CoreDslManager;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+
+/**
+ * Re-executes a session recorded by a {@link SolverRecorder} against the
+ * solvers of a {@link SolverFactory} and collects the latencies of the queries
+ * for each call site and operation.
+ */
+public final class SolverReplayer {
+
+	private final SolverFactory solverFactory;
+	private final CoreDslManager dslManager;
+	private final Map<Integer, Solver> solvers;
+	private final Map<Integer, ItpMarker> markers;
+	private final Map<Integer, String> sites;
+	private final Map<Tuple2<Integer, String>, SiteStats> stats;
+
+	private SolverReplayer(final SolverFactory solverFactory) {
+		this.solverFactory = checkNotNull(solverFactory);
+		dslManager = new CoreDslManager();
+		solvers = new HashMap<>();
+		markers = new HashMap<>();
+		sites = new HashMap<>();
+		stats = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Replay a recorded session.
+	 *
+	 * @param reader Source of the recording
+	 * @param solverFactory Factory for the solvers to be used
+	 * @return Statistics for each call site and operation, in decreasing order
+	 *         of the total replay time
+	 */
+	public static List<SiteStats> replay(final Reader reader, final SolverFactory solverFactory)
+			throws IOException {
+		final SolverReplayer replayer = new SolverReplayer(solverFactory);
+		final BufferedReader bufferedReader = new BufferedReader(reader);
+		checkFormat(SolverRecorder.HEADER.equals(bufferedReader.readLine()), "Invalid header");
+		String line;
+		while ((line = bufferedReader.readLine()) != null) {
+			if (!line.isEmpty()) {
+				replayer.replay(line);
+			}
+		}
+
+		final List<SiteStats> result = new ArrayList<>(replayer.stats.values());
+		result.sort(Comparator.comparingLong(SiteStats::getReplayNanos).reversed());
+		return result;
+	}
+
+	public static List<SiteStats> replay(final File file, final SolverFactory solverFactory) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			return replay(reader, solverFactory);
+		}
+	}
+
+	private void replay(final String line) throws IOException {
+		final String[] parts = line.split(" ", 3);
+		checkFormat(parts.length >= 2, "Invalid line: " + line);
+		final String op = parts[0];
+		final String rest = parts.length > 2 ? parts[2] : "";
+		if (op.equals(SolverRecorder.DECL)) {
+			dslManager.declare(Decls.Const(parts[1], dslManager.parseType(rest)));
+			return;
+		}
+
+		final int id = Integer.parseInt(parts[1]);
+		switch (op) {
+		case SolverRecorder.SITE:
+			sites.put(id, rest);
+			break;
+		case SolverRecorder.SOLVER:
+			solvers.put(id, solverFactory.createSolver());
+			break;
+		case SolverRecorder.ITP_SOLVER:
+			solvers.put(id, solverFactory.createItpSolver());
+			break;
+		case SolverRecorder.MARKER:
+			markers.put(Integer.parseInt(rest), itpSolver(id).createMarker());
+			break;
+		case SolverRecorder.ADD:
+			solver(id).add(parseExpr(rest));
+			break;
+		case SolverRecorder.TRACK:
+			solver(id).track(parseExpr(rest));
+			break;
+		case SolverRecorder.ITP_ADD: {
+			final String[] markerAndExpr = rest.split(" ", 2);
+			itpSolver(id).add(marker(Integer.parseInt(markerAndExpr[0])), parseExpr(markerAndExpr[1]));
+			break;
+		}
+		case SolverRecorder.PUSH:
+			solver(id).push();
+			break;
+		case SolverRecorder.POP:
+			solver(id).pop(Integer.parseInt(rest));
+			break;
+		case SolverRecorder.RESET:
+			solver(id).reset();
+			break;
+		case SolverRecorder.CHECK:
+		case SolverRecorder.MODEL:
+		case SolverRecorder.CORE:
+		case SolverRecorder.ITP:
+			replayQuery(op, solver(id), rest);
+			break;
+		default:
+			throw new IOException("Unknown operation: " + op);
+		}
+	}
+
+	private void replayQuery(final String op, final Solver solver, final String rest) throws IOException {
+		final String[] parts = rest.split(" ", 3);
+		checkFormat(parts.length >= 2, "Missing site or duration");
+		final int site = Integer.parseInt(parts[0]);
+		final long recordedNanos = Long.parseLong(parts[1]);
+		final SiteStats siteStats = stats.computeIfAbsent(Tuple2.of(site, op),
+				k -> new SiteStats(sites.getOrDefault(site, "unknown"), op));
+
+		final long start = System.nanoTime();
+		boolean matches = true;
+		switch (op) {
+		case SolverRecorder.CHECK:
+			matches = checkStatus(solver).equals(parts[2]);
+			break;
+		case SolverRecorder.MODEL:
+			matches = solver.getStatus() == SolverStatus.SAT;
+			if (matches) {
+				solver.getModel();
+			}
+			break;
+		case SolverRecorder.CORE:
+			matches = solver.getStatus() == SolverStatus.UNSAT;
+			if (matches) {
+				solver.getUnsatCore();
+			}
+			break;
+		case SolverRecorder.ITP:
+			matches = solver.getStatus() == SolverStatus.UNSAT;
+			if (matches) {
+				final ItpSolver itpSolver = (ItpSolver) solver;
+				itpSolver.getInterpolant(parsePattern(itpSolver, parts[2]));
+			}
+			break;
+		default:
+			throw new AssertionError();
+		}
+		siteStats.add(recordedNanos, System.nanoTime() - start, matches);
+	}
+
+	private static String checkStatus(final Solver solver) {
+		try {
+			return solver.check().toString();
+		} catch (final UnknownSolverStatusException e) {
+			return SolverRecorder.UNKNOWN;
+		}
+	}
+
+	private Expr<BoolType> parseExpr(final String string) {
+		return TypeUtils.cast(dslManager.parseExpr(string), Bool());
+	}
+
+	private ItpPattern parsePattern(final ItpSolver solver, final String string) throws IOException {
+		final Iterator<String> tokens = Splitter.on(' ').omitEmptyStrings()
+				.split(string.replace("(", " ( ").replace(")", " ) ")).iterator();
+		checkFormat(tokens.hasNext() && tokens.next().equals("("), "Invalid pattern: " + string);
+		final ItpPattern pattern = solver.createPattern(marker(Integer.parseInt(tokens.next())));
+		parseChildren(pattern, tokens);
+		return pattern;
+	}
+
+	private void parseChildren(final ItpPattern pattern, final Iterator<String> tokens) throws IOException {
+		while (tokens.hasNext()) {
+			final String token = tokens.next();
+			if (token.equals(")")) {
+				return;
+			}
+			checkFormat(token.equals("(") && tokens.hasNext(), "Invalid pattern");
+			final ItpPattern child = pattern.createChild(marker(Integer.parseInt(tokens.next())));
+			parseChildren(child, tokens);
+		}
+		throw new IOException("Unterminated pattern");
+	}
+
+	private Solver solver(final int id) throws IOException {
+		final Solver solver = solvers.get(id);
+		checkFormat(solver != null, "Unknown solver: " + id);
+		return solver;
+	}
+
+	private ItpSolver itpSolver(final int id) throws IOException {
+		final Solver solver = solver(id);
+		checkFormat(solver instanceof ItpSolver, "Not an interpolating solver: " + id);
+		return (ItpSolver) solver;
+	}
+
+	private ItpMarker marker(final int id) throws IOException {
+		final ItpMarker marker = markers.get(id);
+		checkFormat(marker != null, "Unknown marker: " + id);
+		return marker;
+	}
+
+	private static void checkFormat(final boolean condition, final String message) throws IOException {
+		if (!condition) {
+			throw new IOException(message);
+		}
+	}
+
+	/**
+	 * Latency statistics of the queries of one operation issued from a call
+	 * site.
+	 */
+	public static final class SiteStats {
+		private final String site;
+		private final String operation;
+		private int calls;
+		private int mismatches;
+		private long recordedNanos;
+		private long replayNanos;
+		private long maxReplayNanos;
+
+		private SiteStats(final String site, final String operation) {
+			this.site = site;
+			this.operation = operation;
+		}
+
+		private void add(final long recorded, final long replayed, final boolean matches) {
+			calls++;
+			recordedNanos += recorded;
+			replayNanos += replayed;
+			maxReplayNanos = Math.max(maxReplayNanos, replayed);
+			if (!matches) {
+				mismatches++;
+			}
+		}
+
+		public String getSite() {
+			return site;
+		}
+
+		public String getOperation() {
+			return operation;
+		}
+
+		public int getCalls() {
+			return calls;
+		}
+
+		/**
+		 * Number of queries where the replayed solver disagreed with the
+		 * recorded status.
+		 */
+		public int getMismatches() {
+			return mismatches;
+		}
+
+		public long getRecordedNanos() {
+			return recordedNanos;
+		}
+
+		public long getReplayNanos() {
+			return replayNanos;
+		}
+
+		public long getMaxReplayNanos() {
+			return maxReplayNanos;
+		}
+
+		public double getMeanReplayNanos() {
+			return calls == 0 ? 0 : (double) replayNanos / calls;
+		}
+	}
+
+}
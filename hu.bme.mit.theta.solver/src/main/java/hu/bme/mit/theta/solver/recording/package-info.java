@@ -0,0 +1,9 @@
+/**
+ * This package contains decorators that record the operations of solvers,
+ * including the duration and call site of each query, to a file (see
+ * {@link hu.bme.mit.theta.solver.recording.RecordingSolverFactory}), and a
+ * {@link hu.bme.mit.theta.solver.recording.SolverReplayer} that re-executes a
+ * recorded session against any solver to get a latency report.
+ */
+
+package hu.bme.mit.theta.solver.recording;
@@ -0,0 +1,183 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * A decorator for a {@link Solver} that looks up the result of {@link #check()}
+ * in a {@link SolverCache} before calling the underlying solver. The current
+ * assertion stack is canonicalized as a set, so the order and duplication of
+ * assertions do not matter. Assertions are always forwarded to the underlying
+ * solver, which is only queried when the status, model or unsat core is not
+ * available in the cache.
+ */
+public final class CachingSolver implements Solver {
+
+	private final Solver solver;
+	private final SolverCache cache;
+
+	private Stack<Expr<BoolType>> assertions;
+	private Stack<Expr<BoolType>> tracked;
+
+	private Set<Expr<BoolType>> key;
+	private Optional<SolverCache.Entry> entry;
+	private SolverStatus status;
+	private boolean solverChecked;
+
+	private CachingSolver(final Solver solver, final SolverCache cache) {
+		this.solver = checkNotNull(solver);
+		this.cache = checkNotNull(cache);
+		assertions = new StackImpl<>();
+		tracked = new StackImpl<>();
+		clearState();
+	}
+
+	public static CachingSolver create(final Solver solver, final SolverCache cache) {
+		return new CachingSolver(solver, cache);
+	}
+
+	public SolverCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		solver.add(assertion);
+		assertions.add(assertion);
+		clearState();
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		solver.track(assertion);
+		assertions.add(assertion);
+		tracked.add(assertion);
+		clearState();
+	}
+
+	@Override
+	public SolverStatus check() {
+		if (status == null) {
+			key = ImmutableSet.copyOf(assertions);
+			entry = cache.get(key);
+			if (entry.isPresent()) {
+				status = entry.get().getStatus();
+			} else {
+				status = solver.check();
+				solverChecked = true;
+				cache.put(key, status);
+			}
+		}
+		return status;
+	}
+
+	@Override
+	public void push() {
+		solver.push();
+		assertions.push();
+		tracked.push();
+	}
+
+	@Override
+	public void pop(final int n) {
+		solver.pop(n);
+		assertions.pop(n);
+		tracked.pop(n);
+		clearState();
+	}
+
+	@Override
+	public void reset() {
+		solver.reset();
+		assertions = new StackImpl<>();
+		tracked = new StackImpl<>();
+		clearState();
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		checkState(status != null, "Solver status is unknown.");
+		return status;
+	}
+
+	@Override
+	public Valuation getModel() {
+		checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
+		final Optional<Valuation> cachedModel = entry.flatMap(SolverCache.Entry::getModel);
+		if (cachedModel.isPresent()) {
+			return cachedModel.get();
+		} else {
+			checkSolver();
+			final Valuation model = solver.getModel();
+			cache.putModel(key, model);
+			return model;
+		}
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		checkState(status == SolverStatus.UNSAT, "Cannot get unsat core if status is not UNSAT");
+		final Set<Expr<BoolType>> trackedKey = ImmutableSet.copyOf(tracked);
+		final Optional<Collection<Expr<BoolType>>> cachedCore = entry.flatMap(e -> e.getUnsatCore(trackedKey));
+		if (cachedCore.isPresent()) {
+			return cachedCore.get();
+		} else {
+			checkSolver();
+			final Collection<Expr<BoolType>> unsatCore = solver.getUnsatCore();
+			cache.putUnsatCore(key, trackedKey, unsatCore);
+			return unsatCore;
+		}
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return assertions.toCollection();
+	}
+
+	private void checkSolver() {
+		if (!solverChecked) {
+			final SolverStatus solverStatus = solver.check();
+			checkState(solverStatus == status, "Cached status does not match the status of the solver.");
+			solverChecked = true;
+		}
+	}
+
+	private void clearState() {
+		key = null;
+		entry = Optional.empty();
+		status = null;
+		solverChecked = false;
+	}
+
+}
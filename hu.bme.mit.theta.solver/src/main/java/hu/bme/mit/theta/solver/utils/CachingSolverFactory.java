@@ -0,0 +1,61 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+
+/**
+ * A {@link SolverFactory} that wraps the solvers of an other factory into
+ * {@link CachingSolver}s sharing a common {@link SolverCache}. Interpolating
+ * solvers are not cached, as their results depend on the markers as well.
+ */
+public final class CachingSolverFactory implements SolverFactory {
+
+	private final SolverFactory solverFactory;
+	private final SolverCache cache;
+
+	private CachingSolverFactory(final SolverFactory solverFactory, final SolverCache cache) {
+		this.solverFactory = checkNotNull(solverFactory);
+		this.cache = checkNotNull(cache);
+	}
+
+	public static CachingSolverFactory create(final SolverFactory solverFactory, final SolverCache cache) {
+		return new CachingSolverFactory(solverFactory, cache);
+	}
+
+	public static CachingSolverFactory create(final SolverFactory solverFactory, final int capacity) {
+		return create(solverFactory, SolverCache.create(capacity));
+	}
+
+	public SolverCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public Solver createSolver() {
+		return CachingSolver.create(solverFactory.createSolver(), cache);
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		return solverFactory.createItpSolver();
+	}
+
+}
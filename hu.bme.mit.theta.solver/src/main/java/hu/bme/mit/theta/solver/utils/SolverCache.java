@@ -0,0 +1,163 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.LruCache;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * A bounded cache of satisfiability results, keyed by the set of assertions
+ * they were obtained for. Models and unsat cores can optionally be stored as
+ * well. A single cache can be shared among several {@link CachingSolver}s, even
+ * on different threads.
+ */
+public final class SolverCache {
+
+	private static final int DEFAULT_CAPACITY = 10000;
+
+	private final LruCache<Set<Expr<BoolType>>, Entry> cache;
+	private final boolean storeModels;
+	private final boolean storeUnsatCores;
+
+	private long hits;
+	private long misses;
+
+	private SolverCache(final int capacity, final boolean storeModels, final boolean storeUnsatCores) {
+		this.cache = LruCache.create(capacity);
+		this.storeModels = storeModels;
+		this.storeUnsatCores = storeUnsatCores;
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	public static SolverCache create(final int capacity, final boolean storeModels, final boolean storeUnsatCores) {
+		return new SolverCache(capacity, storeModels, storeUnsatCores);
+	}
+
+	public static SolverCache create(final int capacity) {
+		return create(capacity, true, true);
+	}
+
+	public static SolverCache create() {
+		return create(DEFAULT_CAPACITY);
+	}
+
+	synchronized Optional<Entry> get(final Set<Expr<BoolType>> assertions) {
+		final Optional<Entry> entry = cache.get(assertions);
+		if (entry.isPresent()) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return entry;
+	}
+
+	synchronized void put(final Set<Expr<BoolType>> assertions, final SolverStatus status) {
+		if (!cache.get(assertions).isPresent()) {
+			cache.put(assertions, new Entry(status));
+		}
+	}
+
+	synchronized void putModel(final Set<Expr<BoolType>> assertions, final Valuation model) {
+		if (storeModels) {
+			final Entry entry = getOrCreate(assertions, SolverStatus.SAT);
+			entry.model = ImmutableValuation.copyOf(model);
+		}
+	}
+
+	synchronized void putUnsatCore(final Set<Expr<BoolType>> assertions, final Set<Expr<BoolType>> tracked,
+			final Collection<Expr<BoolType>> unsatCore) {
+		if (storeUnsatCores) {
+			final Entry entry = getOrCreate(assertions, SolverStatus.UNSAT);
+			entry.unsatCore = Tuple2.of(tracked, ImmutableList.copyOf(unsatCore));
+		}
+	}
+
+	private Entry getOrCreate(final Set<Expr<BoolType>> assertions, final SolverStatus status) {
+		final Optional<Entry> entry = cache.get(assertions);
+		if (entry.isPresent()) {
+			return entry.get();
+		} else {
+			final Entry newEntry = new Entry(status);
+			cache.put(assertions, newEntry);
+			return newEntry;
+		}
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized double getHitRatio() {
+		final long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	public synchronized void clear() {
+		cache.clear();
+		hits = 0;
+		misses = 0;
+	}
+
+	static final class Entry {
+		private final SolverStatus status;
+		private volatile Valuation model;
+		private volatile Tuple2<Set<Expr<BoolType>>, Collection<Expr<BoolType>>> unsatCore;
+
+		private Entry(final SolverStatus status) {
+			this.status = checkNotNull(status);
+		}
+
+		SolverStatus getStatus() {
+			return status;
+		}
+
+		Optional<Valuation> getModel() {
+			return Optional.ofNullable(model);
+		}
+
+		Optional<Collection<Expr<BoolType>>> getUnsatCore(final Set<Expr<BoolType>> tracked) {
+			final Tuple2<Set<Expr<BoolType>>, Collection<Expr<BoolType>>> core = unsatCore;
+			if (core != null && core.get1().equals(tracked)) {
+				return Optional.of(core.get2());
+			} else {
+				return Optional.empty();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.utils.CachingSolver;
+import hu.bme.mit.theta.solver.utils.SolverCache;
+import hu.bme.mit.theta.solver.utils.WithPushPop;
+
+public class CachingSolverTest {
+
+	private final ConstDecl<BoolType> ca = Const("a", Bool());
+	private final ConstDecl<BoolType> cb = Const("b", Bool());
+
+	@Test
+	public void testStatus() {
+		final CountingSolver inner = new CountingSolver();
+		final SolverCache cache = SolverCache.create(10);
+		final CachingSolver solver = CachingSolver.create(inner, cache);
+
+		solver.add(ca.getRef());
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(cb.getRef());
+			assertEquals(SolverStatus.SAT, solver.check());
+		}
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(cb.getRef());
+			solver.add(ca.getRef());
+			assertEquals(SolverStatus.SAT, solver.check());
+		}
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(False());
+			assertEquals(SolverStatus.UNSAT, solver.check());
+		}
+
+		assertEquals(2, inner.nCheck);
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(1.0 / 3, cache.getHitRatio(), 1e-9);
+	}
+
+	@Test
+	public void testModelAndCore() {
+		final CountingSolver inner1 = new CountingSolver();
+		final CountingSolver inner2 = new CountingSolver();
+		final SolverCache cache = SolverCache.create(10);
+		final CachingSolver solver1 = CachingSolver.create(inner1, cache);
+		final CachingSolver solver2 = CachingSolver.create(inner2, cache);
+
+		solver1.add(True());
+		solver1.check();
+		solver1.getModel();
+		solver1.reset();
+		solver1.track(False());
+		solver1.check();
+		solver1.getUnsatCore();
+		assertEquals(2, inner1.nCheck);
+
+		solver2.add(True());
+		solver2.check();
+		solver2.getModel();
+		solver2.reset();
+		solver2.track(False());
+		solver2.check();
+		assertEquals(ImmutableList.of(False()), ImmutableList.copyOf(solver2.getUnsatCore()));
+		assertEquals(0, inner2.nCheck);
+
+		solver2.reset();
+		solver2.add(False());
+		solver2.check();
+		assertEquals(0, solver2.getUnsatCore().size());
+		assertEquals(1, inner2.nCheck);
+	}
+
+	@Test
+	public void testEviction() {
+		final CountingSolver inner = new CountingSolver();
+		final CachingSolver solver = CachingSolver.create(inner, SolverCache.create(1));
+
+		solver.add(ca.getRef());
+		solver.check();
+		solver.add(cb.getRef());
+		solver.check();
+		solver.reset();
+		solver.add(ca.getRef());
+		solver.check();
+		assertEquals(3, inner.nCheck);
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * A solver stub that is unsatisfiable if and only if False is asserted, and
+ * counts the checks.
+ */
+final class CountingSolver implements Solver {
+	private Stack<Expr<BoolType>> assertions = new StackImpl<>();
+	private final List<Expr<BoolType>> tracked = new ArrayList<>();
+	private SolverStatus status = null;
+	int nCheck = 0;
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		assertions.add(assertion);
+		status = null;
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		add(assertion);
+		tracked.add(assertion);
+	}
+
+	@Override
+	public SolverStatus check() {
+		nCheck++;
+		status = assertions.toCollection().contains(False()) ? SolverStatus.UNSAT : SolverStatus.SAT;
+		return status;
+	}
+
+	@Override
+	public void push() {
+		assertions.push();
+	}
+
+	@Override
+	public void pop(final int n) {
+		assertions.pop(n);
+		status = null;
+	}
+
+	@Override
+	public void reset() {
+		assertions = new StackImpl<>();
+		tracked.clear();
+		status = null;
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public Valuation getModel() {
+		return ImmutableValuation.empty();
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		final List<Expr<BoolType>> core = new ArrayList<>(tracked);
+		core.retainAll(assertions.toCollection());
+		return core;
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return assertions.toCollection();
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.recording.RecordingSolver;
+import hu.bme.mit.theta.solver.recording.SolverRecorder;
+import hu.bme.mit.theta.solver.recording.SolverReplayer;
+import hu.bme.mit.theta.solver.recording.SolverReplayer.SiteStats;
+import hu.bme.mit.theta.solver.utils.WithPushPop;
+
+public class SolverRecordingTest {
+
+	@Test
+	public void testRecordAndReplay() throws IOException {
+		final VarDecl<IntType> x = Var("x", Int());
+		final StringWriter trace = new StringWriter();
+		final SolverRecorder recorder = SolverRecorder.create(trace);
+		final Solver solver = RecordingSolver.create(new CountingSolver(), recorder);
+
+		solver.add(Eq(x.getConstDecl(0).getRef(), Int(1)));
+		for (int i = 0; i < 3; i++) {
+			try (WithPushPop wpp = new WithPushPop(solver)) {
+				solver.add(Eq(x.getConstDecl(1).getRef(), Add(x.getConstDecl(0).getRef(), Int(i))));
+				assertEquals(SolverStatus.SAT, solver.check());
+			}
+		}
+		solver.add(And(Eq(x.getConstDecl(1).getRef(), Int(2)), Eq(x.getConstDecl(0).getRef(), Int(2))));
+		solver.add(False());
+		assertEquals(SolverStatus.UNSAT, solver.check());
+		recorder.close();
+
+		final List<CountingSolver> replaySolvers = new ArrayList<>();
+		final SolverFactory factory = new SolverFactory() {
+			@Override
+			public Solver createSolver() {
+				final CountingSolver replaySolver = new CountingSolver();
+				replaySolvers.add(replaySolver);
+				return replaySolver;
+			}
+
+			@Override
+			public ItpSolver createItpSolver() {
+				throw new UnsupportedOperationException();
+			}
+		};
+		final List<SiteStats> stats = SolverReplayer.replay(new StringReader(trace.toString()), factory);
+
+		assertEquals(1, replaySolvers.size());
+		assertEquals(4, replaySolvers.get(0).nCheck);
+		assertEquals(3, replaySolvers.get(0).getAssertions().size());
+		assertEquals(2, stats.size());
+		assertEquals(4, stats.stream().mapToInt(SiteStats::getCalls).sum());
+		assertEquals(0, stats.stream().mapToInt(SiteStats::getMismatches).sum());
+		assertTrue(stats.stream().allMatch(s -> s.getSite().contains(SolverRecordingTest.class.getSimpleName())));
+	}
+
+}
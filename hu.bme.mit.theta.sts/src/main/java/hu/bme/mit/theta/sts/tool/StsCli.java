@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.sts.tool;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -27,6 +28,8 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
@@ -44,6 +47,9 @@ import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
 import hu.bme.mit.theta.core.type.booltype.BoolExprs;
 import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.solver.recording.RecordingSolverFactory;
+import hu.bme.mit.theta.solver.recording.SolverRecorder;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 import hu.bme.mit.theta.sts.STS;
 import hu.bme.mit.theta.sts.StsUtils;
 import hu.bme.mit.theta.sts.aiger.AigerParser;
@@ -84,6 +90,24 @@ public class StsCli {
 	@Parameter(names = { "--initprec" }, description = "Initial precision")
 	InitPrec initPrec = InitPrec.EMPTY;
 
+	@Parameter(names = { "--checkpoint" }, description = "Path of the checkpoint file (saving is disabled if not given)")
+	String checkpoint = null;
+
+	@Parameter(names = { "--checkpointperiod" }, description = "Save a checkpoint after every n-th refinement")
+	Integer checkpointPeriod = 1;
+
+	@Parameter(names = { "--resume" }, description = "Resume from the checkpoint file if it exists")
+	Boolean resume = false;
+
+	@Parameter(names = { "--preccache" }, description = "Path of a file for reusing the precision across runs")
+	String precCache = null;
+
+	@Parameter(names = { "--solvercache" }, description = "Capacity of the cache for abstraction solver queries (0: disabled)")
+	int solverCache = 0;
+
+	@Parameter(names = { "--solvertrace" }, description = "Path of a file for recording the solver queries")
+	String solverTrace = null;
+
 	@Parameter(names = { "--loglevel" }, description = "Detailedness of logging")
 	Logger.Level logLevel = Level.SUBSTEP;
 
@@ -97,6 +121,7 @@ public class StsCli {
 	boolean headerOnly = false;
 
 	private Logger logger;
+	private SolverRecorder solverRecorder = null;
 
 	public StsCli(final String[] args) {
 		this.args = args;
@@ -136,6 +161,8 @@ public class StsCli {
 			}
 		} catch (final Throwable ex) {
 			printError(ex);
+		} finally {
+			closeSolverRecorder();
 		}
 		if (benchmarkMode) {
 			writer.newRow();
@@ -169,15 +196,44 @@ public class StsCli {
 		}
 	}
 
-	private Config<?, ?, ?> buildConfiguration(final STS sts) {
-		return new StsConfigBuilder(domain, refinement).initPrec(initPrec).search(search).predSplit(predSplit)
-				.logger(logger).build(sts);
+	private Config<?, ?, ?> buildConfiguration(final STS sts) throws IOException {
+		final StsConfigBuilder builder = new StsConfigBuilder(domain, refinement).initPrec(initPrec).search(search)
+				.predSplit(predSplit).solverCache(solverCache).logger(logger);
+		if (checkpoint != null) {
+			builder.checkpoint(new File(checkpoint), checkpointPeriod, modelHash()).resume(resume);
+		}
+		if (precCache != null) {
+			builder.precCache(new File(precCache), modelHash());
+		}
+		if (solverTrace != null) {
+			solverRecorder = SolverRecorder.create(new File(solverTrace));
+			builder.solverFactory(RecordingSolverFactory.create(Z3SolverFactory.getInstace(), solverRecorder));
+		}
+		return builder.build(sts);
+	}
+
+	private String modelHash() throws IOException {
+		return Files.asByteSource(new File(model)).hash(Hashing.sha256()).toString();
+	}
+
+	private void closeSolverRecorder() {
+		if (solverRecorder != null) {
+			try {
+				solverRecorder.close();
+			} catch (final IOException ex) {
+				logger.write(Level.RESULT, "Could not write solver trace: %s%n", ex.getMessage());
+			}
+		}
 	}
 
 	private void printResult(final SafetyResult<?, ?> status, final STS sts, final long totalTimeMs) {
 		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
 		if (benchmarkMode) {
-			writer.cell(status.isSafe());
+			if (status.isUnknown()) {
+				writer.cell("unknown");
+			} else {
+				writer.cell(status.isSafe());
+			}
 			writer.cell(totalTimeMs);
 			writer.cell(stats.getAlgorithmTimeMs());
 			writer.cell(stats.getAbstractorTimeMs());
@@ -211,9 +267,10 @@ public class StsCli {
 
 	private void writeVisualStatus(final SafetyResult<?, ?> status, final String filename)
 			throws FileNotFoundException {
-		final Graph graph = status.isSafe()
-				? new ArgVisualizer<>(State::toString, a -> "").visualize(status.asSafe().getArg())
-				: new TraceVisualizer<>(State::toString, a -> "").visualize(status.asUnsafe().getTrace());
+		// Unknown results have no counterexample, their partial ARG is written
+		final Graph graph = status.isUnsafe()
+				? new TraceVisualizer<>(State::toString, a -> "").visualize(status.asUnsafe().getTrace())
+				: new ArgVisualizer<>(State::toString, a -> "").visualize(status.getArg());
 		GraphvizWriter.getInstance().writeFile(graph, filename);
 	}
 }
@@ -15,8 +15,10 @@
  */
 package hu.bme.mit.theta.sts.tool;
 
+import static com.google.common.base.Preconditions.checkState;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 
+import java.io.File;
 import java.util.function.Predicate;
 
 import hu.bme.mit.theta.analysis.Action;
@@ -43,6 +45,7 @@ import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.ExprStatePredicate;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceBwBinItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceChecker;
+import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceCombinedCheckers;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceFwBinItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceSeqItpChecker;
 import hu.bme.mit.theta.analysis.expr.refinement.ExprTraceUnsatCoreChecker;
@@ -57,13 +60,19 @@ import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
 import hu.bme.mit.theta.analysis.pred.PredAnalysis;
 import hu.bme.mit.theta.analysis.pred.PredPrec;
 import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.analysis.serialization.Codecs;
+import hu.bme.mit.theta.analysis.serialization.FileCheckpointer;
+import hu.bme.mit.theta.analysis.serialization.PrecCache;
+import hu.bme.mit.theta.analysis.serialization.PrecFormats;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.utils.CachingSolverFactory;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 import hu.bme.mit.theta.sts.STS;
 import hu.bme.mit.theta.sts.analysis.StsAction;
@@ -75,11 +84,11 @@ import hu.bme.mit.theta.sts.analysis.initprec.StsPropInitPrec;
 public final class StsConfigBuilder {
 
 	public enum Domain {
-		EXPL, PRED_BOOL, PRED_CART, PRED_SPLIT
+		EXPL, PRED_BOOL, PRED_CART, PRED_SPLIT, PRED_BDD
 	};
 
 	public enum Refinement {
-		FW_BIN_ITP, BW_BIN_ITP, SEQ_ITP, UNSAT_CORE
+		FW_BIN_ITP, BW_BIN_ITP, PAR_BIN_ITP, SEQ_ITP, UNSAT_CORE
 	};
 
 	public enum Search {
@@ -127,6 +136,12 @@ public final class StsConfigBuilder {
 	private Search search = Search.BFS;
 	private PredSplit predSplit = PredSplit.WHOLE;
 	private InitPrec initPrec = InitPrec.EMPTY;
+	private File checkpointFile = null;
+	private int checkpointPeriod = 1;
+	private boolean resume = false;
+	private File precCacheFile = null;
+	private String modelHash = null;
+	private int solverCacheCapacity = 0;
 
 	public StsConfigBuilder(final Domain domain, final Refinement refinement) {
 		this.domain = domain;
@@ -162,15 +177,44 @@ public final class StsConfigBuilder {
 		return initPrec;
 	}
 
+	public StsConfigBuilder checkpoint(final File checkpointFile, final int checkpointPeriod,
+			final String modelHash) {
+		this.checkpointFile = checkpointFile;
+		this.checkpointPeriod = checkpointPeriod;
+		this.modelHash = modelHash;
+		return this;
+	}
+
+	public StsConfigBuilder resume(final boolean resume) {
+		this.resume = resume;
+		return this;
+	}
+
+	public StsConfigBuilder precCache(final File precCacheFile, final String modelHash) {
+		this.precCacheFile = precCacheFile;
+		this.modelHash = modelHash;
+		return this;
+	}
+
+	public StsConfigBuilder solverCache(final int solverCacheCapacity) {
+		this.solverCacheCapacity = solverCacheCapacity;
+		return this;
+	}
+
 	public Config<? extends State, ? extends Action, ? extends Prec> build(final STS sts) {
+		checkState(checkpointFile == null || precCacheFile == null,
+				"Checkpointing and precision cache cannot be combined.");
 		final ItpSolver solver = solverFactory.createItpSolver();
+		final Solver abstrSolver = solverCacheCapacity > 0
+				? CachingSolverFactory.create(solverFactory, solverCacheCapacity).createSolver()
+				: solver;
 		final LTS<State, StsAction> lts = StsLts.create(sts);
 		final Expr<BoolType> init = sts.getInit();
 		final Expr<BoolType> negProp = Not(sts.getProp());
 
 		if (domain == Domain.EXPL) {
-			final Predicate<ExplState> target = new ExplStatePredicate(negProp, solver);
-			final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(solver, init);
+			final Predicate<ExplState> target = new ExplStatePredicate(negProp, abstrSolver);
+			final Analysis<ExplState, ExprAction, ExplPrec> analysis = ExplAnalysis.create(abstrSolver, init);
 			final ArgBuilder<ExplState, StsAction, ExplPrec> argBuilder = ArgBuilder.create(lts, analysis, target,
 					true);
 			final Abstractor<ExplState, StsAction, ExplPrec> abstractor = BasicAbstractor.builder(argBuilder)
@@ -187,6 +231,11 @@ public final class StsConfigBuilder {
 				refiner = SingleExprTraceRefiner.create(ExprTraceBwBinItpChecker.create(init, negProp, solver),
 						JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
 				break;
+			case PAR_BIN_ITP:
+				refiner = SingleExprTraceRefiner.create(
+						ExprTraceCombinedCheckers.createParallelBwFwMinPrune(init, negProp, solverFactory),
+						JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
+				break;
 			case SEQ_ITP:
 				refiner = SingleExprTraceRefiner.create(ExprTraceSeqItpChecker.create(init, negProp, solver),
 						JoiningPrecRefiner.create(new ItpRefToExplPrec()), logger);
@@ -200,28 +249,41 @@ public final class StsConfigBuilder {
 						domain + " domain does not support " + refinement + " refinement.");
 			}
 
-			final SafetyChecker<ExplState, StsAction, ExplPrec> checker = CegarChecker.create(abstractor, refiner,
-					logger);
+			final SafetyChecker<ExplState, StsAction, ExplPrec> checker;
+			if (checkpointFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger, FileCheckpointer.create(checkpointFile,
+						checkpointPeriod, resume, checkpointFingerprint(), lts, Codecs.explState(), Codecs.explPrec(),
+						sts.getVars()));
+			} else if (precCacheFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger,
+						PrecCache.create(precCacheFile, modelHash, PrecFormats.expl(), sts.getVars(), logger));
+			} else {
+				checker = CegarChecker.create(abstractor, refiner, logger);
+			}
 			final ExplPrec prec = initPrec.builder.createExpl(sts);
 			return Config.create(checker, prec);
 
-		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT) {
+		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT
+				|| domain == Domain.PRED_BDD) {
 			PredAbstractor predAbstractor = null;
 			switch (domain) {
 			case PRED_BOOL:
-				predAbstractor = PredAbstractors.booleanAbstractor(solver);
+				predAbstractor = PredAbstractors.booleanAbstractor(abstrSolver);
 				break;
 			case PRED_SPLIT:
-				predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
+				predAbstractor = PredAbstractors.booleanSplitAbstractor(abstrSolver);
+				break;
+			case PRED_BDD:
+				predAbstractor = PredAbstractors.bddAbstractor(abstrSolver);
 				break;
 			case PRED_CART:
-				predAbstractor = PredAbstractors.cartesianAbstractor(solver);
+				predAbstractor = PredAbstractors.cartesianAbstractor(abstrSolver);
 				break;
 			default:
 				throw new UnsupportedOperationException(domain + " domain is not supported.");
 			}
-			final Predicate<ExprState> target = new ExprStatePredicate(negProp, solver);
-			final Analysis<PredState, ExprAction, PredPrec> analysis = PredAnalysis.create(solver, predAbstractor,
+			final Predicate<ExprState> target = new ExprStatePredicate(negProp, abstrSolver);
+			final Analysis<PredState, ExprAction, PredPrec> analysis = PredAnalysis.create(abstrSolver, predAbstractor,
 					init);
 			final ArgBuilder<PredState, StsAction, PredPrec> argBuilder = ArgBuilder.create(lts, analysis, target,
 					true);
@@ -236,6 +298,9 @@ public final class StsConfigBuilder {
 			case BW_BIN_ITP:
 				exprTraceChecker = ExprTraceBwBinItpChecker.create(init, negProp, solver);
 				break;
+			case PAR_BIN_ITP:
+				exprTraceChecker = ExprTraceCombinedCheckers.createParallelBwFwMinPrune(init, negProp, solverFactory);
+				break;
 			case SEQ_ITP:
 				exprTraceChecker = ExprTraceSeqItpChecker.create(init, negProp, solver);
 				break;
@@ -246,8 +311,17 @@ public final class StsConfigBuilder {
 			final Refiner<PredState, StsAction, PredPrec> refiner = SingleExprTraceRefiner.create(exprTraceChecker,
 					JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)), logger);
 
-			final SafetyChecker<PredState, StsAction, PredPrec> checker = CegarChecker.create(abstractor, refiner,
-					logger);
+			final SafetyChecker<PredState, StsAction, PredPrec> checker;
+			if (checkpointFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger, FileCheckpointer.create(checkpointFile,
+						checkpointPeriod, resume, checkpointFingerprint(), lts, Codecs.predState(), Codecs.predPrec(),
+						sts.getVars()));
+			} else if (precCacheFile != null) {
+				checker = CegarChecker.create(abstractor, refiner, logger,
+						PrecCache.create(precCacheFile, modelHash, PrecFormats.pred(), sts.getVars(), logger));
+			} else {
+				checker = CegarChecker.create(abstractor, refiner, logger);
+			}
 
 			final PredPrec prec = initPrec.builder.createPred(sts);
 			return Config.create(checker, prec);
@@ -255,4 +329,9 @@ public final class StsConfigBuilder {
 			throw new UnsupportedOperationException(domain + " domain is not supported.");
 		}
 	}
+
+	// Every option that changes the shape of the states
+	private String checkpointFingerprint() {
+		return modelHash + " " + domain + " " + refinement + " " + predSplit;
+	}
 }
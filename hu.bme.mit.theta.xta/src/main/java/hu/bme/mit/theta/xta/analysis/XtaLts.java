@@ -20,21 +20,36 @@ import static hu.bme.mit.theta.xta.XtaProcess.LocKind.COMMITTED;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
 
 import hu.bme.mit.theta.analysis.LTS;
 import hu.bme.mit.theta.xta.Label;
 import hu.bme.mit.theta.xta.Sync;
-import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.Sync.Kind;
+import hu.bme.mit.theta.xta.XtaProcess;
 import hu.bme.mit.theta.xta.XtaProcess.Edge;
 import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
 
 public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 
 	private final XtaSystem system;
+	private final Map<Label, List<Integer>> labelToRecvProcesses;
+	private final Map<Loc, Map<Label, List<Edge>>> locToRecvEdges;
+	private final Map<List<Loc>, Collection<XtaAction>> locsToActions;
 
 	private XtaLts(final XtaSystem system) {
 		this.system = checkNotNull(system);
+		labelToRecvProcesses = new HashMap<>();
+		locToRecvEdges = new HashMap<>();
+		locsToActions = new ConcurrentHashMap<>();
+		indexRecvEdges();
 	}
 
 	public static XtaLts create(final XtaSystem system) {
@@ -43,26 +58,54 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 
 	@Override
 	public Collection<XtaAction> getEnabledActionsFor(final XtaState<?> state) {
-		final Collection<XtaAction> result = new ArrayList<>();
+		// Enabled actions only depend on the locations
+		return locsToActions.computeIfAbsent(state.getLocs(), locs -> createActions(state));
+	}
+
+	////
+
+	private void indexRecvEdges() {
+		final List<XtaProcess> processes = system.getProcesses();
+		for (int i = 0; i < processes.size(); i++) {
+			for (final Loc loc : processes.get(i).getLocs()) {
+				final Map<Label, List<Edge>> recvEdges = new HashMap<>();
+				for (final Edge edge : loc.getOutEdges()) {
+					if (edge.getSync().isPresent() && edge.getSync().get().getKind() == Kind.RECV) {
+						final Label label = edge.getSync().get().getLabel();
+						recvEdges.computeIfAbsent(label, l -> new ArrayList<>()).add(edge);
+						final List<Integer> recvProcesses = labelToRecvProcesses.computeIfAbsent(label,
+								l -> new ArrayList<>());
+						if (!recvProcesses.contains(i)) {
+							recvProcesses.add(i);
+						}
+					}
+				}
+				locToRecvEdges.put(loc, recvEdges);
+			}
+		}
+	}
+
+	private Collection<XtaAction> createActions(final XtaState<?> state) {
+		final ImmutableList.Builder<XtaAction> builder = ImmutableList.builder();
 		for (final Loc loc : state.getLocs()) {
 			for (final Edge edge : loc.getOutEdges()) {
-				addActionsForEdge(result, system, state, edge);
+				addActionsForEdge(builder, state, edge);
 			}
 		}
-		return result;
+		return builder.build();
 	}
 
-	private static void addActionsForEdge(final Collection<XtaAction> result, final XtaSystem system,
-			final XtaState<?> state, final Edge edge) {
+	private void addActionsForEdge(final ImmutableList.Builder<XtaAction> builder, final XtaState<?> state,
+			final Edge edge) {
 		if (edge.getSync().isPresent()) {
-			addSyncActionsForEdge(result, system, state, edge);
+			addSyncActionsForEdge(builder, state, edge);
 		} else {
-			addSimpleActionsForEdge(result, system, state, edge);
+			addSimpleActionsForEdge(builder, state, edge);
 		}
 	}
 
-	private static void addSyncActionsForEdge(final Collection<XtaAction> result, final XtaSystem system,
-			final XtaState<?> state, final Edge emitEdge) {
+	private void addSyncActionsForEdge(final ImmutableList.Builder<XtaAction> builder, final XtaState<?> state,
+			final Edge emitEdge) {
 
 		final Loc emitLoc = emitEdge.getSource();
 		final Sync emitSync = emitEdge.getSync().get();
@@ -71,8 +114,10 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 		}
 
 		final Label emitLabel = emitSync.getLabel();
+		final List<Integer> recvProcesses = labelToRecvProcesses.getOrDefault(emitLabel, Collections.emptyList());
 
-		for (final Loc recvLoc : state.getLocs()) {
+		for (final int i : recvProcesses) {
+			final Loc recvLoc = state.getLocs().get(i);
 			if (recvLoc == emitLoc) {
 				continue;
 			}
@@ -81,34 +126,22 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 				continue;
 			}
 
-			for (final Edge recvEdge : recvLoc.getOutEdges()) {
-				if (!recvEdge.getSync().isPresent()) {
-					continue;
-				}
-
-				final Sync recvSync = recvEdge.getSync().get();
-				if (recvSync.getKind() != Kind.RECV) {
-					continue;
-				}
-
-				final Label recvLabel = recvSync.getLabel();
-
-				if (emitLabel.equals(recvLabel)) {
-					final XtaAction action = XtaAction.synced(system, state.getLocs(), emitEdge, recvEdge);
-					result.add(action);
-				}
+			final List<Edge> recvEdges = locToRecvEdges.get(recvLoc).getOrDefault(emitLabel, Collections.emptyList());
+			for (final Edge recvEdge : recvEdges) {
+				final XtaAction action = XtaAction.synced(system, state.getLocs(), emitEdge, recvEdge);
+				builder.add(action);
 			}
 		}
 	}
 
-	private static void addSimpleActionsForEdge(final Collection<XtaAction> result, final XtaSystem system,
-			final XtaState<?> state, final Edge edge) {
+	private void addSimpleActionsForEdge(final ImmutableList.Builder<XtaAction> builder, final XtaState<?> state,
+			final Edge edge) {
 		final Loc loc = edge.getSource();
 		if (state.isCommitted() && loc.getKind() != COMMITTED) {
 			return;
 		}
 		final XtaAction action = XtaAction.simple(system, state.getLocs(), edge);
-		result.add(action);
+		builder.add(action);
 	}
 
 }
@@ -0,0 +1,257 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Geq;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Gt;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Leq;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Lt;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Neq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+
+// Location and data reachability query over an XTA system, e.g. 'E<> P_1.cs && P_2.cs'.
+// Atoms are locations (process.loc), boolean variables and comparisons of integer
+// variables and literals, where variables local to a process are written as
+// process.var. Atoms can be combined with !, &&, || and parentheses.
+public final class XtaQuery {
+
+	private final String text;
+	private final Formula formula;
+
+	private XtaQuery(final String text, final Formula formula) {
+		this.text = text;
+		this.formula = formula;
+	}
+
+	public static XtaQuery parse(final XtaSystem system, final String text) {
+		checkNotNull(system);
+		checkNotNull(text);
+		final Formula formula = new Parser(system, text).parse();
+		return new XtaQuery(text.trim(), formula);
+	}
+
+	public boolean isSatisfiedBy(final List<Loc> locs, final Valuation val) {
+		checkNotNull(locs);
+		checkNotNull(val);
+		return formula.eval(locs, val);
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+	////
+
+	private interface Formula {
+		boolean eval(List<Loc> locs, Valuation val);
+	}
+
+	private static final class Parser {
+		private static final Pattern TOKEN = Pattern
+				.compile("\\s*(E<>|&&|\\|\\||==|!=|<=|>=|<|>|!|\\(|\\)|-?[0-9]+|[A-Za-z_][A-Za-z0-9_.]*)");
+
+		private final XtaSystem system;
+		private final List<String> tokens;
+		private int pos;
+
+		private Parser(final XtaSystem system, final String text) {
+			this.system = system;
+			tokens = tokenize(text);
+			pos = 0;
+		}
+
+		private static List<String> tokenize(final String text) {
+			final List<String> result = new ArrayList<>();
+			final Matcher matcher = TOKEN.matcher(text);
+			int end = 0;
+			while (end < text.length() && matcher.find(end) && matcher.start() == end) {
+				result.add(matcher.group(1));
+				end = matcher.end();
+			}
+			checkArgument(text.substring(end).trim().isEmpty(), "Invalid query at: " + text.substring(end).trim());
+			return result;
+		}
+
+		private Formula parse() {
+			accept("E<>");
+			final Formula formula = parseOr();
+			checkArgument(pos == tokens.size(), "Unexpected token in query: " + peek());
+			return formula;
+		}
+
+		private Formula parseOr() {
+			final Formula left = parseAnd();
+			if (accept("||") || accept("or")) {
+				final Formula right = parseOr();
+				return (locs, val) -> left.eval(locs, val) || right.eval(locs, val);
+			}
+			return left;
+		}
+
+		private Formula parseAnd() {
+			final Formula left = parseUnary();
+			if (accept("&&") || accept("and")) {
+				final Formula right = parseAnd();
+				return (locs, val) -> left.eval(locs, val) && right.eval(locs, val);
+			}
+			return left;
+		}
+
+		private Formula parseUnary() {
+			if (accept("!") || accept("not")) {
+				final Formula op = parseUnary();
+				return (locs, val) -> !op.eval(locs, val);
+			} else if (accept("(")) {
+				final Formula formula = parseOr();
+				expect(")");
+				return formula;
+			} else {
+				return parseAtom();
+			}
+		}
+
+		private Formula parseAtom() {
+			final String name = next();
+			if (!isComparison(peek())) {
+				final Optional<Formula> locAtom = resolveLoc(name);
+				if (locAtom.isPresent()) {
+					return locAtom.get();
+				}
+			}
+
+			final Expr<?> left = parseTerm(name);
+			if (!isComparison(peek())) {
+				checkArgument(left.getType() instanceof BoolType, "Not a location or boolean variable: " + name);
+				@SuppressWarnings("unchecked")
+				final Expr<BoolType> expr = (Expr<BoolType>) left;
+				return (locs, val) -> ((BoolLitExpr) expr.eval(val)).getValue();
+			}
+
+			final String op = next();
+			final Expr<?> right = parseTerm(next());
+			checkArgument(left.getType().equals(right.getType()), "Type mismatch in query: " + name + " " + op);
+			checkArgument(op.equals("==") || op.equals("!=") || left.getType() instanceof IntType,
+					"Ordering on non-integer operands in query: " + name + " " + op);
+			final Expr<BoolType> expr = createComparison(op, left, right);
+			return (locs, val) -> ((BoolLitExpr) expr.eval(val)).getValue();
+		}
+
+		private Expr<?> parseTerm(final String token) {
+			if (token.matches("-?[0-9]+")) {
+				return Int(Integer.parseInt(token));
+			}
+			return resolveVar(token).getRef();
+		}
+
+		private Optional<Formula> resolveLoc(final String name) {
+			final int dot = name.indexOf('.');
+			if (dot < 0) {
+				return Optional.empty();
+			}
+			final String processName = name.substring(0, dot);
+			final String locName = processName + "_" + name.substring(dot + 1);
+			final List<XtaProcess> processes = system.getProcesses();
+			for (int i = 0; i < processes.size(); i++) {
+				if (processes.get(i).getName().equals(processName)) {
+					for (final Loc loc : processes.get(i).getLocs()) {
+						if (loc.getName().equals(locName)) {
+							final int index = i;
+							return Optional.of((locs, val) -> locs.get(index) == loc);
+						}
+					}
+				}
+			}
+			return Optional.empty();
+		}
+
+		private VarDecl<?> resolveVar(final String name) {
+			final String varName = name.replace('.', '_');
+			for (final VarDecl<?> var : system.getDataVars()) {
+				if (var.getName().equals(varName)) {
+					return var;
+				}
+			}
+			throw new IllegalArgumentException("Unknown location or variable in query: " + name);
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Expr<BoolType> createComparison(final String op, final Expr<?> left, final Expr<?> right) {
+			switch (op) {
+			case "==":
+				return (Expr<BoolType>) Eq(left, right);
+			case "!=":
+				return (Expr<BoolType>) Neq(left, right);
+			case "<":
+				return (Expr<BoolType>) Lt(left, right);
+			case "<=":
+				return (Expr<BoolType>) Leq(left, right);
+			case ">":
+				return (Expr<BoolType>) Gt(left, right);
+			case ">=":
+				return (Expr<BoolType>) Geq(left, right);
+			default:
+				throw new AssertionError();
+			}
+		}
+
+		private static boolean isComparison(final String token) {
+			return token.equals("==") || token.equals("!=") || token.equals("<") || token.equals("<=")
+					|| token.equals(">") || token.equals(">=");
+		}
+
+		private String peek() {
+			return pos < tokens.size() ? tokens.get(pos) : "";
+		}
+
+		private String next() {
+			checkArgument(pos < tokens.size(), "Unexpected end of query");
+			return tokens.get(pos++);
+		}
+
+		private boolean accept(final String token) {
+			if (peek().equals(token)) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(final String token) {
+			checkArgument(accept(token), "Expected " + token + " in query instead of " + peek());
+		}
+	}
+
+}
@@ -0,0 +1,518 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.stmt.AssignStmt;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.IffExpr;
+import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.booltype.OrExpr;
+import hu.bme.mit.theta.core.type.booltype.XorExpr;
+import hu.bme.mit.theta.core.type.inttype.IntEqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.xta.Guard;
+import hu.bme.mit.theta.xta.Sync;
+import hu.bme.mit.theta.xta.Update;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+
+public final class XtaSymmetry {
+
+	private final int nProcesses;
+	private final List<List<Member>> groups;
+	private final Map<Loc, Integer> locToRank;
+
+	private XtaSymmetry(final XtaSystem system) {
+		checkNotNull(system);
+		nProcesses = system.getProcesses().size();
+		groups = detectGroups(system);
+		locToRank = new HashMap<>();
+		for (final List<Member> group : groups) {
+			for (final Member member : group) {
+				for (int i = 0; i < member.locs.size(); i++) {
+					locToRank.put(member.locs.get(i), i);
+				}
+			}
+		}
+	}
+
+	public static XtaSymmetry create(final XtaSystem system) {
+		return new XtaSymmetry(system);
+	}
+
+	public boolean isTrivial() {
+		return groups.isEmpty();
+	}
+
+	public List<List<XtaProcess>> getGroups() {
+		return groups.stream().map(g -> g.stream().map(m -> m.process).collect(toList())).collect(toList());
+	}
+
+	public Permutation getCanonicalPermutation(final List<Loc> locs) {
+		checkNotNull(locs);
+		checkArgument(locs.size() == nProcesses);
+
+		final int[] positions = new int[nProcesses];
+		Arrays.setAll(positions, i -> i);
+		final Map<Loc, Loc> locMap = new HashMap<>();
+		final Map<VarDecl<?>, VarDecl<?>> varMap = new HashMap<>();
+		final Map<VarDecl<RatType>, VarDecl<RatType>> clockMap = new HashMap<>();
+		final Map<Integer, Integer> valueMap = new HashMap<>();
+
+		for (final List<Member> group : groups) {
+			final List<Member> sorted = new ArrayList<>(group);
+			sorted.sort(comparingInt(m -> locToRank.get(locs.get(m.index))));
+
+			for (int i = 0; i < group.size(); i++) {
+				final Member source = sorted.get(i);
+				final Member target = group.get(i);
+				if (source != target) {
+					positions[source.index] = target.index;
+					putAll(locMap, source.locs, target.locs);
+					putAll(varMap, source.dataVars, target.dataVars);
+					putAll(clockMap, source.clockVars, target.clockVars);
+					source.pid.ifPresent(pid -> valueMap.put(pid, target.pid.get()));
+				}
+			}
+		}
+
+		return new Permutation(positions, locMap, varMap, clockMap, valueMap);
+	}
+
+	private static <T> void putAll(final Map<? super T, ? super T> map, final List<? extends T> keys,
+			final List<? extends T> values) {
+		for (int i = 0; i < keys.size(); i++) {
+			map.put(keys.get(i), values.get(i));
+		}
+	}
+
+	////
+
+	private static List<List<Member>> detectGroups(final XtaSystem system) {
+		final List<XtaProcess> processes = system.getProcesses();
+		final List<Member> members = new ArrayList<>();
+		for (int i = 0; i < processes.size(); i++) {
+			members.add(new Member(i, processes.get(i)));
+		}
+
+		// Process identifiers can only be permuted if data is only compared for (dis)equality
+		final boolean scalarSafe = processes.stream().allMatch(XtaSymmetry::isScalarSafe);
+
+		final List<List<Member>> groups = new ArrayList<>();
+		final Set<Member> grouped = new HashSet<>();
+		for (final Member base : members) {
+			if (grouped.contains(base)) {
+				continue;
+			}
+
+			final List<Member> group = new ArrayList<>();
+			group.add(base);
+			final Set<Integer> pids = new HashSet<>();
+
+			for (final Member member : members) {
+				if (member.index <= base.index || grouped.contains(member) || !base.hasSameShape(member)) {
+					continue;
+				}
+
+				final Set<Integer> baseOnly = new HashSet<>(base.literals);
+				baseOnly.removeAll(member.literals);
+				final Set<Integer> memberOnly = new HashSet<>(member.literals);
+				memberOnly.removeAll(base.literals);
+
+				final Optional<Integer> basePid;
+				final Optional<Integer> memberPid;
+				if (baseOnly.isEmpty() && memberOnly.isEmpty()) {
+					basePid = Optional.empty();
+					memberPid = Optional.empty();
+				} else if (baseOnly.size() == 1 && memberOnly.size() == 1) {
+					basePid = Optional.of(baseOnly.iterator().next());
+					memberPid = Optional.of(memberOnly.iterator().next());
+				} else {
+					continue;
+				}
+
+				if (group.size() > 1 && basePid.isPresent() != group.get(1).pid.isPresent()) {
+					continue;
+				}
+
+				if (basePid.isPresent()) {
+					final int a = basePid.get();
+					final int b = memberPid.get();
+					// Every data variable is initially zero, so zero has to be a fixpoint
+					if (!scalarSafe || a == 0 || b == 0 || pids.contains(b)) {
+						continue;
+					}
+					if (group.size() > 1 && !group.get(0).pid.get().equals(a)) {
+						continue;
+					}
+					if (members.stream().filter(m -> m != base && m != member)
+							.anyMatch(m -> m.literals.contains(a) || m.literals.contains(b))) {
+						continue;
+					}
+				}
+
+				final IntUnaryOperator values = swap(basePid, memberPid);
+				if (isSwappable(base, member, values)) {
+					if (group.size() == 1) {
+						base.pid = basePid;
+						basePid.ifPresent(pids::add);
+					}
+					member.pid = memberPid;
+					memberPid.ifPresent(pids::add);
+					group.add(member);
+				}
+			}
+
+			if (group.size() > 1) {
+				grouped.addAll(group);
+				groups.add(ImmutableList.copyOf(group));
+			}
+		}
+
+		return ImmutableList.copyOf(groups);
+	}
+
+	private static IntUnaryOperator swap(final Optional<Integer> a, final Optional<Integer> b) {
+		if (a.isPresent()) {
+			final int x = a.get();
+			final int y = b.get();
+			return v -> v == x ? y : v == y ? x : v;
+		} else {
+			return v -> v;
+		}
+	}
+
+	// Checks whether exchanging the two processes maps the system onto itself
+	private static boolean isSwappable(final Member member1, final Member member2, final IntUnaryOperator values) {
+		final Map<VarDecl<?>, VarDecl<?>> renaming = new HashMap<>();
+		putAll(renaming, member1.dataVars, member2.dataVars);
+		putAll(renaming, member2.dataVars, member1.dataVars);
+		putAll(renaming, member1.clockVars, member2.clockVars);
+		putAll(renaming, member2.clockVars, member1.clockVars);
+
+		if (member1.locs.indexOf(member1.process.getInitLoc()) != member2.locs
+				.indexOf(member2.process.getInitLoc())) {
+			return false;
+		}
+
+		for (int i = 0; i < member1.locs.size(); i++) {
+			final Loc loc1 = member1.locs.get(i);
+			final Loc loc2 = member2.locs.get(i);
+			if (loc1.getKind() != loc2.getKind()) {
+				return false;
+			}
+			if (!guardsMatch(loc1.getInvars(), loc2.getInvars(), renaming, values)) {
+				return false;
+			}
+			if (loc1.getOutEdges().size() != loc2.getOutEdges().size()) {
+				return false;
+			}
+
+			final Iterator<Edge> edges1 = loc1.getOutEdges().iterator();
+			final Iterator<Edge> edges2 = loc2.getOutEdges().iterator();
+			while (edges1.hasNext()) {
+				final Edge edge1 = edges1.next();
+				final Edge edge2 = edges2.next();
+				if (member1.locs.indexOf(edge1.getTarget()) != member2.locs.indexOf(edge2.getTarget())) {
+					return false;
+				}
+				if (!guardsMatch(edge1.getGuards(), edge2.getGuards(), renaming, values)) {
+					return false;
+				}
+				if (!syncsMatch(edge1.getSync(), edge2.getSync(), renaming, values)) {
+					return false;
+				}
+				if (!updatesMatch(edge1.getUpdates(), edge2.getUpdates(), renaming, values)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean guardsMatch(final Collection<Guard> guards1, final Collection<Guard> guards2,
+			final Map<VarDecl<?>, VarDecl<?>> renaming, final IntUnaryOperator values) {
+		// Guards of different instances are not necessarily listed in the same order
+		final Set<Expr<?>> exprs1 = guards1.stream().map(g -> transform(g.toExpr(), renaming, values))
+				.collect(toSet());
+		final Set<Expr<?>> exprs2 = guards2.stream().map(Guard::toExpr).collect(toSet());
+		return guards1.size() == guards2.size() && exprs1.equals(exprs2);
+	}
+
+	private static boolean syncsMatch(final Optional<Sync> sync1, final Optional<Sync> sync2,
+			final Map<VarDecl<?>, VarDecl<?>> renaming, final IntUnaryOperator values) {
+		if (!sync1.isPresent() || !sync2.isPresent()) {
+			return sync1.isPresent() == sync2.isPresent();
+		}
+		if (!sync1.get().getLabel().equals(sync2.get().getLabel())
+				|| sync1.get().getKind() != sync2.get().getKind()) {
+			return false;
+		}
+		final List<Expr<?>> args1 = sync1.get().getArgs().stream().map(a -> transform(a, renaming, values))
+				.collect(toList());
+		return args1.equals(sync2.get().getArgs());
+	}
+
+	private static boolean updatesMatch(final List<Update> updates1, final List<Update> updates2,
+			final Map<VarDecl<?>, VarDecl<?>> renaming, final IntUnaryOperator values) {
+		if (updates1.size() != updates2.size()) {
+			return false;
+		}
+		for (int i = 0; i < updates1.size(); i++) {
+			final Stmt stmt1 = updates1.get(i).toStmt();
+			final Stmt stmt2 = updates2.get(i).toStmt();
+			if (!(stmt1 instanceof AssignStmt)) {
+				return false;
+			}
+			final AssignStmt<?> assign1 = (AssignStmt<?>) stmt1;
+			final VarDecl<?> lhs = renaming.getOrDefault(assign1.getVarDecl(), assign1.getVarDecl());
+			final Expr<?> rhs = transform(assign1.getExpr(), renaming, values);
+			if (!AssignStmt.create(lhs, rhs).equals(stmt2)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static <T extends Type> Expr<T> transform(final Expr<T> expr, final Map<VarDecl<?>, VarDecl<?>> renaming,
+			final IntUnaryOperator values) {
+		if (expr instanceof RefExpr) {
+			final Decl<T> decl = ((RefExpr<T>) expr).getDecl();
+			final VarDecl<?> newDecl = renaming.get(decl);
+			if (newDecl != null) {
+				return TypeUtils.cast(newDecl.getRef(), expr.getType());
+			} else {
+				return expr;
+			}
+		} else if (expr instanceof IntLitExpr) {
+			final int value = ((IntLitExpr) expr).getValue();
+			return TypeUtils.cast(Int(values.applyAsInt(value)), expr.getType());
+		} else {
+			return expr.map(op -> transform(op, renaming, values));
+		}
+	}
+
+	////
+
+	private static boolean isScalarSafe(final XtaProcess process) {
+		for (final Loc loc : process.getLocs()) {
+			for (final Guard invar : loc.getInvars()) {
+				if (invar.isDataGuard() && !isScalarSafe(invar.toExpr())) {
+					return false;
+				}
+			}
+			for (final Edge edge : loc.getOutEdges()) {
+				for (final Guard guard : edge.getGuards()) {
+					if (guard.isDataGuard() && !isScalarSafe(guard.toExpr())) {
+						return false;
+					}
+				}
+				if (edge.getSync().isPresent()
+						&& !edge.getSync().get().getArgs().stream().allMatch(XtaSymmetry::isScalarSafe)) {
+					return false;
+				}
+				for (final Update update : edge.getUpdates()) {
+					if (update.isDataUpdate()) {
+						final Stmt stmt = update.toStmt();
+						if (!(stmt instanceof AssignStmt) || !isScalarSafe(((AssignStmt<?>) stmt).getExpr())) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isScalarSafe(final Expr<?> expr) {
+		if (expr instanceof RefExpr || expr instanceof IntLitExpr || expr instanceof BoolLitExpr) {
+			return true;
+		} else if (expr.getType() instanceof IntType) {
+			return false;
+		} else if (expr instanceof IntEqExpr || expr instanceof IntNeqExpr || expr instanceof NotExpr
+				|| expr instanceof AndExpr || expr instanceof OrExpr || expr instanceof ImplyExpr
+				|| expr instanceof IffExpr || expr instanceof XorExpr) {
+			return expr.getOps().stream().allMatch(XtaSymmetry::isScalarSafe);
+		} else {
+			return false;
+		}
+	}
+
+	private static void collectLiterals(final Expr<?> expr, final Collection<Integer> literals) {
+		if (expr instanceof IntLitExpr) {
+			literals.add(((IntLitExpr) expr).getValue());
+		} else {
+			expr.getOps().forEach(op -> collectLiterals(op, literals));
+		}
+	}
+
+	////
+
+	private static final class Member {
+		private final int index;
+		private final XtaProcess process;
+		private final List<Loc> locs;
+		private final List<VarDecl<?>> dataVars;
+		private final List<VarDecl<RatType>> clockVars;
+		private final List<String> localNames;
+		private final Set<Integer> literals;
+		private Optional<Integer> pid;
+
+		private Member(final int index, final XtaProcess process) {
+			this.index = index;
+			this.process = process;
+			final String prefix = process.getName() + "_";
+			locs = process.getLocs().stream().sorted(comparing(Loc::getName)).collect(toList());
+			dataVars = process.getDataVars().stream().filter(v -> v.getName().startsWith(prefix))
+					.sorted(comparing(VarDecl::getName)).collect(toList());
+			clockVars = process.getClockVars().stream().filter(v -> v.getName().startsWith(prefix))
+					.sorted(comparing(VarDecl::getName)).collect(toList());
+			final List<String> names = new ArrayList<>();
+			locs.forEach(l -> names.add(l.getName().substring(prefix.length())));
+			names.add("");
+			dataVars.forEach(v -> names.add(v.getName().substring(prefix.length())));
+			names.add("");
+			clockVars.forEach(v -> names.add(v.getName().substring(prefix.length())));
+			localNames = names;
+			literals = collectDataLiterals(process);
+			pid = Optional.empty();
+		}
+
+		private boolean hasSameShape(final Member that) {
+			return this.localNames.equals(that.localNames);
+		}
+
+		private static Set<Integer> collectDataLiterals(final XtaProcess process) {
+			final Set<Integer> literals = new HashSet<>();
+			for (final Loc loc : process.getLocs()) {
+				for (final Guard invar : loc.getInvars()) {
+					if (invar.isDataGuard()) {
+						collectLiterals(invar.toExpr(), literals);
+					}
+				}
+				for (final Edge edge : loc.getOutEdges()) {
+					for (final Guard guard : edge.getGuards()) {
+						if (guard.isDataGuard()) {
+							collectLiterals(guard.toExpr(), literals);
+						}
+					}
+					edge.getSync().ifPresent(s -> s.getArgs().forEach(a -> collectLiterals(a, literals)));
+					for (final Update update : edge.getUpdates()) {
+						if (update.isDataUpdate() && update.toStmt() instanceof AssignStmt) {
+							collectLiterals(((AssignStmt<?>) update.toStmt()).getExpr(), literals);
+						}
+					}
+				}
+			}
+			return Collections.unmodifiableSet(literals);
+		}
+	}
+
+	////
+
+	public static final class Permutation {
+		private final int[] positions;
+		private final Map<Loc, Loc> locMap;
+		private final Map<VarDecl<?>, VarDecl<?>> varMap;
+		private final Map<VarDecl<RatType>, VarDecl<RatType>> clockMap;
+		private final Map<Integer, Integer> valueMap;
+
+		private Permutation(final int[] positions, final Map<Loc, Loc> locMap,
+				final Map<VarDecl<?>, VarDecl<?>> varMap, final Map<VarDecl<RatType>, VarDecl<RatType>> clockMap,
+				final Map<Integer, Integer> valueMap) {
+			this.positions = positions;
+			this.locMap = locMap;
+			this.varMap = varMap;
+			this.clockMap = clockMap;
+			this.valueMap = valueMap;
+		}
+
+		public boolean isIdentity() {
+			return locMap.isEmpty() && varMap.isEmpty() && clockMap.isEmpty() && valueMap.isEmpty();
+		}
+
+		public List<Loc> permuteLocs(final List<Loc> locs) {
+			checkArgument(locs.size() == positions.length);
+			final Loc[] result = new Loc[positions.length];
+			for (int i = 0; i < positions.length; i++) {
+				final Loc loc = locs.get(i);
+				result[positions[i]] = locMap.getOrDefault(loc, loc);
+			}
+			return ImmutableList.copyOf(result);
+		}
+
+		public Valuation permuteVal(final Valuation val) {
+			final MutableValuation result = new MutableValuation();
+			for (final Decl<?> decl : val.getDecls()) {
+				final LitExpr<?> value = val.eval(decl).get();
+				final Decl<?> newDecl = varMap.containsKey(decl) ? varMap.get(decl) : decl;
+				if (value instanceof IntLitExpr) {
+					final int intValue = ((IntLitExpr) value).getValue();
+					result.put(newDecl, Int(valueMap.getOrDefault(intValue, intValue)));
+				} else {
+					result.put(newDecl, value);
+				}
+			}
+			return result;
+		}
+
+		public Map<VarDecl<RatType>, VarDecl<RatType>> getClockRenaming() {
+			return Collections.unmodifiableMap(clockMap);
+		}
+	}
+
+}
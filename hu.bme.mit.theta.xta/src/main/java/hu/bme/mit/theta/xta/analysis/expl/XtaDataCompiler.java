@@ -0,0 +1,567 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.expl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.stmt.AssignStmt;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.IffExpr;
+import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.booltype.OrExpr;
+import hu.bme.mit.theta.core.type.booltype.XorExpr;
+import hu.bme.mit.theta.core.type.inttype.IntAddExpr;
+import hu.bme.mit.theta.core.type.inttype.IntDivExpr;
+import hu.bme.mit.theta.core.type.inttype.IntEqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntMulExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNegExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntSubExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.inttype.ModExpr;
+import hu.bme.mit.theta.core.type.inttype.RemExpr;
+import hu.bme.mit.theta.xta.Guard;
+import hu.bme.mit.theta.xta.Update;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaAction.BasicXtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaAction.SyncedXtaAction;
+
+// Compiles the data guards, invariants and updates of a system to closures
+// over the int vector of an XtaDataVector. Edges and locations containing
+// expressions that can not be compiled are handled by XtaExplUtils.
+final class XtaDataCompiler {
+
+	private static final Set<Class<?>> COMPILED_OPS = ImmutableSet.of(NotExpr.class, AndExpr.class, OrExpr.class,
+			ImplyExpr.class, IffExpr.class, XorExpr.class, IntEqExpr.class, IntNeqExpr.class, IntLtExpr.class,
+			IntLeqExpr.class, IntGtExpr.class, IntGeqExpr.class, IteExpr.class, IntNegExpr.class, IntAddExpr.class,
+			IntMulExpr.class, IntSubExpr.class, IntDivExpr.class, ModExpr.class, RemExpr.class);
+
+	private final XtaDataVector.Layout layout;
+	private final Map<Edge, CompiledEdge> edgeToCompiled;
+	private final Map<Loc, Predicate<int[]>> locToInvar;
+
+	private XtaDataCompiler(final XtaSystem system) {
+		checkNotNull(system);
+		layout = XtaDataVector.Layout.create(system.getDataVars());
+		edgeToCompiled = new IdentityHashMap<>();
+		locToInvar = new IdentityHashMap<>();
+		for (final XtaProcess process : system.getProcesses()) {
+			for (final Loc loc : process.getLocs()) {
+				compileInvar(loc).ifPresent(invar -> locToInvar.put(loc, invar));
+				for (final Edge edge : loc.getOutEdges()) {
+					compileEdge(edge).ifPresent(compiled -> edgeToCompiled.put(edge, compiled));
+				}
+			}
+		}
+	}
+
+	public static XtaDataCompiler create(final XtaSystem system) {
+		return new XtaDataCompiler(system);
+	}
+
+	public ExplState getInitState() {
+		// Integers are initialized to 0 and booleans to false
+		return ExplState.wrap(XtaDataVector.of(layout, new int[layout.size()]));
+	}
+
+	// Total valuations are identified by the key of their data vector, other
+	// states by themselves
+	public Object getKey(final ExplState state) {
+		checkNotNull(state);
+		if (state.isBottom()) {
+			return state;
+		}
+		final Valuation val = state.getVal();
+		if (val instanceof XtaDataVector && ((XtaDataVector) val).getLayout() == layout) {
+			return ((XtaDataVector) val).getKey();
+		}
+		final Optional<int[]> values = layout.encode(val);
+		if (values.isPresent()) {
+			return XtaDataVector.of(layout, values.get()).getKey();
+		} else {
+			return state;
+		}
+	}
+
+	public ExplState post(final ExplState state, final XtaAction action) {
+		checkNotNull(state);
+		checkNotNull(action);
+
+		if (state.isBottom()) {
+			return XtaExplUtils.post(state, action);
+		}
+
+		final Optional<int[]> values = layout.encode(state.getVal());
+		if (!values.isPresent()) {
+			return XtaExplUtils.post(state, action);
+		}
+
+		if (action.isBasic()) {
+			return postForBasicAction(state, values.get(), action.asBasic());
+		} else if (action.isSynced()) {
+			return postForSyncedAction(state, values.get(), action.asSynced());
+		} else {
+			throw new AssertionError();
+		}
+	}
+
+	private ExplState postForBasicAction(final Valuation val, final int[] values, final BasicXtaAction action) {
+		final CompiledEdge edge = edgeToCompiled.get(action.getEdge());
+		final List<Predicate<int[]>> invars = getInvars(action.getTargetLocs());
+		if (edge == null || invars == null) {
+			return XtaExplUtils.post(val, action);
+		}
+
+		if (!edge.guard.test(values)) {
+			return ExplState.bottom();
+		}
+
+		final int[] succValues = values.clone();
+		edge.applyUpdates(succValues);
+
+		if (!checkInvars(invars, succValues)) {
+			return ExplState.bottom();
+		}
+
+		return ExplState.wrap(XtaDataVector.of(layout, succValues));
+	}
+
+	private ExplState postForSyncedAction(final Valuation val, final int[] values, final SyncedXtaAction action) {
+		final CompiledEdge emitEdge = edgeToCompiled.get(action.getEmitEdge());
+		final CompiledEdge recvEdge = edgeToCompiled.get(action.getRecvEdge());
+		final List<Predicate<int[]>> invars = getInvars(action.getTargetLocs());
+		if (emitEdge == null || recvEdge == null || invars == null) {
+			return XtaExplUtils.post(val, action);
+		}
+
+		if (!checkSync(emitEdge, recvEdge, values)) {
+			return ExplState.bottom();
+		}
+
+		if (!emitEdge.guard.test(values)) {
+			return ExplState.bottom();
+		}
+
+		if (!recvEdge.guard.test(values)) {
+			return ExplState.bottom();
+		}
+
+		final int[] succValues = values.clone();
+		emitEdge.applyUpdates(succValues);
+		recvEdge.applyUpdates(succValues);
+
+		if (!checkInvars(invars, succValues)) {
+			return ExplState.bottom();
+		}
+
+		return ExplState.wrap(XtaDataVector.of(layout, succValues));
+	}
+
+	private List<Predicate<int[]>> getInvars(final List<Loc> locs) {
+		final List<Predicate<int[]>> result = new ArrayList<>(locs.size());
+		for (final Loc loc : locs) {
+			final Predicate<int[]> invar = locToInvar.get(loc);
+			if (invar == null) {
+				return null;
+			}
+			result.add(invar);
+		}
+		return result;
+	}
+
+	private static boolean checkInvars(final List<Predicate<int[]>> invars, final int[] values) {
+		for (final Predicate<int[]> invar : invars) {
+			if (!invar.test(values)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean checkSync(final CompiledEdge emitEdge, final CompiledEdge recvEdge, final int[] values) {
+		final int n = Math.min(emitEdge.syncArgs.size(), recvEdge.syncArgs.size());
+		for (int i = 0; i < n; i++) {
+			if (emitEdge.syncArgs.get(i).applyAsInt(values) != recvEdge.syncArgs.get(i).applyAsInt(values)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	////
+
+	private Optional<Predicate<int[]>> compileInvar(final Loc loc) {
+		if (!canCompileGuards(loc.getInvars())) {
+			return Optional.empty();
+		}
+		return Optional.of(compileGuards(loc.getInvars()));
+	}
+
+	private Optional<CompiledEdge> compileEdge(final Edge edge) {
+		final List<Expr<?>> syncArgExprs = edge.getSync().isPresent() ? edge.getSync().get().getArgs()
+				: ImmutableList.of();
+		final List<AssignStmt<?>> dataUpdates = new ArrayList<>();
+		for (final Update update : edge.getUpdates()) {
+			if (update.isDataUpdate()) {
+				dataUpdates.add((AssignStmt<?>) update.toStmt());
+			}
+		}
+
+		if (!canCompileGuards(edge.getGuards()) || !syncArgExprs.stream().allMatch(this::canCompileValue)
+				|| !dataUpdates.stream().allMatch(this::canCompileUpdate)) {
+			return Optional.empty();
+		}
+
+		final Predicate<int[]> guard = compileGuards(edge.getGuards());
+
+		final List<ToIntFunction<int[]>> syncArgs = new ArrayList<>(syncArgExprs.size());
+		for (final Expr<?> arg : syncArgExprs) {
+			syncArgs.add(compileValue(arg));
+		}
+
+		final int[] updateSlots = new int[dataUpdates.size()];
+		final List<ToIntFunction<int[]>> updateValues = new ArrayList<>(dataUpdates.size());
+		for (int i = 0; i < updateSlots.length; i++) {
+			final AssignStmt<?> stmt = dataUpdates.get(i);
+			updateSlots[i] = getSlot(stmt.getVarDecl());
+			updateValues.add(compileValue(stmt.getExpr()));
+		}
+
+		return Optional.of(new CompiledEdge(guard, syncArgs, updateSlots, updateValues));
+	}
+
+	private Predicate<int[]> compileGuards(final Collection<Guard> guards) {
+		final List<Predicate<int[]>> preds = new ArrayList<>();
+		for (final Guard guard : guards) {
+			if (guard.isDataGuard()) {
+				preds.add(compileBool(guard.asDataGuard().toExpr()));
+			}
+		}
+		return and(preds);
+	}
+
+	private int getSlot(final Decl<?> decl) {
+		final int slot = layout.getSlot(decl);
+		checkArgument(slot >= 0, "Variable not in layout: " + decl);
+		return slot;
+	}
+
+	////
+
+	private boolean canCompileGuards(final Collection<Guard> guards) {
+		return guards.stream().filter(Guard::isDataGuard).allMatch(g -> canCompile(g.asDataGuard().toExpr()));
+	}
+
+	private boolean canCompileUpdate(final AssignStmt<?> stmt) {
+		return layout.getSlot(stmt.getVarDecl()) >= 0 && canCompileValue(stmt.getExpr());
+	}
+
+	private boolean canCompileValue(final Expr<?> expr) {
+		return (expr.getType() instanceof BoolType || expr.getType() instanceof IntType) && canCompile(expr);
+	}
+
+	// Accepts exactly the expressions handled by compileBool and compileInt
+	private boolean canCompile(final Expr<?> expr) {
+		if (expr instanceof RefExpr) {
+			return layout.getSlot(((RefExpr<?>) expr).getDecl()) >= 0;
+		} else if (expr instanceof BoolLitExpr || expr instanceof IntLitExpr) {
+			return true;
+		} else if (COMPILED_OPS.contains(expr.getClass())) {
+			return expr.getOps().stream().allMatch(this::canCompile);
+		} else {
+			return false;
+		}
+	}
+
+	////
+
+	// Booleans are represented as 0 and 1
+	private ToIntFunction<int[]> compileValue(final Expr<?> expr) {
+		if (expr.getType() instanceof BoolType) {
+			@SuppressWarnings("unchecked")
+			final Predicate<int[]> pred = compileBool((Expr<BoolType>) expr);
+			return v -> pred.test(v) ? 1 : 0;
+		} else if (expr.getType() instanceof IntType) {
+			@SuppressWarnings("unchecked")
+			final ToIntFunction<int[]> func = compileInt((Expr<IntType>) expr);
+			return func;
+		} else {
+			throw new AssertionError();
+		}
+	}
+
+	private Predicate<int[]> compileBool(final Expr<BoolType> expr) {
+		if (expr instanceof BoolLitExpr) {
+			final boolean value = ((BoolLitExpr) expr).getValue();
+			return v -> value;
+
+		} else if (expr instanceof RefExpr) {
+			final int slot = getSlot(((RefExpr<?>) expr).getDecl());
+			return v -> v[slot] != 0;
+
+		} else if (expr instanceof NotExpr) {
+			final Predicate<int[]> op = compileBool(((NotExpr) expr).getOp());
+			return v -> !op.test(v);
+
+		} else if (expr instanceof AndExpr) {
+			final List<Predicate<int[]>> ops = new ArrayList<>();
+			for (final Expr<BoolType> op : ((AndExpr) expr).getOps()) {
+				ops.add(compileBool(op));
+			}
+			return and(ops);
+
+		} else if (expr instanceof OrExpr) {
+			final List<Predicate<int[]>> ops = new ArrayList<>();
+			for (final Expr<BoolType> op : ((OrExpr) expr).getOps()) {
+				ops.add(compileBool(op));
+			}
+			return or(ops);
+
+		} else if (expr instanceof ImplyExpr) {
+			final ImplyExpr implyExpr = (ImplyExpr) expr;
+			final Predicate<int[]> left = compileBool(implyExpr.getLeftOp());
+			final Predicate<int[]> right = compileBool(implyExpr.getRightOp());
+			return v -> !left.test(v) || right.test(v);
+
+		} else if (expr instanceof IffExpr) {
+			final IffExpr iffExpr = (IffExpr) expr;
+			final Predicate<int[]> left = compileBool(iffExpr.getLeftOp());
+			final Predicate<int[]> right = compileBool(iffExpr.getRightOp());
+			return v -> left.test(v) == right.test(v);
+
+		} else if (expr instanceof XorExpr) {
+			final XorExpr xorExpr = (XorExpr) expr;
+			final Predicate<int[]> left = compileBool(xorExpr.getLeftOp());
+			final Predicate<int[]> right = compileBool(xorExpr.getRightOp());
+			return v -> left.test(v) != right.test(v);
+
+		} else if (expr instanceof IntEqExpr) {
+			final IntEqExpr eqExpr = (IntEqExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(eqExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(eqExpr.getRightOp());
+			return v -> left.applyAsInt(v) == right.applyAsInt(v);
+
+		} else if (expr instanceof IntNeqExpr) {
+			final IntNeqExpr neqExpr = (IntNeqExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(neqExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(neqExpr.getRightOp());
+			return v -> left.applyAsInt(v) != right.applyAsInt(v);
+
+		} else if (expr instanceof IntLtExpr) {
+			final IntLtExpr ltExpr = (IntLtExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(ltExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(ltExpr.getRightOp());
+			return v -> left.applyAsInt(v) < right.applyAsInt(v);
+
+		} else if (expr instanceof IntLeqExpr) {
+			final IntLeqExpr leqExpr = (IntLeqExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(leqExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(leqExpr.getRightOp());
+			return v -> left.applyAsInt(v) <= right.applyAsInt(v);
+
+		} else if (expr instanceof IntGtExpr) {
+			final IntGtExpr gtExpr = (IntGtExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(gtExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(gtExpr.getRightOp());
+			return v -> left.applyAsInt(v) > right.applyAsInt(v);
+
+		} else if (expr instanceof IntGeqExpr) {
+			final IntGeqExpr geqExpr = (IntGeqExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(geqExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(geqExpr.getRightOp());
+			return v -> left.applyAsInt(v) >= right.applyAsInt(v);
+
+		} else if (expr instanceof IteExpr) {
+			@SuppressWarnings("unchecked")
+			final IteExpr<BoolType> iteExpr = (IteExpr<BoolType>) expr;
+			final Predicate<int[]> cond = compileBool(iteExpr.getCond());
+			final Predicate<int[]> then = compileBool(iteExpr.getThen());
+			final Predicate<int[]> elze = compileBool(iteExpr.getElse());
+			return v -> cond.test(v) ? then.test(v) : elze.test(v);
+
+		} else {
+			throw new AssertionError();
+		}
+	}
+
+	private ToIntFunction<int[]> compileInt(final Expr<IntType> expr) {
+		if (expr instanceof IntLitExpr) {
+			final int value = ((IntLitExpr) expr).getValue();
+			return v -> value;
+
+		} else if (expr instanceof RefExpr) {
+			final int slot = getSlot(((RefExpr<?>) expr).getDecl());
+			return v -> v[slot];
+
+		} else if (expr instanceof IntNegExpr) {
+			final ToIntFunction<int[]> op = compileInt(((IntNegExpr) expr).getOp());
+			return v -> -op.applyAsInt(v);
+
+		} else if (expr instanceof IntAddExpr) {
+			final List<ToIntFunction<int[]>> ops = compileInts(((IntAddExpr) expr).getOps());
+			return v -> {
+				int sum = 0;
+				for (final ToIntFunction<int[]> op : ops) {
+					sum += op.applyAsInt(v);
+				}
+				return sum;
+			};
+
+		} else if (expr instanceof IntMulExpr) {
+			final List<ToIntFunction<int[]>> ops = compileInts(((IntMulExpr) expr).getOps());
+			return v -> {
+				int prod = 1;
+				for (final ToIntFunction<int[]> op : ops) {
+					prod *= op.applyAsInt(v);
+				}
+				return prod;
+			};
+
+		} else if (expr instanceof IntSubExpr) {
+			final IntSubExpr subExpr = (IntSubExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(subExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(subExpr.getRightOp());
+			return v -> left.applyAsInt(v) - right.applyAsInt(v);
+
+		} else if (expr instanceof IntDivExpr) {
+			final IntDivExpr divExpr = (IntDivExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(divExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(divExpr.getRightOp());
+			return v -> left.applyAsInt(v) / right.applyAsInt(v);
+
+		} else if (expr instanceof ModExpr) {
+			// Same semantics as IntLitExpr.mod
+			final ModExpr modExpr = (ModExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(modExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(modExpr.getRightOp());
+			return v -> IntLitExpr.of(left.applyAsInt(v)).mod(IntLitExpr.of(right.applyAsInt(v))).getValue();
+
+		} else if (expr instanceof RemExpr) {
+			// Same semantics as IntLitExpr.rem
+			final RemExpr remExpr = (RemExpr) expr;
+			final ToIntFunction<int[]> left = compileInt(remExpr.getLeftOp());
+			final ToIntFunction<int[]> right = compileInt(remExpr.getRightOp());
+			return v -> IntLitExpr.of(left.applyAsInt(v)).rem(IntLitExpr.of(right.applyAsInt(v))).getValue();
+
+		} else if (expr instanceof IteExpr) {
+			@SuppressWarnings("unchecked")
+			final IteExpr<IntType> iteExpr = (IteExpr<IntType>) expr;
+			final Predicate<int[]> cond = compileBool(iteExpr.getCond());
+			final ToIntFunction<int[]> then = compileInt(iteExpr.getThen());
+			final ToIntFunction<int[]> elze = compileInt(iteExpr.getElse());
+			return v -> cond.test(v) ? then.applyAsInt(v) : elze.applyAsInt(v);
+
+		} else {
+			throw new AssertionError();
+		}
+	}
+
+	private List<ToIntFunction<int[]>> compileInts(final List<? extends Expr<IntType>> exprs) {
+		final ImmutableList.Builder<ToIntFunction<int[]>> builder = ImmutableList.builder();
+		for (final Expr<IntType> expr : exprs) {
+			builder.add(compileInt(expr));
+		}
+		return builder.build();
+	}
+
+	private static Predicate<int[]> and(final List<Predicate<int[]>> preds) {
+		switch (preds.size()) {
+		case 0:
+			return v -> true;
+		case 1:
+			return preds.get(0);
+		default:
+			final List<Predicate<int[]>> ops = ImmutableList.copyOf(preds);
+			return v -> {
+				for (final Predicate<int[]> op : ops) {
+					if (!op.test(v)) {
+						return false;
+					}
+				}
+				return true;
+			};
+		}
+	}
+
+	private static Predicate<int[]> or(final List<Predicate<int[]>> preds) {
+		final List<Predicate<int[]>> ops = ImmutableList.copyOf(preds);
+		return v -> {
+			for (final Predicate<int[]> op : ops) {
+				if (op.test(v)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	////
+
+	private static final class CompiledEdge {
+		private final Predicate<int[]> guard;
+		private final List<ToIntFunction<int[]>> syncArgs;
+		private final int[] updateSlots;
+		private final List<ToIntFunction<int[]>> updateValues;
+
+		private CompiledEdge(final Predicate<int[]> guard, final List<ToIntFunction<int[]>> syncArgs,
+				final int[] updateSlots, final List<ToIntFunction<int[]>> updateValues) {
+			this.guard = guard;
+			this.syncArgs = syncArgs;
+			this.updateSlots = updateSlots;
+			this.updateValues = updateValues;
+		}
+
+		// Updates are applied in order, each one seeing the effect of the previous
+		private void applyUpdates(final int[] values) {
+			for (int i = 0; i < updateSlots.length; i++) {
+				values[updateSlots[i]] = updateValues.get(i).applyAsInt(values);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.expl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+// Immutable valuation of all data variables of a system, stored as an int
+// vector indexed by variable slot. Booleans are stored as 0 and 1.
+final class XtaDataVector extends Valuation {
+
+	private final Layout layout;
+	private final int[] values;
+
+	private volatile Map<Decl<?>, LitExpr<?>> map = null;
+	private volatile Key key = null;
+
+	private XtaDataVector(final Layout layout, final int[] values) {
+		this.layout = layout;
+		this.values = values;
+	}
+
+	// The array is taken over without copying, it must not be modified later
+	static XtaDataVector of(final Layout layout, final int[] values) {
+		checkNotNull(layout);
+		checkNotNull(values);
+		checkArgument(values.length == layout.size());
+		return new XtaDataVector(layout, values);
+	}
+
+	Layout getLayout() {
+		return layout;
+	}
+
+	int[] getValues() {
+		return values;
+	}
+
+	Key getKey() {
+		Key result = key;
+		if (result == null) {
+			result = new Key(layout, values);
+			key = result;
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<? extends Decl<?>> getDecls() {
+		return layout.getVars();
+	}
+
+	@Override
+	public <DeclType extends Type> Optional<LitExpr<DeclType>> eval(final Decl<DeclType> decl) {
+		checkNotNull(decl);
+		final int slot = layout.getSlot(decl);
+		if (slot < 0) {
+			return Optional.empty();
+		}
+		@SuppressWarnings("unchecked")
+		final LitExpr<DeclType> val = (LitExpr<DeclType>) toLit(decl, values[slot]);
+		return Optional.of(val);
+	}
+
+	@Override
+	public Map<Decl<?>, LitExpr<?>> toMap() {
+		Map<Decl<?>, LitExpr<?>> result = map;
+		if (result == null) {
+			final ImmutableMap.Builder<Decl<?>, LitExpr<?>> builder = ImmutableMap.builder();
+			for (int i = 0; i < values.length; i++) {
+				final VarDecl<?> var = layout.getVars().get(i);
+				builder.put(var, toLit(var, values[i]));
+			}
+			result = builder.build();
+			map = result;
+		}
+		return result;
+	}
+
+	private static LitExpr<?> toLit(final Decl<?> decl, final int value) {
+		final Type type = decl.getType();
+		if (type instanceof BoolType) {
+			return Bool(value != 0);
+		} else if (type instanceof IntType) {
+			return Int(value);
+		} else {
+			throw new AssertionError();
+		}
+	}
+
+	////
+
+	// Identifies a vector by its values. Valuation compares and hashes its map
+	// view, which is much more expensive to build.
+	static final class Key {
+		private final Layout layout;
+		private final int[] values;
+		private final int hashCode;
+
+		private Key(final Layout layout, final int[] values) {
+			this.layout = layout;
+			this.values = values;
+			hashCode = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Key) {
+				final Key that = (Key) obj;
+				return this.layout == that.layout && Arrays.equals(this.values, that.values);
+			} else {
+				return false;
+			}
+		}
+	}
+
+	static final class Layout {
+		private final List<VarDecl<?>> vars;
+		private final Map<Decl<?>, Integer> varToSlot;
+
+		private Layout(final Collection<? extends VarDecl<?>> vars) {
+			this.vars = ImmutableList.copyOf(vars);
+			final ImmutableMap.Builder<Decl<?>, Integer> builder = ImmutableMap.builder();
+			for (int i = 0; i < this.vars.size(); i++) {
+				final Type type = this.vars.get(i).getType();
+				if (!(type instanceof BoolType || type instanceof IntType)) {
+					throw new UnsupportedOperationException();
+				}
+				builder.put(this.vars.get(i), i);
+			}
+			varToSlot = builder.build();
+		}
+
+		static Layout create(final Collection<? extends VarDecl<?>> vars) {
+			return new Layout(vars);
+		}
+
+		List<VarDecl<?>> getVars() {
+			return vars;
+		}
+
+		int size() {
+			return vars.size();
+		}
+
+		// Returns -1 for variables not in the layout
+		int getSlot(final Decl<?> decl) {
+			final Integer slot = varToSlot.get(decl);
+			return slot == null ? -1 : slot;
+		}
+
+		// Returns the vector for the valuation, or empty if it is partial
+		Optional<int[]> encode(final Valuation val) {
+			if (val instanceof XtaDataVector && ((XtaDataVector) val).layout == this) {
+				return Optional.of(((XtaDataVector) val).values);
+			}
+			if (val.getDecls().size() != vars.size()) {
+				return Optional.empty();
+			}
+			final int[] result = new int[vars.size()];
+			for (int i = 0; i < result.length; i++) {
+				final Optional<? extends LitExpr<?>> lit = val.eval(vars.get(i));
+				if (!lit.isPresent()) {
+					return Optional.empty();
+				}
+				final LitExpr<?> value = lit.get();
+				if (value instanceof BoolLitExpr) {
+					result[i] = ((BoolLitExpr) value).getValue() ? 1 : 0;
+				} else if (value instanceof IntLitExpr) {
+					result[i] = ((IntLitExpr) value).getValue();
+				} else {
+					return Optional.empty();
+				}
+			}
+			return Optional.of(result);
+		}
+	}
+
+}
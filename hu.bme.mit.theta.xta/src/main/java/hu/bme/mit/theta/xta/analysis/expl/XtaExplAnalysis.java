@@ -29,19 +29,27 @@ import hu.bme.mit.theta.xta.analysis.XtaAction;
 
 public final class XtaExplAnalysis implements Analysis<ExplState, XtaAction, UnitPrec> {
 
+	private final XtaDataCompiler compiler;
 	private final XtaExplInitFunc initFunc;
 	private final XtaExplTransFunc transFunc;
 
 	private XtaExplAnalysis(final XtaSystem system) {
 		checkNotNull(system);
-		initFunc = XtaExplInitFunc.create(system);
-		transFunc = XtaExplTransFunc.create(system);
+		compiler = XtaDataCompiler.create(system);
+		initFunc = XtaExplInitFunc.create(compiler);
+		transFunc = XtaExplTransFunc.create(compiler);
 	}
 
 	public static XtaExplAnalysis create(final XtaSystem system) {
 		return new XtaExplAnalysis(system);
 	}
 
+	// Equal states have equal keys, which are cheaper to hash and compare than
+	// the states themselves
+	public Object getKey(final ExplState state) {
+		return compiler.getKey(state);
+	}
+
 	@Override
 	public PartialOrd<ExplState> getPartialOrd() {
 		return ExplOrd.getInstance();
@@ -16,8 +16,6 @@
 package hu.bme.mit.theta.xta.analysis.expl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
-import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static java.util.Collections.singleton;
 
 import java.util.Collection;
@@ -25,41 +23,23 @@ import java.util.Collection;
 import hu.bme.mit.theta.analysis.InitFunc;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
-import hu.bme.mit.theta.core.decl.VarDecl;
-import hu.bme.mit.theta.core.model.MutableValuation;
-import hu.bme.mit.theta.core.type.Type;
-import hu.bme.mit.theta.core.type.booltype.BoolType;
-import hu.bme.mit.theta.core.type.inttype.IntType;
-import hu.bme.mit.theta.xta.XtaSystem;
 
 final class XtaExplInitFunc implements InitFunc<ExplState, UnitPrec> {
 
-	private final Collection<VarDecl<?>> varDecls;
+	private final XtaDataCompiler compiler;
 
-	private XtaExplInitFunc(final XtaSystem system) {
-		checkNotNull(system);
-		varDecls = system.getDataVars();
+	private XtaExplInitFunc(final XtaDataCompiler compiler) {
+		this.compiler = checkNotNull(compiler);
 	}
 
-	public static XtaExplInitFunc create(final XtaSystem system) {
-		return new XtaExplInitFunc(system);
+	public static XtaExplInitFunc create(final XtaDataCompiler compiler) {
+		return new XtaExplInitFunc(compiler);
 	}
 
 	@Override
 	public Collection<ExplState> getInitStates(final UnitPrec prec) {
 		checkNotNull(prec);
-		final MutableValuation val = new MutableValuation();
-		for (final VarDecl<?> varDecl : varDecls) {
-			final Type type = varDecl.getType();
-			if (type instanceof BoolType) {
-				val.put(varDecl, False());
-			} else if (type instanceof IntType) {
-				val.put(varDecl, Int(0));
-			} else {
-				throw new UnsupportedOperationException();
-			}
-		}
-		final ExplState initState = ExplState.of(val);
+		final ExplState initState = compiler.getInitState();
 		return singleton(initState);
 	}
 
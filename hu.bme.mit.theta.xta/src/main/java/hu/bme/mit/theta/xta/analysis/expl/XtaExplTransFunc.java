@@ -23,18 +23,18 @@ import java.util.Collection;
 import hu.bme.mit.theta.analysis.TransFunc;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
-import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 
 final class XtaExplTransFunc implements TransFunc<ExplState, XtaAction, UnitPrec> {
 
-	private XtaExplTransFunc(final XtaSystem system) {
-		// TODO remove parameter 'system'
-		checkNotNull(system);
+	private final XtaDataCompiler compiler;
+
+	private XtaExplTransFunc(final XtaDataCompiler compiler) {
+		this.compiler = checkNotNull(compiler);
 	}
 
-	public static XtaExplTransFunc create(final XtaSystem system) {
-		return new XtaExplTransFunc(system);
+	public static XtaExplTransFunc create(final XtaDataCompiler compiler) {
+		return new XtaExplTransFunc(compiler);
 	}
 
 	@Override
@@ -42,7 +42,7 @@ final class XtaExplTransFunc implements TransFunc<ExplState, XtaAction, UnitPrec
 		checkNotNull(state);
 		checkNotNull(action);
 		checkNotNull(prec);
-		return singleton(XtaExplUtils.post(state, action));
+		return singleton(compiler.post(state, action));
 	}
 
 }
@@ -39,4 +39,6 @@ interface AlgorithmStrategy<S1 extends State, S2 extends State> {
 	void block(ArgNode<S1, XtaAction> node, final XtaAction action, final S1 succState,
 			Collection<ArgNode<S1, XtaAction>> uncoveredNodes, final Builder stats);
 
+	void compress(ArgNode<S1, XtaAction> node);
+
 }
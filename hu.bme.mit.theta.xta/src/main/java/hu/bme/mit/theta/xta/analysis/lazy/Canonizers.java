@@ -0,0 +1,47 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.lazy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.UnaryOperator;
+
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.analysis.XtaSymmetry;
+import hu.bme.mit.theta.xta.analysis.XtaSymmetry.Permutation;
+
+final class Canonizers {
+
+	private Canonizers() {
+	}
+
+	// Symmetric states are mapped to a common representative before they are checked for coverage
+	public static <S extends State> UnaryOperator<XtaState<S>> createSymmetryCanonizer(final XtaSystem system,
+			final NonRefiningStrategy<XtaState<S>, ?> strategy) {
+		checkNotNull(strategy);
+		final XtaSymmetry symmetry = XtaSymmetry.create(system);
+		if (symmetry.isTrivial()) {
+			return UnaryOperator.identity();
+		}
+		return state -> {
+			final Permutation permutation = symmetry.getCanonicalPermutation(state.getLocs());
+			return permutation.isIdentity() ? state : strategy.permute(state, permutation);
+		};
+	}
+
+}
@@ -32,6 +32,16 @@ final class ClockStrategies {
 		return new LuZoneStrategy<>(system, createRightLens());
 	}
 
+	public static <S extends State> NonRefiningStrategy<XtaState<Prod2State<S, LuZoneState>>, LuZoneState> createALuStrategy(
+			final XtaSystem system) {
+		return new StaticLuZoneStrategy<>(system, createRightLens(), false);
+	}
+
+	public static <S extends State> NonRefiningStrategy<XtaState<Prod2State<S, LuZoneState>>, LuZoneState> createExtraLuStrategy(
+			final XtaSystem system) {
+		return new StaticLuZoneStrategy<>(system, createRightLens(), true);
+	}
+
 	public static <S extends State> AlgorithmStrategy<XtaState<Prod2State<S, ItpZoneState>>, ItpZoneState> createFwItpStrategy(
 			final XtaSystem system) {
 		return new FwItpZoneStrategy<>(system, createRightLens());
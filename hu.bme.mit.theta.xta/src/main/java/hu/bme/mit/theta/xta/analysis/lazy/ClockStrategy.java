@@ -16,5 +16,5 @@
 package hu.bme.mit.theta.xta.analysis.lazy;
 
 public enum ClockStrategy {
-	LU, FWITP, BWITP;
+	LU, ALU, EXTRALU, FWITP, BWITP;
 }
@@ -35,7 +35,7 @@ import hu.bme.mit.theta.xta.analysis.XtaAnalysis;
 import hu.bme.mit.theta.xta.analysis.XtaState;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
 
-final class CombinedStrategy<S1 extends State, S2 extends State>
+class CombinedStrategy<S1 extends State, S2 extends State>
 		implements AlgorithmStrategy<XtaState<Prod2State<S1, S2>>, XtaState<Prod2State<S1, S2>>> {
 
 	private final AlgorithmStrategy<XtaState<Prod2State<S1, S2>>, S1> strategy1;
@@ -94,6 +94,12 @@ final class CombinedStrategy<S1 extends State, S2 extends State>
 		}
 	}
 
+	@Override
+	public void compress(final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> node) {
+		strategy1.compress(node);
+		strategy2.compress(node);
+	}
+
 	////
 
 	private Analysis<XtaState<Prod2State<S1, S2>>, XtaAction, UnitPrec> createAnalysis(final XtaSystem system) {
@@ -27,7 +27,7 @@ final class DataStrategies {
 	private DataStrategies() {
 	}
 
-	public static <S extends State> AlgorithmStrategy<XtaState<Prod2State<ExplState, S>>, ExplState> createExplStrategy(
+	public static <S extends State> NonRefiningStrategy<XtaState<Prod2State<ExplState, S>>, ExplState> createExplStrategy(
 			final XtaSystem system) {
 		return new ExplStrategy<>(system, createLeftLens());
 	}
@@ -27,10 +27,11 @@ import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaSymmetry.Permutation;
 import hu.bme.mit.theta.xta.analysis.expl.XtaExplAnalysis;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
 
-final class ExplStrategy<S extends State> implements AlgorithmStrategy<S, ExplState> {
+final class ExplStrategy<S extends State> implements NonRefiningStrategy<S, ExplState> {
 
 	private final Lens<S, ExplState> lens;
 	private final Analysis<ExplState, XtaAction, UnitPrec> analysis;
@@ -39,8 +40,9 @@ final class ExplStrategy<S extends State> implements AlgorithmStrategy<S, ExplSt
 	public ExplStrategy(final XtaSystem system, final Lens<S, ExplState> lens) {
 		checkNotNull(system);
 		this.lens = checkNotNull(lens);
-		analysis = XtaExplAnalysis.create(system);
-		projection = s -> s;
+		final XtaExplAnalysis explAnalysis = XtaExplAnalysis.create(system);
+		analysis = explAnalysis;
+		projection = explAnalysis::getKey;
 	}
 
 	@Override
@@ -72,4 +74,16 @@ final class ExplStrategy<S extends State> implements AlgorithmStrategy<S, ExplSt
 		return;
 	}
 
+	@Override
+	public void compress(final ArgNode<S, XtaAction> node) {
+		return;
+	}
+
+	@Override
+	public S permute(final S state, final Permutation permutation) {
+		final ExplState explState = lens.get(state);
+		final ExplState newExplState = ExplState.of(permutation.permuteVal(explState));
+		return lens.set(state, newExplState);
+	}
+
 }
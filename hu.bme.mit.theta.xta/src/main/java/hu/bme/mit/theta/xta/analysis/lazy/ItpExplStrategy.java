@@ -91,6 +91,11 @@ abstract class ItpExplStrategy<S extends State> implements AlgorithmStrategy<S,
 		stats.stopExpandExplRefinement();
 	}
 
+	@Override
+	public final void compress(final ArgNode<S, XtaAction> node) {
+		return;
+	}
+
 	////
 
 	protected abstract Valuation blockExpl(final ArgNode<S, XtaAction> node, final Expr<BoolType> expr,
@@ -48,7 +48,7 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
 		checkNotNull(system);
 		this.lens = checkNotNull(lens);
 		prec = ZonePrec.of(system.getClockVars());
-		analysis = PrecMappingAnalysis.create(ItpZoneAnalysis.create(XtaZoneAnalysis.getInstance()), p -> prec);
+		analysis = PrecMappingAnalysis.create(ItpZoneAnalysis.create(XtaZoneAnalysis.create(system)), p -> prec);
 		projection = s -> unit();
 	}
 
@@ -91,6 +91,15 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
 		stats.stopExpandZoneRefinement();
 	}
 
+	@Override
+	public final void compress(final ArgNode<S, XtaAction> node) {
+		final S state = node.getState();
+		final ItpZoneState itpZoneState = lens.get(state);
+		final ItpZoneState newItpZoneState = ItpZoneState.of(itpZoneState.getConcrState().compress(),
+				itpZoneState.getAbstrState().compress());
+		node.setState(lens.set(state, newItpZoneState));
+	}
+
 	////
 
 	protected abstract ZoneState blockZone(final ArgNode<S, XtaAction> node, final ZoneState zone,
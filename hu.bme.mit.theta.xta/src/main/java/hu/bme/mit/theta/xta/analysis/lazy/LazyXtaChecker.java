@@ -19,12 +19,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import com.google.common.collect.Lists;
 
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.ArgTrace;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
@@ -40,18 +44,29 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 	private final XtaLts lts;
 	private final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy;
 	private final SearchStrategy searchStrategy;
+	private final UnaryOperator<XtaState<S>> canonizer;
+	private final Predicate<? super XtaState<S>> target;
 
 	private LazyXtaChecker(final XtaSystem system, final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
-			final SearchStrategy searchStrategy) {
+			final SearchStrategy searchStrategy, final UnaryOperator<XtaState<S>> canonizer,
+			final Predicate<? super XtaState<S>> target) {
 		checkNotNull(system);
 		lts = XtaLts.create(system);
 		this.algorithmStrategy = checkNotNull(algorithmStrategy);
 		this.searchStrategy = checkNotNull(searchStrategy);
+		this.canonizer = checkNotNull(canonizer);
+		this.target = checkNotNull(target);
 	}
 
 	public static <S extends State> LazyXtaChecker<S> create(final XtaSystem system,
 			final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy, final SearchStrategy searchStrategy) {
-		return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy);
+		return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy, UnaryOperator.identity(), s -> false);
+	}
+
+	public static <S extends State> LazyXtaChecker<S> create(final XtaSystem system,
+			final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy, final SearchStrategy searchStrategy,
+			final UnaryOperator<XtaState<S>> canonizer, final Predicate<? super XtaState<S>> target) {
+		return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy, canonizer, target);
 	}
 
 	@Override
@@ -59,6 +74,18 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 		return new CheckMethod().run();
 	}
 
+	// Also used by ParallelLazyXtaChecker
+	static <S extends State> void createInitNodes(final ARG<XtaState<S>, XtaAction> arg,
+			final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
+			final UnaryOperator<XtaState<S>> canonizer, final Predicate<? super XtaState<S>> target) {
+		final Collection<? extends XtaState<S>> initStates = algorithmStrategy.getAnalysis().getInitFunc()
+				.getInitStates(UnitPrec.getInstance());
+		for (final XtaState<S> initState : initStates) {
+			final XtaState<S> state = canonizer.apply(initState);
+			arg.createInitNode(state, target.test(state));
+		}
+	}
+
 	private final class CheckMethod {
 		final ARG<XtaState<S>, XtaAction> arg;
 		final LazyXtaStatistics.Builder stats;
@@ -75,28 +102,29 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 		public SafetyResult<XtaState<S>, XtaAction> run() {
 			stats.startAlgorithm();
 
-			init();
+			createInitNodes(arg, algorithmStrategy, canonizer, target);
+			Optional<ArgNode<XtaState<S>, XtaAction>> targetNode = arg.getInitNodes().filter(ArgNode::isTarget)
+					.findFirst();
 			waiting.addAll(arg.getInitNodes());
-			while (!waiting.isEmpty()) {
+			while (!targetNode.isPresent() && !waiting.isEmpty()) {
 				final ArgNode<XtaState<S>, XtaAction> v = waiting.remove();
 				assert v.isFeasible();
 
 				close(v);
 				if (!v.isCovered()) {
-					expand(v);
+					targetNode = expand(v);
 				}
 			}
 
 			stats.stopAlgorithm();
 			final LazyXtaStatistics statistics = stats.build();
-			final SafetyResult<XtaState<S>, XtaAction> result = SafetyResult.safe(arg, statistics);
-			return result;
-		}
-
-		private void init() {
-			final Collection<? extends XtaState<S>> initStates = algorithmStrategy.getAnalysis().getInitFunc()
-					.getInitStates(UnitPrec.getInstance());
-			initStates.forEach(s -> arg.createInitNode(s, false));
+			if (targetNode.isPresent()) {
+				// Nodes are only created for concretely reachable states, so the trace is feasible
+				final ArgTrace<XtaState<S>, XtaAction> trace = ArgTrace.to(targetNode.get());
+				return SafetyResult.unsafe(trace.toTrace(), arg, statistics);
+			} else {
+				return SafetyResult.safe(arg, statistics);
+			}
 		}
 
 		private void close(final ArgNode<XtaState<S>, XtaAction> coveree) {
@@ -127,7 +155,8 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 			stats.stopClosing();
 		}
 
-		private void expand(final ArgNode<XtaState<S>, XtaAction> node) {
+		// Returns the first target node created, after which the search stops
+		private Optional<ArgNode<XtaState<S>, XtaAction>> expand(final ArgNode<XtaState<S>, XtaAction> node) {
 			stats.startExpanding();
 			final XtaState<S> state = node.getState();
 
@@ -141,15 +170,22 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 						algorithmStrategy.block(node, action, succState, uncoveredNodes, stats);
 						waiting.addAll(uncoveredNodes);
 					} else {
-						final ArgNode<XtaState<S>, XtaAction> succNode = arg.createSuccNode(node, action, succState,
-								false);
+						final XtaState<S> canonState = canonizer.apply(succState);
+						final ArgNode<XtaState<S>, XtaAction> succNode = arg.createSuccNode(node, action,
+								canonState, target.test(canonState));
+						if (succNode.isTarget()) {
+							stats.stopExpanding();
+							return Optional.of(succNode);
+						}
 						waiting.add(succNode);
 					}
 				}
 			}
 
+			algorithmStrategy.compress(node);
 			passed.add(node);
 			stats.stopExpanding();
+			return Optional.empty();
 		}
 	}
 
@@ -15,12 +15,23 @@
  */
 package hu.bme.mit.theta.xta.analysis.lazy;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.prod2.Prod2State;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaQuery;
 import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.analysis.expl.itp.ItpExplState;
 
 public final class LazyXtaCheckerFactory {
 
@@ -29,10 +40,84 @@ public final class LazyXtaCheckerFactory {
 
 	public static SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> create(final XtaSystem system,
 			final DataStrategy dataStrategy, final ClockStrategy clockStrategy, final SearchStrategy searchStrategy) {
-		final CombinedStrategy<?, ?> algorithmStrategy = combineStrategies(system, dataStrategy, clockStrategy);
-		final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaChecker.create(system,
-				algorithmStrategy, searchStrategy);
-		return checker;
+		return create(system, dataStrategy, clockStrategy, searchStrategy, false);
+	}
+
+	public static SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> create(final XtaSystem system,
+			final DataStrategy dataStrategy, final ClockStrategy clockStrategy, final SearchStrategy searchStrategy,
+			final boolean symmetryReduction) {
+		return create(system, dataStrategy, clockStrategy, searchStrategy, symmetryReduction, Optional.empty());
+	}
+
+	public static SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> create(final XtaSystem system,
+			final DataStrategy dataStrategy, final ClockStrategy clockStrategy, final SearchStrategy searchStrategy,
+			final boolean symmetryReduction, final Optional<XtaQuery> query) {
+		return create(system, dataStrategy, clockStrategy, searchStrategy, symmetryReduction, query, 1);
+	}
+
+	public static SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> create(final XtaSystem system,
+			final DataStrategy dataStrategy, final ClockStrategy clockStrategy, final SearchStrategy searchStrategy,
+			final boolean symmetryReduction, final Optional<XtaQuery> query, final int nThreads) {
+		checkArgument(nThreads > 0, "Number of threads must be positive");
+		checkArgument(nThreads == 1 || isNonRefining(dataStrategy, clockStrategy),
+				"Parallel exploration is not supported with refinement strategies");
+		checkArgument(!symmetryReduction || isNonRefining(dataStrategy, clockStrategy),
+				"Symmetry reduction is not supported with refinement strategies");
+		checkArgument(!symmetryReduction || !query.isPresent(),
+				"Symmetry reduction is not supported with reachability queries");
+		final Predicate<XtaState<?>> target = query.isPresent() ? createTarget(query.get(), dataStrategy)
+				: s -> false;
+		if (isNonRefining(dataStrategy, clockStrategy)) {
+			final NonRefiningCombinedStrategy<?, ?> algorithmStrategy = combineNonRefiningStrategies(system,
+					clockStrategy);
+			return createNonRefiningChecker(system, algorithmStrategy, searchStrategy, symmetryReduction, target,
+					nThreads);
+		} else {
+			final CombinedStrategy<?, ?> algorithmStrategy = combineStrategies(system, dataStrategy, clockStrategy);
+			return LazyXtaChecker.create(system, algorithmStrategy, searchStrategy, UnaryOperator.identity(),
+					target);
+		}
+	}
+
+	// Symmetry reduction and parallel exploration need a non-refining strategy (see NonRefiningStrategy)
+	public static boolean isNonRefining(final DataStrategy dataStrategy, final ClockStrategy clockStrategy) {
+		return dataStrategy == DataStrategy.NONE
+				&& (clockStrategy == ClockStrategy.ALU || clockStrategy == ClockStrategy.EXTRALU);
+	}
+
+	private static <S1 extends State, S2 extends State> SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> createNonRefiningChecker(
+			final XtaSystem system, final NonRefiningCombinedStrategy<S1, S2> algorithmStrategy,
+			final SearchStrategy searchStrategy, final boolean symmetryReduction,
+			final Predicate<XtaState<?>> target, final int nThreads) {
+		final UnaryOperator<XtaState<Prod2State<S1, S2>>> canonizer = symmetryReduction
+				? Canonizers.createSymmetryCanonizer(system, algorithmStrategy)
+				: UnaryOperator.identity();
+		if (nThreads == 1) {
+			return LazyXtaChecker.create(system, algorithmStrategy, searchStrategy, canonizer, target);
+		} else {
+			return ParallelLazyXtaChecker.create(system, algorithmStrategy, searchStrategy, canonizer, target,
+					nThreads);
+		}
+	}
+
+	// The query is evaluated on the concrete data state, which is always the
+	// first component of the product (see combineStrategies)
+	private static Predicate<XtaState<?>> createTarget(final XtaQuery query, final DataStrategy dataStrategy) {
+		switch (dataStrategy) {
+		case BWITP:
+		case FWITP:
+			return s -> {
+				final ItpExplState dataState = (ItpExplState) ((Prod2State<?, ?>) s.getState()).getState1();
+				return query.isSatisfiedBy(s.getLocs(), dataState.getConcrState());
+			};
+		case NONE:
+			return s -> {
+				final ExplState dataState = (ExplState) ((Prod2State<?, ?>) s.getState()).getState1();
+				return query.isSatisfiedBy(s.getLocs(), dataState);
+			};
+		default:
+			throw new AssertionError();
+		}
 	}
 
 	private static CombinedStrategy<?, ?> combineStrategies(final XtaSystem system, final DataStrategy dataStrategy,
@@ -51,6 +136,12 @@ public final class LazyXtaCheckerFactory {
 			case LU:
 				return new CombinedStrategy<>(system, DataStrategies.createBwItpStrategy(system),
 						ClockStrategies.createLuStrategy(system));
+			case ALU:
+				return new CombinedStrategy<>(system, DataStrategies.createBwItpStrategy(system),
+						ClockStrategies.createALuStrategy(system));
+			case EXTRALU:
+				return new CombinedStrategy<>(system, DataStrategies.createBwItpStrategy(system),
+						ClockStrategies.createExtraLuStrategy(system));
 			default:
 				throw new AssertionError();
 			}
@@ -67,6 +158,12 @@ public final class LazyXtaCheckerFactory {
 			case LU:
 				return new CombinedStrategy<>(system, DataStrategies.createFwItpStrategy(system),
 						ClockStrategies.createLuStrategy(system));
+			case ALU:
+				return new CombinedStrategy<>(system, DataStrategies.createFwItpStrategy(system),
+						ClockStrategies.createALuStrategy(system));
+			case EXTRALU:
+				return new CombinedStrategy<>(system, DataStrategies.createFwItpStrategy(system),
+						ClockStrategies.createExtraLuStrategy(system));
 			default:
 				throw new AssertionError();
 			}
@@ -83,6 +180,12 @@ public final class LazyXtaCheckerFactory {
 			case LU:
 				return new CombinedStrategy<>(system, DataStrategies.createExplStrategy(system),
 						ClockStrategies.createLuStrategy(system));
+			case ALU:
+				return new CombinedStrategy<>(system, DataStrategies.createExplStrategy(system),
+						ClockStrategies.createALuStrategy(system));
+			case EXTRALU:
+				return new CombinedStrategy<>(system, DataStrategies.createExplStrategy(system),
+						ClockStrategies.createExtraLuStrategy(system));
 			default:
 				throw new AssertionError();
 			}
@@ -91,4 +194,18 @@ public final class LazyXtaCheckerFactory {
 			throw new AssertionError();
 		}
 	}
+
+	private static NonRefiningCombinedStrategy<?, ?> combineNonRefiningStrategies(final XtaSystem system,
+			final ClockStrategy clockStrategy) {
+		switch (clockStrategy) {
+		case ALU:
+			return new NonRefiningCombinedStrategy<>(system, DataStrategies.createExplStrategy(system),
+					ClockStrategies.createALuStrategy(system));
+		case EXTRALU:
+			return new NonRefiningCombinedStrategy<>(system, DataStrategies.createExplStrategy(system),
+					ClockStrategies.createExtraLuStrategy(system));
+		default:
+			throw new AssertionError();
+		}
+	}
 }
@@ -15,11 +15,17 @@
  */
 package hu.bme.mit.theta.xta.analysis.lazy;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 
 import hu.bme.mit.theta.analysis.algorithm.ARG;
 import hu.bme.mit.theta.analysis.algorithm.Statistics;
@@ -43,19 +49,21 @@ public final class LazyXtaStatistics extends Statistics {
 	private final long argNodes;
 	private final long argNodesExpanded;
 
-	private LazyXtaStatistics(final Builder builder) {
+	// The timers and counters of the parts are added to those of the builder
+	private LazyXtaStatistics(final Builder builder, final Collection<Builder> parts) {
+		final List<Builder> builders = ImmutableList.<Builder>builder().add(builder).addAll(parts).build();
 		algorithmTimeInMs = builder.algorithmTimer.elapsed(MILLISECONDS);
-		expandTimeInMs = builder.expandTimer.elapsed(MILLISECONDS);
-		closeTimeInMs = builder.closeTimer.elapsed(MILLISECONDS);
-		expandExplRefinementTimeInMs = builder.expandExplRefinementTimer.elapsed(MILLISECONDS);
-		expandZoneRefinementTimeInMs = builder.expandZoneRefinementTimer.elapsed(MILLISECONDS);
-		closeExplRefinementTimeInMs = builder.closeExplRefinementTimer.elapsed(MILLISECONDS);
-		closeZoneRefinementTimeInMs = builder.closeZoneRefinementTimer.elapsed(MILLISECONDS);
-		coverageChecks = builder.coverageChecks;
-		coverageAttempts = builder.coverageAttempts;
-		coverageSuccesses = builder.coverageSuccesses;
-		explRefinementSteps = builder.explRefinementSteps;
-		zoneRefinementSteps = builder.zoneRefinementSteps;
+		expandTimeInMs = sum(builders, b -> b.expandTimer.elapsed(MILLISECONDS));
+		closeTimeInMs = sum(builders, b -> b.closeTimer.elapsed(MILLISECONDS));
+		expandExplRefinementTimeInMs = sum(builders, b -> b.expandExplRefinementTimer.elapsed(MILLISECONDS));
+		expandZoneRefinementTimeInMs = sum(builders, b -> b.expandZoneRefinementTimer.elapsed(MILLISECONDS));
+		closeExplRefinementTimeInMs = sum(builders, b -> b.closeExplRefinementTimer.elapsed(MILLISECONDS));
+		closeZoneRefinementTimeInMs = sum(builders, b -> b.closeZoneRefinementTimer.elapsed(MILLISECONDS));
+		coverageChecks = sum(builders, b -> b.coverageChecks);
+		coverageAttempts = sum(builders, b -> b.coverageAttempts);
+		coverageSuccesses = sum(builders, b -> b.coverageSuccesses);
+		explRefinementSteps = sum(builders, b -> b.explRefinementSteps);
+		zoneRefinementSteps = sum(builders, b -> b.zoneRefinementSteps);
 		argDepth = builder.arg.getDepth();
 		argNodes = builder.arg.size();
 		argNodesExpanded = builder.arg.getNodes().filter(n -> !n.isSubsumed()).count();
@@ -81,6 +89,10 @@ public final class LazyXtaStatistics extends Statistics {
 		return new Builder(arg);
 	}
 
+	private static long sum(final Collection<Builder> builders, final ToLongFunction<Builder> value) {
+		return builders.stream().mapToLong(value).sum();
+	}
+
 	public long getAlgorithmTimeInMs() {
 		return algorithmTimeInMs;
 	}
@@ -328,9 +340,20 @@ public final class LazyXtaStatistics extends Statistics {
 		}
 
 		public LazyXtaStatistics build() {
+			return build(ImmutableList.of());
+		}
+
+		// Includes builders that measured parts of the same run, e.g. the work of
+		// single threads
+		public LazyXtaStatistics build(final Collection<Builder> parts) {
+			checkNotNull(parts);
 			checkState(state == State.STOPPED);
+			for (final Builder part : parts) {
+				checkArgument(part.state == State.STOPPED);
+				part.state = State.BUILT;
+			}
 			state = State.BUILT;
-			return new LazyXtaStatistics(this);
+			return new LazyXtaStatistics(this, parts);
 		}
 
 	}
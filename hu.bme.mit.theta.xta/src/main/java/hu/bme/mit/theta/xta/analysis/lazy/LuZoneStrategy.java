@@ -48,7 +48,7 @@ final class LuZoneStrategy<S extends State> implements AlgorithmStrategy<S, LuZo
 		checkNotNull(system);
 		this.lens = checkNotNull(lens);
 		final ZonePrec zonePrec = ZonePrec.of(system.getClockVars());
-		analysis = PrecMappingAnalysis.create(LuZoneAnalysis.create(XtaZoneAnalysis.getInstance()), p -> zonePrec);
+		analysis = PrecMappingAnalysis.create(LuZoneAnalysis.create(XtaZoneAnalysis.create(system)), p -> zonePrec);
 		projection = s -> unit();
 	}
 
@@ -89,6 +89,12 @@ final class LuZoneStrategy<S extends State> implements AlgorithmStrategy<S, LuZo
 		stats.stopExpandZoneRefinement();
 	}
 
+	@Override
+	public void compress(final ArgNode<S, XtaAction> node) {
+		// Covering with lazily refined bounds needs the full zone of the coverer
+		return;
+	}
+
 	////
 
 	private void propagateBounds(final ArgNode<S, XtaAction> node, final BoundFunc boundFunc,
@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.lazy;
+
+import java.util.List;
+
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.prod2.Prod2State;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.analysis.XtaSymmetry.Permutation;
+
+final class NonRefiningCombinedStrategy<S1 extends State, S2 extends State> extends CombinedStrategy<S1, S2>
+		implements NonRefiningStrategy<XtaState<Prod2State<S1, S2>>, XtaState<Prod2State<S1, S2>>> {
+
+	private final NonRefiningStrategy<XtaState<Prod2State<S1, S2>>, S1> strategy1;
+	private final NonRefiningStrategy<XtaState<Prod2State<S1, S2>>, S2> strategy2;
+
+	public NonRefiningCombinedStrategy(final XtaSystem system,
+			final NonRefiningStrategy<XtaState<Prod2State<S1, S2>>, S1> strategy1,
+			final NonRefiningStrategy<XtaState<Prod2State<S1, S2>>, S2> strategy2) {
+		super(system, strategy1, strategy2);
+		this.strategy1 = strategy1;
+		this.strategy2 = strategy2;
+	}
+
+	@Override
+	public XtaState<Prod2State<S1, S2>> permute(final XtaState<Prod2State<S1, S2>> state,
+			final Permutation permutation) {
+		final List<Loc> newLocs = permutation.permuteLocs(state.getLocs());
+		final XtaState<Prod2State<S1, S2>> newState = XtaState.of(newLocs, state.getState());
+		return strategy2.permute(strategy1.permute(newState, permutation), permutation);
+	}
+
+}
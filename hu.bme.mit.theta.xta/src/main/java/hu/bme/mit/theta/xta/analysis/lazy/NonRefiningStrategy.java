@@ -0,0 +1,30 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.lazy;
+
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.xta.analysis.XtaSymmetry.Permutation;
+
+// Strategies that never change other nodes when covering or blocking. Refining
+// strategies propagate information along ARG edges, which permuted successors
+// would break and which would make the nodes of parallel workers interfere.
+// States of non-refining strategies can be mapped onto the states of symmetric
+// process instances, and their callbacks can be called by parallel workers.
+interface NonRefiningStrategy<S1 extends State, S2 extends State> extends AlgorithmStrategy<S1, S2> {
+
+	S1 permute(S1 state, Permutation permutation);
+
+}
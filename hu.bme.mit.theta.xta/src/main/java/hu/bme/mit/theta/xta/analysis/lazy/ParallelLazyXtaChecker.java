@@ -0,0 +1,338 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.lazy;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.ArgTrace;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
+import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaLts;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+
+// Multi-threaded variant of LazyXtaChecker. The passed set is sharded by the
+// hash of the location vector, and each worker has its own waitlist holding the
+// nodes of its shard. Idle workers steal nodes from the waitlists of others, and
+// wait for new nodes when all waitlists are empty.
+//
+// Only non-refining strategies are supported. Their cover and block callbacks
+// leave other nodes unchanged, so workers can call them concurrently.
+final class ParallelLazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>, XtaAction, UnitPrec> {
+	private final XtaLts lts;
+	private final NonRefiningStrategy<XtaState<S>, XtaState<S>> algorithmStrategy;
+	private final SearchStrategy searchStrategy;
+	private final UnaryOperator<XtaState<S>> canonizer;
+	private final Predicate<? super XtaState<S>> target;
+	private final int nWorkers;
+
+	private ParallelLazyXtaChecker(final XtaSystem system,
+			final NonRefiningStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
+			final SearchStrategy searchStrategy, final UnaryOperator<XtaState<S>> canonizer,
+			final Predicate<? super XtaState<S>> target, final int nWorkers) {
+		checkNotNull(system);
+		checkArgument(nWorkers > 0, "Number of workers must be positive");
+		lts = XtaLts.create(system);
+		this.algorithmStrategy = checkNotNull(algorithmStrategy);
+		this.searchStrategy = checkNotNull(searchStrategy);
+		this.canonizer = checkNotNull(canonizer);
+		this.target = checkNotNull(target);
+		this.nWorkers = nWorkers;
+	}
+
+	public static <S extends State> ParallelLazyXtaChecker<S> create(final XtaSystem system,
+			final NonRefiningStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
+			final SearchStrategy searchStrategy, final UnaryOperator<XtaState<S>> canonizer,
+			final Predicate<? super XtaState<S>> target, final int nWorkers) {
+		return new ParallelLazyXtaChecker<>(system, algorithmStrategy, searchStrategy, canonizer, target, nWorkers);
+	}
+
+	@Override
+	public SafetyResult<XtaState<S>, XtaAction> check(final UnitPrec prec) {
+		return new CheckMethod().run();
+	}
+
+	private final class CheckMethod {
+		final ARG<XtaState<S>, XtaAction> arg;
+		final LazyXtaStatistics.Builder stats;
+		// Worker i measures its own expanding and closing, the times are summed
+		final List<LazyXtaStatistics.Builder> workerStats;
+		// Shard i is guarded by its own lock
+		final List<Partition<ArgNode<XtaState<S>, XtaAction>, ?>> passed;
+		// Waitlist i is guarded by its own lock and holds the nodes of shard i
+		final List<Waitlist<ArgNode<XtaState<S>, XtaAction>>> waiting;
+		// Number of nodes in the waitlists or under processing
+		final AtomicInteger pending;
+		// Number of nodes in the waitlists
+		final AtomicInteger queued;
+		// Number of workers waiting on the monitor of idle for new nodes
+		final AtomicInteger idleWorkers;
+		final Object idle;
+		final AtomicReference<ArgNode<XtaState<S>, XtaAction>> targetNode;
+		final AtomicReference<Throwable> failure;
+		volatile boolean stopped;
+
+		public CheckMethod() {
+			arg = ARG.create(algorithmStrategy.getAnalysis().getPartialOrd());
+			stats = LazyXtaStatistics.builder(arg);
+			workerStats = new ArrayList<>(nWorkers);
+			passed = new ArrayList<>(nWorkers);
+			waiting = new ArrayList<>(nWorkers);
+			for (int i = 0; i < nWorkers; i++) {
+				workerStats.add(LazyXtaStatistics.builder(arg));
+				passed.add(Partition.of(n -> algorithmStrategy.getProjection().apply(n.getState())));
+				waiting.add(searchStrategy.createWaitlist());
+			}
+			pending = new AtomicInteger(0);
+			queued = new AtomicInteger(0);
+			idleWorkers = new AtomicInteger(0);
+			idle = new Object();
+			targetNode = new AtomicReference<>(null);
+			failure = new AtomicReference<>(null);
+			stopped = false;
+		}
+
+		public SafetyResult<XtaState<S>, XtaAction> run() {
+			stats.startAlgorithm();
+
+			LazyXtaChecker.createInitNodes(arg, algorithmStrategy, canonizer, target);
+			final Optional<ArgNode<XtaState<S>, XtaAction>> initTargetNode = arg.getInitNodes()
+					.filter(ArgNode::isTarget).findFirst();
+			if (initTargetNode.isPresent()) {
+				targetNode.set(initTargetNode.get());
+			} else {
+				arg.getInitNodes().forEach(this::push);
+				final List<Thread> workers = new ArrayList<>(nWorkers);
+				for (int i = 0; i < nWorkers; i++) {
+					final int index = i;
+					workers.add(new Thread(() -> work(index), "xta-worker-" + i));
+				}
+				workers.forEach(Thread::start);
+				workers.forEach(Uninterruptibles::joinUninterruptibly);
+			}
+
+			stats.stopAlgorithm();
+
+			final Throwable throwable = failure.get();
+			if (throwable instanceof RuntimeException) {
+				throw (RuntimeException) throwable;
+			} else if (throwable instanceof Error) {
+				throw (Error) throwable;
+			} else if (throwable != null) {
+				throw new IllegalStateException(throwable);
+			}
+
+			final LazyXtaStatistics statistics = initTargetNode.isPresent() ? stats.build()
+					: stats.build(workerStats);
+			final ArgNode<XtaState<S>, XtaAction> node = targetNode.get();
+			if (node != null) {
+				final ArgTrace<XtaState<S>, XtaAction> trace = ArgTrace.to(node);
+				return SafetyResult.unsafe(trace.toTrace(), arg, statistics);
+			} else {
+				return SafetyResult.safe(arg, statistics);
+			}
+		}
+
+		private void work(final int index) {
+			final LazyXtaStatistics.Builder stats = workerStats.get(index);
+			stats.startAlgorithm();
+			try {
+				while (!stopped) {
+					final ArgNode<XtaState<S>, XtaAction> node = poll(index);
+					if (node != null) {
+						try {
+							process(node, stats);
+						} finally {
+							if (pending.decrementAndGet() == 0) {
+								wakeUpIdleWorkers();
+							}
+						}
+					} else if (!awaitNodes()) {
+						break;
+					}
+				}
+				stats.stopAlgorithm();
+			} catch (final Throwable throwable) {
+				failure.compareAndSet(null, throwable);
+				stop();
+			}
+		}
+
+		// Returns false if no more nodes will be queued
+		private boolean awaitNodes() throws InterruptedException {
+			synchronized (idle) {
+				idleWorkers.incrementAndGet();
+				try {
+					while (!stopped && pending.get() > 0 && queued.get() == 0) {
+						idle.wait();
+					}
+				} finally {
+					idleWorkers.decrementAndGet();
+				}
+				return !stopped && pending.get() > 0;
+			}
+		}
+
+		private void wakeUpIdleWorkers() {
+			synchronized (idle) {
+				idle.notifyAll();
+			}
+		}
+
+		private void stop() {
+			stopped = true;
+			wakeUpIdleWorkers();
+		}
+
+		// Takes a node from the own waitlist, or steals one from the others
+		private ArgNode<XtaState<S>, XtaAction> poll(final int index) {
+			for (int i = 0; i < nWorkers; i++) {
+				final Waitlist<ArgNode<XtaState<S>, XtaAction>> waitlist = waiting.get((index + i) % nWorkers);
+				synchronized (waitlist) {
+					if (!waitlist.isEmpty()) {
+						queued.decrementAndGet();
+						return waitlist.remove();
+					}
+				}
+			}
+			return null;
+		}
+
+		// A worker that starts waiting after the node is queued sees the new
+		// count, a worker that started waiting before is woken up
+		private void push(final ArgNode<XtaState<S>, XtaAction> node) {
+			pending.incrementAndGet();
+			final Waitlist<ArgNode<XtaState<S>, XtaAction>> waitlist = waiting.get(shardOf(node));
+			synchronized (waitlist) {
+				waitlist.add(node);
+			}
+			queued.incrementAndGet();
+			if (idleWorkers.get() > 0) {
+				wakeUpIdleWorkers();
+			}
+		}
+
+		// Coverers have the same locations, so they are always in the same shard
+		private int shardOf(final ArgNode<XtaState<S>, XtaAction> node) {
+			return Math.floorMod(node.getState().getLocs().hashCode(), nWorkers);
+		}
+
+		private void process(final ArgNode<XtaState<S>, XtaAction> node, final LazyXtaStatistics.Builder stats) {
+			assert node.isFeasible();
+			final Partition<ArgNode<XtaState<S>, XtaAction>, ?> shard = passed.get(shardOf(node));
+
+			final Collection<ArgNode<XtaState<S>, XtaAction>> uncoveredNodes = new ArrayList<>();
+			synchronized (shard) {
+				close(node, shard, uncoveredNodes, stats);
+			}
+			uncoveredNodes.forEach(this::push);
+
+			if (!node.isCovered()) {
+				expand(node, shard, stats);
+			}
+		}
+
+		private void close(final ArgNode<XtaState<S>, XtaAction> coveree,
+				final Partition<ArgNode<XtaState<S>, XtaAction>, ?> shard,
+				final Collection<ArgNode<XtaState<S>, XtaAction>> uncoveredNodes,
+				final LazyXtaStatistics.Builder stats) {
+			stats.startClosing();
+
+			final Iterable<ArgNode<XtaState<S>, XtaAction>> candidates = Lists.reverse(shard.get(coveree));
+			for (final ArgNode<XtaState<S>, XtaAction> coverer : candidates) {
+
+				stats.checkCoverage();
+				if (algorithmStrategy.mightCover(coveree, coverer)) {
+
+					stats.attemptCoverage();
+
+					coveree.setCoveringNode(coverer);
+					final Collection<ArgNode<XtaState<S>, XtaAction>> newUncoveredNodes = new ArrayList<>();
+					algorithmStrategy.cover(coveree, coverer, newUncoveredNodes, stats);
+					newUncoveredNodes.stream().filter(n -> !n.equals(coveree)).forEach(uncoveredNodes::add);
+
+					if (coveree.isCovered()) {
+						stats.successfulCoverage();
+						stats.stopClosing();
+						return;
+					}
+				}
+			}
+
+			stats.stopClosing();
+		}
+
+		private void expand(final ArgNode<XtaState<S>, XtaAction> node,
+				final Partition<ArgNode<XtaState<S>, XtaAction>, ?> shard, final LazyXtaStatistics.Builder stats) {
+			stats.startExpanding();
+			final XtaState<S> state = node.getState();
+
+			for (final XtaAction action : lts.getEnabledActionsFor(state)) {
+				final Collection<? extends XtaState<S>> succStates = algorithmStrategy.getAnalysis().getTransFunc()
+						.getSuccStates(state, action, UnitPrec.getInstance());
+
+				for (final XtaState<S> succState : succStates) {
+					if (succState.isBottom()) {
+						final Collection<ArgNode<XtaState<S>, XtaAction>> uncoveredNodes = new ArrayList<>();
+						algorithmStrategy.block(node, action, succState, uncoveredNodes, stats);
+						uncoveredNodes.forEach(this::push);
+					} else {
+						final XtaState<S> canonState = canonizer.apply(succState);
+						final ArgNode<XtaState<S>, XtaAction> succNode;
+						synchronized (arg) {
+							succNode = arg.createSuccNode(node, action, canonState, target.test(canonState));
+						}
+						if (succNode.isTarget()) {
+							targetNode.compareAndSet(null, succNode);
+							stop();
+							stats.stopExpanding();
+							return;
+						}
+						push(succNode);
+					}
+				}
+			}
+
+			algorithmStrategy.compress(node);
+			synchronized (shard) {
+				shard.add(node);
+			}
+			stats.stopExpanding();
+		}
+	}
+
+}
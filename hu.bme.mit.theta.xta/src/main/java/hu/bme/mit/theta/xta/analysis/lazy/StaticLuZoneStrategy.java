@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.lazy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.common.Unit.unit;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.zone.BoundFunc;
+import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaSymmetry.Permutation;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
+import hu.bme.mit.theta.xta.analysis.zone.XtaZoneAnalysis;
+import hu.bme.mit.theta.xta.analysis.zone.lu.LuZoneState;
+import hu.bme.mit.theta.xta.analysis.zone.lu.StaticLuZoneAnalysis;
+
+final class StaticLuZoneStrategy<S extends State> implements NonRefiningStrategy<S, LuZoneState> {
+
+	private final Lens<S, LuZoneState> lens;
+	private final Analysis<LuZoneState, XtaAction, UnitPrec> analysis;
+	private final Function<LuZoneState, ?> projection;
+	private final boolean extrapolate;
+
+	public StaticLuZoneStrategy(final XtaSystem system, final Lens<S, LuZoneState> lens, final boolean extrapolate) {
+		checkNotNull(system);
+		this.lens = checkNotNull(lens);
+		this.extrapolate = extrapolate;
+		final ZonePrec zonePrec = ZonePrec.of(system.getClockVars());
+		final XtaZoneAnalysis zoneAnalysis = XtaZoneAnalysis.create(system);
+		final StaticLuZoneAnalysis luZoneAnalysis = extrapolate
+				? StaticLuZoneAnalysis.createExtrapolating(zoneAnalysis, system)
+				: StaticLuZoneAnalysis.create(zoneAnalysis, system);
+		analysis = PrecMappingAnalysis.create(luZoneAnalysis, p -> zonePrec);
+		projection = s -> unit();
+	}
+
+	@Override
+	public Analysis<LuZoneState, XtaAction, UnitPrec> getAnalysis() {
+		return analysis;
+	}
+
+	@Override
+	public Function<LuZoneState, ?> getProjection() {
+		return projection;
+	}
+
+	@Override
+	public boolean mightCover(final ArgNode<S, XtaAction> coveree, final ArgNode<S, XtaAction> coverer) {
+		final LuZoneState covereeState = lens.get(coveree.getState());
+		final LuZoneState covererState = lens.get(coverer.getState());
+		if (extrapolate) {
+			return covereeState.getZone().isLeq(covererState.getZone());
+		} else {
+			return covereeState.getZone().isLeq(covererState.getZone(), covererState.getBoundFunc());
+		}
+	}
+
+	@Override
+	public void cover(final ArgNode<S, XtaAction> coveree, final ArgNode<S, XtaAction> coverer,
+			final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
+		// Bounds are computed statically, so there is nothing to refine
+		return;
+	}
+
+	@Override
+	public void block(final ArgNode<S, XtaAction> node, final XtaAction action, final S succState,
+			final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
+		assert lens.get(succState).isBottom();
+		return;
+	}
+
+	@Override
+	public void compress(final ArgNode<S, XtaAction> node) {
+		// Only plain inclusion can be checked on the compressed zone of the coverer
+		if (extrapolate) {
+			final S state = node.getState();
+			final LuZoneState luZoneState = lens.get(state);
+			final LuZoneState newLuZoneState = LuZoneState.of(luZoneState.getZone().compress(),
+					luZoneState.getBoundFunc());
+			node.setState(lens.set(state, newLuZoneState));
+		}
+	}
+
+	@Override
+	public S permute(final S state, final Permutation permutation) {
+		final LuZoneState luZoneState = lens.get(state);
+		final ZoneState newZone = luZoneState.getZone().rename(permutation.getClockRenaming()).build();
+		final BoundFunc newBoundFunc = luZoneState.getBoundFunc().rename(permutation.getClockRenaming());
+		return lens.set(state, LuZoneState.of(newZone, newBoundFunc));
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+final class XtaActZoneInitFunc implements InitFunc<ZoneState, ZonePrec> {
+
+	private final Set<VarDecl<RatType>> activeVars;
+
+	private XtaActZoneInitFunc(final Set<VarDecl<RatType>> activeVars) {
+		this.activeVars = checkNotNull(activeVars);
+	}
+
+	static XtaActZoneInitFunc create(final Set<VarDecl<RatType>> activeVars) {
+		return new XtaActZoneInitFunc(activeVars);
+	}
+
+	@Override
+	public Collection<ZoneState> getInitStates(final ZonePrec prec) {
+		checkNotNull(prec);
+		final ZoneState.Builder builder = ZoneState.zero(prec.getVars()).transform().up();
+		for (final VarDecl<RatType> varDecl : prec.getVars()) {
+			if (!activeVars.contains(varDecl)) {
+				builder.free(varDecl);
+			}
+		}
+		return Collections.singleton(builder.build());
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.core.clock.op.ResetOp;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.xta.Guard;
+import hu.bme.mit.theta.xta.Update;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+
+public final class XtaActiveClocks {
+
+	private final Map<Loc, Set<VarDecl<RatType>>> locToActiveClocks;
+	private final Map<List<Loc>, Set<VarDecl<RatType>>> locsToActiveClocks;
+
+	private XtaActiveClocks(final XtaSystem system) {
+		checkNotNull(system);
+		locToActiveClocks = new HashMap<>();
+		locsToActiveClocks = new ConcurrentHashMap<>();
+		for (final XtaProcess process : system.getProcesses()) {
+			computeActiveClocks(process);
+		}
+	}
+
+	public static XtaActiveClocks create(final XtaSystem system) {
+		return new XtaActiveClocks(system);
+	}
+
+	public Set<VarDecl<RatType>> getActiveClocks(final Loc loc) {
+		checkNotNull(loc);
+		final Set<VarDecl<RatType>> activeClocks = locToActiveClocks.get(loc);
+		checkNotNull(activeClocks, "Unknown location " + loc);
+		return activeClocks;
+	}
+
+	public Set<VarDecl<RatType>> getActiveClocks(final List<Loc> locs) {
+		checkNotNull(locs);
+		return locsToActiveClocks.computeIfAbsent(locs, this::union);
+	}
+
+	////
+
+	private Set<VarDecl<RatType>> union(final List<Loc> locs) {
+		final ImmutableSet.Builder<VarDecl<RatType>> builder = ImmutableSet.builder();
+		for (final Loc loc : locs) {
+			builder.addAll(getActiveClocks(loc));
+		}
+		return builder.build();
+	}
+
+	private void computeActiveClocks(final XtaProcess process) {
+		final Map<Loc, Set<VarDecl<RatType>>> activeClocks = new HashMap<>();
+		final Queue<Loc> waitlist = new ArrayDeque<>();
+
+		for (final Loc loc : process.getLocs()) {
+			final Set<VarDecl<RatType>> clocks = new HashSet<>();
+			addClocks(clocks, loc.getInvars());
+			for (final Edge edge : loc.getOutEdges()) {
+				addClocks(clocks, edge.getGuards());
+			}
+			activeClocks.put(loc, clocks);
+			waitlist.add(loc);
+		}
+
+		// A clock is active if it can be read before it is reset
+		while (!waitlist.isEmpty()) {
+			final Loc target = waitlist.remove();
+			final Set<VarDecl<RatType>> targetClocks = activeClocks.get(target);
+			for (final Edge edge : target.getInEdges()) {
+				final Set<VarDecl<RatType>> sourceClocks = activeClocks.get(edge.getSource());
+				final Collection<VarDecl<RatType>> resetClocks = getResetClocks(edge);
+				boolean changed = false;
+				for (final VarDecl<RatType> clock : targetClocks) {
+					if (!resetClocks.contains(clock)) {
+						changed |= sourceClocks.add(clock);
+					}
+				}
+				if (changed) {
+					waitlist.add(edge.getSource());
+				}
+			}
+		}
+
+		activeClocks.forEach((loc, clocks) -> locToActiveClocks.put(loc, ImmutableSet.copyOf(clocks)));
+	}
+
+	private static void addClocks(final Set<VarDecl<RatType>> clocks, final Collection<Guard> guards) {
+		for (final Guard guard : guards) {
+			if (guard.isClockGuard()) {
+				clocks.addAll(guard.asClockGuard().getClockConstr().getVars());
+			}
+		}
+	}
+
+	private static Collection<VarDecl<RatType>> getResetClocks(final Edge edge) {
+		final Collection<VarDecl<RatType>> result = new HashSet<>();
+		for (final Update update : edge.getUpdates()) {
+			if (update.isClockUpdate()) {
+				final ResetOp op = (ResetOp) update.asClockUpdate().getClockOp();
+				result.add(op.getVar());
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import hu.bme.mit.theta.analysis.zone.BoundFunc;
+import hu.bme.mit.theta.core.clock.op.ResetOp;
+import hu.bme.mit.theta.xta.Guard;
+import hu.bme.mit.theta.xta.Update;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+
+public final class XtaLuBounds {
+
+	private final Map<Loc, BoundFunc> locToBoundFunc;
+	private final Map<List<Loc>, BoundFunc> locsToBoundFunc;
+
+	private XtaLuBounds(final XtaSystem system) {
+		checkNotNull(system);
+		locToBoundFunc = new HashMap<>();
+		locsToBoundFunc = new ConcurrentHashMap<>();
+		for (final XtaProcess process : system.getProcesses()) {
+			computeBounds(process);
+		}
+	}
+
+	public static XtaLuBounds create(final XtaSystem system) {
+		return new XtaLuBounds(system);
+	}
+
+	public BoundFunc getBoundFunc(final Loc loc) {
+		checkNotNull(loc);
+		final BoundFunc boundFunc = locToBoundFunc.get(loc);
+		checkNotNull(boundFunc, "Unknown location " + loc);
+		return boundFunc;
+	}
+
+	public BoundFunc getBoundFunc(final List<Loc> locs) {
+		checkNotNull(locs);
+		return locsToBoundFunc.computeIfAbsent(locs, this::merge);
+	}
+
+	////
+
+	private BoundFunc merge(final List<Loc> locs) {
+		BoundFunc result = BoundFunc.top();
+		for (final Loc loc : locs) {
+			result = result.merge(getBoundFunc(loc));
+		}
+		return result;
+	}
+
+	private void computeBounds(final XtaProcess process) {
+		final Queue<Loc> waitlist = new ArrayDeque<>();
+
+		for (final Loc loc : process.getLocs()) {
+			final BoundFunc.Builder builder = BoundFunc.builder();
+			applyInvariants(builder, loc);
+			for (final Edge edge : loc.getOutEdges()) {
+				applyGuards(builder, edge);
+			}
+			locToBoundFunc.put(loc, builder.build());
+			waitlist.add(loc);
+		}
+
+		// Bounds flow backwards along edges that do not reset the clock
+		while (!waitlist.isEmpty()) {
+			final Loc target = waitlist.remove();
+			final BoundFunc targetBoundFunc = locToBoundFunc.get(target);
+			for (final Edge edge : target.getInEdges()) {
+				final Loc source = edge.getSource();
+				final BoundFunc.Builder builder = targetBoundFunc.transform();
+				applyInverseUpdates(builder, edge);
+				final BoundFunc preBoundFunc = builder.build();
+				final BoundFunc sourceBoundFunc = locToBoundFunc.get(source);
+				if (!preBoundFunc.isLeq(sourceBoundFunc)) {
+					locToBoundFunc.put(source, sourceBoundFunc.merge(preBoundFunc));
+					waitlist.add(source);
+				}
+			}
+		}
+	}
+
+	private static void applyInverseUpdates(final BoundFunc.Builder builder, final Edge edge) {
+		for (final Update update : edge.getUpdates()) {
+			if (update.isClockUpdate()) {
+				final ResetOp op = (ResetOp) update.asClockUpdate().getClockOp();
+				builder.remove(op.getVar());
+			}
+		}
+	}
+
+	private static void applyGuards(final BoundFunc.Builder builder, final Edge edge) {
+		for (final Guard guard : edge.getGuards()) {
+			if (guard.isClockGuard()) {
+				builder.add(guard.asClockGuard().getClockConstr());
+			}
+		}
+	}
+
+	private static void applyInvariants(final BoundFunc.Builder builder, final Loc loc) {
+		for (final Guard invar : loc.getInvars()) {
+			if (invar.isClockGuard()) {
+				builder.add(invar.asClockGuard().getClockConstr());
+			}
+		}
+	}
+
+}
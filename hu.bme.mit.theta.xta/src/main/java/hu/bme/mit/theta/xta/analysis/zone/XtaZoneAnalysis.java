@@ -15,6 +15,8 @@
  */
 package hu.bme.mit.theta.xta.analysis.zone;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.analysis.InitFunc;
@@ -22,19 +24,36 @@ import hu.bme.mit.theta.analysis.TransFunc;
 import hu.bme.mit.theta.analysis.zone.ZoneOrd;
 import hu.bme.mit.theta.analysis.zone.ZonePrec;
 import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 
 public final class XtaZoneAnalysis implements Analysis<ZoneState, XtaAction, ZonePrec> {
 
-	private static final XtaZoneAnalysis INSTANCE = new XtaZoneAnalysis();
+	private static final XtaZoneAnalysis INSTANCE = new XtaZoneAnalysis(XtaZoneInitFunc.getInstance(),
+			XtaZoneTransFunc.getInstance());
+
+	private final InitFunc<ZoneState, ZonePrec> initFunc;
+	private final TransFunc<ZoneState, XtaAction, ZonePrec> transFunc;
 
-	private XtaZoneAnalysis() {
+	private XtaZoneAnalysis(final InitFunc<ZoneState, ZonePrec> initFunc,
+			final TransFunc<ZoneState, XtaAction, ZonePrec> transFunc) {
+		this.initFunc = initFunc;
+		this.transFunc = transFunc;
 	}
 
 	public static XtaZoneAnalysis getInstance() {
 		return INSTANCE;
 	}
 
+	public static XtaZoneAnalysis create(final XtaSystem system) {
+		checkNotNull(system);
+		final XtaActiveClocks activeClocks = XtaActiveClocks.create(system);
+		final InitFunc<ZoneState, ZonePrec> initFunc = XtaActZoneInitFunc
+				.create(activeClocks.getActiveClocks(system.getInitLocs()));
+		final TransFunc<ZoneState, XtaAction, ZonePrec> transFunc = XtaActZoneTransFunc.create(activeClocks);
+		return new XtaZoneAnalysis(initFunc, transFunc);
+	}
+
 	@Override
 	public PartialOrd<ZoneState> getPartialOrd() {
 		return ZoneOrd.getInstance();
@@ -42,12 +61,12 @@ public final class XtaZoneAnalysis implements Analysis<ZoneState, XtaAction, Zon
 
 	@Override
 	public InitFunc<ZoneState, ZonePrec> getInitFunc() {
-		return XtaZoneInitFunc.getInstance();
+		return initFunc;
 	}
 
 	@Override
 	public TransFunc<ZoneState, XtaAction, ZonePrec> getTransFunc() {
-		return XtaZoneTransFunc.getInstance();
+		return transFunc;
 	}
 
 }
@@ -46,19 +46,31 @@ public final class XtaZoneUtils {
 		checkNotNull(state);
 		checkNotNull(action);
 		checkNotNull(prec);
+		return post(state, action, prec, prec.getVars());
+	}
 
+	public static ZoneState post(final ZoneState state, final XtaAction action, final ZonePrec prec,
+			final XtaActiveClocks activeClocks) {
+		checkNotNull(state);
+		checkNotNull(action);
+		checkNotNull(prec);
+		checkNotNull(activeClocks);
+		return post(state, action, prec, activeClocks.getActiveClocks(action.getTargetLocs()));
+	}
+
+	private static ZoneState post(final ZoneState state, final XtaAction action, final ZonePrec prec,
+			final Collection<VarDecl<RatType>> activeVars) {
 		if (action.isBasic()) {
-			return postForSimpleAction(state, action.asBasic(), prec);
+			return postForSimpleAction(state, action.asBasic(), prec, activeVars);
 		} else if (action.isSynced()) {
-			return postForSyncedAction(state, action.asSynced(), prec);
+			return postForSyncedAction(state, action.asSynced(), prec, activeVars);
 		} else {
 			throw new AssertionError();
 		}
-
 	}
 
 	private static ZoneState postForSimpleAction(final ZoneState state, final BasicXtaAction action,
-			final ZonePrec prec) {
+			final ZonePrec prec, final Collection<VarDecl<RatType>> activeVars) {
 		final ZoneState.Builder succStateBuilder = state.project(prec.getVars());
 
 		final List<Loc> sourceLocs = action.getSourceLocs();
@@ -72,13 +84,14 @@ public final class XtaZoneUtils {
 		if (shouldApplyDelay(action.getTargetLocs())) {
 			applyDelay(succStateBuilder);
 		}
+		applyInactivity(succStateBuilder, prec, activeVars);
 
 		final ZoneState succState = succStateBuilder.build();
 		return succState;
 	}
 
 	private static ZoneState postForSyncedAction(final ZoneState state, final SyncedXtaAction action,
-			final ZonePrec prec) {
+			final ZonePrec prec, final Collection<VarDecl<RatType>> activeVars) {
 		final ZoneState.Builder succStateBuilder = state.project(prec.getVars());
 
 		final List<Loc> sourceLocs = action.getSourceLocs();
@@ -96,6 +109,7 @@ public final class XtaZoneUtils {
 		if (shouldApplyDelay(targetLocs)) {
 			applyDelay(succStateBuilder);
 		}
+		applyInactivity(succStateBuilder, prec, activeVars);
 
 		final ZoneState succState = succStateBuilder.build();
 		return succState;
@@ -177,6 +191,15 @@ public final class XtaZoneUtils {
 		builder.up();
 	}
 
+	private static void applyInactivity(final ZoneState.Builder builder, final ZonePrec prec,
+			final Collection<VarDecl<RatType>> activeVars) {
+		for (final VarDecl<RatType> varDecl : prec.getVars()) {
+			if (!activeVars.contains(varDecl)) {
+				builder.free(varDecl);
+			}
+		}
+	}
+
 	private static void applyInvariants(final ZoneState.Builder builder, final Collection<Loc> locs) {
 		for (final Loc target : locs) {
 			for (final Guard invar : target.getInvars()) {
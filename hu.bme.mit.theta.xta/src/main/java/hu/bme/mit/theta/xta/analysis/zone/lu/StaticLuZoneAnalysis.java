@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.zone.lu;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.zone.XtaLuBounds;
+
+public final class StaticLuZoneAnalysis implements Analysis<LuZoneState, XtaAction, ZonePrec> {
+
+	private final InitFunc<LuZoneState, ZonePrec> initFunc;
+	private final TransFunc<LuZoneState, XtaAction, ZonePrec> transFunc;
+
+	private StaticLuZoneAnalysis(final Analysis<ZoneState, ? super XtaAction, ZonePrec> analysis,
+			final XtaSystem system, final boolean extrapolate) {
+		checkNotNull(analysis);
+		checkNotNull(system);
+		final XtaLuBounds bounds = XtaLuBounds.create(system);
+		initFunc = StaticLuZoneInitFunc.create(analysis.getInitFunc(), bounds.getBoundFunc(system.getInitLocs()),
+				extrapolate);
+		transFunc = StaticLuZoneTransFunc.create(analysis.getTransFunc(), bounds, extrapolate);
+	}
+
+	public static StaticLuZoneAnalysis create(final Analysis<ZoneState, ? super XtaAction, ZonePrec> analysis,
+			final XtaSystem system) {
+		return new StaticLuZoneAnalysis(analysis, system, false);
+	}
+
+	public static StaticLuZoneAnalysis createExtrapolating(
+			final Analysis<ZoneState, ? super XtaAction, ZonePrec> analysis, final XtaSystem system) {
+		return new StaticLuZoneAnalysis(analysis, system, true);
+	}
+
+	@Override
+	public PartialOrd<LuZoneState> getPartialOrd() {
+		return LuZoneOrd.getInstance();
+	}
+
+	@Override
+	public InitFunc<LuZoneState, ZonePrec> getInitFunc() {
+		return initFunc;
+	}
+
+	@Override
+	public TransFunc<LuZoneState, XtaAction, ZonePrec> getTransFunc() {
+		return transFunc;
+	}
+
+}
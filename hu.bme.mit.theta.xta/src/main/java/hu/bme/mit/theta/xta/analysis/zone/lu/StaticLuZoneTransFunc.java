@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *  
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.zone.lu;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.zone.BoundFunc;
+import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.zone.XtaLuBounds;
+
+final class StaticLuZoneTransFunc implements TransFunc<LuZoneState, XtaAction, ZonePrec> {
+
+	private final TransFunc<ZoneState, ? super XtaAction, ZonePrec> transFunc;
+	private final XtaLuBounds bounds;
+	private final boolean extrapolate;
+
+	private StaticLuZoneTransFunc(final TransFunc<ZoneState, ? super XtaAction, ZonePrec> transFunc,
+			final XtaLuBounds bounds, final boolean extrapolate) {
+		this.transFunc = checkNotNull(transFunc);
+		this.bounds = checkNotNull(bounds);
+		this.extrapolate = extrapolate;
+	}
+
+	public static StaticLuZoneTransFunc create(final TransFunc<ZoneState, ? super XtaAction, ZonePrec> transFunc,
+			final XtaLuBounds bounds, final boolean extrapolate) {
+		return new StaticLuZoneTransFunc(transFunc, bounds, extrapolate);
+	}
+
+	@Override
+	public Collection<LuZoneState> getSuccStates(final LuZoneState state, final XtaAction action,
+			final ZonePrec prec) {
+		checkNotNull(state);
+		checkNotNull(action);
+		checkNotNull(prec);
+
+		final ZoneState subState = state.getZone();
+		final Collection<? extends ZoneState> subSuccStates = transFunc.getSuccStates(subState, action, prec);
+
+		if (subSuccStates.isEmpty()) {
+			final LuZoneState succState = LuZoneState.of(ZoneState.bottom(), BoundFunc.top());
+			return Collections.singleton(succState);
+		} else {
+			final BoundFunc boundFunc = bounds.getBoundFunc(action.getTargetLocs());
+			final Collection<LuZoneState> result = new ArrayList<>(subSuccStates.size());
+			for (final ZoneState subSuccState : subSuccStates) {
+				final ZoneState zone = extrapolate ? subSuccState.transform().norm(boundFunc).build() : subSuccState;
+				final LuZoneState succState = LuZoneState.of(zone, boundFunc);
+				result.add(succState);
+			}
+			return result;
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Optional;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
@@ -35,6 +36,7 @@ import hu.bme.mit.theta.common.table.TableWriter;
 import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
 import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaQuery;
 import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
 import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
@@ -58,6 +60,15 @@ public final class XtaCli {
 	@Parameter(names = { "--search" }, description = "Search strategy", required = true)
 	SearchStrategy searchStrategy;
 
+	@Parameter(names = { "--symmetry" }, description = "Reduce symmetric process instances (only without refinement)")
+	boolean symmetryReduction = false;
+
+	@Parameter(names = { "--query" }, description = "Reachability query, e.g. 'E<> P_1.cs && P_2.cs'")
+	String query = null;
+
+	@Parameter(names = { "--threads" }, description = "Number of worker threads (only without refinement)")
+	int threads = 1;
+
 	@Parameter(names = { "--benchmark" }, description = "Benchmark mode (only print metrics)")
 	Boolean benchmarkMode = false;
 
@@ -88,14 +99,17 @@ public final class XtaCli {
 		}
 
 		if (headerOnly) {
+			writer.cell("Safe");
 			LazyXtaStatistics.writeHeader(writer);
 			return;
 		}
 
 		try {
 			final XtaSystem system = loadModel();
+			final Optional<XtaQuery> xtaQuery = query == null ? Optional.empty()
+					: Optional.of(XtaQuery.parse(system, query));
 			final SafetyChecker<?, ?, UnitPrec> checker = LazyXtaCheckerFactory.create(system, dataStrategy,
-					clockStrategy, searchStrategy);
+					clockStrategy, searchStrategy, symmetryReduction, xtaQuery, threads);
 			final SafetyResult<?, ?> result = checker.check(UnitPrec.getInstance());
 			printResult(result);
 			if (dotfile != null) {
@@ -115,8 +129,10 @@ public final class XtaCli {
 	private void printResult(final SafetyResult<?, ?> result) {
 		final LazyXtaStatistics stats = (LazyXtaStatistics) result.getStats().get();
 		if (benchmarkMode) {
+			writer.cell(result.isSafe());
 			stats.writeData(writer);
 		} else {
+			System.out.println(result.toString());
 			System.out.println(stats.toString());
 		}
 	}
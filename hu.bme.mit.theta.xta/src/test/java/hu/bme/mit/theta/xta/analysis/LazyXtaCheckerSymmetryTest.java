@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static hu.bme.mit.theta.analysis.algorithm.SearchStrategy.BFS;
+import static hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy.ALU;
+import static hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy.EXTRALU;
+import static hu.bme.mit.theta.xta.analysis.lazy.DataStrategy.NONE;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class LazyXtaCheckerSymmetryTest {
+
+	private static final Collection<String> MODELS = ImmutableList.of("/fischer-2-32-64.xta",
+			"/fischer-4-32-64.xta", "/lynch-2-16.xta", "/lynch-4-16.xta");
+
+	@Parameter(0)
+	public String filepath;
+
+	@Parameter(1)
+	public ClockStrategy clockStrategy;
+
+	private XtaSystem system;
+
+	@Parameters(name = "model: {0}, clock: {1}")
+	public static Collection<Object[]> data() {
+		final Collection<Object[]> result = new ArrayList<>();
+		for (final String model : MODELS) {
+			for (final ClockStrategy clockStrategy : ImmutableList.of(ALU, EXTRALU)) {
+				result.add(new Object[] { model, clockStrategy });
+			}
+		}
+		return result;
+	}
+
+	@Before
+	public void initialize() throws FileNotFoundException, IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		system = XtaDslManager.createSystem(inputStream);
+	}
+
+	@Test
+	public void test() {
+		// Act
+		final SafetyResult<? extends XtaState<?>, XtaAction> plainStatus = LazyXtaCheckerFactory
+				.create(system, NONE, clockStrategy, BFS, false).check(UnitPrec.getInstance());
+		final SafetyResult<? extends XtaState<?>, XtaAction> symmetricStatus = LazyXtaCheckerFactory
+				.create(system, NONE, clockStrategy, BFS, true).check(UnitPrec.getInstance());
+
+		// Assert
+		final XtaSymmetry symmetry = XtaSymmetry.create(system);
+		final Set<List<Loc>> plainLocs = canonicalLocs(plainStatus, symmetry);
+		final Set<List<Loc>> symmetricLocs = canonicalLocs(symmetricStatus, symmetry);
+		assertEquals(plainStatus.isSafe(), symmetricStatus.isSafe());
+		assertEquals(plainLocs, symmetricLocs);
+		assertTrue(symmetricStatus.getArg().size() <= plainStatus.getArg().size());
+	}
+
+	private static Set<List<Loc>> canonicalLocs(final SafetyResult<? extends XtaState<?>, XtaAction> status,
+			final XtaSymmetry symmetry) {
+		return status.getArg().getNodes().map(n -> n.getState().getLocs())
+				.map(locs -> symmetry.getCanonicalPermutation(locs).permuteLocs(locs)).collect(toSet());
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
+import hu.bme.mit.theta.analysis.prod2.Prod2State;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class ParallelLazyXtaCheckerTest {
+
+	@Parameters(name = "{0}, clock: {1}, threads: {2}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+
+				{ "/csma-4.xta", ClockStrategy.ALU, 4 },
+
+				{ "/fddi-4.xta", ClockStrategy.EXTRALU, 2 },
+
+				{ "/fischer-4-32-64.xta", ClockStrategy.EXTRALU, 4 },
+
+				{ "/lynch-4-16.xta", ClockStrategy.ALU, 3 },
+
+		});
+	}
+
+	@Parameter(0)
+	public String filepath;
+
+	@Parameter(1)
+	public ClockStrategy clockStrategy;
+
+	@Parameter(2)
+	public int threads;
+
+	@Test
+	public void testDiscreteStates() throws FileNotFoundException, IOException {
+		final XtaSystem system = loadSystem();
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> sequentialResult = check(system, Optional.empty(), 1);
+		final SafetyResult<? extends XtaState<?>, XtaAction> parallelResult = check(system, Optional.empty(),
+				threads);
+
+		assertTrue(sequentialResult.isSafe());
+		assertTrue(parallelResult.isSafe());
+		assertEquals(discreteStatesOf(sequentialResult), discreteStatesOf(parallelResult));
+	}
+
+	@Test
+	public void testQuery() throws FileNotFoundException, IOException {
+		final XtaSystem system = loadSystem();
+		final String processName = system.getProcesses().get(0).getName();
+		final XtaQuery query = XtaQuery.parse(system, "!" + processName + "." + initLocName(system));
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = check(system, Optional.of(query), threads);
+
+		assertTrue(result.isUnsafe());
+	}
+
+	private XtaSystem loadSystem() throws IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		return XtaDslManager.createSystem(inputStream);
+	}
+
+	private String initLocName(final XtaSystem system) {
+		final String processName = system.getProcesses().get(0).getName();
+		return system.getInitLocs().get(0).getName().substring(processName.length() + 1);
+	}
+
+	private SafetyResult<? extends XtaState<?>, XtaAction> check(final XtaSystem system,
+			final Optional<XtaQuery> query, final int nThreads) {
+		return LazyXtaCheckerFactory
+				.create(system, DataStrategy.NONE, clockStrategy, SearchStrategy.BFS, false, query, nThreads)
+				.check(UnitPrec.getInstance());
+	}
+
+	private static Set<Tuple2<?, ?>> discreteStatesOf(final SafetyResult<? extends XtaState<?>, XtaAction> result) {
+		return result.getArg().getNodes()
+				.map(n -> Tuple2.of(n.getState().getLocs(), ((Prod2State<?, ?>) n.getState().getState()).getState1()))
+				.collect(toSet());
+	}
+
+}
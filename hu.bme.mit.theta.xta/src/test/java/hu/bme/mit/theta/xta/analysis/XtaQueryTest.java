@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class XtaQueryTest {
+
+	@Parameters(name = "{0}, {1}, discrete: {2}, clock: {3}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+
+				{ "/fischer-2-32-64.xta", "E<> P_1.cs && P_2.cs", DataStrategy.NONE, ClockStrategy.LU, true },
+
+				{ "/fischer-2-32-64.xta", "E<> P_1.cs && P_2.cs", DataStrategy.BWITP, ClockStrategy.BWITP, true },
+
+				{ "/fischer-2-32-64.xta", "E<> P_1.cs && id == 1", DataStrategy.NONE, ClockStrategy.ALU, false },
+
+				{ "/fischer-2-32-64.xta", "E<> P_1.cs && id != 1", DataStrategy.FWITP, ClockStrategy.FWITP, true },
+
+				{ "/critical-2-25-50.xta", "ProdCell_1.error || ProdCell_2.error", DataStrategy.NONE,
+						ClockStrategy.EXTRALU, false },
+
+				{ "/critical-2-25-50.xta", "ProdCell_1.error || ProdCell_2.error", DataStrategy.FWITP,
+						ClockStrategy.BWITP, false },
+
+		});
+	}
+
+	@Parameter(0)
+	public String filepath;
+
+	@Parameter(1)
+	public String query;
+
+	@Parameter(2)
+	public DataStrategy dataStrategy;
+
+	@Parameter(3)
+	public ClockStrategy clockStrategy;
+
+	@Parameter(4)
+	public boolean safe;
+
+	@Test
+	public void test() throws FileNotFoundException, IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		final XtaSystem system = XtaDslManager.createSystem(inputStream);
+		final XtaQuery xtaQuery = XtaQuery.parse(system, query);
+
+		final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaCheckerFactory
+				.create(system, dataStrategy, clockStrategy, SearchStrategy.BFS, false, Optional.of(xtaQuery));
+
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = checker.check(UnitPrec.getInstance());
+
+		assertEquals(safe, result.isSafe());
+		if (result.isUnsafe()) {
+			final Trace<? extends XtaState<?>, XtaAction> trace = result.asUnsafe().getTrace();
+			final XtaState<?> lastState = trace.getState(trace.length());
+			assertTrue(result.getArg().getNodes().anyMatch(n -> n.isTarget() && n.getState().equals(lastState)));
+		}
+	}
+
+}
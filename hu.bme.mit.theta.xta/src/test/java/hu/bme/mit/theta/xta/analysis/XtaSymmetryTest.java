@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class XtaSymmetryTest {
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+
+				{ "/fischer-2-32-64.xta", ImmutableList.of(2) },
+
+				{ "/fischer-4-32-64.xta", ImmutableList.of(4) },
+
+				// Invariant of cs compares identifiers with <=
+				{ "/fischer-invar-2-32-64.xta", ImmutableList.of() },
+
+				{ "/lynch-4-16.xta", ImmutableList.of(4) },
+
+				// Counter compares identifiers with <
+				{ "/critical-4-25-50.xta", ImmutableList.of() },
+
+				// Station identifiers include the initial value 0
+				{ "/csma-4.xta", ImmutableList.of() },
+
+		});
+	}
+
+	@Parameter(0)
+	public String filepath;
+
+	@Parameter(1)
+	public List<Integer> groupSizes;
+
+	@Test
+	public void test() throws FileNotFoundException, IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		final XtaSystem system = XtaDslManager.createSystem(inputStream);
+
+		final XtaSymmetry symmetry = XtaSymmetry.create(system);
+
+		assertEquals(groupSizes, symmetry.getGroups().stream().map(List::size).collect(toList()));
+	}
+
+}
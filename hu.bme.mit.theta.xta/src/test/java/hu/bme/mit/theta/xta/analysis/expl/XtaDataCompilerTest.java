@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.expl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaLts;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+@RunWith(Parameterized.class)
+public final class XtaDataCompilerTest {
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+
+				{ "/csma-2.xta" },
+
+				{ "/critical-2-25-50.xta" },
+
+				{ "/fddi-2.xta" },
+
+				{ "/fischer-2-32-64.xta" },
+
+				{ "/lynch-2-16.xta" },
+
+		});
+	}
+
+	@Parameter(0)
+	public String filepath;
+
+	@Test
+	public void test() throws FileNotFoundException, IOException {
+		final InputStream inputStream = getClass().getResourceAsStream(filepath);
+		final XtaSystem system = XtaDslManager.createSystem(inputStream);
+
+		final XtaLts lts = XtaLts.create(system);
+		final XtaDataCompiler compiler = XtaDataCompiler.create(system);
+
+		final Set<XtaState<ExplState>> reached = new HashSet<>();
+		final Queue<XtaState<ExplState>> waitlist = new ArrayDeque<>();
+		waitlist.add(XtaState.of(system.getInitLocs(), compiler.getInitState()));
+
+		while (!waitlist.isEmpty()) {
+			final XtaState<ExplState> state = waitlist.remove();
+			if (!reached.add(state)) {
+				continue;
+			}
+			for (final XtaAction action : lts.getEnabledActionsFor(state)) {
+				final ExplState expected = XtaExplUtils.post(state.getState(), action);
+				final ExplState actual = compiler.post(state.getState(), action);
+				assertEquals(expected.isBottom(), actual.isBottom());
+				if (!actual.isBottom()) {
+					assertEquals(expected, actual);
+					assertEquals(compiler.getKey(expected), compiler.getKey(actual));
+					waitlist.add(XtaState.of(action.getTargetLocs(), actual));
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.zone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
+import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
+import hu.bme.mit.theta.analysis.prod2.Prod2Analysis;
+import hu.bme.mit.theta.analysis.prod2.Prod2Prec;
+import hu.bme.mit.theta.analysis.prod2.Prod2State;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaAnalysis;
+import hu.bme.mit.theta.xta.analysis.XtaLts;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.analysis.expl.XtaExplAnalysis;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+public final class XtaActiveClocksTest {
+
+	// x is read in B and C and reset on the way into B, y is read on B -> C
+	// and reset on the way into A
+	private static final String MODEL = String.join("\n", //
+			"process P() {", //
+			"  clock x, y;", //
+			"  state A, B { x <= 5 }, C;", //
+			"  init A;", //
+			"  trans", //
+			"    A -> B { assign x = 0; },", //
+			"    B -> C { guard y >= 3; },", //
+			"    C -> A { guard x >= 1; assign y = 0; };", //
+			"}", //
+			"system P;");
+
+	private XtaSystem system;
+	private VarDecl<RatType> x;
+	private VarDecl<RatType> y;
+	private Loc a;
+	private Loc b;
+	private Loc c;
+
+	@Before
+	public void before() throws IOException {
+		system = XtaDslManager.createSystem(MODEL);
+		x = clock("P_x");
+		y = clock("P_y");
+		a = loc("P_A");
+		b = loc("P_B");
+		c = loc("P_C");
+	}
+
+	@Test
+	public void testActiveClocksOfLoc() {
+		final XtaActiveClocks activeClocks = XtaActiveClocks.create(system);
+		assertEquals(ImmutableSet.of(y), activeClocks.getActiveClocks(a));
+		assertEquals(ImmutableSet.of(x, y), activeClocks.getActiveClocks(b));
+		assertEquals(ImmutableSet.of(x), activeClocks.getActiveClocks(c));
+	}
+
+	@Test
+	public void testActiveClocksOfLocs() {
+		final XtaActiveClocks activeClocks = XtaActiveClocks.create(system);
+		assertEquals(ImmutableSet.of(y), activeClocks.getActiveClocks(ImmutableList.of(a)));
+		assertEquals(ImmutableSet.of(x, y), activeClocks.getActiveClocks(ImmutableList.of(a, c)));
+	}
+
+	@Test
+	public void testInactiveClocksAreFreed() {
+		final ZonePrec prec = ZonePrec.of(system.getClockVars());
+		final XtaActiveClocks activeClocks = XtaActiveClocks.create(system);
+		final XtaAction action = XtaAction.simple(system, ImmutableList.of(b), b.getOutEdges().iterator().next());
+		final ZoneState state = ZoneState.zero(system.getClockVars()).transform().up().build();
+
+		final ZoneState exactSucc = XtaZoneUtils.post(state, action, prec);
+		final ZoneState activeSucc = XtaZoneUtils.post(state, action, prec, activeClocks);
+
+		// y is not active in C, so its relation to x is forgotten
+		assertTrue(exactSucc.isLeq(activeSucc));
+		assertTrue(!activeSucc.isLeq(exactSucc));
+		assertTrue(activeSucc.isLeq(exactSucc, ImmutableSet.of(x)));
+	}
+
+	@Test
+	public void testFewerNodes() {
+		final long exactNodes = countNodes(XtaZoneAnalysis.getInstance());
+		final long activeNodes = countNodes(XtaZoneAnalysis.create(system));
+		assertTrue(activeNodes < exactNodes);
+	}
+
+	////
+
+	private long countNodes(final Analysis<ZoneState, XtaAction, ZonePrec> zoneAnalysis) {
+		final LTS<XtaState<?>, XtaAction> lts = XtaLts.create(system);
+		final Analysis<ExplState, XtaAction, UnitPrec> explAnalysis = XtaExplAnalysis.create(system);
+		final Analysis<Prod2State<ExplState, ZoneState>, XtaAction, Prod2Prec<UnitPrec, ZonePrec>> prodAnalysis = Prod2Analysis
+				.create(explAnalysis, zoneAnalysis);
+		final Analysis<Prod2State<ExplState, ZoneState>, XtaAction, ZonePrec> mappedAnalysis = PrecMappingAnalysis
+				.create(prodAnalysis, z -> Prod2Prec.of(UnitPrec.getInstance(), z));
+		final Analysis<XtaState<Prod2State<ExplState, ZoneState>>, XtaAction, ZonePrec> analysis = XtaAnalysis
+				.create(system, mappedAnalysis);
+
+		final ArgBuilder<XtaState<Prod2State<ExplState, ZoneState>>, XtaAction, ZonePrec> argBuilder = ArgBuilder
+				.create(lts, analysis, s -> false);
+		final Abstractor<XtaState<Prod2State<ExplState, ZoneState>>, XtaAction, ZonePrec> abstractor = BasicAbstractor
+				.builder(argBuilder).projection(s -> s.getLocs()).build();
+
+		final ARG<XtaState<Prod2State<ExplState, ZoneState>>, XtaAction> arg = abstractor.createArg();
+		abstractor.check(arg, ZonePrec.of(system.getClockVars()));
+		return arg.getNodes().count();
+	}
+
+	private VarDecl<RatType> clock(final String name) {
+		return system.getClockVars().stream().filter(v -> v.getName().equals(name)).findAny().get();
+	}
+
+	private Loc loc(final String name) {
+		return system.getProcesses().get(0).getLocs().stream().filter(l -> l.getName().equals(name)).findAny()
+				.get();
+	}
+
+}